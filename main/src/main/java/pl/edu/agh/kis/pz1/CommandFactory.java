@@ -2,6 +2,10 @@ package pl.edu.agh.kis.pz1;
 
 import pl.edu.agh.kis.pz1.commands.*;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
 /**
  * A factory class responsible for creating different {@link Command} objects based on the command type.
  * <p>The class provides a method to instantiate specific command classes (such as {@link PricesCommand},
@@ -9,23 +13,41 @@ import pl.edu.agh.kis.pz1.commands.*;
  */
 public class CommandFactory {
     /**
-     * ExcelHandler field
+     * The repository storing the rooms
+     */
+    protected RoomRepository repository;
+    /**
+     * IntRoomMap containing rooms of the hotel
      */
-    protected ExcelHandler excelHandler;
+    protected IntRoomMap rooms;
     /**
-     * ExcelHandler field
+     * The reservations of the rooms
      */
-    protected MyMap<Integer, Room> rooms;
+    protected ReservationCalendar reservations;
 
     /**
-     * Constructs a new {@code CommandFactory} with the provided {@link ExcelHandler} and a map of rooms.
+     * Constructs a new {@code CommandFactory} with the provided {@link RoomRepository}, a map of rooms and an
+     * empty calendar of reservations.
      *
-     * @param eh an instance of {@link ExcelHandler} to handle file operations
+     * @param repo the {@link RoomRepository} storing the rooms, e.g. an {@link ExcelHandler}
      * @param r a map containing room numbers as keys and {@link Room} objects as values
      */
-    public CommandFactory(ExcelHandler eh, MyMap<Integer, Room> r){
-        excelHandler = eh;
+    public CommandFactory(RoomRepository repo, IntRoomMap r){
+        this(repo, r, new ReservationCalendar());
+    }
+
+    /**
+     * Constructs a new {@code CommandFactory} with the provided {@link RoomRepository}, a map of rooms and the
+     * calendar of their reservations.
+     *
+     * @param repo the {@link RoomRepository} storing the rooms, e.g. an {@link ExcelHandler}
+     * @param r a map containing room numbers as keys and {@link Room} objects as values
+     * @param calendar the reservations of the rooms
+     */
+    public CommandFactory(RoomRepository repo, IntRoomMap r, ReservationCalendar calendar){
+        repository = repo;
         rooms = r;
+        reservations = calendar;
     }
 
     /**
@@ -33,32 +55,70 @@ public class CommandFactory {
      * <p>This method matches the given command type to the corresponding command class. If the command type
      * is invalid, it returns {@code null}.</p>
      *
-     * @param commandType the type of the command (e.g., "prices", "view", "checkin")
+     * <p>The commands {@code list} and {@code prices} accept an optional argument limiting them to a range
+     * of room numbers, given either as {@code <from>-<to>} or as a single floor number. With such an argument,
+     * {@code checkin} checks a group in to the free rooms of the range and {@code checkout} checks out all
+     * occupied rooms of the range. The commands
+     * {@code import} and {@code export} require the path of a CSV file, which is the rest of the input. The
+     * command {@code calendar} accepts an optional date {@code RRRR-MM-DD}, today by default. The command
+     * {@code available} requires the dates of arrival and departure, followed by an optional type of rooms and an
+     * optional lowest capacity; the command {@code occupancy} requires the first day and the day after the last
+     * one, followed by an optional floor number or type of rooms.</p>
+     *
+     * @param commandType the type of the command (e.g., "prices", "view", "checkin", "list 300-399")
      * @return a {@link Command} object corresponding to the provided command type or {@code null} if no match
      *         is found
      */
     public Command getCommand(String commandType){
-        switch (commandType) {
+        String[] parts = commandType.trim().split("\\s+");
+        if (parts[0].equals("import") || parts[0].equals("export")) {
+            return getFileCommand(parts[0], commandType.trim().substring(parts[0].length()).trim());
+        }
+        if (parts[0].equals("available")) {
+            return getAvailableCommand(parts);
+        }
+        if (parts[0].equals("occupancy")) {
+            return getOccupancyCommand(parts);
+        }
+        if (parts[0].equals("calendar") && parts.length <= 2) {
+            return getCalendarCommand(parts.length == 2 ? parts[1] : null);
+        }
+        if (parts.length == 2) {
+            return getRangeCommand(parts[0], parts[1]);
+        }
+        if (parts.length > 2) {
+            return null;
+        }
+        switch (parts[0]) {
             case "prices" -> {
-                return new PricesCommand(excelHandler, rooms);
+                return new PricesCommand(repository, rooms);
             }
             case "view" -> {
-                return new ViewCommand(excelHandler, rooms);
+                return new ViewCommand(repository, rooms);
             }
             case "checkin" -> {
-                return new CheckinCommand(excelHandler, rooms);
+                return new CheckinCommand(repository, rooms, reservations);
             }
             case "checkout" -> {
-                return new CheckoutCommand(excelHandler, rooms);
+                return new CheckoutCommand(repository, rooms, reservations);
+            }
+            case "reserve" -> {
+                return new ReserveCommand(repository, rooms, reservations);
             }
             case "list" -> {
-                return new ListCommand(excelHandler, rooms);
+                return new ListCommand(repository, rooms);
             }
             case "save" -> {
-                return new SaveCommand(excelHandler, rooms);
+                return new SaveCommand(repository, rooms);
+            }
+            case "pending" -> {
+                return new PendingCommand(repository, rooms);
+            }
+            case "migrate" -> {
+                return new MigrateCommand(repository, rooms, Main.ROOMS_FILE, Main.DATABASE_FILE);
             }
             case "exit" -> {
-                return new ExitCommand(excelHandler, rooms);
+                return new ExitCommand(repository, rooms);
             }
             case "help" -> {
                 return new HelpCommand();
@@ -68,4 +128,164 @@ public class CommandFactory {
             }
         }
     }
+
+    /**
+     * Returns a {@code list}, {@code prices}, {@code checkin} or {@code checkout} command limited to the room
+     * numbers given by the argument.
+     *
+     * @param commandType the type of the command
+     * @param argument a range of room numbers {@code <from>-<to>} or a floor number
+     * @return the command, or {@code null} if the command does not accept a range or the argument is invalid
+     */
+    private Command getRangeCommand(String commandType, String argument) {
+        int[] range = parseRange(argument);
+        if (range == null) {
+            return null;
+        }
+        switch (commandType) {
+            case "prices" -> {
+                return new PricesCommand(repository, rooms, range[0], range[1]);
+            }
+            case "list" -> {
+                return new ListCommand(repository, rooms, range[0], range[1]);
+            }
+            case "checkin" -> {
+                return new GroupCheckinCommand(repository, rooms, reservations, range[0], range[1]);
+            }
+            case "checkout" -> {
+                return new BulkCheckoutCommand(repository, rooms, reservations, range[0], range[1]);
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns a {@code calendar} command printing the given day.
+     *
+     * @param date the date {@code RRRR-MM-DD}, or {@code null} for today
+     * @return the command, or {@code null} if the date is invalid
+     */
+    private Command getCalendarCommand(String date) {
+        try {
+            return new CalendarCommand(repository, rooms, reservations,
+                    date == null ? LocalDate.now() : LocalDate.parse(date));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns an {@code available} command searching the rooms free for a stay.
+     * <p>The arguments are the dates of arrival and departure, then the type of the rooms, which may hold spaces,
+     * and the lowest capacity, both optional; a number at the end is the capacity.</p>
+     *
+     * @param parts the words of the command
+     * @return the command, or {@code null} if the dates are missing or invalid
+     */
+    private Command getAvailableCommand(String[] parts) {
+        LocalDate[] days = parseDays(parts);
+        if (days == null) {
+            return null;
+        }
+        LocalDate from = days[0];
+        LocalDate to = days[1];
+        int end = parts.length;
+        int minCapacity = 0;
+        if (end > 3 && parts[end - 1].matches("\\d+")) {
+            minCapacity = Integer.parseInt(parts[end - 1]);
+            end--;
+        }
+        String type = end > 3 ? String.join(" ", Arrays.copyOfRange(parts, 3, end)) : null;
+        return new AvailableCommand(repository, rooms, reservations, from, to, type, minCapacity);
+    }
+
+    /**
+     * Returns an {@code occupancy} command counting the occupied rooms of a range of days.
+     * <p>The arguments are the first day and the day after the last one, then either a floor number or a type of
+     * rooms, which may hold spaces.</p>
+     *
+     * @param parts the words of the command
+     * @return the command, or {@code null} if the dates are missing or invalid
+     */
+    private Command getOccupancyCommand(String[] parts) {
+        LocalDate[] days = parseDays(parts);
+        if (days == null) {
+            return null;
+        }
+        Integer floor = null;
+        String type = null;
+        if (parts.length == 4 && parts[3].matches("\\d+")) {
+            floor = Integer.parseInt(parts[3]);
+        } else if (parts.length > 3) {
+            type = String.join(" ", Arrays.copyOfRange(parts, 3, parts.length));
+        }
+        return new OccupancyCommand(repository, rooms, reservations, days[0], days[1], floor, type);
+    }
+
+    /**
+     * Parses the two dates following the name of a command.
+     *
+     * @param parts the words of the command
+     * @return the first date and the second one, which is later, or {@code null} if they are missing or invalid
+     */
+    private static LocalDate[] parseDays(String[] parts) {
+        if (parts.length < 3) {
+            return null;
+        }
+        try {
+            LocalDate from = LocalDate.parse(parts[1]);
+            LocalDate to = LocalDate.parse(parts[2]);
+            return to.isAfter(from) ? new LocalDate[] {from, to} : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns an {@code import} or {@code export} command working on the given CSV file.
+     *
+     * @param commandType the type of the command
+     * @param path the path of the CSV file
+     * @return the command, or {@code null} if the path is missing
+     */
+    private Command getFileCommand(String commandType, String path) {
+        if (path.isEmpty()) {
+            return null;
+        }
+        if (commandType.equals("import")) {
+            return new ImportCommand(repository, rooms, reservations, path);
+        }
+        return new ExportCommand(repository, rooms, path);
+    }
+
+    /**
+     * Parses a range of room numbers.
+     * <p>A floor number {@code n} stands for the rooms from {@code n*100} to {@code n*100+99}.</p>
+     *
+     * @param argument {@code <from>-<to>} or a floor number
+     * @return an array holding the lowest and the highest room number (both inclusive), or {@code null} if the
+     *         argument is invalid
+     */
+    static int[] parseRange(String argument) {
+        try {
+            int dash = argument.indexOf('-');
+            if (dash < 0) {
+                int floor = Integer.parseInt(argument);
+                if (floor < 0 || floor > RoomDirectory.MAX_FLOOR) {
+                    return null;
+                }
+                return new int[] {floor * 100, floor * 100 + 99};
+            }
+            int from = Integer.parseInt(argument.substring(0, dash));
+            int to = Integer.parseInt(argument.substring(dash + 1));
+            if (from < 0 || from > to) {
+                return null;
+            }
+            return new int[] {from, to};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
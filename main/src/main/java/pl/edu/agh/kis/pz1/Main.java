@@ -3,7 +3,13 @@ package pl.edu.agh.kis.pz1;
 import pl.edu.agh.kis.pz1.commands.Command;
 
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
@@ -17,6 +23,30 @@ import java.util.logging.Logger;
  */
 public class Main {
     private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
+    static final String ROOMS_FILE = "data/rooms.xlsx";
+    static final String DATABASE_FILE = "data/rooms";
+    private static final String JOURNAL_FILE = "data/rooms.journal";
+    private static final String SNAPSHOT_FILE = "data/rooms.snapshot";
+    static final String MANIFEST_FILE = "data/rooms.manifest";
+    private static final String SHARD_JOURNAL_FILE = "data/rooms.shards.journal";
+    private static final String RESERVATIONS_FILE = "data/reservations.csv";
+    private static final long AUTOSAVE_SECONDS = 30;
+
+    /**
+     * The system property choosing where the rooms are stored: {@value #SQL_REPOSITORY} for the SQL database,
+     * {@value #SHARDED_REPOSITORY} for workbooks of a few floors each, anything else for the Excel file.
+     */
+    public static final String REPOSITORY_PROPERTY = "hotel.repository";
+    static final String SQL_REPOSITORY = "sql";
+    static final String SHARDED_REPOSITORY = "sharded";
+
+    /**
+     * The system property setting the number of floors of each workbook when the Excel file is split into
+     * shards; 1 by default.
+     */
+    public static final String FLOORS_PER_SHARD_PROPERTY = "hotel.floorsPerShard";
+
+    private static WorkbookWatcher watcher;
 
     /**
      * The main method that starts the application.
@@ -38,6 +68,7 @@ public class Main {
 
         while(scanner.hasNext()) {
             String userCommand = scanner.nextLine();
+            applyFileChanges();
             Command command = cf.getCommand(userCommand);
             if (command != null) {
                 command.execute();
@@ -47,6 +78,34 @@ public class Main {
         }
     }
 
+    /**
+     * Applies the rooms changed in the Excel file by another program since the last command, if the file is
+     * watched, and reports how many rooms changed and which of them kept unsaved changes instead.
+     */
+    static void applyFileChanges() {
+        if (watcher == null) {
+            return;
+        }
+        int changed;
+        try {
+            changed = watcher.applyPendingChanges();
+        } catch (UncheckedIOException e) {
+            System.out.println("Nie udało się zapisać zmian z pliku " + ROOMS_FILE + ": "
+                    + e.getCause().getMessage());
+            return;
+        }
+        if (changed > 0) {
+            System.out.println("Wczytano zmiany z pliku " + ROOMS_FILE + " (pokoje: " + changed + ")");
+        }
+        for (int number : watcher.conflicts()) {
+            System.out.println("Pokój " + number + " ma niezapisane zmiany, które zastąpią zmiany z pliku");
+        }
+        for (Reservation overlap : watcher.overlaps()) {
+            System.out.println("Pokój " + overlap.getRoomNumber() + " jest zarezerwowany w dniach "
+                    + overlap.getStartDate() + " - " + overlap.getEndDate() + " (" + overlap.getGuestName() + ")");
+        }
+    }
+
     /**
      * Displays a welcome banner for the application.
      */
@@ -61,29 +120,130 @@ public class Main {
      * Creates and initializes the {@link CommandFactory} instance.
      * <p>
      * This method:
-     *  - Loads room data from the specified Excel file.
+     *  - Loads room data from the binary snapshot of the specified Excel file, or from the file itself when the
+     *    snapshot is stale.
+     *  - Replays the journal of check-ins and check-outs made since the file was last saved.
+     *  - Starts saving the rooms in the background, every {@value #AUTOSAVE_SECONDS} seconds unless set with the
+     *    {@value ExcelHandler#AUTOSAVE_PROPERTY} system property.
+     *  - Starts watching the Excel file for changes made by other programs, unless turned off with
+     *    {@code -D}{@value WorkbookWatcher#WATCH_PROPERTY}{@code =false}; the changed rooms are swapped in before
+     *    the next command.
+     *  - Opens the calendar of reservations kept in {@value #RESERVATIONS_FILE}.
      *  - Returns a {@link CommandFactory} instance that can generate commands based on user input.
      * </p>
+     * <p>
+     * With {@code -D}{@value ExcelHandler#LOAD_MODE_PROPERTY}{@code =lazy} only the list of floors is read at
+     * start-up and each floor is read when first used; no snapshot is used then, and the rooms are neither saved
+     * in the background nor reloaded when the file changes, as all of these need every floor, so changes are
+     * kept in the journal until 'save' or 'exit'.
+     * </p>
+     * <p>
+     * With {@code -D}{@value #REPOSITORY_PROPERTY}{@code =}{@value #SQL_REPOSITORY} the rooms are read from and
+     * stored in the SQL database instead, which is filled from the Excel file the first time it is empty.
+     * With {@code -D}{@value #REPOSITORY_PROPERTY}{@code =}{@value #SHARDED_REPOSITORY} they are stored in the
+     * workbooks listed in {@value #MANIFEST_FILE}, which are split from the Excel file the first time.
+     * </p>
      *
      * @return a new instance of {@link CommandFactory} configured with room data from the Excel file.
      * @throws IOException if an error occurs while reading the rooms data from the Excel file.
      */
     static CommandFactory createCommandFactory() throws IOException{
+        // the animation keeps the console it started on, even if System.out is replaced meanwhile
+        PrintStream out = System.out;
         Thread thread = new Thread(() -> {
             try {
                 for (int i = 0; i < 50; i++) {
-                    System.out.print("-");
+                    out.print("-");
                     Thread.sleep(40);
                 }
-                System.out.print("\n\nWprowadź komendę('help' aby zobaczyć dostępne komendy): ");
+                out.print("\n\nWprowadź komendę('help' aby zobaczyć dostępne komendy): ");
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 LOGGER.info(e.getMessage());
             }
         });
         thread.start();
-        ExcelHandler eh = new ExcelHandler("data/rooms.xlsx");
-        MyMap<Integer, Room> rooms = eh.getRoomsData();
-        return new CommandFactory(eh, rooms);
+        if (SQL_REPOSITORY.equals(System.getProperty(REPOSITORY_PROPERTY))) {
+            return createSqlCommandFactory();
+        }
+        if (SHARDED_REPOSITORY.equals(System.getProperty(REPOSITORY_PROPERTY))) {
+            return createShardedCommandFactory();
+        }
+        ExcelHandler.LoadMode loadMode = ExcelHandler.LoadMode.valueOf(
+                System.getProperty(ExcelHandler.LOAD_MODE_PROPERTY, "streaming").toUpperCase(Locale.ROOT));
+        ExcelHandler eh = new ExcelHandler(ROOMS_FILE, loadMode);
+        IntRoomMap rooms = eh.getRoomsDataCached(SNAPSHOT_FILE);
+        eh.openJournal(JOURNAL_FILE, rooms);
+        if (loadMode != ExcelHandler.LoadMode.LAZY) {
+            eh.startAutosave(rooms, Long.getLong(ExcelHandler.AUTOSAVE_PROPERTY, AUTOSAVE_SECONDS), TimeUnit.SECONDS);
+        }
+        ReservationCalendar reservations = openReservations(rooms);
+        if (loadMode != ExcelHandler.LoadMode.LAZY
+                && Boolean.parseBoolean(System.getProperty(WorkbookWatcher.WATCH_PROPERTY, "true"))) {
+            startWatcher(eh, rooms, reservations);
+        }
+        return new CommandFactory(eh, rooms, reservations);
+    }
+
+    /**
+     * Opens the calendar of reservations of the rooms.
+     * <p>The first time, when the file of the calendar does not exist yet, the current stays of the rooms are
+     * booked in it, which reads every floor in lazy mode.</p>
+     *
+     * @param rooms the rooms of the hotel
+     * @return the calendar of reservations
+     * @throws IOException if the file of the calendar cannot be read or written
+     */
+    private static ReservationCalendar openReservations(IntRoomMap rooms) throws IOException {
+        return ReservationCalendar.open(Paths.get(RESERVATIONS_FILE), rooms);
+    }
+
+    /**
+     * Starts watching the Excel file; the application works without it if the file cannot be watched.
+     */
+    private static void startWatcher(ExcelHandler eh, IntRoomMap rooms, ReservationCalendar reservations) {
+        watcher = new WorkbookWatcher(eh, ROOMS_FILE, rooms, reservations);
+        try {
+            watcher.start();
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+            watcher = null;
+        }
+    }
+
+    /**
+     * Creates a {@link CommandFactory} working on the rooms stored in the SQL database.
+     * <p>If the database holds no rooms yet, the Excel file, if present, is migrated into it first.</p>
+     *
+     * @return a new instance of {@link CommandFactory} configured with room data from the database.
+     * @throws IOException if the database cannot be opened or the Excel file cannot be read.
+     */
+    private static CommandFactory createSqlCommandFactory() throws IOException {
+        SqlRoomRepository repository = SqlRoomRepository.open(DATABASE_FILE);
+        IntRoomMap rooms = repository.getRoomsData();
+        if (rooms.size() == 0 && Files.exists(Paths.get(ROOMS_FILE))) {
+            try (ExcelHandler eh = new ExcelHandler(ROOMS_FILE, ExcelHandler.LoadMode.STREAMING)) {
+                repository.migrateFrom(eh);
+            }
+            rooms = repository.getRoomsData();
+        }
+        return new CommandFactory(repository, rooms, openReservations(rooms));
+    }
+
+    /**
+     * Creates a {@link CommandFactory} working on the rooms stored in the workbooks listed in the manifest.
+     * <p>If there is no manifest yet, the Excel file is split into workbooks of
+     * {@value #FLOORS_PER_SHARD_PROPERTY} floors first.</p>
+     *
+     * @return a new instance of {@link CommandFactory} configured with room data from the workbooks.
+     * @throws IOException if the workbooks cannot be read or the Excel file cannot be split.
+     */
+    private static CommandFactory createShardedCommandFactory() throws IOException {
+        if (!Files.exists(Paths.get(MANIFEST_FILE))) {
+            ShardedExcelRepository.split(ROOMS_FILE, MANIFEST_FILE, Integer.getInteger(FLOORS_PER_SHARD_PROPERTY, 1));
+        }
+        ShardedExcelRepository repository = new ShardedExcelRepository(MANIFEST_FILE, SHARD_JOURNAL_FILE);
+        IntRoomMap rooms = repository.getRoomsData();
+        return new CommandFactory(repository, rooms, openReservations(rooms));
     }
 }
@@ -0,0 +1,62 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import pl.edu.agh.kis.pz1.AvailabilityIndex;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A class representing the service for the 'available &lt;from&gt; &lt;to&gt; [type] [minCapacity]' command.
+ * <p>This command lists the rooms free for a whole stay, from the day of arrival to the day of departure, by
+ * price. It may be limited to one type of rooms and to rooms for at least a given number of guests. The rooms
+ * are found with the {@link AvailabilityIndex} of the {@link ReservationCalendar}, so that no room and no
+ * reservation has to be visited.</p>
+ */
+public class AvailableCommand extends Command {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final String type;
+    private final int minCapacity;
+
+    /**
+     * Constructs a new {@code AvailableCommand}.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map containing room numbers and their corresponding {@link Room} objects
+     * @param reservations the reservations of the rooms
+     * @param from the day of arrival
+     * @param to the day of departure
+     * @param type the type of the rooms, or {@code null} for any type
+     * @param minCapacity the lowest number of guests the rooms must hold
+     */
+    public AvailableCommand(RoomRepository repository, IntRoomMap r, ReservationCalendar reservations,
+                            LocalDate from, LocalDate to, String type, int minCapacity) {
+        super(repository, r, reservations);
+        this.from = from;
+        this.to = to;
+        this.type = type;
+        this.minCapacity = minCapacity;
+    }
+
+    /**
+     * Executes the 'available' command.
+     * <p>Prints the number of free rooms and the rooms, from the cheapest one.</p>
+     */
+    @Override
+    public void execute() {
+        List<Room> free = reservations.availability(rooms).available(from, to, type, minCapacity);
+        if (free.isEmpty()) {
+            System.out.println("Brak wolnych pokoi w dniach " + from + " - " + to);
+        } else {
+            System.out.println("Wolne pokoje w dniach " + from + " - " + to + " (" + free.size() + "):");
+            for (Room room : free) {
+                System.out.println(room);
+            }
+        }
+        System.out.print("\nWprowadź komendę: ");
+    }
+}
@@ -0,0 +1,89 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class representing service after command 'checkout &lt;from&gt;-&lt;to&gt;'
+ * This class checks out the guests of all occupied rooms of a range of room numbers at once, e.g. at the end
+ * of a group's stay, printing the fee of every room and their total, and stores all rooms with a single
+ * {@link RoomRepository#updateRooms(List)} call.
+ *
+ * <p>Extends the {@link Command}.</p>
+ */
+public class BulkCheckoutCommand extends Command {
+    private final int from;
+    private final int to;
+
+    /**
+     * Constructs a new BulkCheckoutCommand.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map of room numbers to room objects
+     * @param from the lowest room number to check out (inclusive)
+     * @param to the highest room number to check out (inclusive)
+     */
+    public BulkCheckoutCommand(RoomRepository repository, IntRoomMap r, int from, int to) {
+        this(repository, r, new ReservationCalendar(), from, to);
+    }
+
+    /**
+     * Constructs a new BulkCheckoutCommand ending the reservations of the stays in the given calendar.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map of room numbers to room objects
+     * @param reservations the reservations of the rooms
+     * @param from the lowest room number to check out (inclusive)
+     * @param to the highest room number to check out (inclusive)
+     */
+    public BulkCheckoutCommand(RoomRepository repository, IntRoomMap r, ReservationCalendar reservations,
+                               int from, int to) {
+        super(repository, r, reservations);
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Executes the check-out of every occupied room of the range.
+     * <p>This method performs the following actions:</p>
+     * <ul>
+     *     <li>Prints the amount due for the stay in each occupied room, followed by the total.</li>
+     *     <li>Ends the reservations of the stays today and clears the data of the rooms, making them available for
+     *     future reservations.</li>
+     *     <li>Updates the rooms in the system at once via the {@link RoomRepository}.</li>
+     * </ul>
+     */
+    @Override
+    public void execute() {
+        List<Room> occupied = new ArrayList<>();
+        rooms.forEachRoomInRange(from, to, room -> {
+            if (!room.isFree()) {
+                occupied.add(room);
+            }
+        });
+        if (occupied.isEmpty()) {
+            System.out.println("Brak zajętych pokoi w zakresie " + from + "-" + to + ".");
+            System.out.print("\nWprowadź komendę: ");
+            return;
+        }
+
+        long total = 0;
+        for (Room room : occupied) {
+            long price = room.calculatePrice();
+            System.out.println("Pokój " + room.getNumber() + " - należność: " + price + " PLN");
+            total += price;
+            endStay(room);
+            room.clear();
+            rooms.changes().add(room);
+        }
+        store(() -> repository.updateRooms(occupied));
+
+        System.out.println("Wymeldowano pokoje (" + occupied.size() + "), łączna należność: " + total + " PLN");
+        System.out.print("\nWprowadź komendę: ");
+    }
+}
@@ -0,0 +1,53 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Reservation;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A class representing the service for the 'calendar &lt;date&gt;' command.
+ * <p>This command prints a day of the hotel: the guests staying in it on the night after the given day, the
+ * guests arriving and the guests leaving on that day. The lists come from the {@link ReservationCalendar}, so
+ * they cost time in the number of reservations printed, not in the number of rooms of the hotel.</p>
+ */
+public class CalendarCommand extends Command {
+    private final LocalDate date;
+
+    /**
+     * Constructs a new {@code CalendarCommand}.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map containing room numbers and their corresponding {@link Room} objects
+     * @param reservations the reservations of the rooms
+     * @param date the day to print
+     */
+    public CalendarCommand(RoomRepository repository, IntRoomMap r, ReservationCalendar reservations,
+                           LocalDate date) {
+        super(repository, r, reservations);
+        this.date = date;
+    }
+
+    /**
+     * Executes the 'calendar' command.
+     * <p>Prints the reservations of the guests in the hotel, arriving and leaving on the day, with their number.</p>
+     */
+    @Override
+    public void execute() {
+        print("Goście w hotelu w dniu " + date, reservations.inHouse(date));
+        print("Przyjazdy", reservations.arrivals(date));
+        print("Wyjazdy", reservations.departures(date));
+        System.out.print("\nWprowadź komendę: ");
+    }
+
+    private static void print(String title, List<Reservation> list) {
+        System.out.println(title + " (" + list.size() + "):");
+        for (Reservation reservation : list) {
+            System.out.println(reservation);
+        }
+    }
+}
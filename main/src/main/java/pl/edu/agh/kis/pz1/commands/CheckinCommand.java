@@ -1,10 +1,13 @@
 package pl.edu.agh.kis.pz1.commands;
 
-import pl.edu.agh.kis.pz1.ExcelHandler;
 import pl.edu.agh.kis.pz1.Guest;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Reservation;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
 import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.InputMismatchException;
@@ -15,7 +18,7 @@ import java.util.regex.Pattern;
 /**
  * A class representing service after command 'checkin'
  * This class gathers necessary guest information, assigns a room, and updates
- * the room's status using an ExcelHandler.
+ * the room's status using the {@link RoomRepository}.
  *
  * <p>Extends the {@link Command}.</p>
  */
@@ -25,11 +28,22 @@ public class CheckinCommand extends Command{
     /**
      * Constructs a new CheckinCommand.
      *
-     * @param excelHandler the handler for updating room information in Excel
+     * @param repository the repository storing the rooms
      * @param r a map of room numbers to room objects
      */
-    public CheckinCommand(ExcelHandler excelHandler, MyMap<Integer, Room> r) {
-        super(excelHandler, r);
+    public CheckinCommand(RoomRepository repository, IntRoomMap r) {
+        super(repository, r);
+    }
+
+    /**
+     * Constructs a new CheckinCommand booking the stay in the given calendar.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map of room numbers to room objects
+     * @param reservations the reservations of the rooms
+     */
+    public CheckinCommand(RoomRepository repository, IntRoomMap r, ReservationCalendar reservations) {
+        super(repository, r, reservations);
     }
 
     /**
@@ -37,7 +51,9 @@ public class CheckinCommand extends Command{
      * <ul>
      *     <li>Reading room number and assigning a room</li>
      *     <li>Collecting main and additional guests data</li>
-     *     <li>Setting the stay duration and additional details</li>
+     *     <li>Setting the stay duration and booking the room for it, unless the stay overlaps another
+     *     reservation of the room</li>
+     *     <li>Setting additional details</li>
      *     <li>Updating room information in the system</li>
      * </ul>
      * <p>The method interacts with the user through console input to gather necessary information.</p>
@@ -51,7 +67,7 @@ public class CheckinCommand extends Command{
         // get proper room
         int roomNr = readRoomNumber("checkin");
         Room room = rooms.get(roomNr);
-        int roomCapacity = rooms.get(roomNr).getCapacity();
+        int roomCapacity = room.getCapacity();
 
         Guest mainGuest = readMainGuestData();
         guests.add(mainGuest);
@@ -70,6 +86,10 @@ public class CheckinCommand extends Command{
         LocalDate startDate = readStartDate();
         int duration = readDuration();
         LocalDate endDate = startDate.plusDays(duration);
+        if (!bookStay(roomNr, mainGuest.getName(), startDate, endDate)) {
+            System.out.print("\nWprowadź komendę: ");
+            return;
+        }
 
         // get additional info from guest
         System.out.println("Jeśli masz jakieś dodatkowe informacje napisz je tutaj:");
@@ -80,13 +100,52 @@ public class CheckinCommand extends Command{
         room.setStartDate(startDate);
         room.setEndDate(endDate);
         room.setAdditionalInfo(additionalInfo);
+        rooms.changes().add(room);
 
         // update
-        excelHandler.updateRoomInfo(room);
+        store(() -> repository.updateRoomInfo(room));
         System.out.print("\nWprowadź komendę: ");
     }
 
 
+    /**
+     * Books a room for a stay in the calendar of reservations.
+     * <p>A reservation of the room made by the main guest for the same day of arrival is taken over by the stay,
+     * which may end on another day. If the stay overlaps another reservation, that reservation is printed and
+     * the room is not booked. A stay without any night is not booked, but does not stop the check-in.</p>
+     *
+     * @param roomNr the room number
+     * @param guestName the name of the main guest
+     * @param startDate the date of the start of stay
+     * @param endDate the date of the end of stay
+     * @return true if the guests may be checked in
+     */
+    boolean bookStay(int roomNr, String guestName, LocalDate startDate, LocalDate endDate) {
+        if (!endDate.isAfter(startDate)) {
+            return true;
+        }
+        try {
+            Reservation booked = reservations.find(roomNr, startDate);
+            boolean own = booked != null && booked.getStartDate().equals(startDate)
+                    && booked.getGuestName().equals(guestName);
+            if (own) {
+                reservations.cancel(roomNr, startDate);
+            }
+            Reservation conflict = reservations.reserve(new Reservation(roomNr, guestName, startDate, endDate));
+            if (conflict == null) {
+                return true;
+            }
+            if (own) {
+                reservations.reserve(booked);
+            }
+            System.out.println("Pokój " + roomNr + " jest zarezerwowany w dniach " + conflict.getStartDate()
+                    + " - " + conflict.getEndDate() + " (" + conflict.getGuestName() + ")");
+        } catch (IOException e) {
+            System.out.println("Nie udało się zapisać rezerwacji: " + e.getMessage());
+        }
+        return false;
+    }
+
     /**
      * Handles input of the main guest's data including:
      * <ul>
@@ -131,7 +190,7 @@ public class CheckinCommand extends Command{
                 System.out.println("Błędny format numeru telefonu. Spróbuj ponownie");
             }
         }
-        return new Guest(mainGuestName, mainGuestEmail, mainGuestPhoneNr, mainGuestID);
+        return new Guest(mainGuestName, mainGuestEmail, mainGuestID, mainGuestPhoneNr);
     }
 
     /**
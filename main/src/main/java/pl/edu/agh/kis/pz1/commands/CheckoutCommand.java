@@ -1,8 +1,9 @@
 package pl.edu.agh.kis.pz1.commands;
 
-import pl.edu.agh.kis.pz1.ExcelHandler;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
 import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
 
 /**
  * A class representing service after command 'checkout'
@@ -17,11 +18,22 @@ public class CheckoutCommand extends Command{
     /**
      * Constructs a new CheckoutCommand.
      *
-     * @param excelHandler the handler for updating room information in Excel
+     * @param repository the repository storing the rooms
      * @param r a map of room numbers to room objects
      */
-    public CheckoutCommand(ExcelHandler excelHandler, MyMap<Integer, Room> r) {
-        super(excelHandler, r);
+    public CheckoutCommand(RoomRepository repository, IntRoomMap r) {
+        super(repository, r);
+    }
+
+    /**
+     * Constructs a new CheckoutCommand ending the reservation of the stay in the given calendar.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map of room numbers to room objects
+     * @param reservations the reservations of the rooms
+     */
+    public CheckoutCommand(RoomRepository repository, IntRoomMap r, ReservationCalendar reservations) {
+        super(repository, r, reservations);
     }
 
     /**
@@ -31,8 +43,9 @@ public class CheckoutCommand extends Command{
      *     <li>Prompts the user to input the room number for check-out.</li>
      *     <li>Retrieves the room information and calculates the total due amount for the stay.</li>
      *     <li>Prints the calculated amount to the console.</li>
-     *     <li>Clears the room's data, making it available for future reservations.</li>
-     *     <li>Updates the room's status in the system via {@link ExcelHandler}.</li>
+     *     <li>Ends the reservation of the stay today and clears the room's data, making it available for future
+     *     reservations.</li>
+     *     <li>Updates the room's status in the system via the {@link RoomRepository}.</li>
      * </ul>
      * <p>The method interacts with the user through console input and output.</p>
      */
@@ -43,8 +56,10 @@ public class CheckoutCommand extends Command{
 
         System.out.println("Należność: " + room.calculatePrice() + " PLN");
 
+        endStay(room);
         room.clear();
-        excelHandler.clearRoomInfo(room);
+        rooms.changes().add(room);
+        store(() -> repository.clearRoomInfo(room));
 
         System.out.print("\nWprowadź komendę: ");
     }
@@ -1,9 +1,13 @@
 package pl.edu.agh.kis.pz1.commands;
 
-import pl.edu.agh.kis.pz1.ExcelHandler;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
 import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.InputMismatchException;
 import java.util.Scanner;
 
@@ -16,28 +20,78 @@ import java.util.Scanner;
  */
 public class Command {
     /**
-     * ExcelHandler field
+     * The repository storing the rooms
      */
-    protected ExcelHandler excelHandler;
+    protected RoomRepository repository;
     /**
-     * MyMap containing rooms of the hotel
+     * IntRoomMap containing rooms of the hotel
      */
-    protected MyMap<Integer, Room> rooms;
+    protected IntRoomMap rooms;
+    /**
+     * The reservations of the rooms: the current stays and the future bookings
+     */
+    protected ReservationCalendar reservations;
 
     /**
      * Default constructor for the {@code Command} class.
      */
     public Command(){}
 
+    /**
+     * Constructs a new {@code Command} with the specified data handlers and an empty calendar of reservations.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map containing room numbers and their corresponding {@link Room} objects
+     */
+    public Command(RoomRepository repository, IntRoomMap r) {
+        this(repository, r, new ReservationCalendar());
+    }
+
     /**
      * Constructs a new {@code Command} with the specified data handlers.
      *
-     * @param excelHandler the handler used to interact with the Excel file for updating room information
+     * @param repository the repository storing the rooms
      * @param r a map containing room numbers and their corresponding {@link Room} objects
+     * @param reservations the reservations of the rooms
      */
-    public Command(ExcelHandler excelHandler, MyMap<Integer, Room> r) {
-        this.excelHandler = excelHandler;
+    public Command(RoomRepository repository, IntRoomMap r, ReservationCalendar reservations) {
+        this.repository = repository;
         this.rooms = r;
+        this.reservations = reservations;
+    }
+
+    /**
+     * Ends the reservation of the current stay in the given room today, before its guests are checked out, so
+     * that the rest of the stay can be booked again while the nights spent stay in the calendar. A stay checked
+     * out on its day of arrival is cancelled.
+     *
+     * @param room the room being checked out
+     */
+    protected void endStay(Room room) {
+        if (room.getStartDate() == null) {
+            return;
+        }
+        try {
+            reservations.endStay(room.getNumber(), room.getStartDate(), LocalDate.now());
+        } catch (IOException e) {
+            System.out.println("Nie udało się zapisać rezerwacji: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stores changed rooms through the repository, reporting a failure instead of ending the session.
+     * <p>The rooms keep their changes in memory and in {@link IntRoomMap#changes()}, so the operator can still
+     * store them with the 'save' command.</p>
+     *
+     * @param update the call of the repository storing the changes
+     */
+    protected void store(Runnable update) {
+        try {
+            update.run();
+        } catch (UncheckedIOException e) {
+            System.out.println("Nie udało się zapisać zmian: " + e.getCause().getMessage()
+                    + ". Zapisz je komendą 'save'.");
+        }
     }
 
     /**
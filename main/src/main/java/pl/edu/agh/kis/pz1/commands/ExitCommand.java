@@ -1,13 +1,13 @@
 package pl.edu.agh.kis.pz1.commands;
 
-import pl.edu.agh.kis.pz1.ExcelHandler;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
 import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
 
 /**
  * A class representing the command to handle application termination.
  * <p>This command ensures that any necessary cleanup is performed, such as closing
- * the Excel file via {@link ExcelHandler}, before exiting the application.</p>
+ * the store of the rooms via {@link RoomRepository}, before exiting the application.</p>
  *
  * <p>By default, the application exits with status code 0, but an alternative
  * {@link Runnable} exit action can be provided for testing or customization.</p>
@@ -17,14 +17,14 @@ public class ExitCommand extends Command {
 
     /**
      * Constructs a new {@code ExitCommand} with default exit behavior.
-     * <p>The default behavior includes closing the Excel file and terminating the application
+     * <p>The default behavior includes closing the store of the rooms and terminating the application
      * with status code 0.</p>
      *
-     * @param excelHandler the handler used to manage the Excel file
+     * @param repository the repository storing the rooms
      * @param r a map containing room numbers and their corresponding {@link Room} objects
      */
-    public ExitCommand(ExcelHandler excelHandler, MyMap<Integer, Room> r) {
-        this(excelHandler, r, () -> System.exit(0));
+    public ExitCommand(RoomRepository repository, IntRoomMap r) {
+        this(repository, r, () -> System.exit(0));
     }
 
     /**
@@ -32,12 +32,12 @@ public class ExitCommand extends Command {
      * <p>This constructor allows you to provide an alternative {@link Runnable} exit action,
      * useful for testing or non-standard termination processes.</p>
      *
-     * @param excelHandler the handler used to manage the Excel file
+     * @param repository the repository storing the rooms
      * @param r a map containing room numbers and their corresponding {@link Room} objects
      * @param exitAction the action to execute during application termination
      */
-    public ExitCommand(ExcelHandler excelHandler, MyMap<Integer, Room> r, Runnable exitAction) {
-        super(excelHandler, r);
+    public ExitCommand(RoomRepository repository, IntRoomMap r, Runnable exitAction) {
+        super(repository, r);
         this.exitAction = exitAction;
     }
 
@@ -45,13 +45,16 @@ public class ExitCommand extends Command {
      * Executes the exit command.
      * <p>This method performs the following actions in order:</p>
      * <ul>
-     *     <li>Closes the Excel file using {@link ExcelHandler#close()} to ensure data integrity.</li>
+     *     <li>Writes the changes the repository still keeps aside, such as the journal of the Excel file,
+     *     using {@link RoomRepository#flush(IntRoomMap)}.</li>
+     *     <li>Closes the store using {@link RoomRepository#close()} to ensure data integrity.</li>
      *     <li>Executes the provided {@link Runnable} exit action (e.g., terminating the application).</li>
      * </ul>
      */
     @Override
     public void execute() {
-        excelHandler.close();
+        repository.flush(rooms);
+        repository.close();
         exitAction.run();
     }
 }
\ No newline at end of file
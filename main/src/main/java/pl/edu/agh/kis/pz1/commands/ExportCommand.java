@@ -0,0 +1,49 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomDirectory;
+import pl.edu.agh.kis.pz1.RoomCsv;
+import pl.edu.agh.kis.pz1.RoomRepository;
+
+import java.io.IOException;
+
+/**
+ * A class representing the command 'export', which writes the state of all rooms to a CSV file.
+ * <p>The rooms are written record by record with {@link RoomCsv}, without going through the Excel file, so
+ * the data can be exchanged with other systems quickly and in constant memory.</p>
+ *
+ * <p>Extends the {@link Command}.</p>
+ */
+public class ExportCommand extends Command {
+    private final String csvFilePath;
+
+    /**
+     * Constructs a new {@code ExportCommand}.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map containing room numbers and their corresponding {@link Room} objects
+     * @param csvFilePath the path of the CSV file to write
+     */
+    public ExportCommand(RoomRepository repository, IntRoomMap r, String csvFilePath) {
+        super(repository, r);
+        this.csvFilePath = csvFilePath;
+    }
+
+    /**
+     * Executes the export command.
+     * <p>Writes all rooms, with their guests and dates of stay, to the CSV file, replacing it, and prints
+     * the number of exported rooms. The rooms are written from a
+     * {@linkplain RoomRepository#snapshot(IntRoomMap) snapshot}, so the file holds a single version of them.</p>
+     */
+    @Override
+    public void execute() {
+        try {
+            int count = RoomCsv.export(RoomDirectory.of(repository.snapshot(rooms)), csvFilePath);
+            System.out.println("Wyeksportowano pokoje (" + count + ") do pliku " + csvFilePath);
+        } catch (IOException e) {
+            System.out.println("Nie udało się wyeksportować pokoi: " + e.getMessage());
+        }
+        System.out.print("Wprowadź komendę: ");
+    }
+}
@@ -0,0 +1,111 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import pl.edu.agh.kis.pz1.Guest;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * A class representing service after command 'checkin &lt;from&gt;-&lt;to&gt;'
+ * This class checks a group in to all free rooms of a range of room numbers at once: the data of the group's
+ * main guest, the dates of stay and the additional information are read once and given to every room, and
+ * all rooms are stored with a single {@link RoomRepository#updateRooms(List)} call.
+ *
+ * <p>Extends the {@link CheckinCommand}.</p>
+ */
+public class GroupCheckinCommand extends CheckinCommand {
+    private final int from;
+    private final int to;
+
+    /**
+     * Constructs a new GroupCheckinCommand.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map of room numbers to room objects
+     * @param from the lowest room number of the group (inclusive)
+     * @param to the highest room number of the group (inclusive)
+     */
+    public GroupCheckinCommand(RoomRepository repository, IntRoomMap r, int from, int to) {
+        this(repository, r, new ReservationCalendar(), from, to);
+    }
+
+    /**
+     * Constructs a new GroupCheckinCommand booking the stays in the given calendar.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map of room numbers to room objects
+     * @param reservations the reservations of the rooms
+     * @param from the lowest room number of the group (inclusive)
+     * @param to the highest room number of the group (inclusive)
+     */
+    public GroupCheckinCommand(RoomRepository repository, IntRoomMap r, ReservationCalendar reservations,
+                               int from, int to) {
+        super(repository, r, reservations);
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Handles group check-in process by:
+     * <ul>
+     *     <li>Finding the free rooms of the range</li>
+     *     <li>Collecting the data of the main guest of the group</li>
+     *     <li>Setting the stay duration and booking the rooms for it, skipping the rooms reserved by
+     *     someone else</li>
+     *     <li>Setting additional details</li>
+     *     <li>Updating all rooms in the system at once</li>
+     * </ul>
+     * <p>If the range has no free room, nothing is read.</p>
+     */
+    @Override
+    public void execute() {
+        List<Room> free = new ArrayList<>();
+        rooms.forEachRoomInRange(from, to, room -> {
+            if (room.isFree()) {
+                free.add(room);
+            }
+        });
+        if (free.isEmpty()) {
+            System.out.println("Brak wolnych pokoi w zakresie " + from + "-" + to + ".");
+            System.out.print("\nWprowadź komendę: ");
+            return;
+        }
+        System.out.println("Wolne pokoje w zakresie " + from + "-" + to + ": " + free.size());
+        Scanner scanner = new Scanner(System.in);
+
+        Guest mainGuest = readMainGuestData();
+        LocalDate startDate = readStartDate();
+        int duration = readDuration();
+        LocalDate endDate = startDate.plusDays(duration);
+        free.removeIf(room -> !bookStay(room.getNumber(), mainGuest.getName(), startDate, endDate));
+        if (free.isEmpty()) {
+            System.out.println("Wszystkie wolne pokoje w zakresie " + from + "-" + to + " są zarezerwowane.");
+            System.out.print("\nWprowadź komendę: ");
+            return;
+        }
+
+        System.out.println("Jeśli masz jakieś dodatkowe informacje napisz je tutaj:");
+        String additionalInfo = scanner.nextLine();
+
+        for (Room room : free) {
+            List<Guest> guests = new ArrayList<>();
+            guests.add(new Guest(mainGuest.getName(), mainGuest.getEmailAddress(), mainGuest.getIdNumber(),
+                    mainGuest.getPhoneNumber()));
+            room.setGuests(guests);
+            room.setStartDate(startDate);
+            room.setEndDate(endDate);
+            room.setAdditionalInfo(additionalInfo);
+            rooms.changes().add(room);
+        }
+        store(() -> repository.updateRooms(free));
+
+        System.out.println("Zameldowano grupę w pokojach (" + free.size() + ")");
+        System.out.print("\nWprowadź komendę: ");
+    }
+}
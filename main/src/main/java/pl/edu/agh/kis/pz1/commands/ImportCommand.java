@@ -0,0 +1,115 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Reservation;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomCsv;
+import pl.edu.agh.kis.pz1.RoomRepository;
+
+import java.io.IOException;
+
+/**
+ * A class representing the command 'import', which reads the state of rooms from a CSV file.
+ * <p>The file is read record by record with {@link RoomCsv}. Rooms present in the file replace the data of the
+ * rooms with the same numbers, and rooms not known yet are added. The imported rooms are then saved with
+ * {@link RoomRepository#saveChanges(IntRoomMap)}.</p>
+ * <p>The imported stays are booked in the calendar of reservations in place of the previous stays of the
+ * rooms.</p>
+ *
+ * <p>Extends the {@link Command}.</p>
+ */
+public class ImportCommand extends Command {
+    private final String csvFilePath;
+
+    /**
+     * Constructs a new {@code ImportCommand}.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map containing room numbers and their corresponding {@link Room} objects
+     * @param csvFilePath the path of the CSV file to read
+     */
+    public ImportCommand(RoomRepository repository, IntRoomMap r, String csvFilePath) {
+        super(repository, r);
+        this.csvFilePath = csvFilePath;
+    }
+
+    /**
+     * Constructs a new {@code ImportCommand} booking the imported stays in the given calendar.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map containing room numbers and their corresponding {@link Room} objects
+     * @param reservations the reservations of the rooms
+     * @param csvFilePath the path of the CSV file to read
+     */
+    public ImportCommand(RoomRepository repository, IntRoomMap r, ReservationCalendar reservations,
+                         String csvFilePath) {
+        super(repository, r, reservations);
+        this.csvFilePath = csvFilePath;
+    }
+
+    /**
+     * Executes the import command.
+     * <p>The file is read twice: first only to check every record, then to apply them, so an invalid file
+     * leaves the rooms unchanged while memory use stays independent of the size of the file.</p>
+     */
+    @Override
+    public void execute() {
+        try {
+            RoomCsv.importRooms(csvFilePath, room -> { });
+            int count = RoomCsv.importRooms(csvFilePath, this::importRoom);
+            System.out.println("Zaimportowano pokoje (" + count + ") z pliku " + csvFilePath);
+        } catch (IOException e) {
+            System.out.println("Nie udało się zaimportować pokoi: " + e.getMessage());
+            System.out.print("Wprowadź komendę: ");
+            return;
+        }
+        repository.saveChanges(rooms);
+    }
+
+    /**
+     * Replaces the data of the room with the number of the imported room, or adds the room if there is none.
+     * <p>An existing room is updated in place, so other references to it see the imported data. The imported
+     * stay replaces the previous stay of the room in the calendar of reservations.</p>
+     *
+     * @param imported the room read from the file
+     */
+    void importRoom(Room imported) {
+        Room room = rooms.get(imported.getNumber());
+        if (room == null) {
+            rooms.put(imported.getNumber(), imported);
+            rooms.changes().added(imported);
+            replaceStay(null, imported);
+            return;
+        }
+        Reservation previous = ReservationCalendar.stayOf(room);
+        room.setPrice(imported.getPrice());
+        room.setType(imported.getType());
+        room.setCapacity(imported.getCapacity());
+        room.setGuests(imported.getGuests());
+        room.setStartDate(imported.getStartDate());
+        room.setEndDate(imported.getEndDate());
+        room.setAdditionalInfo(imported.getAdditionalInfo());
+        rooms.changes().add(room);
+        replaceStay(previous, room);
+    }
+
+    /**
+     * Books the imported stay of a room in place of its previous stay, printing the reservation it overlaps.
+     *
+     * @param previous the previous stay in the room, or null
+     * @param room the imported room
+     */
+    private void replaceStay(Reservation previous, Room room) {
+        try {
+            Reservation conflict = reservations.replaceStay(previous, room);
+            if (conflict != null) {
+                System.out.println("Pokój " + room.getNumber() + " jest zarezerwowany w dniach "
+                        + conflict.getStartDate() + " - " + conflict.getEndDate() + " (" + conflict.getGuestName()
+                        + ")");
+            }
+        } catch (IOException e) {
+            System.out.println("Nie udało się zapisać rezerwacji: " + e.getMessage());
+        }
+    }
+}
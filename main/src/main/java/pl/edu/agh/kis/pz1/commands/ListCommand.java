@@ -1,9 +1,11 @@
 package pl.edu.agh.kis.pz1.commands;
 
-import pl.edu.agh.kis.pz1.ExcelHandler;
 import pl.edu.agh.kis.pz1.Guest;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.PersistentMap;
 import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomDirectory;
+import pl.edu.agh.kis.pz1.RoomRepository;
 
 
 /**
@@ -14,36 +16,72 @@ import pl.edu.agh.kis.pz1.Room;
  * @see Command
  */
 public class ListCommand extends Command{
+    private final boolean ranged;
+    private final int from;
+    private final int to;
+
     /**
      * Constructs a new {@code ListCommand}.
-     * <p>This constructor initializes the command with the required {@link ExcelHandler}
+     * <p>This constructor initializes the command with the required {@link RoomRepository}
      * and a map of rooms.</p>
      *
-     * @param excelHandler the handler used to manage the Excel file
+     * @param repository the repository storing the rooms
+     * @param r a map containing room numbers and their corresponding {@link Room} objects
+     */
+    public ListCommand(RoomRepository repository, IntRoomMap r) {
+        super(repository, r);
+        this.ranged = false;
+        this.from = 0;
+        this.to = 0;
+    }
+
+    /**
+     * Constructs a new {@code ListCommand} limited to a range of room numbers.
+     *
+     * @param repository the repository storing the rooms
      * @param r a map containing room numbers and their corresponding {@link Room} objects
+     * @param from the lowest room number to list (inclusive)
+     * @param to the highest room number to list (inclusive)
      */
-    public ListCommand(ExcelHandler excelHandler, MyMap<Integer, Room> r) {
-        super(excelHandler, r);
+    public ListCommand(RoomRepository repository, IntRoomMap r, int from, int to) {
+        super(repository, r);
+        this.ranged = true;
+        this.from = from;
+        this.to = to;
     }
 
     /**
      * Executes the list command.
-     * <p>This method iterates through all rooms and prints detailed information about each one.
-     * If a room has guests, their data is also printed, followed by the duration of their stay.</p>
+     * <p>This method iterates through all rooms, or only the rooms of the requested range, and prints detailed
+     * information about each one. If a room has guests, their data is also printed, followed by the duration
+     * of their stay.</p>
+     * <p>The rooms are printed from a {@linkplain RoomRepository#snapshot(IntRoomMap) snapshot}, so the list
+     * shows a single version of them.</p>
      */
     @Override
     public void execute() {
-        for(int k : rooms.keys()){
-            Room room = rooms.get(k);
-            System.out.println(room.toString());
-            if(room.getGuests() != null && !room.getGuests().isEmpty()) {
-                System.out.println("Dane gości:");
-                for (Guest g : room.getGuests()) {
-                    System.out.println( "   " + g.toString());
-                }
-                System.out.println("    Pobyt (RRRR-MM-DD) od " + room.getStartDate() + " do " + room.getEndDate());
-            }
+        PersistentMap<Integer, Room> snapshot = repository.snapshot(rooms);
+        if (ranged) {
+            rooms.forEachRoomInRange(from, to, room -> printRoom(snapshot.get(room.getNumber())));
+        } else {
+            RoomDirectory.of(snapshot).forEachRoom(this::printRoom);
         }
         System.out.print("\nWprowadź komendę: ");
     }
+
+    /**
+     * Prints information about a single room, followed by its guests and the stay duration if it is occupied.
+     *
+     * @param room the room to print
+     */
+    void printRoom(Room room) {
+        System.out.println(room.toString());
+        if(room.getGuests() != null && !room.getGuests().isEmpty()) {
+            System.out.println("Dane gości:");
+            for (Guest g : room.getGuests()) {
+                System.out.println( "   " + g.toString());
+            }
+            System.out.println("    Pobyt (RRRR-MM-DD) od " + room.getStartDate() + " do " + room.getEndDate());
+        }
+    }
 }
@@ -0,0 +1,55 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import pl.edu.agh.kis.pz1.ExcelHandler;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
+import pl.edu.agh.kis.pz1.SqlRoomRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A class representing the command 'migrate', which copies the rooms from the Excel file into the SQL database.
+ * <p>The rooms are read from the file one at a time and inserted in batches by
+ * {@link SqlRoomRepository#migrateFrom(ExcelHandler)}, replacing the content of the database. The database is
+ * used from the next start of the application with {@code -Dhotel.repository=sql}.</p>
+ *
+ * <p>Extends the {@link Command}.</p>
+ */
+public class MigrateCommand extends Command {
+    private final String excelFilePath;
+    private final String databasePath;
+
+    /**
+     * Constructs a new {@code MigrateCommand}.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map containing room numbers and their corresponding {@link Room} objects
+     * @param excelFilePath the path of the Excel file to copy
+     * @param databasePath the path of the database to fill
+     */
+    public MigrateCommand(RoomRepository repository, IntRoomMap r, String excelFilePath, String databasePath) {
+        super(repository, r);
+        this.excelFilePath = excelFilePath;
+        this.databasePath = databasePath;
+    }
+
+    /**
+     * Executes the migrate command.
+     * <p>The changes kept aside by the repository are written first, so the Excel file holds the current state
+     * of the rooms, and then the file is copied into the database. The number of migrated rooms is printed.</p>
+     */
+    @Override
+    public void execute() {
+        repository.flush(rooms);
+        try (ExcelHandler source = new ExcelHandler(excelFilePath, ExcelHandler.LoadMode.STREAMING);
+             SqlRoomRepository target = SqlRoomRepository.open(databasePath)) {
+            int count = target.migrateFrom(source);
+            System.out.println("Przeniesiono pokoje (" + count + ") do bazy " + databasePath);
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Nie udało się przenieść pokoi: " + e.getMessage());
+        }
+        System.out.print("Wprowadź komendę: ");
+    }
+}
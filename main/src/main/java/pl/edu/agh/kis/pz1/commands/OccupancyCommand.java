@@ -0,0 +1,72 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import pl.edu.agh.kis.pz1.AvailabilityIndex;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * A class representing the service for the 'occupancy &lt;from&gt; &lt;to&gt; [floor|type]' command.
+ * <p>This command prints the number and the rate of occupied rooms of every night of a range of days, followed
+ * by the average rate, for the whole hotel, one floor or one type of rooms. The numbers are counted on the
+ * compressed bitmaps of the {@link AvailabilityIndex}, without visiting the rooms.</p>
+ */
+public class OccupancyCommand extends Command {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Integer floor;
+    private final String type;
+
+    /**
+     * Constructs a new {@code OccupancyCommand}.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map containing room numbers and their corresponding {@link Room} objects
+     * @param reservations the reservations of the rooms
+     * @param from the first day
+     * @param to the day after the last day
+     * @param floor the floor of the rooms, or {@code null} for all floors
+     * @param type the type of the rooms, or {@code null} for any type
+     */
+    public OccupancyCommand(RoomRepository repository, IntRoomMap r, ReservationCalendar reservations,
+                            LocalDate from, LocalDate to, Integer floor, String type) {
+        super(repository, r, reservations);
+        this.from = from;
+        this.to = to;
+        this.floor = floor;
+        this.type = type;
+    }
+
+    /**
+     * Executes the 'occupancy' command.
+     * <p>Prints the number of selected rooms, then one line per night with the number of occupied rooms and
+     * their rate, and the average rate of the nights.</p>
+     */
+    @Override
+    public void execute() {
+        AvailabilityIndex index = reservations.availability(rooms);
+        int count = index.count(floor, type);
+        if (count == 0) {
+            System.out.println("Brak pokoi do policzenia obłożenia");
+            System.out.print("\nWprowadź komendę: ");
+            return;
+        }
+        int[] occupied = index.occupied(from, to, floor, type);
+        System.out.println("Obłożenie w dniach " + from + " - " + to + " (pokoje: " + count + "):");
+        long total = 0;
+        for (int i = 0; i < occupied.length; i++) {
+            System.out.println(from.plusDays(i) + ": " + occupied[i] + " (" + percent(occupied[i], count) + ")");
+            total += occupied[i];
+        }
+        System.out.println("Średnie obłożenie: " + percent(total, (long) count * occupied.length));
+        System.out.print("\nWprowadź komendę: ");
+    }
+
+    private static String percent(long part, long whole) {
+        return String.format(Locale.ROOT, "%.1f%%", 100.0 * part / whole);
+    }
+}
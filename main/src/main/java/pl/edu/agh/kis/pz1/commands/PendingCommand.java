@@ -0,0 +1,77 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomChangeSet;
+import pl.edu.agh.kis.pz1.RoomRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class representing the service for the 'pending' command.
+ * <p>This command lists the rooms changed since they were last saved, with the changed fields of each room.
+ * It reads only the {@link RoomChangeSet} of the rooms, so its cost does not depend on the number of rooms of
+ * the hotel.</p>
+ */
+public class PendingCommand extends Command {
+
+    /**
+     * Constructs a new {@code PendingCommand}.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map containing room numbers and their corresponding {@link Room} objects
+     */
+    public PendingCommand(RoomRepository repository, IntRoomMap r) {
+        super(repository, r);
+    }
+
+    /**
+     * Executes the 'pending' command.
+     * <p>Prints the number of rooms with unsaved changes and, for each of them, the changed fields.</p>
+     */
+    @Override
+    public void execute() {
+        RoomChangeSet changes = rooms.changes();
+        if (changes.isEmpty()) {
+            System.out.println("Brak niezapisanych zmian");
+        } else {
+            System.out.println("Niezapisane zmiany (pokoje: " + changes.size() + "):");
+            changes.forEachRoom(room -> System.out.println("Pokój " + room.getNumber() + ": "
+                    + describe(changes.fieldsOf(room.getNumber()))));
+        }
+        System.out.print("\nWprowadź komendę: ");
+    }
+
+    /**
+     * Lists the names of the given fields.
+     *
+     * @param fields a bit set of the fields, as returned by {@link Room#getChanges()}
+     * @return the names of the fields, separated by commas
+     */
+    static String describe(int fields) {
+        List<String> names = new ArrayList<>();
+        if ((fields & Room.PRICE) != 0) {
+            names.add("cena");
+        }
+        if ((fields & Room.TYPE) != 0) {
+            names.add("typ");
+        }
+        if ((fields & Room.CAPACITY) != 0) {
+            names.add("liczba miejsc");
+        }
+        if ((fields & Room.GUESTS) != 0) {
+            names.add("goście");
+        }
+        if ((fields & Room.START_DATE) != 0) {
+            names.add("data zameldowania");
+        }
+        if ((fields & Room.END_DATE) != 0) {
+            names.add("data wymeldowania");
+        }
+        if ((fields & Room.ADDITIONAL_INFO) != 0) {
+            names.add("dodatkowe informacje");
+        }
+        return String.join(", ", names);
+    }
+}
@@ -1,39 +1,75 @@
 package pl.edu.agh.kis.pz1.commands;
 
-import pl.edu.agh.kis.pz1.ExcelHandler;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.PersistentMap;
 import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomDirectory;
+import pl.edu.agh.kis.pz1.RoomRepository;
 
 /**
  * A class representing the command to display the prices of all rooms.
  * <p>This command prints the prices of all rooms in the hotel, showing each room's number, type, and price.</p>
  */
 public class PricesCommand extends Command{
+    private final boolean ranged;
+    private final int from;
+    private final int to;
 
     /**
      * Constructs a new {@code PricesCommand}.
-     * <p>This constructor initializes the command with the required {@link ExcelHandler}
+     * <p>This constructor initializes the command with the required {@link RoomRepository}
      * and a map of rooms.</p>
      *
-     * @param excelHandler the handler used to manage the Excel file
+     * @param repository the repository storing the rooms
      * @param r a map containing room numbers and their corresponding {@link Room} objects
      */
-    public PricesCommand(ExcelHandler excelHandler, MyMap<Integer, Room> r) {
-        super(excelHandler, r);
+    public PricesCommand(RoomRepository repository, IntRoomMap r) {
+        super(repository, r);
+        this.ranged = false;
+        this.from = 0;
+        this.to = 0;
+    }
+
+    /**
+     * Constructs a new {@code PricesCommand} limited to a range of room numbers.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map containing room numbers and their corresponding {@link Room} objects
+     * @param from the lowest room number to list (inclusive)
+     * @param to the highest room number to list (inclusive)
+     */
+    public PricesCommand(RoomRepository repository, IntRoomMap r, int from, int to) {
+        super(repository, r);
+        this.ranged = true;
+        this.from = from;
+        this.to = to;
     }
 
     /**
      * Executes the prices command.
-     * <p>This method iterates through all rooms and prints their room number, type, and price per night.</p>
-     * <p>The price is displayed in PLN.</p>
+     * <p>This method iterates through all rooms, or only the rooms of the requested range, and prints their
+     * room number, type, and price per night.</p>
+     * <p>The price is displayed in PLN. The rooms are printed from a
+     * {@linkplain RoomRepository#snapshot(IntRoomMap) snapshot}, so the list shows a single version of them.</p>
      */
     @Override
     public void execute() {
+        PersistentMap<Integer, Room> snapshot = repository.snapshot(rooms);
         System.out.print("Nr    Typ     Cena\n");
-        for(Integer roomNr : rooms.keys()){
-            Room room = rooms.get(roomNr);
-            System.out.print(roomNr + " - "+ room.getType() + ": " + room.getPrice() + " PLN\n");
+        if (ranged) {
+            rooms.forEachRoomInRange(from, to, room -> printPrice(snapshot.get(room.getNumber())));
+        } else {
+            RoomDirectory.of(snapshot).forEachRoom(this::printPrice);
         }
         System.out.print("Wprowadź komendę: ");
     }
+
+    /**
+     * Prints the number, type and price per night of a single room.
+     *
+     * @param room the room to print
+     */
+    void printPrice(Room room) {
+        System.out.print(room.getNumber() + " - "+ room.getType() + ": " + room.getPrice() + " PLN\n");
+    }
 }
@@ -0,0 +1,67 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Reservation;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Scanner;
+
+/**
+ * A class representing the service for the 'reserve' command.
+ * <p>This command books a room for a future stay in the {@link ReservationCalendar}, without checking anyone in:
+ * the room does not have to be free now, but the stay must not overlap another reservation of the room. When
+ * the main guest arrives, checking them in to the room on the day of arrival takes the reservation over.</p>
+ *
+ * <p>Extends the {@link CheckinCommand}, whose methods read the dates of the stay.</p>
+ */
+public class ReserveCommand extends CheckinCommand {
+
+    /**
+     * Constructs a new {@code ReserveCommand}.
+     *
+     * @param repository the repository storing the rooms
+     * @param r a map containing room numbers and their corresponding {@link Room} objects
+     * @param reservations the reservations of the rooms
+     */
+    public ReserveCommand(RoomRepository repository, IntRoomMap r, ReservationCalendar reservations) {
+        super(repository, r, reservations);
+    }
+
+    /**
+     * Executes the 'reserve' command.
+     * <p>Reads the room number, the name of the main guest and the dates of the stay, and books the room. If the
+     * stay overlaps another reservation of the room, that reservation is printed instead.</p>
+     */
+    @Override
+    public void execute() {
+        int roomNr = readRoomNumber("view");
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Imię i nazwisko gościa głównego: ");
+        String guestName = scanner.nextLine();
+        LocalDate startDate = readStartDate();
+        int duration = readDuration();
+
+        if (duration <= 0) {
+            System.out.println("Pobyt musi trwać co najmniej jedną noc.");
+        } else {
+            Reservation reservation = new Reservation(roomNr, guestName, startDate, startDate.plusDays(duration));
+            try {
+                Reservation conflict = reservations.reserve(reservation);
+                if (conflict == null) {
+                    System.out.println("Zarezerwowano pokój " + roomNr + " w dniach " + reservation.getStartDate()
+                            + " - " + reservation.getEndDate());
+                } else {
+                    System.out.println("Pokój " + roomNr + " jest zarezerwowany w dniach " + conflict.getStartDate()
+                            + " - " + conflict.getEndDate() + " (" + conflict.getGuestName() + ")");
+                }
+            } catch (IOException e) {
+                System.out.println("Nie udało się zapisać rezerwacji: " + e.getMessage());
+            }
+        }
+        System.out.print("\nWprowadź komendę: ");
+    }
+}
@@ -1,34 +1,35 @@
 package pl.edu.agh.kis.pz1.commands;
 
-import pl.edu.agh.kis.pz1.ExcelHandler;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
 import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
 
 /**
  * A class representing the command to save the current state of the application.
- * <p>This command saves the current state of the rooms and their data into a file using
- * the {@link ExcelHandler}. This ensures that the changes made during the session are preserved.</p>
+ * <p>This command saves the current state of the rooms and their data into the store using
+ * the {@link RoomRepository}. This ensures that the changes made during the session are preserved.</p>
  */
 public class SaveCommand extends Command{
     /**
      * Constructs a new {@code SaveCommand}.
-     * <p>This constructor initializes the command with the required {@link ExcelHandler}
+     * <p>This constructor initializes the command with the required {@link RoomRepository}
      * and a map of rooms.</p>
      *
-     * @param excelHandler the handler used to save the state to a file
+     * @param repository the repository storing the rooms
      * @param r a map containing room numbers and their corresponding {@link Room} objects
      */
-    public SaveCommand(ExcelHandler excelHandler, MyMap<Integer, Room> r) {
-        super(excelHandler, r);
+    public SaveCommand(RoomRepository repository, IntRoomMap r) {
+        super(repository, r);
     }
 
     /**
      * Executes the save command.
-     * <p>This method invokes the {@link ExcelHandler#save()} method to save the current state of the rooms
-     * and their data to a file. This ensures that any changes made to room data are written to the file system.</p>
+     * <p>This method invokes the {@link RoomRepository#saveChanges(IntRoomMap)} method, which writes the rooms
+     * changed since the last save to the store, e.g. their cells of the Excel file. This ensures that any changes
+     * made to room data are preserved.</p>
      */
     @Override
     public void execute() {
-        excelHandler.save();
+        repository.saveChanges(rooms);
     }
 }
@@ -1,9 +1,9 @@
 package pl.edu.agh.kis.pz1.commands;
 
-import pl.edu.agh.kis.pz1.ExcelHandler;
 import pl.edu.agh.kis.pz1.Guest;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
 import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomRepository;
 
 /**
  * A class representing the service for the 'view' command.
@@ -14,14 +14,14 @@ public class ViewCommand extends Command{
 
     /**
      * Constructs a new {@code ViewCommand}.
-     * <p>This constructor initializes the command with the required {@link ExcelHandler}
+     * <p>This constructor initializes the command with the required {@link RoomRepository}
      * and a map of rooms.</p>
      *
-     * @param excelHandler the handler used to interact with the file system
+     * @param repository the repository storing the rooms
      * @param r a map containing room numbers and their corresponding {@link Room} objects
      */
-    public ViewCommand(ExcelHandler excelHandler, MyMap<Integer, Room> r) {
-        super(excelHandler, r);
+    public ViewCommand(RoomRepository repository, IntRoomMap r) {
+        super(repository, r);
     }
 
     /**
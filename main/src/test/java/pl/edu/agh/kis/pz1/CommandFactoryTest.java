@@ -21,7 +21,7 @@ class CommandFactoryTest {
     void setUp(){
         // Mocking or creating test dependencies
         ExcelHandler mockExcelHandler = mock(ExcelHandler.class);
-        MyMap<Integer, Room> mockRooms = new MyMap<>(); // Assuming MyMap is instantiated here
+        IntRoomMap mockRooms = new IntRoomMap();
         commandFactory = new CommandFactory(mockExcelHandler, mockRooms);
     }
 
@@ -85,6 +85,16 @@ class CommandFactoryTest {
         assertTrue(command instanceof SaveCommand);
     }
 
+    /**
+     * Tests if a function returns instance of correct class.
+     */
+    @Test
+    void testGetCommand_PendingCommand() {
+        Command command = commandFactory.getCommand("pending");
+        assertNotNull(command);
+        assertTrue(command instanceof PendingCommand);
+    }
+
     /**
      * Tests if a function returns instance of correct class.
      */
@@ -95,6 +105,16 @@ class CommandFactoryTest {
         assertTrue(command instanceof ExitCommand);
     }
 
+    /**
+     * Tests if a function returns instance of correct class.
+     */
+    @Test
+    void testGetCommand_MigrateCommand() {
+        Command command = commandFactory.getCommand("migrate");
+        assertNotNull(command);
+        assertTrue(command instanceof MigrateCommand);
+    }
+
     /**
      * Tests if a function returns instance of correct class.
      */
@@ -113,4 +133,88 @@ class CommandFactoryTest {
         Command command = commandFactory.getCommand("invalid");
         assertNull(command, "CommandFactory should return null for unknown command types");
     }
+
+    /**
+     * Tests if list, prices, checkin and checkout accept a range of room numbers or a floor number.
+     */
+    @Test
+    void testGetCommand_RangeCommands() {
+        assertTrue(commandFactory.getCommand("list 300-399") instanceof ListCommand);
+        assertTrue(commandFactory.getCommand("list 3") instanceof ListCommand);
+        assertTrue(commandFactory.getCommand("prices 101-120") instanceof PricesCommand);
+        assertTrue(commandFactory.getCommand("prices 2") instanceof PricesCommand);
+        assertTrue(commandFactory.getCommand("checkin 101-110") instanceof GroupCheckinCommand);
+        assertTrue(commandFactory.getCommand("checkout 3") instanceof BulkCheckoutCommand);
+    }
+
+    /**
+     * Tests if invalid ranges and arguments of commands which take none return null.
+     */
+    @Test
+    void testGetCommand_InvalidRange() {
+        assertNull(commandFactory.getCommand("list abc"));
+        assertNull(commandFactory.getCommand("list 399-300"));
+        assertNull(commandFactory.getCommand("list 1 2"));
+        assertNull(commandFactory.getCommand("save 3"));
+    }
+
+    /**
+     * Tests if import and export take the rest of the input as the path of the file.
+     */
+    @Test
+    void testGetCommand_FileCommands() {
+        assertTrue(commandFactory.getCommand("export data/rooms.csv") instanceof ExportCommand);
+        assertTrue(commandFactory.getCommand("import  nightly export.csv") instanceof ImportCommand);
+        assertNull(commandFactory.getCommand("export"));
+        assertNull(commandFactory.getCommand("import "));
+    }
+
+    /**
+     * Tests if reserve returns its command and calendar accepts an optional valid date.
+     */
+    @Test
+    void testGetCommand_ReservationCommands() {
+        assertTrue(commandFactory.getCommand("reserve") instanceof ReserveCommand);
+        assertTrue(commandFactory.getCommand("calendar") instanceof CalendarCommand);
+        assertTrue(commandFactory.getCommand("calendar 2024-11-01") instanceof CalendarCommand);
+        assertNull(commandFactory.getCommand("calendar 2024-13-01"));
+        assertNull(commandFactory.getCommand("calendar 3"));
+    }
+
+    /**
+     * Tests if available requires two ordered dates and takes an optional type and capacity.
+     */
+    @Test
+    void testGetCommand_AvailableCommand() {
+        assertTrue(commandFactory.getCommand("available 2024-11-01 2024-11-05") instanceof AvailableCommand);
+        assertTrue(commandFactory.getCommand("available 2024-11-01 2024-11-05 Standard") instanceof AvailableCommand);
+        assertTrue(commandFactory.getCommand("available 2024-11-01 2024-11-05 Pokój rodzinny 4")
+                instanceof AvailableCommand);
+        assertNull(commandFactory.getCommand("available 2024-11-01"));
+        assertNull(commandFactory.getCommand("available 2024-11-05 2024-11-05"));
+        assertNull(commandFactory.getCommand("available jutro 2024-11-05"));
+    }
+
+    /**
+     * Tests if occupancy requires two ordered dates and takes an optional floor or type.
+     */
+    @Test
+    void testGetCommand_OccupancyCommand() {
+        assertTrue(commandFactory.getCommand("occupancy 2024-11-01 2024-12-01") instanceof OccupancyCommand);
+        assertTrue(commandFactory.getCommand("occupancy 2024-11-01 2024-12-01 3") instanceof OccupancyCommand);
+        assertTrue(commandFactory.getCommand("occupancy 2024-11-01 2024-12-01 Apartament") instanceof OccupancyCommand);
+        assertNull(commandFactory.getCommand("occupancy 2024-12-01 2024-11-01"));
+        assertNull(commandFactory.getCommand("occupancy"));
+    }
+
+    /**
+     * Tests parsing of ranges and floor numbers.
+     */
+    @Test
+    void testParseRange() {
+        assertArrayEquals(new int[] {300, 399}, CommandFactory.parseRange("3"));
+        assertArrayEquals(new int[] {101, 120}, CommandFactory.parseRange("101-120"));
+        assertNull(CommandFactory.parseRange("-3"));
+        assertNull(CommandFactory.parseRange("1-"));
+    }
 }
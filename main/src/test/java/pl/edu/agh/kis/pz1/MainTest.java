@@ -8,6 +8,8 @@ import java.io.IOException;
 import java.io.PrintStream;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -21,7 +23,7 @@ import static org.mockito.Mockito.when;
 
 class MainTest {
     private ExcelHandler mockExcelHandler;
-    private MyMap<Integer, Room> mockRooms;
+    private IntRoomMap mockRooms;
 
     /**
      * Sets up mocks of ExcelHandler and Rooms map and captures output to outputStream array.
@@ -29,7 +31,7 @@ class MainTest {
     @BeforeEach
     void setUp() {
         mockExcelHandler = mock(ExcelHandler.class);
-        mockRooms = mock(MyMap.class);
+        mockRooms = mock(IntRoomMap.class);
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         System.setOut(new PrintStream(outputStream));
     }
@@ -41,10 +43,12 @@ class MainTest {
 
     @Test
     void testCreateCommandFactory() throws IOException {
-        when(mockExcelHandler.getRoomsData()).thenReturn(mockRooms);
+        when(mockExcelHandler.getRoomsDataCached(anyString())).thenReturn(mockRooms);
         try (var mockedExcelHandlerConstructor = Mockito.mockConstruction(ExcelHandler.class, (mock, context) -> {
-            when(mock.getRoomsData()).thenReturn(mockRooms);
-        })) {
+            when(mock.getRoomsDataCached(anyString())).thenReturn(mockRooms);
+        });
+             var mockedCalendar = Mockito.mockStatic(ReservationCalendar.class)) {
+            mockedCalendar.when(() -> ReservationCalendar.open(any(), any())).thenReturn(new ReservationCalendar());
             CommandFactory commandFactory = Main.createCommandFactory();
             // Assert
             assertNotNull(commandFactory);
@@ -0,0 +1,78 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.edu.agh.kis.pz1.ExcelHandler;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Reservation;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+import pl.edu.agh.kis.pz1.Room;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A test class for {@link AvailableCommand} class.
+ * <p>Checks that the rooms free for a stay are listed by price, limited to a type and a capacity.</p>
+ */
+class AvailableCommandTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 11, 1);
+    private final PrintStream originalOut = System.out;
+    private ExcelHandler excelHandler;
+    private IntRoomMap rooms;
+    private ReservationCalendar reservations;
+    private ByteArrayOutputStream outContent;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        excelHandler = mock(ExcelHandler.class);
+        rooms = new IntRoomMap();
+        rooms.put(101, new Room(101, 300, "Standard", 2));
+        rooms.put(102, new Room(102, 200, "Standard", 2));
+        rooms.put(103, new Room(103, 250, "Standard", 3));
+        rooms.put(201, new Room(201, 500, "Apartament", 4));
+        reservations = new ReservationCalendar();
+        reservations.reserve(new Reservation(102, "Jan Kowalski", DAY, DAY.plusDays(3)));
+        outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Checks that the booked room is left out and the other rooms of the type are listed from the cheapest.
+     */
+    @Test
+    void testExecute() {
+        new AvailableCommand(excelHandler, rooms, reservations, DAY.plusDays(1), DAY.plusDays(4), "Standard", 0)
+                .execute();
+
+        String expected = """
+                Wolne pokoje w dniach 2024-11-02 - 2024-11-05 (2):
+                Pokój nr 103, cena: 250, typ:Standard, 3-osobowy
+                Pokój nr 101, cena: 300, typ:Standard, 2-osobowy
+
+                Wprowadź komendę:""";
+        assertEquals(expected, outContent.toString().replace("\r\n", "\n").trim());
+    }
+
+    /**
+     * Checks the message printed when no room matches.
+     */
+    @Test
+    void testNothingAvailable() {
+        new AvailableCommand(excelHandler, rooms, reservations, DAY, DAY.plusDays(2), "Apartament", 5).execute();
+
+        assertTrue(outContent.toString().startsWith("Brak wolnych pokoi w dniach 2024-11-01 - 2024-11-03"));
+    }
+}
@@ -0,0 +1,85 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.edu.agh.kis.pz1.ExcelHandler;
+import pl.edu.agh.kis.pz1.Guest;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomDirectory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * A test class for {@link BulkCheckoutCommand} class
+ * <p>Tests if all occupied rooms of the range are charged, cleared and stored with one call to the
+ * repository.</p>
+ */
+class BulkCheckoutCommandTest {
+    private final PrintStream originalOut = System.out;
+    private ExcelHandler mockExcelHandler;
+    private IntRoomMap rooms;
+    private ByteArrayOutputStream outputStream;
+
+    /**
+     * Sets up a mock of ExcelHandler and five rooms, of which 102 and 104 are occupied, and captures the output.
+     */
+    @BeforeEach
+    void setUp() {
+        mockExcelHandler = mock(ExcelHandler.class);
+        rooms = new RoomDirectory();
+        for (int number = 101; number <= 105; number++) {
+            rooms.put(number, new Room(number, 200, "Standard", 2));
+        }
+        LocalDate today = LocalDate.now();
+        for (int number : new int[] {102, 104}) {
+            Room room = rooms.get(number);
+            room.setGuests(new ArrayList<>(List.of(new Guest("Jan Kowalski", "jan@example.com", "1", "123456789"))));
+            room.setStartDate(today.minusDays(2));
+            room.setEndDate(today);
+        }
+        outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Checks that the occupied rooms are charged and cleared, and stored together.
+     */
+    @Test
+    void testExecuteChecksOutOccupiedRooms() {
+        new BulkCheckoutCommand(mockExcelHandler, rooms, 100, 199).execute();
+
+        verify(mockExcelHandler).updateRooms(List.of(rooms.get(102), rooms.get(104)));
+        verify(mockExcelHandler, never()).clearRoomInfo(any());
+        assertTrue(rooms.get(102).isFree());
+        assertTrue(rooms.get(104).isFree());
+        String output = outputStream.toString();
+        assertTrue(output.contains("Pokój 102 - należność: 400 PLN"));
+        assertTrue(output.contains("Pokój 104 - należność: 400 PLN"));
+        assertTrue(output.contains("Wymeldowano pokoje (2), łączna należność: 800 PLN"));
+    }
+
+    /**
+     * Checks that nothing is stored when the range has no occupied room.
+     */
+    @Test
+    void testExecuteWithoutOccupiedRooms() {
+        new BulkCheckoutCommand(mockExcelHandler, rooms, 105, 105).execute();
+
+        verifyNoInteractions(mockExcelHandler);
+        assertTrue(outputStream.toString().contains("Brak zajętych pokoi w zakresie 105-105."));
+    }
+}
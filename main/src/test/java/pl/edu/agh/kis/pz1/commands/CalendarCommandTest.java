@@ -0,0 +1,66 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.edu.agh.kis.pz1.ExcelHandler;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Reservation;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * A test class for {@link CalendarCommand} class.
+ * <p>Checks that the guests in the hotel, the arrivals and the departures of a day are listed.</p>
+ */
+class CalendarCommandTest {
+    private final PrintStream originalOut = System.out;
+    private ByteArrayOutputStream outContent;
+
+    @BeforeEach
+    void setUp() {
+        outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Books a stay ending, a stay starting and a stay going on through the day, and checks the printed lists.
+     */
+    @Test
+    void testExecute() throws IOException {
+        ExcelHandler excelHandler = mock(ExcelHandler.class);
+        ReservationCalendar reservations = new ReservationCalendar();
+        LocalDate date = LocalDate.of(2024, 11, 4);
+        reservations.reserve(new Reservation(101, "Jan Kowalski", date.minusDays(3), date));
+        reservations.reserve(new Reservation(101, "Anna Nowak", date, date.plusDays(2)));
+        reservations.reserve(new Reservation(102, "Piotr Zieliński", date.minusDays(1), date.plusDays(1)));
+
+        new CalendarCommand(excelHandler, new IntRoomMap(), reservations, date).execute();
+
+        String expected = """
+                Goście w hotelu w dniu 2024-11-04 (2):
+                Pokój 102: Piotr Zieliński, 2024-11-03 - 2024-11-05
+                Pokój 101: Anna Nowak, 2024-11-04 - 2024-11-06
+                Przyjazdy (1):
+                Pokój 101: Anna Nowak, 2024-11-04 - 2024-11-06
+                Wyjazdy (1):
+                Pokój 101: Jan Kowalski, 2024-11-01 - 2024-11-04
+
+                Wprowadź komendę:""";
+        assertEquals(expected, outContent.toString().replace("\r\n", "\n").trim());
+        verifyNoInteractions(excelHandler);
+    }
+}
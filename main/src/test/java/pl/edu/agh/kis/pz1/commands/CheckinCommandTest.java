@@ -6,7 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import pl.edu.agh.kis.pz1.ExcelHandler;
 import pl.edu.agh.kis.pz1.Guest;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
 import pl.edu.agh.kis.pz1.Room;
 
 import java.io.ByteArrayInputStream;
@@ -25,7 +25,7 @@ import static org.mockito.Mockito.*;
 class CheckinCommandTest {
     private CheckinCommand checkinCommand;
     ExcelHandler excelHandlerMock;
-    MyMap<Integer, Room> roomsMock;
+    IntRoomMap roomsMock;
 
     /**
      * Sets up mocks of ExcelHandler and Rooms map and creates a new instance of CheckinCommand with these mocks.
@@ -34,7 +34,8 @@ class CheckinCommandTest {
     void setUp() {
         // Mock ExcelHandler and Room
         excelHandlerMock = mock(ExcelHandler.class);
-        roomsMock = mock(MyMap.class);
+        roomsMock = mock(IntRoomMap.class);
+        when(roomsMock.changes()).thenReturn(new IntRoomMap().changes());
 
         checkinCommand = new CheckinCommand(excelHandlerMock, roomsMock);
     }
@@ -181,9 +182,9 @@ class CheckinCommandTest {
         Guest mainGuest = checkinCommand.readMainGuestData();
 
         assertEquals("John Doe", mainGuest.getName());
-        assertEquals("123456789", mainGuest.getIdNumber());
+        assertEquals("12345678901", mainGuest.getIdNumber());
         assertEquals("john.doe@example.com", mainGuest.getEmailAddress());
-        assertEquals("12345678901", mainGuest.getPhoneNumber());
+        assertEquals("123456789", mainGuest.getPhoneNumber());
     }
 
     /**
@@ -5,11 +5,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import pl.edu.agh.kis.pz1.ExcelHandler;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.Guest;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
 import pl.edu.agh.kis.pz1.Room;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 
@@ -18,7 +25,7 @@ import static org.mockito.Mockito.*;
  * <p>This class provides test cases to functions that handle clearing data and displaying charge.</p>
  */
 class CheckoutCommandTest {
-    private MyMap<Integer, Room> roomMap;
+    private IntRoomMap roomMap;
     private ExcelHandler excelHandler;
     private Room room;
 
@@ -36,11 +43,12 @@ class CheckoutCommandTest {
     @BeforeEach
     void setUp() {
         excelHandler = mock(ExcelHandler.class);
-        roomMap = mock(MyMap.class);
+        roomMap = mock(IntRoomMap.class);
         room = mock(Room.class);
 
         // Mock behavior for roomMap to return the mocked room
         when(roomMap.get(anyInt())).thenReturn(room);
+        when(roomMap.changes()).thenReturn(new IntRoomMap().changes());
 
         // Mock behavior for the room price
         when(room.calculatePrice()).thenReturn(200L); // For example, room price is 200 PLN
@@ -85,4 +93,54 @@ class CheckoutCommandTest {
         System.setOut(System.out);
         System.setIn(System.in);
     }
+
+    /**
+     * Tests if a failure of the repository is reported and does not end the session.
+     */
+    @Test
+    void testExecuteReportsStoreFailure() {
+        CheckoutCommand spyCommand = Mockito.spy(checkoutCommand);
+        doReturn(101).when(spyCommand).readRoomNumber("checkout");
+        doThrow(new UncheckedIOException(new IOException("dysk pełny"))).when(excelHandler).clearRoomInfo(room);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+        spyCommand.execute();
+        System.setOut(System.out);
+
+        String output = outputStream.toString();
+        Assertions.assertTrue(output.contains("Nie udało się zapisać zmian: dysk pełny"));
+        Assertions.assertTrue(output.contains("Wprowadź komendę:"));
+    }
+
+    /**
+     * Checks in a guest three days ago, checks them out today and checks that the nights spent stay in the
+     * calendar while the rest of the stay is free again.
+     */
+    @Test
+    void testCheckoutEndsTheReservationToday() throws IOException {
+        LocalDate today = LocalDate.now();
+        IntRoomMap rooms = new IntRoomMap();
+        Room occupied = new Room(101, 200, "Standard", 2);
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"));
+        occupied.setGuests(guests);
+        occupied.setStartDate(today.minusDays(3));
+        occupied.setEndDate(today.plusDays(2));
+        rooms.put(101, occupied);
+        ReservationCalendar calendar = new ReservationCalendar();
+        calendar.reserve(ReservationCalendar.stayOf(occupied));
+
+        CheckoutCommand spyCommand = Mockito.spy(new CheckoutCommand(excelHandler, rooms, calendar));
+        doReturn(101).when(spyCommand).readRoomNumber("checkout");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+        spyCommand.execute();
+        System.setOut(System.out);
+
+        Assertions.assertTrue(occupied.isFree());
+        Assertions.assertEquals(1, calendar.inHouse(today.minusDays(1)).size());
+        Assertions.assertEquals(today, calendar.find(101, today.minusDays(1)).getEndDate());
+        Assertions.assertNull(calendar.find(101, today));
+    }
 }
@@ -4,7 +4,7 @@ import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
 import pl.edu.agh.kis.pz1.Room;
 
 import java.io.ByteArrayInputStream;
@@ -21,7 +21,7 @@ import static org.mockito.Mockito.*;
  */
 class CommandTest {
     private Command command;
-    private MyMap<Integer, Room> rooms;
+    private IntRoomMap rooms;
     private Room mockRoom;
 
     /**
@@ -30,7 +30,7 @@ class CommandTest {
      */
     @BeforeEach
     void setUp() {
-        rooms = Mockito.mock(MyMap.class);
+        rooms = Mockito.mock(IntRoomMap.class);
         mockRoom = Mockito.mock(Room.class);
         command = new Command(null, rooms);
     }
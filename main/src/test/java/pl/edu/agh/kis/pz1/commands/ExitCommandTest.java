@@ -2,12 +2,13 @@ package pl.edu.agh.kis.pz1.commands;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import pl.edu.agh.kis.pz1.ExcelHandler;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
 import pl.edu.agh.kis.pz1.Room;
 
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -16,19 +17,19 @@ import static org.testng.Assert.assertTrue;
 class ExitCommandTest {
 
     private ExcelHandler excelHandler;
-    private MyMap<Integer, Room> rooms;
+    private IntRoomMap rooms;
     private ExitCommand exitCommand;
     private boolean isExited;
 
     /**
-     * Sets up excelHandler mock, new instance of MyMap rooms and new exitCommand
+     * Sets up excelHandler mock, new instance of IntRoomMap rooms and new exitCommand
      * <p>Uses mock to simulate behaviour of real class.</p>
      * <p>Uses special constructor to change boolean isExited to false during closing the application</p>
      */
     @BeforeEach
     void setUp(){
         excelHandler = mock(ExcelHandler.class);
-        rooms = new MyMap<>();
+        rooms = new IntRoomMap();
         isExited = false;
         exitCommand = new ExitCommand(excelHandler, rooms, () -> isExited = true);
     }
@@ -41,8 +42,10 @@ class ExitCommandTest {
     void testExecute() {
         exitCommand.execute();
 
-        // Verify that the excelHandler's close method is called
-        verify(excelHandler).close();
+        // Verify that the pending changes are written before the store is closed
+        InOrder inOrder = inOrder(excelHandler);
+        inOrder.verify(excelHandler).flush(rooms);
+        inOrder.verify(excelHandler).close();
 
         // Verify that the exit action has been triggered
         assertTrue(isExited, "System exit action was not triggered.");
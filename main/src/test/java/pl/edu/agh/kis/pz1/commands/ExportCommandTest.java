@@ -0,0 +1,84 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.edu.agh.kis.pz1.ExcelHandler;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomCsv;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * A test class for {@link ExportCommand} class
+ * <p>Tests if the command writes all rooms to the CSV file.</p>
+ */
+class ExportCommandTest {
+    private final PrintStream originalOut = System.out;
+    private ExcelHandler mockExcelHandler;
+    private IntRoomMap rooms;
+    private Path file;
+    private ByteArrayOutputStream outputStream;
+
+    /**
+     * Sets up a mock of ExcelHandler, a map of two rooms and a temporary file, and captures the output.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        mockExcelHandler = mock(ExcelHandler.class);
+        when(mockExcelHandler.snapshot(any())).thenCallRealMethod();
+        rooms = new IntRoomMap();
+        rooms.put(101, new Room(101, 250, "Standard", 2));
+        rooms.put(102, new Room(102, 300, "Deluxe", 3));
+        file = Files.createTempFile("rooms", ".csv");
+        outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        System.setOut(originalOut);
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Exports the rooms and reads the file back.
+     */
+    @Test
+    void testExecuteWritesAllRooms() throws IOException {
+        new ExportCommand(mockExcelHandler, rooms, file.toString()).execute();
+
+        List<Room> exported = new ArrayList<>();
+        RoomCsv.importRooms(file.toString(), exported::add);
+        assertEquals(2, exported.size());
+        assertEquals("Deluxe", exported.get(1).getType());
+        assertTrue(outputStream.toString().contains("(2)"));
+        verify(mockExcelHandler).snapshot(rooms);
+        verifyNoMoreInteractions(mockExcelHandler);
+    }
+
+    /**
+     * Checks that a file which cannot be written is reported.
+     */
+    @Test
+    void testExecuteReportsError() {
+        new ExportCommand(mockExcelHandler, rooms, file.resolve("missing/rooms.csv").toString()).execute();
+
+        assertTrue(outputStream.toString().contains("Nie udało się wyeksportować pokoi"));
+    }
+}
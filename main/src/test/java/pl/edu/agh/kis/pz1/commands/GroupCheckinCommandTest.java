@@ -0,0 +1,127 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import pl.edu.agh.kis.pz1.ExcelHandler;
+import pl.edu.agh.kis.pz1.Guest;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Reservation;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+import pl.edu.agh.kis.pz1.Room;
+import pl.edu.agh.kis.pz1.RoomDirectory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * A test class for {@link GroupCheckinCommand} class
+ * <p>Tests if all free rooms of the range are checked in with one call to the repository.</p>
+ */
+class GroupCheckinCommandTest {
+    private final InputStream originalIn = System.in;
+    private final PrintStream originalOut = System.out;
+    private ExcelHandler mockExcelHandler;
+    private IntRoomMap rooms;
+    private ByteArrayOutputStream outputStream;
+
+    /**
+     * Sets up a mock of ExcelHandler and five free rooms, one of them then occupied, and captures the output.
+     */
+    @BeforeEach
+    void setUp() {
+        mockExcelHandler = mock(ExcelHandler.class);
+        rooms = new RoomDirectory();
+        for (int number = 101; number <= 105; number++) {
+            rooms.put(number, new Room(number, 200, "Standard", 2));
+        }
+        rooms.get(103).setGuests(new ArrayList<>(List.of(new Guest("Anna Nowak", "anna@example.com",
+                "1", "123456789"))));
+        outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setIn(originalIn);
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Checks that the group is checked in to the free rooms only, with the same main guest and dates.
+     */
+    @Test
+    void testExecuteChecksInFreeRooms() {
+        System.setIn(new ByteArrayInputStream("Wycieczka szkolna\n".getBytes()));
+        GroupCheckinCommand spyCommand = Mockito.spy(new GroupCheckinCommand(mockExcelHandler, rooms, 102, 110));
+        doReturn(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"))
+                .when(spyCommand).readMainGuestData();
+        doReturn(LocalDate.of(2024, 11, 1)).when(spyCommand).readStartDate();
+        doReturn(3).when(spyCommand).readDuration();
+
+        spyCommand.execute();
+
+        verify(mockExcelHandler).updateRooms(List.of(rooms.get(102), rooms.get(104), rooms.get(105)));
+        verify(mockExcelHandler, never()).updateRoomInfo(any());
+        for (int number : new int[] {102, 104, 105}) {
+            Room room = rooms.get(number);
+            assertEquals("Jan Kowalski", room.getGuests().get(0).getName());
+            assertEquals(LocalDate.of(2024, 11, 4), room.getEndDate());
+            assertEquals("Wycieczka szkolna", room.getAdditionalInfo());
+        }
+        assertNotSame(rooms.get(102).getGuests().get(0), rooms.get(104).getGuests().get(0));
+        assertEquals("Anna Nowak", rooms.get(103).getGuests().get(0).getName());
+        assertTrue(rooms.get(101).isFree());
+        assertTrue(outputStream.toString().contains("Zameldowano grupę w pokojach (3)"));
+    }
+
+    /**
+     * Checks that a free room reserved by someone else for the days of the stay is left out of the group, and
+     * that the stays of the other rooms are booked.
+     */
+    @Test
+    void testExecuteSkipsReservedRooms() throws IOException {
+        ReservationCalendar reservations = new ReservationCalendar();
+        reservations.reserve(new Reservation(104, "Piotr Zieliński", LocalDate.of(2024, 11, 3),
+                LocalDate.of(2024, 11, 5)));
+        System.setIn(new ByteArrayInputStream("\n".getBytes()));
+        GroupCheckinCommand spyCommand = Mockito.spy(new GroupCheckinCommand(mockExcelHandler, rooms, reservations,
+                104, 105));
+        doReturn(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"))
+                .when(spyCommand).readMainGuestData();
+        doReturn(LocalDate.of(2024, 11, 1)).when(spyCommand).readStartDate();
+        doReturn(3).when(spyCommand).readDuration();
+
+        spyCommand.execute();
+
+        verify(mockExcelHandler).updateRooms(List.of(rooms.get(105)));
+        assertTrue(rooms.get(104).isFree());
+        assertEquals("Jan Kowalski", reservations.find(105, LocalDate.of(2024, 11, 3)).getGuestName());
+        assertTrue(outputStream.toString().contains("Pokój 104 jest zarezerwowany w dniach 2024-11-03 - 2024-11-05"
+                + " (Piotr Zieliński)"));
+    }
+
+    /**
+     * Checks that nothing is read nor stored when the range has no free room.
+     */
+    @Test
+    void testExecuteWithoutFreeRooms() {
+        GroupCheckinCommand spyCommand = Mockito.spy(new GroupCheckinCommand(mockExcelHandler, rooms, 103, 103));
+
+        spyCommand.execute();
+
+        verify(spyCommand, never()).readMainGuestData();
+        verifyNoInteractions(mockExcelHandler);
+        assertTrue(outputStream.toString().contains("Brak wolnych pokoi w zakresie 103-103."));
+    }
+}
@@ -34,8 +34,20 @@ class HelpCommandTest {
                    - 'view' wypisuje wszystkie informacje o wybranym pokoju
                    - 'checkin' pozwala na zameldowanie gości w wybranym pokoju
                    - 'checkout' pozwala na wymeldowanie gościa z pokoju
+                   - 'checkin <od>-<do>' melduje grupę we wszystkich wolnych pokojach z podanego zakresu
+                   - 'checkout <od>-<do>' wymeldowuje gości ze wszystkich zajętych pokoi z podanego zakresu
+                   - 'reserve' rezerwuje wybrany pokój na przyszły pobyt
+                   - 'calendar [RRRR-MM-DD]' wypisuje gości w hotelu, przyjazdy i wyjazdy danego dnia
+                   - 'available <od> <do> [typ] [liczba osób]' listuje wolne pokoje w podanych dniach według ceny
+                   - 'occupancy <od> <do> [piętro|typ]' wypisuje obłożenie pokoi w kolejnych dniach
                    - 'list' listuje wszystkie pokoje wraz z informacją o zajętości
+                   - 'list <od>-<do>' lub 'list <piętro>' listuje pokoje z podanego zakresu numerów lub piętra
+                   - 'prices <od>-<do>' lub 'prices <piętro>' listuje ceny pokoi z podanego zakresu lub piętra
                    - 'save' zapisuje aktualny stan w pliku .xlsx
+                   - 'pending' wypisuje pokoje ze zmianami, które nie zostały jeszcze zapisane
+                   - 'export <plik>' zapisuje stan wszystkich pokoi i gości w pliku .csv
+                   - 'import <plik>' wczytuje stan pokoi i gości z pliku .csv i zapisuje go
+                   - 'migrate' przenosi pokoje z pliku .xlsx do bazy danych SQL
                    - 'exit' zamyka program
                    
                    Wprowadź komendę:""";
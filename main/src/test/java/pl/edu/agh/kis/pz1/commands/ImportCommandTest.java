@@ -0,0 +1,131 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.edu.agh.kis.pz1.ExcelHandler;
+import pl.edu.agh.kis.pz1.Guest;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Reservation;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+import pl.edu.agh.kis.pz1.Room;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * A test class for {@link ImportCommand} class
+ * <p>Tests if the command updates and adds rooms read from the CSV file and saves them.</p>
+ */
+class ImportCommandTest {
+    private static final String HEADER = "number,price,type,capacity,start_date,end_date,additional_info,"
+            + "main_guest_name,main_guest_email,main_guest_id,main_guest_phone,other_guests\n";
+
+    private final PrintStream originalOut = System.out;
+    private ExcelHandler mockExcelHandler;
+    private IntRoomMap rooms;
+    private Room room;
+    private Path file;
+    private ByteArrayOutputStream outputStream;
+
+    /**
+     * Sets up a mock of ExcelHandler, a map with one room and a temporary file, and captures the output.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        mockExcelHandler = mock(ExcelHandler.class);
+        rooms = new IntRoomMap();
+        room = new Room(101, 250, "Standard", 2);
+        rooms.put(101, room);
+        file = Files.createTempFile("rooms", ".csv");
+        outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        System.setOut(originalOut);
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Imports a file updating one room and adding another, and checks that the rooms are saved.
+     */
+    @Test
+    void testExecuteUpdatesAndAddsRooms() throws IOException {
+        Files.write(file, (HEADER
+                + "101,270,Standard,2,2024-11-01,2024-11-03,,Jan Kowalski,jan@example.com,980987,123456789,Anna Nowak\n"
+                + "205,400,Apartament,4,,,,,,,,\n").getBytes(StandardCharsets.UTF_8));
+
+        new ImportCommand(mockExcelHandler, rooms, file.toString()).execute();
+
+        assertSame(room, rooms.get(101));
+        assertEquals(270, room.getPrice());
+        assertEquals(2, room.getGuests().size());
+        assertEquals("Anna Nowak", room.getGuests().get(1).getName());
+        assertEquals("Apartament", rooms.get(205).getType());
+        assertTrue(rooms.get(205).isFree());
+        verify(mockExcelHandler, times(1)).saveChanges(rooms);
+        assertEquals(2, rooms.changes().size());
+    }
+
+    /**
+     * Checks that an invalid record leaves all rooms unchanged and nothing is saved.
+     */
+    @Test
+    void testInvalidFileChangesNothing() throws IOException {
+        Files.write(file, (HEADER
+                + "101,270,Standard,2,,,,,,,,\n"
+                + "102,abc,Standard,2,,,,,,,,\n").getBytes(StandardCharsets.UTF_8));
+
+        new ImportCommand(mockExcelHandler, rooms, file.toString()).execute();
+
+        assertEquals(250, room.getPrice());
+        assertNull(rooms.get(102));
+        assertTrue(outputStream.toString().contains("Nie udało się zaimportować pokoi"));
+        verifyNoInteractions(mockExcelHandler);
+    }
+
+    /**
+     * Imports stays replacing the stay booked for one room and overlapping a reservation of another, and checks
+     * the calendar and the reported overlap.
+     */
+    @Test
+    void testImportedStaysAreBooked() throws IOException {
+        ReservationCalendar calendar = new ReservationCalendar();
+        Reservation previous = new Reservation(101, "Piotr Zieliński", LocalDate.of(2024, 10, 28),
+                LocalDate.of(2024, 11, 2));
+        Reservation booked = new Reservation(205, "Ewa Wiśniewska", LocalDate.of(2024, 11, 2),
+                LocalDate.of(2024, 11, 4));
+        room.setGuests(new ArrayList<>(List.of(new Guest("Piotr Zieliński", "piotr@example.com", "456456",
+                "111222333"))));
+        room.setStartDate(previous.getStartDate());
+        room.setEndDate(previous.getEndDate());
+        calendar.reserve(previous);
+        calendar.reserve(booked);
+        Files.write(file, (HEADER
+                + "101,270,Standard,2,2024-11-01,2024-11-03,,Jan Kowalski,jan@example.com,980987,123456789,\n"
+                + "205,400,Apartament,4,2024-11-01,2024-11-03,,Anna Nowak,anna@example.com,123123,987654321,\n")
+                .getBytes(StandardCharsets.UTF_8));
+
+        new ImportCommand(mockExcelHandler, rooms, calendar, file.toString()).execute();
+
+        List<Reservation> stays = calendar.reservationsOf(101);
+        assertEquals(1, stays.size());
+        assertEquals("Jan Kowalski", stays.get(0).getGuestName());
+        assertEquals(LocalDate.of(2024, 11, 3), stays.get(0).getEndDate());
+        assertEquals(List.of(booked), calendar.reservationsOf(205));
+        assertTrue(outputStream.toString().contains(
+                "Pokój 205 jest zarezerwowany w dniach 2024-11-02 - 2024-11-04 (Ewa Wiśniewska)"));
+    }
+}
@@ -6,7 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import pl.edu.agh.kis.pz1.ExcelHandler;
 import pl.edu.agh.kis.pz1.Guest;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
 import pl.edu.agh.kis.pz1.Room;
 
 import java.io.ByteArrayOutputStream;
@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 
 /**
  * A test class for {@link ListCommand} class.
@@ -23,7 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
  */
 class ListCommandTest {
     private ExcelHandler excelHandler;
-    private MyMap<Integer, Room> rooms;
+    private IntRoomMap rooms;
     private ListCommand listCommand;
     private ByteArrayOutputStream outContent;
 
@@ -35,7 +36,8 @@ class ListCommandTest {
     @BeforeEach
     void setUp() {
         excelHandler = Mockito.mock(ExcelHandler.class);
-        rooms = new MyMap<>();
+        Mockito.when(excelHandler.snapshot(any())).thenCallRealMethod();
+        rooms = new IntRoomMap();
         outContent = new ByteArrayOutputStream();
         System.setOut(new PrintStream(outContent));
         listCommand = new ListCommand(excelHandler, rooms);
@@ -0,0 +1,64 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.edu.agh.kis.pz1.ExcelHandler;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A test class for {@link MigrateCommand} class
+ * <p>Tests if the pending changes are written before the Excel file is copied, and if errors are reported.</p>
+ */
+class MigrateCommandTest {
+    private final PrintStream originalOut = System.out;
+    private ExcelHandler mockExcelHandler;
+    private IntRoomMap rooms;
+    private Path directory;
+    private ByteArrayOutputStream outputStream;
+
+    /**
+     * Sets up a mock of ExcelHandler, an empty map of rooms and a temporary directory, and captures the output.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        mockExcelHandler = mock(ExcelHandler.class);
+        rooms = new IntRoomMap();
+        directory = Files.createTempDirectory("rooms");
+        outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        System.setOut(originalOut);
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Checks that a missing Excel file is reported and no database is created.
+     */
+    @Test
+    void testExecuteReportsMissingFile() throws IOException {
+        Path database = directory.resolve("rooms");
+        new MigrateCommand(mockExcelHandler, rooms, directory.resolve("rooms.xlsx").toString(),
+                database.toString()).execute();
+
+        verify(mockExcelHandler).flush(rooms);
+        assertTrue(outputStream.toString().contains("Nie udało się przenieść pokoi"));
+        try (var files = Files.list(directory)) {
+            assertFalse(files.findAny().isPresent());
+        }
+    }
+}
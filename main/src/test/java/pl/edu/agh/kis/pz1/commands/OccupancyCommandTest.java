@@ -0,0 +1,84 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.edu.agh.kis.pz1.ExcelHandler;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Reservation;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+import pl.edu.agh.kis.pz1.Room;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A test class for {@link OccupancyCommand} class.
+ * <p>Checks the occupancy printed for every night, for the hotel and for a floor.</p>
+ */
+class OccupancyCommandTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 11, 1);
+    private final PrintStream originalOut = System.out;
+    private ExcelHandler excelHandler;
+    private IntRoomMap rooms;
+    private ReservationCalendar reservations;
+    private ByteArrayOutputStream outContent;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        excelHandler = mock(ExcelHandler.class);
+        rooms = new IntRoomMap();
+        rooms.put(101, new Room(101, 300, "Standard", 2));
+        rooms.put(102, new Room(102, 200, "Standard", 2));
+        rooms.put(201, new Room(201, 500, "Apartament", 4));
+        rooms.put(202, new Room(202, 500, "Apartament", 4));
+        reservations = new ReservationCalendar();
+        reservations.reserve(new Reservation(101, "Jan Kowalski", DAY, DAY.plusDays(2)));
+        reservations.reserve(new Reservation(201, "Anna Nowak", DAY.plusDays(1), DAY.plusDays(2)));
+        outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Checks the numbers and rates of the nights of the whole hotel and their average.
+     */
+    @Test
+    void testExecute() {
+        new OccupancyCommand(excelHandler, rooms, reservations, DAY, DAY.plusDays(3), null, null).execute();
+
+        String expected = """
+                Obłożenie w dniach 2024-11-01 - 2024-11-04 (pokoje: 4):
+                2024-11-01: 1 (25.0%)
+                2024-11-02: 2 (50.0%)
+                2024-11-03: 0 (0.0%)
+                Średnie obłożenie: 25.0%
+
+                Wprowadź komendę:""";
+        assertEquals(expected, outContent.toString().replace("\r\n", "\n").trim());
+    }
+
+    /**
+     * Checks that only the rooms of the floor are counted, and the message printed for a floor without rooms.
+     */
+    @Test
+    void testExecuteForFloor() {
+        new OccupancyCommand(excelHandler, rooms, reservations, DAY, DAY.plusDays(2), 2, null).execute();
+        new OccupancyCommand(excelHandler, rooms, reservations, DAY, DAY.plusDays(2), 7, null).execute();
+
+        String output = outContent.toString().replace("\r\n", "\n");
+        assertTrue(output.contains("(pokoje: 2):\n2024-11-01: 0 (0.0%)\n2024-11-02: 1 (50.0%)\n"
+                + "Średnie obłożenie: 25.0%"));
+        assertTrue(output.contains("Brak pokoi do policzenia obłożenia"));
+    }
+}
@@ -0,0 +1,87 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import pl.edu.agh.kis.pz1.ExcelHandler;
+import pl.edu.agh.kis.pz1.Guest;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Room;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * A test class for {@link PendingCommand} class.
+ * <p>Checks that the rooms changed since the last save are listed with their changed fields.</p>
+ */
+class PendingCommandTest {
+    private final PrintStream originalOut = System.out;
+    private ExcelHandler excelHandler;
+    private IntRoomMap rooms;
+    private ByteArrayOutputStream outContent;
+
+    @BeforeEach
+    void setUp() {
+        excelHandler = Mockito.mock(ExcelHandler.class);
+        rooms = new IntRoomMap();
+        for (int number = 101; number <= 103; number++) {
+            rooms.put(number, new Room(number, 200, "Standard", 2));
+            rooms.get(number).clearChanges();
+        }
+        outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Checks in one room and changes the price of another, and checks that only these rooms are listed.
+     */
+    @Test
+    void testListsChangedRoomsAndFields() {
+        Room checkedIn = rooms.get(103);
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"));
+        checkedIn.setGuests(guests);
+        checkedIn.setStartDate(LocalDate.of(2024, 11, 1));
+        checkedIn.setEndDate(LocalDate.of(2024, 11, 4));
+        rooms.changes().add(checkedIn);
+        rooms.get(101).setPrice(300);
+        rooms.changes().add(rooms.get(101));
+
+        new PendingCommand(excelHandler, rooms).execute();
+
+        String output = outContent.toString().replace("\r\n", "\n");
+        assertTrue(output.startsWith("Niezapisane zmiany (pokoje: 2):\n"
+                + "Pokój 101: cena\n"
+                + "Pokój 103: goście, data zameldowania, data wymeldowania\n"));
+        assertFalse(output.contains("Pokój 102"));
+        verifyNoInteractions(excelHandler);
+    }
+
+    /**
+     * Checks the message printed when nothing changed or the changes were saved.
+     */
+    @Test
+    void testNothingPending() {
+        rooms.get(102).setCapacity(3);
+        rooms.changes().add(rooms.get(102));
+        rooms.changes().drain();
+
+        new PendingCommand(excelHandler, rooms).execute();
+
+        assertTrue(outContent.toString().startsWith("Brak niezapisanych zmian"));
+        assertFalse(rooms.get(102).isChanged());
+    }
+}
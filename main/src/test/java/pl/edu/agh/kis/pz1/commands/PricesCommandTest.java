@@ -4,34 +4,37 @@ import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import pl.edu.agh.kis.pz1.ExcelHandler;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
 import pl.edu.agh.kis.pz1.Room;
 
 import java.io.PrintStream;
-import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * A test class for {@link PricesCommand} class
  * <p>Checks if output is correct and function prints all rooms' prices.</p>
  */
 class PricesCommandTest {
-    private MyMap<Integer, Room> roomsMock;
+    private ExcelHandler excelHandlerMock;
+    private IntRoomMap rooms;
     private PricesCommand pricesCommand;
     private ByteArrayOutputStream outputStream;
 
     /**
-     * Sets up an excelHandler and rooms mocks, initializes PricesCommand with these mocks and catches output
+     * Sets up an excelHandler mock and an empty rooms map, initializes PricesCommand with them and catches output
      * to outputStream.
      */
     @BeforeEach
     void setUp() {
-        ExcelHandler excelHandlerMock = mock(ExcelHandler.class);
-        roomsMock = mock(MyMap.class);
+        excelHandlerMock = mock(ExcelHandler.class);
+        when(excelHandlerMock.snapshot(any())).thenCallRealMethod();
+        rooms = new IntRoomMap();
 
-        pricesCommand = new PricesCommand(excelHandlerMock, roomsMock);
+        pricesCommand = new PricesCommand(excelHandlerMock, rooms);
 
         outputStream = new ByteArrayOutputStream();
         System.setOut(new PrintStream(outputStream));
@@ -41,7 +44,7 @@ class PricesCommandTest {
      * Tests execute function basic functionality.
      * <p>
      *     <ul>
-     *         <li>Sets up a simulated actions of MyMap roomsMock.</li>
+     *         <li>Puts two rooms into the rooms map.</li>
      *         <li>Verify if the output sticks to expected output.</li>
      *     </ul>
      * </p>
@@ -51,9 +54,8 @@ class PricesCommandTest {
         Room room1 = new Room(101, 100,"Standard", 1);
         Room room2 = new Room(102, 200,"Standard", 2);
 
-        when(roomsMock.keys()).thenReturn(List.of(101, 102));
-        when(roomsMock.get(101)).thenReturn(room1);
-        when(roomsMock.get(102)).thenReturn(room2);
+        rooms.put(101, room1);
+        rooms.put(102, room2);
 
         pricesCommand.execute();
 
@@ -65,10 +67,6 @@ class PricesCommandTest {
                 """.trim();
 
         assertEquals(expectedOutput, new String(outputStream.toByteArray()).trim());
-
-        verify(roomsMock, times(1)).keys();
-        verify(roomsMock, times(1)).get(101);
-        verify(roomsMock, times(1)).get(102);
     }
 
     /**
@@ -77,8 +75,6 @@ class PricesCommandTest {
      */
     @Test
     void execute_shouldHandleEmptyRooms() {
-        when(roomsMock.keys()).thenReturn(List.of());
-
         pricesCommand.execute();
 
         String expectedOutput =
@@ -86,8 +82,26 @@ class PricesCommandTest {
                         "Wprowadź komendę:";
 
         assertEquals(expectedOutput, new String(outputStream.toByteArray()).trim());
+    }
+
+    /**
+     * Tests if a ranged command prints only the rooms of the requested floor.
+     */
+    @Test
+    void execute_shouldPrintOnlyRequestedRange() {
+        rooms.put(101, new Room(101, 100,"Standard", 1));
+        rooms.put(201, new Room(201, 300,"Deluxe", 2));
+        rooms.put(202, new Room(202, 400,"Deluxe", 2));
 
-        verify(roomsMock, times(1)).keys();
-        verifyNoMoreInteractions(roomsMock);
+        new PricesCommand(excelHandlerMock, rooms, 200, 299).execute();
+
+        String expectedOutput = """
+                Nr    Typ     Cena
+                201 - Deluxe: 300 PLN
+                202 - Deluxe: 400 PLN
+                Wprowadź komendę:
+                """.trim();
+
+        assertEquals(expectedOutput, new String(outputStream.toByteArray()).trim());
     }
-}
\ No newline at end of file
+}
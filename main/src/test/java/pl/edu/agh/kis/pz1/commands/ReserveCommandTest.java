@@ -0,0 +1,86 @@
+package pl.edu.agh.kis.pz1.commands;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import pl.edu.agh.kis.pz1.ExcelHandler;
+import pl.edu.agh.kis.pz1.IntRoomMap;
+import pl.edu.agh.kis.pz1.Reservation;
+import pl.edu.agh.kis.pz1.ReservationCalendar;
+import pl.edu.agh.kis.pz1.Room;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * A test class for {@link ReserveCommand} class.
+ * <p>Checks that a room is booked for a future stay unless the stay overlaps another reservation.</p>
+ */
+class ReserveCommandTest {
+    private final InputStream originalIn = System.in;
+    private final PrintStream originalOut = System.out;
+    private ExcelHandler excelHandler;
+    private IntRoomMap rooms;
+    private ReservationCalendar reservations;
+    private ByteArrayOutputStream outContent;
+
+    @BeforeEach
+    void setUp() {
+        excelHandler = mock(ExcelHandler.class);
+        rooms = new IntRoomMap();
+        rooms.put(101, new Room(101, 200, "Standard", 2));
+        reservations = new ReservationCalendar();
+        outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setIn(originalIn);
+        System.setOut(originalOut);
+    }
+
+    private void reserve(String guestName, LocalDate startDate, int duration) {
+        System.setIn(new ByteArrayInputStream((guestName + "\n").getBytes()));
+        ReserveCommand spyCommand = Mockito.spy(new ReserveCommand(excelHandler, rooms, reservations));
+        doReturn(101).when(spyCommand).readRoomNumber("view");
+        doReturn(startDate).when(spyCommand).readStartDate();
+        doReturn(duration).when(spyCommand).readDuration();
+        spyCommand.execute();
+    }
+
+    /**
+     * Books a room and checks that the reservation is in the calendar and the room itself is not changed.
+     */
+    @Test
+    void testExecuteBooksRoom() {
+        reserve("Jan Kowalski", LocalDate.of(2024, 12, 20), 3);
+
+        Reservation reservation = reservations.find(101, LocalDate.of(2024, 12, 22));
+        assertEquals("Jan Kowalski", reservation.getGuestName());
+        assertEquals(LocalDate.of(2024, 12, 23), reservation.getEndDate());
+        assertTrue(rooms.get(101).isFree());
+        assertTrue(outContent.toString().contains("Zarezerwowano pokój 101 w dniach 2024-12-20 - 2024-12-23"));
+        verifyNoInteractions(excelHandler);
+    }
+
+    /**
+     * Checks that a stay overlapping another reservation is refused with that reservation printed.
+     */
+    @Test
+    void testExecuteRefusesOverlap() {
+        reserve("Jan Kowalski", LocalDate.of(2024, 12, 20), 3);
+        reserve("Anna Nowak", LocalDate.of(2024, 12, 22), 2);
+
+        assertEquals(1, reservations.size());
+        assertTrue(outContent.toString().contains("Pokój 101 jest zarezerwowany w dniach 2024-12-20 - 2024-12-23"
+                + " (Jan Kowalski)"));
+    }
+}
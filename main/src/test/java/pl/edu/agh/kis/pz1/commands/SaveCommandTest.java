@@ -3,7 +3,7 @@ package pl.edu.agh.kis.pz1.commands;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import pl.edu.agh.kis.pz1.ExcelHandler;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
 import pl.edu.agh.kis.pz1.Room;
 
 import static org.mockito.Mockito.*;
@@ -15,7 +15,7 @@ import static org.mockito.Mockito.*;
 class SaveCommandTest {
 
     private ExcelHandler mockExcelHandler;
-    private MyMap<Integer, Room> mockRoomMap;
+    private IntRoomMap mockRoomMap;
     private SaveCommand saveCommand;
 
     /**
@@ -24,22 +24,22 @@ class SaveCommandTest {
     @BeforeEach
     void setUp() {
         mockExcelHandler = mock(ExcelHandler.class);
-        mockRoomMap = mock(MyMap.class);
+        mockRoomMap = mock(IntRoomMap.class);
 
         saveCommand = new SaveCommand(mockExcelHandler, mockRoomMap);
     }
 
     /**
-     * Verify if the method save of ExcelHandler was called and exactly once.
+     * Verify if the method saveChanges of ExcelHandler was called and exactly once.
      */
     @Test
     void testExecuteCallsSave() {
         saveCommand.execute();
 
-        // Verify that ExcelHandler's save method was called exactly once
-        verify(mockExcelHandler, times(1)).save();
+        // Verify that ExcelHandler's saveChanges method was called exactly once
+        verify(mockExcelHandler, times(1)).saveChanges(mockRoomMap);
 
-        // Verify no unnecessary interactions with other objects
+        // Verify the rooms are only handed over, not read by the command itself
         verifyNoInteractions(mockRoomMap);
     }
 }
@@ -6,7 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import pl.edu.agh.kis.pz1.ExcelHandler;
 import pl.edu.agh.kis.pz1.Guest;
-import pl.edu.agh.kis.pz1.MyMap;
+import pl.edu.agh.kis.pz1.IntRoomMap;
 import pl.edu.agh.kis.pz1.Room;
 
 import java.io.ByteArrayOutputStream;
@@ -23,7 +23,7 @@ import static org.mockito.Mockito.*;
 class ViewCommandTest {
 
     private ExcelHandler mockExcelHandler;
-    private MyMap<Integer, Room> mockRooms;
+    private IntRoomMap mockRooms;
     private ViewCommand viewCommand;
     private ByteArrayOutputStream outputStream;
 
@@ -35,7 +35,7 @@ class ViewCommandTest {
     void setUp() {
         // Mock dependencies
         mockExcelHandler = mock(ExcelHandler.class);
-        mockRooms = mock(MyMap.class);
+        mockRooms = mock(IntRoomMap.class);
 
         // Create the ViewCommand with mocked dependencies
         viewCommand = new ViewCommand(mockExcelHandler, mockRooms);
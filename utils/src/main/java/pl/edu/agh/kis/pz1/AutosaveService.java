@@ -0,0 +1,206 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Saves the rooms workbook in the background, at most once per interval.
+ * <p>
+ * {@link ExcelHandler} reports every changed room with {@link #roomChanged(Room)}. The service puts a copy of
+ * the changed room into its own {@link PersistentMap} of all rooms and, on the first change after a write,
+ * schedules the next write one interval later, so any number of changes made in the meantime are coalesced
+ * into a single write. When the write is due, the service takes a {@linkplain PersistentMap#snapshot()
+ * snapshot} of the map in constant time and writes it with {@link RoomWorkbookWriter}; the rooms used by the
+ * commands are never read by the saving thread, so the written file is consistent and the console never waits
+ * for the disk. No write happens when nothing has changed. The same snapshot is handed to reports and exports
+ * by {@link #snapshot()}.
+ * </p>
+ * <p>
+ * The changes are handed over under the lock of the {@link ExcelHandler}, which also guards its journal:
+ * the journal is emptied after a write only if no change was made since the snapshot was taken.
+ * Pending changes are written by {@link #flush()}, on {@link #close()} and by a JVM shutdown hook. Under the
+ * same condition the {@linkplain IntRoomMap#changes() changes} of the rooms recorded before the snapshot are
+ * {@linkplain RoomChangeSet#saved(long) forgotten}, as they are saved, without reading the rooms.
+ * </p>
+ */
+public class AutosaveService implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(AutosaveService.class.getName());
+
+    private final ExcelHandler excelHandler;
+    private final String excelFilePath;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor;
+    private final Thread shutdownHook;
+    private final ReentrantLock saveLock = new ReentrantLock();
+    private final RoomChangeSet unsaved;
+
+    // guarded by excelHandler
+    private final PersistentMap<Integer, Room> version = new PersistentMap<>();
+    private boolean dirty;
+    private boolean scheduled;
+    private long saves;
+
+    /**
+     * Creates the service and starts its saving thread.
+     *
+     * @param excelHandler the handler of the Excel file, whose lock guards the changes.
+     * @param excelFilePath the path of the Excel file.
+     * @param rooms the current rooms; they are copied and the copy is kept up to date from the changes.
+     * @param interval the minimum time between two writes.
+     * @param unit the unit of the interval.
+     * @param dirty whether the rooms already differ from the file, for example after replaying the journal.
+     */
+    AutosaveService(ExcelHandler excelHandler, String excelFilePath, IntRoomMap rooms, long interval,
+                    TimeUnit unit, boolean dirty) {
+        this.excelHandler = excelHandler;
+        this.excelFilePath = excelFilePath;
+        this.intervalMillis = unit.toMillis(interval);
+        this.unsaved = rooms.changes();
+        rooms.forEachRoom(room -> version.put(room.getNumber(), new Room(room)));
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.shutdownHook = new Thread(this::flush, "autosave-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        if (dirty) {
+            synchronized (excelHandler) {
+                this.dirty = true;
+                schedule(0);
+            }
+        }
+    }
+
+    /**
+     * Records a change of the given room; called by {@link ExcelHandler} while holding its lock.
+     *
+     * @param room the changed room.
+     */
+    void roomChanged(Room room) {
+        version.put(room.getNumber(), new Room(room));
+        dirty = true;
+        schedule(intervalMillis);
+    }
+
+    /**
+     * Takes over the rooms changed in the Excel file by another program; called by {@link ExcelHandler} while
+     * holding its lock.
+     * <p>The file already holds them, so no write is scheduled; they are only applied to the rooms written
+     * next, so that the next write does not undo them.</p>
+     *
+     * @param reloaded the rooms changed in the file.
+     */
+    void roomsReloaded(RoomChanges reloaded) {
+        reloaded.changed().forEachRoom(room -> version.put(room.getNumber(), new Room(room)));
+        reloaded.removed().forEachRoom(room -> version.remove(room.getNumber()));
+    }
+
+    /**
+     * Schedules a write of the given rooms right away instead of at the end of the interval, without waiting
+     * for it.
+     * <p>All rooms are copied, so rooms changed or added without going through {@link ExcelHandler}, for
+     * example by an import, are written too.</p>
+     *
+     * @param rooms the rooms to write.
+     */
+    public void saveSoon(IntRoomMap rooms) {
+        synchronized (excelHandler) {
+            rooms.forEachRoom(room -> version.put(room.getNumber(), new Room(room)));
+            dirty = true;
+            schedule(0);
+        }
+    }
+
+    /**
+     * Returns the rooms as they will be written next, in constant time.
+     *
+     * @return a read-only map from room numbers to copies of the rooms.
+     */
+    public PersistentMap<Integer, Room> snapshot() {
+        synchronized (excelHandler) {
+            return version.snapshot();
+        }
+    }
+
+    /**
+     * Writes the pending changes, if there are any, and returns when they are written.
+     */
+    public void flush() {
+        saveLock.lock();
+        try {
+            PersistentMap<Integer, Room> taken;
+            long mark;
+            synchronized (excelHandler) {
+                scheduled = false;
+                if (!dirty) {
+                    return;
+                }
+                taken = version.snapshot();
+                mark = unsaved.mark();
+                dirty = false;
+            }
+            RoomDirectory written = RoomDirectory.of(taken);
+            RoomWorkbookWriter.write(written, excelFilePath, RoomWorkbookWriter.ROW_WINDOW);
+            excelHandler.roomsWritten(written);
+            synchronized (excelHandler) {
+                saves++;
+                if (!dirty) {
+                    excelHandler.resetJournal();
+                    unsaved.saved(mark);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+            synchronized (excelHandler) {
+                // the rooms hold unsaved changes, try again after the interval
+                dirty = true;
+                schedule(intervalMillis);
+            }
+        } finally {
+            saveLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of writes made so far.
+     *
+     * @return the number of times the workbook has been written.
+     */
+    public long saveCount() {
+        synchronized (excelHandler) {
+            return saves;
+        }
+    }
+
+    /**
+     * Writes the pending changes and stops the saving thread.
+     */
+    @Override
+    public void close() {
+        synchronized (excelHandler) {
+            executor.shutdownNow();
+        }
+        flush();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // the JVM is already shutting down and the hook is running or has run
+        }
+    }
+
+    private void schedule(long delayMillis) {
+        if (scheduled && delayMillis > 0) {
+            return;
+        }
+        scheduled = true;
+        if (!executor.isShutdown()) {
+            executor.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
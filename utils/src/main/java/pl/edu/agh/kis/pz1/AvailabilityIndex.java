@@ -0,0 +1,283 @@
+package pl.edu.agh.kis.pz1;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An index of the occupancy of the rooms, night by night: the rooms free in a range of days, by type and
+ * capacity, and the number of rooms occupied each night, in the hotel, on a floor or of a type.
+ * <p>
+ * Every room gets a slot, the position of its bit in a set of rooms. The index holds one {@link RoomBitmap} of
+ * the rooms of each type, one of the rooms of each capacity, one of the rooms of each floor and, for every night
+ * with a reservation, one of the rooms occupied that night. A search takes the rooms of the type and capacities
+ * and removes the rooms of each night of the stay; the occupancy of a floor or of a type is the number of slots
+ * of the AND of its set with the set of the night. Neither visits a room or a reservation. As the sets are
+ * compressed, a night with few occupied rooms takes two bytes for each, so the nights of several years of
+ * reservations of a large hotel take a few megabytes.
+ * </p>
+ * <p>
+ * The index is kept by a {@link ReservationCalendar}, which updates the nights when a reservation is made or
+ * cancelled. Changes of the type or the capacity of a room are given to {@link #update(Room)}. A search also
+ * checks every room it finds against the rooms of the hotel and drops, and re-indexes, the ones which no longer
+ * match, and indexes all rooms again when rooms have been added to or removed from the hotel. The index is not
+ * thread-safe.
+ * </p>
+ */
+public final class AvailabilityIndex {
+    private final IntRoomMap rooms;
+    private final MyHashMap<Integer, Integer> slots = new MyHashMap<>();
+    private int[] numbers = new int[16];
+    private String[] types = new String[16];
+    private int[] capacities = new int[16];
+    private int slotCount;
+
+    private final RoomBitmap present = new RoomBitmap();
+    private final MyHashMap<String, RoomBitmap> byType = new MyHashMap<>();
+    private final MyHashMap<Integer, RoomBitmap> byCapacity = new MyHashMap<>();
+    private final MyHashMap<Integer, RoomBitmap> byFloor = new MyHashMap<>();
+    private int maxCapacity;
+    private final MyHashMap<Integer, RoomBitmap> nights = new MyHashMap<>();
+
+    /**
+     * Creates an index of the given rooms, without reservations.
+     *
+     * @param rooms the rooms of the hotel.
+     */
+    AvailabilityIndex(IntRoomMap rooms) {
+        this.rooms = rooms;
+        rooms.forEachRoom(this::update);
+    }
+
+    /**
+     * Indexes a room, or its new type and capacity.
+     *
+     * @param room the room.
+     */
+    public void update(Room room) {
+        int slot = slotOf(room.getNumber());
+        if (present.contains(slot)) {
+            byType.get(types[slot]).remove(slot);
+            byCapacity.get(capacities[slot]).remove(slot);
+        }
+        types[slot] = typeKey(room.getType());
+        capacities[slot] = room.getCapacity();
+        setOf(byType, types[slot]).add(slot);
+        setOf(byCapacity, capacities[slot]).add(slot);
+        setOf(byFloor, floorOf(room.getNumber())).add(slot);
+        maxCapacity = Math.max(maxCapacity, capacities[slot]);
+        present.add(slot);
+    }
+
+    /**
+     * Marks the nights of a reservation as occupied.
+     *
+     * @param reservation the reservation.
+     */
+    void occupy(Reservation reservation) {
+        int slot = slotOf(reservation.getRoomNumber());
+        for (int day = reservation.startDay(); day < reservation.endDay(); day++) {
+            setOf(nights, day).add(slot);
+        }
+    }
+
+    /**
+     * Marks the nights of a cancelled reservation as free; reservations of a room never overlap, so no other
+     * reservation holds them.
+     *
+     * @param reservation the reservation.
+     */
+    void release(Reservation reservation) {
+        int slot = slotOf(reservation.getRoomNumber());
+        for (int day = reservation.startDay(); day < reservation.endDay(); day++) {
+            RoomBitmap night = nights.get(day);
+            if (night != null) {
+                night.remove(slot);
+                if (night.isEmpty()) {
+                    nights.remove(day);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the rooms free for a whole stay.
+     * <p>A stay including the coming night also skips the rooms occupied now, even if their stay is not in the
+     * calendar, for example because it has no end date or it overlaps a reservation.</p>
+     *
+     * @param from the day of arrival.
+     * @param to the day of departure, after the day of arrival.
+     * @param type the type of the rooms, regardless of case, or {@code null} for any type.
+     * @param minCapacity the lowest capacity of the rooms.
+     * @return the free rooms, by price and then by number.
+     */
+    public List<Room> available(LocalDate from, LocalDate to, String type, int minCapacity) {
+        checkRooms();
+        RoomBitmap found = select(null, type);
+        if (minCapacity > 0) {
+            RoomBitmap capable = new RoomBitmap();
+            for (int capacity = minCapacity; capacity <= maxCapacity; capacity++) {
+                RoomBitmap ofCapacity = byCapacity.get(capacity);
+                if (ofCapacity != null) {
+                    capable = capable.or(ofCapacity);
+                }
+            }
+            found = found.and(capable);
+        }
+        for (int day = (int) from.toEpochDay(); day < to.toEpochDay() && !found.isEmpty(); day++) {
+            RoomBitmap night = nights.get(day);
+            if (night != null) {
+                found = found.andNot(night);
+            }
+        }
+
+        List<Integer> candidates = new ArrayList<>();
+        found.forEach(candidates::add);
+        LocalDate today = LocalDate.now();
+        boolean tonight = !from.isAfter(today) && to.isAfter(today);
+        List<Room> free = new ArrayList<>();
+        for (int slot : candidates) {
+            Room room = rooms.get(numbers[slot]);
+            if (room == null) {
+                remove(slot);
+            } else if (tonight && !room.isFree()) {
+                continue;
+            } else if (!typeKey(room.getType()).equals(types[slot]) || room.getCapacity() != capacities[slot]) {
+                update(room);
+                if ((type == null || typeKey(type).equals(types[slot])) && capacities[slot] >= minCapacity) {
+                    free.add(room);
+                }
+            } else {
+                free.add(room);
+            }
+        }
+        free.sort(Comparator.comparingInt(Room::getPrice).thenComparingInt(Room::getNumber));
+        return free;
+    }
+
+    /**
+     * Counts the rooms occupied on each night of a range of days, among the rooms of a floor, of a type or both.
+     *
+     * @param from the first day.
+     * @param to the day after the last day.
+     * @param floor the floor of the rooms, or {@code null} for all floors.
+     * @param type the type of the rooms, regardless of case, or {@code null} for any type.
+     * @return the number of occupied rooms of every night, from the first one.
+     */
+    public int[] occupied(LocalDate from, LocalDate to, Integer floor, String type) {
+        checkRooms();
+        RoomBitmap selected = select(floor, type);
+        int first = (int) from.toEpochDay();
+        int[] occupied = new int[Math.max(0, (int) to.toEpochDay() - first)];
+        for (int i = 0; i < occupied.length && !selected.isEmpty(); i++) {
+            RoomBitmap night = nights.get(first + i);
+            occupied[i] = night == null ? 0 : night.andCardinality(selected);
+        }
+        return occupied;
+    }
+
+    /**
+     * Counts the rooms of a floor, of a type or both.
+     *
+     * @param floor the floor of the rooms, or {@code null} for all floors.
+     * @param type the type of the rooms, regardless of case, or {@code null} for any type.
+     * @return the number of rooms.
+     */
+    public int count(Integer floor, String type) {
+        checkRooms();
+        return select(floor, type).cardinality();
+    }
+
+    /**
+     * Returns an estimate of the memory taken by the sets of the occupied rooms of the nights.
+     *
+     * @return the number of bytes.
+     */
+    public long nightsSizeInBytes() {
+        long[] bytes = new long[1];
+        nights.forEach((day, night) -> bytes[0] += night.sizeInBytes());
+        return bytes[0];
+    }
+
+    /**
+     * Returns the rooms of the hotel of a floor and of a type.
+     */
+    private RoomBitmap select(Integer floor, String type) {
+        RoomBitmap selected = present;
+        if (floor != null) {
+            RoomBitmap onFloor = byFloor.get(floor);
+            if (onFloor == null) {
+                return new RoomBitmap();
+            }
+            selected = selected.and(onFloor);
+        }
+        if (type != null) {
+            RoomBitmap ofType = byType.get(typeKey(type));
+            if (ofType == null) {
+                return new RoomBitmap();
+            }
+            selected = selected.and(ofType);
+        }
+        return selected;
+    }
+
+    /**
+     * Indexes all rooms again if rooms have been added to or removed from the hotel.
+     */
+    private void checkRooms() {
+        if (present.cardinality() == rooms.size()) {
+            return;
+        }
+        List<Integer> indexed = new ArrayList<>();
+        present.forEach(indexed::add);
+        for (int slot : indexed) {
+            if (!rooms.contains(numbers[slot])) {
+                remove(slot);
+            }
+        }
+        rooms.forEachRoom(this::update);
+    }
+
+    private void remove(int slot) {
+        byType.get(types[slot]).remove(slot);
+        byCapacity.get(capacities[slot]).remove(slot);
+        byFloor.get(floorOf(numbers[slot])).remove(slot);
+        present.remove(slot);
+    }
+
+    private int slotOf(int number) {
+        Integer slot = slots.get(number);
+        if (slot != null) {
+            return slot;
+        }
+        if (slotCount == numbers.length) {
+            int length = numbers.length * 2;
+            numbers = Arrays.copyOf(numbers, length);
+            types = Arrays.copyOf(types, length);
+            capacities = Arrays.copyOf(capacities, length);
+        }
+        numbers[slotCount] = number;
+        slots.put(number, slotCount);
+        return slotCount++;
+    }
+
+    private static <K> RoomBitmap setOf(MyHashMap<K, RoomBitmap> sets, K key) {
+        RoomBitmap set = sets.get(key);
+        if (set == null) {
+            set = new RoomBitmap();
+            sets.put(key, set);
+        }
+        return set;
+    }
+
+    private static int floorOf(int number) {
+        return number / 100;
+    }
+
+    private static String typeKey(String type) {
+        return type == null ? "" : type.trim().toLowerCase(Locale.ROOT);
+    }
+}
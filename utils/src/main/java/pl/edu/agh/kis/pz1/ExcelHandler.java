@@ -4,11 +4,20 @@ import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -19,18 +28,82 @@ import java.util.logging.Logger;
  * processes it, and updates the Excel file accordingly. The class also handles
  * saving and closing the workbook.
  * </p>
+ * <p>
+ * In {@link LoadMode#STREAMING} mode the rooms are read with POI's event model, without building the
+ * workbook in memory, and the workbook is opened only when a room is first updated or the file is saved.
+ * </p>
+ * <p>
+ * This is the default {@link RoomRepository}.
+ * </p>
  */
-public class ExcelHandler {
+public class ExcelHandler implements RoomRepository {
     private static final Logger LOGGER = Logger.getLogger(ExcelHandler.class.getName());
+
+    /**
+     * The system property setting the default number of sheets parsed at the same time.
+     */
+    public static final String PARALLELISM_PROPERTY = "hotel.loadParallelism";
+
+    /**
+     * The system property setting the interval of the background save, in seconds.
+     */
+    public static final String AUTOSAVE_PROPERTY = "hotel.autosaveSeconds";
+
+    /**
+     * The system property choosing the {@link LoadMode}, by name.
+     */
+    public static final String LOAD_MODE_PROPERTY = "hotel.loadMode";
+
+    /**
+     * The system property turning off the background reading of floors in {@link LoadMode#LAZY} mode.
+     */
+    public static final String PREFETCH_PROPERTY = "hotel.prefetchFloors";
+
     private final String excelFilePath;
+    private final LoadMode loadMode;
     private Workbook workbook;
+    private RoomLocations locations;
+    private FileTime writtenTime;
+    private long writtenSize;
+    private RoomJournal journal;
+    private AutosaveService autosave;
+    private Path snapshotPath;
+    private LazyRoomDirectory lazyRooms;
+    private boolean prefetch = Boolean.parseBoolean(System.getProperty(PREFETCH_PROPERTY, "true"));
+    private int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The ways of reading the rooms from the Excel file.
+     */
+    public enum LoadMode {
+        /**
+         * The whole workbook is opened when the handler is created and rooms are read from it.
+         */
+        DOM,
+        /**
+         * Rooms are streamed row by row from the file; the workbook is opened lazily when it is needed.
+         */
+        STREAMING,
+        /**
+         * Only the list of sheets is read at first; the rooms of a floor are streamed from its sheet when a room
+         * on that floor is first used. The workbook is opened lazily when it is needed.
+         */
+        LAZY
+    }
 
     /**
-     * Retrieves the current workbook.
+     * Retrieves the current workbook, opening it first if it has not been opened yet.
      *
      * @return the {@link Workbook} object associated with the Excel file.
      */
     public Workbook getWorkbook() {
+        if (workbook == null) {
+            try (FileInputStream fis = new FileInputStream(excelFilePath)) {
+                workbook = new XSSFWorkbook(fis);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
         return workbook;
     }
 
@@ -41,50 +114,286 @@ public class ExcelHandler {
      * @throws IOException if there is an error reading the Excel file.
      */
     public ExcelHandler(String excelFilePath) throws IOException {
+        this(excelFilePath, LoadMode.DOM);
+    }
+
+    /**
+     * Constructor that initializes the ExcelHandler for the specified Excel file in the given load mode.
+     *
+     * @param excelFilePath the path to the Excel file to be used.
+     * @param loadMode {@link LoadMode#DOM} to open the workbook now, {@link LoadMode#STREAMING} to stream the
+     *                 rooms and open the workbook only when it is needed, {@link LoadMode#LAZY} to also read
+     *                 the floors only when they are used.
+     * @throws IOException if there is an error reading the Excel file.
+     */
+    public ExcelHandler(String excelFilePath, LoadMode loadMode) throws IOException {
         this.excelFilePath = excelFilePath;
-        try (FileInputStream fis = new FileInputStream(excelFilePath)) {
-            this.workbook = new XSSFWorkbook(fis);
+        this.loadMode = loadMode;
+        if (loadMode == LoadMode.DOM) {
+            try (FileInputStream fis = new FileInputStream(excelFilePath)) {
+                this.workbook = new XSSFWorkbook(fis);
+            }
+        } else if (!Files.isReadable(Paths.get(excelFilePath))) {
+            throw new FileNotFoundException(excelFilePath);
+        }
+    }
+
+    /**
+     * Opens the journal of changes kept next to the Excel file and replays it on top of the given rooms.
+     * <p>
+     * From then on every check-in and check-out is appended to the journal and forced to disk when it is
+     * made, so it survives a crash without the workbook being saved. Saving the rooms with
+     * {@link #save(IntRoomMap)} or {@link #compactJournal(IntRoomMap)} writes them to the Excel file and
+     * empties the journal.
+     * </p>
+     *
+     * @param journalPath the path of the journal file, created if it does not exist.
+     * @param rooms the rooms read from the Excel file.
+     * @return the number of changes replayed from the journal.
+     * @throws IOException if the journal cannot be opened or read.
+     */
+    public int openJournal(String journalPath, IntRoomMap rooms) throws IOException {
+        RoomJournal opened = RoomJournal.open(Paths.get(journalPath));
+        try {
+            int replayed = opened.replay(rooms);
+            journal = opened;
+            return replayed;
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts saving the rooms in the background instead of on the calling thread.
+     * <p>
+     * From then on every check-in and check-out marks the rooms as changed, and an {@link AutosaveService}
+     * writes them to the Excel file at most once per interval, from its own copy of the rooms.
+     * {@link #save(IntRoomMap)} only asks for an early write, and {@link #compactJournal(IntRoomMap)} and
+     * {@link #close()} wait until the pending changes are written. If the rooms differ from the file because
+     * changes have been replayed from the journal, the first write is scheduled right away.
+     * </p>
+     *
+     * @param rooms the current rooms.
+     * @param interval the minimum time between two writes.
+     * @param unit the unit of the interval.
+     * @return the started service.
+     * @throws IOException if the journal cannot be read.
+     */
+    public synchronized AutosaveService startAutosave(IntRoomMap rooms, long interval, TimeUnit unit)
+            throws IOException {
+        if (autosave == null) {
+            boolean dirty = journal != null && journal.hasChanges();
+            autosave = new AutosaveService(this, excelFilePath, rooms, interval, unit, dirty);
+        }
+        return autosave;
+    }
+
+    /**
+     * Returns the maximum number of sheets parsed at the same time when the rooms are read.
+     *
+     * @return the parallelism of reading the rooms.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of sheets parsed at the same time when the rooms are read.
+     * <p>
+     * Every sheet holds one floor, so the sheets are parsed on a fork-join pool of this many threads.
+     * The default is the value of the {@value #PARALLELISM_PROPERTY} system property, or the number of
+     * available processors; 1 reads the sheets one after another on the calling thread.
+     * </p>
+     *
+     * @param parallelism the number of threads, at least 1.
+     * @throws IllegalArgumentException if the parallelism is less than 1.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
         }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns whether {@link LoadMode#LAZY} reads the floors not used yet on a background thread.
+     *
+     * @return true if the floors are prefetched.
+     */
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * Sets whether {@link LoadMode#LAZY} reads the floors not used yet on a background thread.
+     * <p>The default is the value of the {@value #PREFETCH_PROPERTY} system property, or true.</p>
+     *
+     * @param prefetch true to prefetch the floors, false to read each floor only when it is used.
+     */
+    public void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
     }
 
     /**
      * Reads the room data from the Excel file and returns it as a map of room numbers to room objects.
      * <p>
+     * The rooms are stored in a {@link RoomDirectory}, so looking up a room by its number takes constant time
+     * and does not box the room number, and rooms of one floor can be visited without touching the others.
+     * </p>
+     * <p>
+     * In {@link LoadMode#LAZY} mode only the list of sheets is read here, so the time taken does not depend on
+     * the number of rooms; the returned map reads the sheet of a floor when a room on that floor is first
+     * used and, unless turned off with {@link #setPrefetch(boolean)}, reads the other floors in the background.
+     * </p>
+     *
+     * @return an {@link IntRoomMap} containing room data, where keys are room numbers, and values are {@link Room} objects.
+     */
+    @Override
+    public IntRoomMap getRoomsData() {
+        if (loadMode == LoadMode.LAZY && workbook == null) {
+            try {
+                LazyRoomDirectory rooms = new LazyRoomDirectory(StreamingRoomReader.openFloors(excelFilePath));
+                synchronized (this) {
+                    if (lazyRooms != null) {
+                        lazyRooms.close();
+                    }
+                    lazyRooms = rooms;
+                }
+                if (prefetch) {
+                    rooms.prefetch();
+                }
+                return rooms;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        IntRoomMap rooms = new RoomDirectory();
+        readRooms(room -> rooms.put(room.getNumber(), room));
+        return rooms;
+    }
+
+    /**
+     * Reads the room data from a binary snapshot of the Excel file, or from the file itself when the snapshot
+     * is missing or stale.
+     * <p>
+     * The snapshot is valid only if the size, modification time and checksum of the Excel file are the ones
+     * recorded when it was made; it is then memory-mapped and decoded without opening the workbook, so POI is
+     * not even loaded. Otherwise the rooms are read from the Excel file as by {@link #getRoomsData()} and a new
+     * snapshot is written. From then on the snapshot is rewritten every time the rooms are saved to the file.
+     * </p>
+     *
+     * <p>
+     * In {@link LoadMode#LAZY} mode no snapshot is used, as decoding it would read every floor; the rooms are
+     * read as by {@link #getRoomsData()}.
+     * </p>
+     *
+     * @param snapshotPath the path of the snapshot file.
+     * @return an {@link IntRoomMap} containing room data, where keys are room numbers, and values are {@link Room} objects.
+     */
+    public IntRoomMap getRoomsDataCached(String snapshotPath) {
+        if (loadMode == LoadMode.LAZY) {
+            return getRoomsData();
+        }
+        this.snapshotPath = Paths.get(snapshotPath);
+        Path excelPath = Paths.get(excelFilePath);
+        try {
+            IntRoomMap rooms = RoomSnapshot.read(this.snapshotPath, excelPath);
+            if (rooms != null) {
+                return rooms;
+            }
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+        }
+        IntRoomMap rooms = getRoomsData();
+        roomsWritten(rooms);
+        return rooms;
+    }
+
+    /**
+     * Reads the room data from the Excel file into the given map.
+     *
+     * @param rooms the map that the rooms are put into.
+     * @param <M> the type of the map implementation.
+     * @return the given map filled with room data, where keys are room numbers, and values are {@link Room} objects.
+     */
+    public <M extends Map<Integer, Room>> M getRoomsData(M rooms) {
+        readRooms(room -> rooms.put(room.getNumber(), room));
+        return rooms;
+    }
+
+    /**
+     * Reads every room stored in the Excel file and passes it to the given consumer.
+     * <p>
      * This method processes each sheet in the Excel workbook, extracting room information such as
-     * room number, price, type, capacity, guest information, start date, and end date.
+     * room number, price, type, capacity, guest information, start date, end date, and additional information.
+     * </p>
+     * <p>
+     * In streaming and lazy mode the rooms are parsed straight from the file, unless the workbook has already
+     * been opened, in which case it may hold changes that are not saved yet and is read instead.
+     * </p>
+     * <p>
+     * The sheets are parsed concurrently, up to {@link #getParallelism()} at a time; the consumer is still
+     * called on the calling thread, in workbook order. Reading the workbook also indexes the rows of the rooms,
+     * so that {@link #updateRoomInfo(Room)} and {@link #clearRoomInfo(Room)} find them directly.
      * </p>
      *
-     * @return a {@link MyMap} containing room data, where keys are room numbers, and values are {@link Room} objects.
+     * @param consumer the consumer receiving the rooms in the order they appear in the workbook.
      */
-    public MyMap<Integer, Room> getRoomsData() {
-        MyMap<Integer, Room> rooms = new MyMap<>();
+    void readRooms(Consumer<Room> consumer) {
+        if (loadMode != LoadMode.DOM && workbook == null) {
+            try {
+                StreamingRoomReader.readRooms(excelFilePath, parallelism, consumer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return;
+        }
+        Workbook wb = getWorkbook();
+        List<Sheet> sheets = new ArrayList<>();
+        for(int k = 0; k < wb.getNumberOfSheets(); k++) {
+            sheets.add(wb.getSheetAt(k));
+        }
+        ParallelSheetLoader.load(sheets, parallelism, this::readSheet, consumer);
+        locations = RoomLocations.index(wb);
+    }
 
-        for(int k = 0; k < workbook.getNumberOfSheets(); k++) {
-            Sheet sheet = workbook.getSheetAt(k);
-            int i = 0;
+    /**
+     * Reads the rooms of one sheet, skipping its header row and every row whose first cell is not a room
+     * number, such as extra header or note rows.
+     *
+     * @param sheet the sheet of one floor.
+     * @param consumer the consumer receiving the rooms in the order they appear in the sheet.
+     */
+    private void readSheet(Sheet sheet, Consumer<Room> consumer) {
+        int i = 0;
 
-            for (Row row : sheet) {
-                if (i != 0 && row.getCell(0) != null) {
-                    int roomNr = (int) row.getCell(0).getNumericCellValue();
-                    int price = (int) row.getCell(1).getNumericCellValue();
-                    String type = row.getCell(2).getStringCellValue();
-                    int capacity = (int) row.getCell(3).getNumericCellValue();
+        for (Row row : sheet) {
+            Cell number = row.getCell(0);
+            if (i != 0 && number != null && number.getCellType() == CellType.NUMERIC) {
+                int roomNr = (int) number.getNumericCellValue();
+                int price = (int) row.getCell(1).getNumericCellValue();
+                String type = row.getCell(2).getStringCellValue();
+                int capacity = (int) row.getCell(3).getNumericCellValue();
 
-                    Room room = new Room(roomNr, price, type, capacity);
+                Room room = new Room(roomNr, price, type, capacity);
 
-                    List<Guest> guestList = getGuestsListFromRow(row);
-                    if(!guestList.isEmpty()){
-                        room.setGuests(guestList);
-                    }
+                List<Guest> guestList = getGuestsListFromRow(row);
+                if(!guestList.isEmpty()){
+                    room.setGuests(guestList);
+                }
 
-                    room.setStartDate(getExcelDate(row.getCell(8)));
-                    room.setEndDate(getExcelDate(row.getCell(9)));
-                    rooms.put(roomNr, room);
+                room.setStartDate(getExcelDate(row.getCell(8)));
+                room.setEndDate(getExcelDate(row.getCell(9)));
+                Cell info = row.getCell(10);
+                if (info != null && info.getCellType() == CellType.STRING) {
+                    room.setAdditionalInfo(info.getStringCellValue());
                 }
-                i++;
+                room.clearChanges();
+                consumer.accept(room);
             }
+            i++;
         }
-        return rooms;
     }
 
     /**
@@ -99,13 +408,23 @@ public class ExcelHandler {
      */
     LocalDate getExcelDate(Cell dateCell) {
         if (dateCell != null && dateCell.getCellType() == CellType.NUMERIC) {
-            LocalDate excelStartDate = LocalDate.of(1900, 1, 1);
-            int daysSince1900 = (int) dateCell.getNumericCellValue() - 2;
-            return excelStartDate.plusDays(daysSince1900);
+            return excelDate(dateCell.getNumericCellValue());
         }
         return null;
     }
 
+    /**
+     * Converts the numeric value of an Excel date to a {@link LocalDate}.
+     *
+     * @param value the number of days since January 1, 1900, as stored by Excel.
+     * @return the date.
+     */
+    static LocalDate excelDate(double value) {
+        LocalDate excelStartDate = LocalDate.of(1900, 1, 1);
+        int daysSince1900 = (int) value - 2;
+        return excelStartDate.plusDays(daysSince1900);
+    }
+
     /**
      * Extracts guest information from the given row.
      * <p>
@@ -122,73 +441,78 @@ public class ExcelHandler {
         for (int j = 4; j < 8; ++j) {
             Cell cell = row.getCell(j);
             if(cell != null){
-                String[] parts = cell.getStringCellValue().split(",");
-                String name = parts[0].trim();
-                if (parts.length > 1) {
-                    String emailAddress = parts[1].trim();
-                    String idNumber = parts[2].trim();
-                    String phoneNumber = parts[3].trim();
-                    guestList.add(new Guest(name, emailAddress, idNumber, phoneNumber));
-                } else {
-                    guestList.add(new Guest(name));
-                }
+                guestList.add(parseGuest(cell.getStringCellValue()));
             }
         }
         return guestList;
     }
 
+    /**
+     * Creates a guest from the value of a guest cell.
+     * <p>
+     * The main guest is stored as "name,email,id number,phone number", other guests by name only.
+     * </p>
+     *
+     * @param value the value of the cell.
+     * @return the guest described by the cell.
+     */
+    static Guest parseGuest(String value) {
+        String[] parts = value.split(",");
+        String name = parts[0].trim();
+        if (parts.length > 1) {
+            String emailAddress = parts[1].trim();
+            String idNumber = parts[2].trim();
+            String phoneNumber = parts[3].trim();
+            return new Guest(name, emailAddress, idNumber, phoneNumber);
+        }
+        return new Guest(name);
+    }
+
+    /**
+     * Formats the main guest the way {@link #parseGuest(String)} reads it: "name,email,id number,phone number".
+     *
+     * @param guest the main guest.
+     * @return the value of the main guest cell.
+     */
+    static String formatMainGuest(Guest guest) {
+        return guest.getName() + "," + guest.getEmailAddress() + "," + guest.getIdNumber() + ","
+                + guest.getPhoneNumber();
+    }
+
     /**
      * Updates the information of a room in the Excel file.
      * <p>
      * This method updates guest information, start and end dates, and additional information for a specific room.
      * </p>
+     * <p>
+     * When a journal is open, the change is appended to it instead, and when the rooms are saved in the
+     * background the change is passed on to the {@link AutosaveService}. In both cases the workbook is
+     * updated only if it is already open in memory. The journal is written last, so if it fails the change
+     * is still kept everywhere else and is stored by the next save.
+     * </p>
      *
      * @param room the {@link Room} object containing the updated information.
+     * @throws UncheckedIOException if the change cannot be appended to the journal.
      */
-    public void updateRoomInfo(Room room) {
-            int floor = room.getNumber() /100;
-            Sheet sheet = workbook.getSheetAt(floor - 1); // indeksowane od '0' i dlatego -1
-
-            int numberAtFloor = room.getNumber()%100;
-            Row row = sheet.getRow(numberAtFloor);
-            int i = 5;
-            for (Guest g : room.getGuests()) {
-                if(g.isMain()){
-                    Cell cell = row.getCell(4);
-                    if (cell == null) {
-                        cell = row.createCell(4);
-                    }
-                    cell.setCellValue(g.getName() + "," +
-                                            g.getEmailAddress() + "," +
-                                            g.getPhoneNumber() + "," +
-                                            g.getIdNumber());
-                }
-                else{
-                    Cell cell = row.getCell(i);
-                    if (cell == null) {
-                        cell = row.createCell(i);
-                    }
-                    cell.setCellValue(g.getName());
-                    ++i;
-                }
-            }
-            Cell cellStartDate = row.getCell(8);
-            if (cellStartDate == null) {
-                cellStartDate = row.createCell(8);
-            }
-            cellStartDate.setCellValue(room.getStartDate());
-
-            Cell cellEndDate = row.getCell(9);
-            if (cellEndDate == null) {
-                cellEndDate = row.createCell(9);
+    @Override
+    public synchronized void updateRoomInfo(Room room) {
+        if (autosave != null) {
+            autosave.roomChanged(room);
+        }
+        if (workbook != null || (journal == null && autosave == null)) {
+            Row row = findRow(room.getNumber());
+            if (row == null) {
+                row = appendRow(room);
             }
-            cellEndDate.setCellValue(room.getEndDate());
-
-            Cell cellInfo = row.getCell(10);
-            if (cellInfo == null) {
-                cellInfo = row.createCell(10);
+            writeStay(row, room);
+        }
+        if (journal != null) {
+            try {
+                journal.logCheckin(room);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-            cellInfo.setCellValue(room.getAdditionalInfo());
+        }
     }
 
     /**
@@ -196,21 +520,216 @@ public class ExcelHandler {
      * <p>
      * This method removes guest details, start and end dates, and additional information from the Excel sheet for the room.
      * </p>
+     * <p>
+     * When a journal is open, the change is appended to it instead, and when the rooms are saved in the
+     * background the change is passed on to the {@link AutosaveService}. In both cases the workbook is
+     * updated only if it is already open in memory. The journal is written last, so if it fails the change
+     * is still kept everywhere else and is stored by the next save.
+     * </p>
      *
      * @param room the {@link Room} object whose information needs to be cleared.
+     * @throws UncheckedIOException if the change cannot be appended to the journal.
+     */
+    @Override
+    public synchronized void clearRoomInfo(Room room) {
+        if (autosave != null) {
+            autosave.roomChanged(room);
+        }
+        if (workbook != null || (journal == null && autosave == null)) {
+            Row row = findRow(room.getNumber());
+            if (row != null) {
+                clearStay(row);
+            }
+        }
+        if (journal != null) {
+            try {
+                journal.logCheckout(room.getNumber());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Stores the changes of several rooms at once, for group check-ins and bulk check-outs.
+     * <p>
+     * Every occupied room is written as by {@link #updateRoomInfo(Room)}, every free room is cleared as by
+     * {@link #clearRoomInfo(Room)}. When a journal is open, all changes are appended to it with a single
+     * {@code fsync}. Otherwise the rows of the rooms are looked up first and then written sheet by sheet, in
+     * row order, so each sheet is visited once.
+     * </p>
+     *
+     * @param rooms the rooms after the changes; if a room appears more than once, its last change wins.
+     * @throws UncheckedIOException if the changes cannot be appended to the journal, which is written last.
      */
-    public void clearRoomInfo(Room room) {
-            int floor = room.getNumber() / 100;
-            Sheet sheet = workbook.getSheetAt(floor - 1); // Indexed from 0, hence -1
+    @Override
+    public synchronized void updateRooms(List<Room> rooms) {
+        if (rooms.isEmpty()) {
+            return;
+        }
+        if (autosave != null) {
+            for (Room room : rooms) {
+                autosave.roomChanged(room);
+            }
+        }
+        if (workbook != null || (journal == null && autosave == null)) {
+            writeStays(rooms);
+        }
+        if (journal != null) {
+            try {
+                journal.logChanges(rooms);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the stays of the given rooms into the workbook, sheet by sheet in row order.
+     */
+    private void writeStays(List<Room> rooms) {
+        Workbook wb = getWorkbook();
+        Row[] rows = new Row[rooms.size()];
+        List<Integer> order = new ArrayList<>(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            Room room = rooms.get(i);
+            rows[i] = findRow(room.getNumber());
+            if (rows[i] == null && !room.isFree()) {
+                rows[i] = appendRow(room);
+            }
+            if (rows[i] != null) {
+                order.add(i);
+            }
+        }
+        // a stable sort, so repeated changes of a room are still written in order
+        order.sort(Comparator.comparingInt((Integer i) -> wb.getSheetIndex(rows[i].getSheet()))
+                .thenComparingInt(i -> rows[i].getRowNum()));
+        for (int i : order) {
+            if (rooms.get(i).isFree()) {
+                clearStay(rows[i]);
+            } else {
+                writeStay(rows[i], rooms.get(i));
+            }
+        }
+    }
 
-            int numberAtFloor = room.getNumber()%100;
-            Row row = sheet.getRow(numberAtFloor);
-            for(int i = 4; i < 11; ++i){
+    /**
+     * Writes the guests, dates of stay and additional information of a room into its row.
+     */
+    private static void writeStay(Row row, Room room) {
+        int i = 5;
+        for (Guest g : room.getGuests()) {
+            if(g.isMain()){
+                Cell cell = row.getCell(4);
+                if (cell == null) {
+                    cell = row.createCell(4);
+                }
+                cell.setCellValue(formatMainGuest(g));
+            }
+            else{
                 Cell cell = row.getCell(i);
-                if (cell != null) {
-                    row.removeCell(cell);
+                if (cell == null) {
+                    cell = row.createCell(i);
                 }
+                cell.setCellValue(g.getName());
+                ++i;
+            }
+        }
+        Cell cellStartDate = row.getCell(8);
+        if (cellStartDate == null) {
+            cellStartDate = row.createCell(8);
+        }
+        cellStartDate.setCellValue(room.getStartDate());
+
+        Cell cellEndDate = row.getCell(9);
+        if (cellEndDate == null) {
+            cellEndDate = row.createCell(9);
+        }
+        cellEndDate.setCellValue(room.getEndDate());
+
+        Cell cellInfo = row.getCell(10);
+        if (cellInfo == null) {
+            cellInfo = row.createCell(10);
+        }
+        cellInfo.setCellValue(room.getAdditionalInfo());
+    }
+
+    /**
+     * Removes the guests, dates of stay and additional information of a room from its row.
+     */
+    private static void clearStay(Row row) {
+        for (int i = 4; i < 11; ++i) {
+            Cell cell = row.getCell(i);
+            if (cell != null) {
+                row.removeCell(cell);
             }
+        }
+    }
+
+    /**
+     * Returns the row of the workbook holding the given room, opening the workbook first if needed.
+     * <p>
+     * The row is looked up in the {@link RoomLocations} index of the workbook, built when the rooms are read
+     * from it or on the first write. If the indexed row no longer holds the room, the workbook was changed
+     * behind the index, so it is built again once before giving up.
+     * </p>
+     *
+     * @param number the room number.
+     * @return the row, or null if the workbook has no row for the room.
+     */
+    private Row findRow(int number) {
+        Workbook wb = getWorkbook();
+        if (locations == null) {
+            locations = RoomLocations.index(wb);
+        }
+        Row row = locations.find(wb, number);
+        if (row == null) {
+            locations = RoomLocations.index(wb);
+            row = locations.find(wb, number);
+        }
+        return row;
+    }
+
+    /**
+     * Adds a row for a room that is not in the workbook yet, after the last row of the sheet of its floor, or
+     * of the last sheet if there is no sheet for its floor.
+     *
+     * @param room the room.
+     * @return the new row, holding the number, price, type and capacity of the room.
+     */
+    private Row appendRow(Room room) {
+        Workbook wb = getWorkbook();
+        int floor = room.getNumber() / 100;
+        int k;
+        if (floor >= 1 && floor <= wb.getNumberOfSheets()) {
+            k = floor - 1;
+        } else if (wb.getNumberOfSheets() > 0) {
+            k = wb.getNumberOfSheets() - 1;
+        } else {
+            wb.createSheet("Level" + floor).createRow(0);
+            k = 0;
+        }
+        Sheet sheet = wb.getSheetAt(k);
+        // the first row is the header, even when the sheet has no rows yet
+        Row row = sheet.createRow(Math.max(sheet.getLastRowNum() + 1, 1));
+        writeDescription(row, room);
+        locations.put(room.getNumber(), k, row.getRowNum());
+        return row;
+    }
+
+    /**
+     * Writes the number, price, type and capacity of a room into its row.
+     */
+    private static void writeDescription(Row row, Room room) {
+        cell(row, 0).setCellValue(room.getNumber());
+        cell(row, 1).setCellValue(room.getPrice());
+        cell(row, 2).setCellValue(room.getType());
+        cell(row, 3).setCellValue(room.getCapacity());
+    }
+
+    private static Cell cell(Row row, int column) {
+        Cell cell = row.getCell(column);
+        return cell == null ? row.createCell(column) : cell;
     }
 
     /**
@@ -221,7 +740,42 @@ public class ExcelHandler {
      */
     public void save() {
         try (FileOutputStream fileOutputStream = new FileOutputStream(excelFilePath)) {
-            workbook.write(fileOutputStream);
+            getWorkbook().write(fileOutputStream);
+            fileWritten();
+            System.out.println("Pomyślnie zapisano zmiany");
+            System.out.print("Wprowadź komendę: ");
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the given rooms by regenerating the Excel file with a streaming writer.
+     * <p>
+     * Unlike {@link #save()}, this method does not write the workbook held in memory: it writes a new workbook
+     * from the room map, keeping only a small window of rows in memory, so the time and memory needed do not
+     * depend on the size of the in-memory workbook. The file keeps the layout read by {@link #getRoomsData()}.
+     * The workbook held in memory is dropped afterwards and opened again from the new file when it is needed,
+     * and the journal, if open, is emptied.
+     * </p>
+     * <p>
+     * When the rooms are saved in the background, this method only hands a copy of the rooms to the
+     * {@link AutosaveService}, which writes it right away, and returns without waiting for the disk.
+     * </p>
+     *
+     * @param rooms the rooms to save.
+     */
+    @Override
+    public void save(IntRoomMap rooms) {
+        AutosaveService background = currentAutosave();
+        if (background != null) {
+            background.saveSoon(rooms);
+            System.out.println("Zmiany są zapisywane w tle");
+            System.out.print("Wprowadź komendę: ");
+            return;
+        }
+        try {
+            writeRooms(rooms);
             System.out.println("Pomyślnie zapisano zmiany");
             System.out.print("Wprowadź komendę: ");
         } catch (IOException e) {
@@ -230,11 +784,305 @@ public class ExcelHandler {
     }
 
     /**
-     * Closes the workbook and releases any resources.
+     * Returns a frozen version of the given rooms.
+     * <p>When the rooms are saved in the background, this is the version the {@link AutosaveService} writes
+     * next, taken in constant time; otherwise the rooms are copied.</p>
+     *
+     * @param rooms the rooms held in memory.
+     * @return a read-only map from room numbers to copies of the rooms.
      */
-    public void close() {
+    @Override
+    public PersistentMap<Integer, Room> snapshot(IntRoomMap rooms) {
+        AutosaveService background = currentAutosave();
+        return background != null ? background.snapshot() : RoomRepository.super.snapshot(rooms);
+    }
+
+    /**
+     * Saves the rooms changed since they were last saved, writing only their changed cells.
+     * <p>
+     * When the workbook is open in memory, the changed fields of the changed rooms, as recorded in
+     * {@link IntRoomMap#changes()}, are written into their cells, rows are added for new rooms, and the
+     * workbook is written to the file; the other rows are not touched. When the workbook is not open, as in
+     * {@link LoadMode#STREAMING} mode, opening it would cost more than regenerating the file, so the rooms are
+     * saved as by {@link #save(IntRoomMap)}, as they are when they are saved in the background. Changes that
+     * cannot be written are kept for the next save.
+     * </p>
+     *
+     * @param rooms the rooms held in memory.
+     */
+    @Override
+    public void saveChanges(IntRoomMap rooms) {
+        if (currentAutosave() != null || !isWorkbookOpen()) {
+            save(rooms);
+            return;
+        }
+        RoomChangeSet changes = rooms.changes().drain();
         try {
+            writeChanges(changes);
+            roomsWritten(rooms);
+            resetJournal();
+            System.out.println("Pomyślnie zapisano zmiany");
+            System.out.print("Wprowadź komendę: ");
+        } catch (IOException e) {
+            rooms.changes().restore(changes);
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    private synchronized boolean isWorkbookOpen() {
+        return workbook != null;
+    }
+
+    /**
+     * Writes the changed fields of the given rooms into their rows and writes the workbook to the file.
+     */
+    private synchronized void writeChanges(RoomChangeSet changes) throws IOException {
+        changes.forEachRoom(room -> {
+            Row row = findRow(room.getNumber());
+            if (row == null) {
+                writeFields(appendRow(room), room, Room.ALL_FIELDS);
+            } else {
+                writeFields(row, room, room.getChanges());
+            }
+        });
+        try (FileOutputStream fileOutputStream = new FileOutputStream(excelFilePath)) {
+            workbook.write(fileOutputStream);
+        }
+    }
+
+    /**
+     * Writes the given fields of a room into its row.
+     */
+    private static void writeFields(Row row, Room room, int fields) {
+        if ((fields & Room.PRICE) != 0) {
+            cell(row, 1).setCellValue(room.getPrice());
+        }
+        if ((fields & Room.TYPE) != 0) {
+            cell(row, 2).setCellValue(room.getType());
+        }
+        if ((fields & Room.CAPACITY) != 0) {
+            cell(row, 3).setCellValue(room.getCapacity());
+        }
+        if ((fields & Room.GUESTS) != 0) {
+            for (int i = 4; i < 8; i++) {
+                Cell cell = row.getCell(i);
+                if (cell != null) {
+                    row.removeCell(cell);
+                }
+            }
+            int i = 5;
+            for (Guest g : room.getGuests()) {
+                if (g.isMain()) {
+                    cell(row, 4).setCellValue(formatMainGuest(g));
+                } else if (i < 8) {
+                    cell(row, i++).setCellValue(g.getName());
+                }
+            }
+        }
+        if ((fields & Room.START_DATE) != 0) {
+            writeOrRemove(row, 8, room.getStartDate());
+        }
+        if ((fields & Room.END_DATE) != 0) {
+            writeOrRemove(row, 9, room.getEndDate());
+        }
+        if ((fields & Room.ADDITIONAL_INFO) != 0) {
+            writeOrRemove(row, 10, room.getAdditionalInfo());
+        }
+    }
+
+    private static void writeOrRemove(Row row, int column, Object value) {
+        if (value == null) {
+            Cell cell = row.getCell(column);
+            if (cell != null) {
+                row.removeCell(cell);
+            }
+        } else if (value instanceof LocalDate) {
+            cell(row, column).setCellValue((LocalDate) value);
+        } else {
+            cell(row, column).setCellValue(value.toString());
+        }
+    }
+
+    /**
+     * Writes the given rooms to the Excel file if the journal holds changes, and empties the journal.
+     * <p>Without an open journal, or with an empty one, nothing is written. When the rooms are saved in the
+     * background, the pending changes are written by the {@link AutosaveService} first.</p>
+     *
+     * @param rooms the rooms to save.
+     */
+    public void compactJournal(IntRoomMap rooms) {
+        AutosaveService background = currentAutosave();
+        if (background != null) {
+            background.flush();
+        }
+        try {
+            if (journal != null && journal.hasChanges()) {
+                writeRooms(rooms);
+            }
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the changes kept in the journal to the Excel file, as {@link #compactJournal(IntRoomMap)} does.
+     *
+     * @param rooms the rooms held in memory.
+     */
+    @Override
+    public void flush(IntRoomMap rooms) {
+        compactJournal(rooms);
+    }
+
+    /**
+     * Empties the journal, if open, once the {@link AutosaveService} has written all changes it holds.
+     */
+    synchronized void resetJournal() throws IOException {
+        if (journal != null) {
+            journal.reset();
+        }
+    }
+
+    private synchronized AutosaveService currentAutosave() {
+        return autosave;
+    }
+
+    /**
+     * Rewrites the snapshot, if one is used, after the given rooms have been written to the Excel file.
+     *
+     * @param rooms the rooms now stored in the Excel file.
+     */
+    void roomsWritten(IntRoomMap rooms) {
+        fileWritten();
+        if (snapshotPath == null) {
+            return;
+        }
+        try {
+            RoomSnapshot.write(snapshotPath, Paths.get(excelFilePath), rooms);
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Remembers the size and modification time of the Excel file right after this handler wrote it.
+     */
+    private synchronized void fileWritten() {
+        try {
+            Path path = Paths.get(excelFilePath);
+            writtenTime = Files.getLastModifiedTime(path);
+            writtenSize = Files.size(path);
+        } catch (IOException e) {
+            writtenTime = null;
+        }
+    }
+
+    /**
+     * Checks whether the Excel file is still as this handler, or its {@link AutosaveService}, last wrote it,
+     * so that a change of the file noticed by a {@link WorkbookWatcher} was not made by another program.
+     *
+     * @return true if the size and modification time of the file match the last write of this handler.
+     */
+    synchronized boolean isOwnWrite() {
+        try {
+            Path path = Paths.get(excelFilePath);
+            return writtenTime != null && writtenTime.equals(Files.getLastModifiedTime(path))
+                    && writtenSize == Files.size(path);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Brings the handler up to date after the Excel file was changed by another program and the changed rooms
+     * were swapped into the rooms held in memory.
+     * <p>
+     * Only the given rooms are touched: they are appended to the journal, so replaying it after a restart
+     * does not bring back their earlier state, the {@link AutosaveService} takes them over, so its next write
+     * keeps them, and if the workbook is open in memory, the rows of the changed rooms are rewritten, new rooms get
+     * a row and the rows of removed rooms are deleted. The rest of the workbook, with any changes not saved
+     * yet, is left as it is. The journal is written last, as by {@link #updateRoomInfo(Room)}.
+     * </p>
+     *
+     * @param changes the rooms changed in the file.
+     * @throws UncheckedIOException if the changes cannot be appended to the journal.
+     */
+    synchronized void fileReloaded(RoomChanges changes) {
+        if (autosave != null) {
+            autosave.roomsReloaded(changes);
+        }
+        if (workbook != null) {
+            rewriteRows(changes);
+        }
+        if (journal != null) {
+            List<Room> changed = new ArrayList<>(changes.changed().size());
+            changes.changed().forEachRoom(changed::add);
+            try {
+                journal.logChanges(changed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void rewriteRows(RoomChanges changes) {
+        changes.changed().forEachRoom(room -> {
+            Row row = findRow(room.getNumber());
+            if (row == null) {
+                row = appendRow(room);
+            } else {
+                writeDescription(row, room);
+            }
+            clearStay(row);
+            if (!room.isFree()) {
+                writeStay(row, room);
+            }
+        });
+        changes.removed().forEachRoom(room -> {
+            Row row = findRow(room.getNumber());
+            if (row != null) {
+                row.getSheet().removeRow(row);
+            }
+        });
+    }
+
+    private void writeRooms(IntRoomMap rooms) throws IOException {
+        RoomWorkbookWriter.write(rooms, excelFilePath, RoomWorkbookWriter.ROW_WINDOW);
+        roomsWritten(rooms);
+        rooms.changes().drain();
+        if (workbook != null) {
             workbook.close();
+            workbook = null;
+            locations = null;
+        }
+        if (journal != null) {
+            journal.reset();
+        }
+    }
+
+    /**
+     * Stops the background save, after writing its pending changes, and closes the workbook and the journal
+     * and releases any resources.
+     * <p>Floors of rooms read in {@link LoadMode#LAZY} mode that have not been read yet stay empty.</p>
+     */
+    @Override
+    public void close() {
+        AutosaveService background = currentAutosave();
+        if (background != null) {
+            background.close();
+        }
+        try {
+            if (workbook != null) {
+                workbook.close();
+            }
+            if (journal != null) {
+                journal.close();
+            }
+            synchronized (this) {
+                if (lazyRooms != null) {
+                    lazyRooms.close();
+                }
+            }
         } catch (IOException e) {
             LOGGER.info(e.getMessage());
         }
@@ -1,5 +1,7 @@
 package pl.edu.agh.kis.pz1;
 
+import java.util.Objects;
+
 /**
  * A class representing a guest in the hotel system.
  * <p>
@@ -29,6 +31,8 @@ public class Guest {
      */
     protected String idNumber;
 
+    private Room room;
+
     /**
      * Constructor for creating a main guest with all details.
      *
@@ -71,6 +75,9 @@ public class Guest {
      * @param main boolean value
      */
     public void setMain(boolean main) {
+        if (isMain != main) {
+            changed();
+        }
         isMain = main;
     }
 
@@ -87,6 +94,9 @@ public class Guest {
      * @param name a name of guest
      */
     public void setName(String name) {
+        if (!Objects.equals(this.name, name)) {
+            changed();
+        }
         this.name = name;
     }
 
@@ -103,6 +113,9 @@ public class Guest {
      * @param emailAddress an email address of a guest
      */
     public void setEmailAddress(String emailAddress) {
+        if (!Objects.equals(this.emailAddress, emailAddress)) {
+            changed();
+        }
         this.emailAddress = emailAddress;
     }
 
@@ -119,6 +132,9 @@ public class Guest {
      * @param phoneNumber phone number of type string
      */
     public void setPhoneNumber(String phoneNumber) {
+        if (!Objects.equals(this.phoneNumber, phoneNumber)) {
+            changed();
+        }
         this.phoneNumber = phoneNumber;
     }
 
@@ -135,9 +151,27 @@ public class Guest {
      * @param idNumber of type String
      */
     public void setIdNumber(String idNumber) {
+        if (!Objects.equals(this.idNumber, idNumber)) {
+            changed();
+        }
         this.idNumber = idNumber;
     }
 
+    /**
+     * Sets the room the guest stays in, which records changes of the guest as changes of its guests.
+     *
+     * @param room the room, or null
+     */
+    void setRoom(Room room) {
+        this.room = room;
+    }
+
+    private void changed() {
+        if (room != null) {
+            room.markChanged(Room.GUESTS);
+        }
+    }
+
     /**
      * Returns a string representation of the guest's details.
      * <p>
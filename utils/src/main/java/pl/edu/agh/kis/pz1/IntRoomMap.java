@@ -0,0 +1,406 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A map of rooms keyed by primitive room numbers.
+ * <p>
+ * Room numbers are kept in an {@code int[]} and rooms in a parallel array, in insertion order, and a linear
+ * probing table maps room numbers to their positions. Unlike {@code Map<Integer, Room>} implementations,
+ * {@link #get(int)}, {@link #put(int, Room)} and {@link #contains(int)} never box the room number, and
+ * {@link #forEachRoom(Consumer)} walks the rooms without allocating anything per room.
+ * </p>
+ * <p>
+ * The class still implements {@link Map}, so it can be passed wherever a generic map of rooms is expected.
+ * </p>
+ */
+public class IntRoomMap implements Map<Integer, Room> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int EMPTY = -1;
+
+    /**
+     * Probe table, each slot holds an index into the entry arrays or {@code EMPTY}.
+     */
+    private int[] slots;
+    private int[] numbers;
+    private Room[] rooms;
+    /**
+     * Number of used positions in the entry arrays, including holes left by removed rooms.
+     */
+    private int entryCount;
+    private int size;
+    private RoomChangeSet changes;
+
+    /**
+     * Creates an empty map with the default initial capacity.
+     */
+    public IntRoomMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map able to hold the given number of rooms without resizing.
+     *
+     * @param expectedSize the expected number of rooms.
+     */
+    public IntRoomMap(int expectedSize) {
+        int entries = Math.max(expectedSize, 2);
+        numbers = new int[entries];
+        rooms = new Room[entries];
+        slots = newSlots(tableSizeFor(entries));
+    }
+
+    /**
+     * Returns the rooms of this map changed since they were last saved.
+     *
+     * @return the set of changes, created on first use.
+     */
+    public synchronized RoomChangeSet changes() {
+        if (changes == null) {
+            changes = new RoomChangeSet(this);
+        }
+        return changes;
+    }
+
+    /**
+     * Returns the room with the given number, or null if there is no such room.
+     *
+     * @param number the room number.
+     * @return the room with the given number, or null if it does not exist.
+     */
+    public Room get(int number) {
+        int entry = slots[findSlot(number)];
+        return entry == EMPTY ? null : rooms[entry];
+    }
+
+    /**
+     * Adds a room under the given number, replacing the room previously stored under it.
+     *
+     * @param number the room number.
+     * @param room the room (not null).
+     * @return true if the room was added or replaced, false if the room is null.
+     */
+    public boolean put(int number, Room room) {
+        if (room == null) {
+            return false;
+        }
+        int slot = findSlot(number);
+        if (slots[slot] != EMPTY) {
+            rooms[slots[slot]] = room;
+            return true;
+        }
+        if (entryCount == numbers.length) {
+            grow();
+            slot = findSlot(number);
+        }
+        numbers[entryCount] = number;
+        rooms[entryCount] = room;
+        slots[slot] = entryCount;
+        entryCount++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the room with the given number.
+     *
+     * @param number the room number.
+     * @return true if the room was removed, false if it did not exist.
+     */
+    public boolean remove(int number) {
+        int slot = findSlot(number);
+        int entry = slots[slot];
+        if (entry == EMPTY) {
+            return false;
+        }
+        rooms[entry] = null;
+        size--;
+        deleteSlot(slot);
+        if (entry == entryCount - 1) {
+            entryCount--;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a room with the given number exists.
+     *
+     * @param number the room number.
+     * @return true if the room exists, false otherwise.
+     */
+    public boolean contains(int number) {
+        return slots[findSlot(number)] != EMPTY;
+    }
+
+    /**
+     * Returns the number of rooms in the map.
+     *
+     * @return the number of rooms.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Performs the given action for every room, in insertion order.
+     * <p>No objects are allocated while iterating.</p>
+     *
+     * @param action the action to perform for each room.
+     */
+    public void forEachRoom(Consumer<? super Room> action) {
+        for (int i = 0; i < entryCount; i++) {
+            Room room = rooms[i];
+            if (room != null) {
+                action.accept(room);
+            }
+        }
+    }
+
+    /**
+     * Performs the given action for every room number and room, in the same order as
+     * {@link #forEachRoom(Consumer)}.
+     * <p>The room numbers are boxed, so prefer {@link #forEachRoom(Consumer)} when the number is not needed.</p>
+     *
+     * @param action the action to perform for each room number and room.
+     */
+    @Override
+    public void forEach(BiConsumer<? super Integer, ? super Room> action) {
+        for (int i = 0; i < entryCount; i++) {
+            Room room = rooms[i];
+            if (room != null) {
+                action.accept(numbers[i], room);
+            }
+        }
+    }
+
+    /**
+     * Performs the given action for every room on the given floor, where floor = room number / 100,
+     * in ascending room number order.
+     *
+     * @param floor the floor number.
+     * @param action the action to perform for each room.
+     */
+    public void forEachRoomOnFloor(int floor, Consumer<? super Room> action) {
+        forEachRoomInRange(floor * 100, floor * 100 + 99, action);
+    }
+
+    /**
+     * Performs the given action for every room whose number lies between {@code from} and {@code to}, both
+     * inclusive, in ascending room number order.
+     * <p>This implementation checks every room and sorts the matching ones; {@link RoomDirectory} reads only
+     * the slots of the requested range.</p>
+     *
+     * @param from the lowest room number (inclusive).
+     * @param to the highest room number (inclusive).
+     * @param action the action to perform for each room.
+     */
+    public void forEachRoomInRange(int from, int to, Consumer<? super Room> action) {
+        int[] matches = new int[size];
+        int count = 0;
+        for (int i = 0; i < entryCount; i++) {
+            if (rooms[i] != null && numbers[i] >= from && numbers[i] <= to) {
+                matches[count++] = numbers[i];
+            }
+        }
+        Arrays.sort(matches, 0, count);
+        for (int i = 0; i < count; i++) {
+            action.accept(rooms[slots[findSlot(matches[i])]]);
+        }
+    }
+
+    /**
+     * Counts the free rooms on the given floor, where floor = room number / 100.
+     *
+     * @param floor the floor number.
+     * @return the number of rooms on the floor without guests.
+     */
+    public int countFreeRoomsOnFloor(int floor) {
+        int[] free = new int[1];
+        forEachRoomOnFloor(floor, room -> {
+            if (room.isFree()) {
+                free[0]++;
+            }
+        });
+        return free[0];
+    }
+
+    /**
+     * Returns an iterator over the room numbers, in insertion order, which yields primitive ints.
+     *
+     * @return a primitive iterator over the room numbers.
+     */
+    public PrimitiveIterator.OfInt keyIterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int next = skipHoles(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < entryCount;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int number = numbers[next];
+                next = skipHoles(next + 1);
+                return number;
+            }
+        };
+    }
+
+    /**
+     * Adds a room under the given number. Delegates to {@link #put(int, Room)}.
+     *
+     * @param key the room number (not null).
+     * @param value the room (not null).
+     * @return true if the room was added or replaced, false otherwise.
+     */
+    @Override
+    public boolean put(Integer key, Room value) {
+        return key != null && put(key.intValue(), value);
+    }
+
+    /**
+     * Removes the room with the given number. Delegates to {@link #remove(int)}.
+     *
+     * @param key the room number.
+     * @return true if the room was removed, false otherwise.
+     */
+    @Override
+    public boolean remove(Integer key) {
+        return key != null && remove(key.intValue());
+    }
+
+    /**
+     * Returns the room with the given number. Delegates to {@link #get(int)}.
+     *
+     * @param key the room number.
+     * @return the room, or null if it does not exist.
+     */
+    @Override
+    public Room get(Integer key) {
+        return key == null ? null : get(key.intValue());
+    }
+
+    /**
+     * Returns a list of all room numbers, in insertion order.
+     * <p>The numbers are boxed, so prefer {@link #keyIterator()} on hot paths.</p>
+     *
+     * @return a new List containing all room numbers.
+     */
+    @Override
+    public List<Integer> keys() {
+        List<Integer> result = new ArrayList<>(size);
+        PrimitiveIterator.OfInt it = keyIterator();
+        while (it.hasNext()) {
+            result.add(it.nextInt());
+        }
+        return result;
+    }
+
+    /**
+     * Checks if a room with the given number exists. Delegates to {@link #contains(int)}.
+     *
+     * @param key the room number.
+     * @return true if the room exists, false otherwise.
+     */
+    @Override
+    public boolean contains(Integer key) {
+        return key != null && contains(key.intValue());
+    }
+
+    private int skipHoles(int from) {
+        int i = from;
+        while (i < entryCount && rooms[i] == null) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Finds the slot holding the given number, or the empty slot where it would be inserted.
+     */
+    private int findSlot(int number) {
+        int mask = slots.length - 1;
+        int i = hash(number) & mask;
+        while (true) {
+            int entry = slots[i];
+            if (entry == EMPTY || numbers[entry] == number) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Empties the given slot and shifts back the following entries of the probe chain.
+     */
+    private void deleteSlot(int hole) {
+        int mask = slots.length - 1;
+        slots[hole] = EMPTY;
+        int i = (hole + 1) & mask;
+        while (slots[i] != EMPTY) {
+            int home = hash(numbers[slots[i]]) & mask;
+            boolean reachable = hole <= i ? (hole < home && home <= i) : (hole < home || home <= i);
+            if (!reachable) {
+                slots[hole] = slots[i];
+                slots[i] = EMPTY;
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Makes room for a new entry: compacts holes left by removals and grows the arrays if needed.
+     */
+    private void grow() {
+        int capacity = size * 2 > numbers.length ? numbers.length * 2 : numbers.length;
+        int[] newNumbers = new int[capacity];
+        Room[] newRooms = new Room[capacity];
+        int[] newSlots = newSlots(tableSizeFor(capacity));
+        int mask = newSlots.length - 1;
+        int j = 0;
+        for (int i = 0; i < entryCount; i++) {
+            if (rooms[i] != null) {
+                newNumbers[j] = numbers[i];
+                newRooms[j] = rooms[i];
+                int s = hash(newNumbers[j]) & mask;
+                while (newSlots[s] != EMPTY) {
+                    s = (s + 1) & mask;
+                }
+                newSlots[s] = j;
+                j++;
+            }
+        }
+        numbers = newNumbers;
+        rooms = newRooms;
+        slots = newSlots;
+        entryCount = j;
+    }
+
+    private static int tableSizeFor(int entries) {
+        int n = Integer.highestOneBit(entries * 2 - 1) << 1;
+        return Math.max(n, 4);
+    }
+
+    private static int[] newSlots(int length) {
+        int[] table = new int[length];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private static int hash(int number) {
+        int h = number * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,250 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * A {@link RoomDirectory} whose floors are read from the workbook when they are first used.
+ * <p>
+ * Only the list of sheets is read when the directory is created. Looking up, adding or removing a room reads
+ * the sheet of its floor first, and so does visiting the rooms of a floor or a range; visiting all rooms,
+ * counting them or iterating their numbers reads every floor that has not been read yet. Floors are mapped to
+ * sheets by position, as in {@link ExcelHandler}: the sheet at index {@code floor - 1} holds the floor.
+ * </p>
+ * <p>
+ * Each floor is read once, by a {@link FutureTask}: a thread needing a floor that another thread is reading
+ * waits for it instead of reading it again. {@link #prefetch()} reads the remaining floors on a daemon
+ * thread, so they are usually ready before they are needed. Once every floor has been read, the workbook is
+ * closed. All methods are synchronized.
+ * </p>
+ */
+final class LazyRoomDirectory extends RoomDirectory implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(LazyRoomDirectory.class.getName());
+
+    private final FloorSource source;
+    private final FutureTask<List<Room>>[] reads;
+    private final boolean[] loaded;
+    private int loadedCount;
+    private volatile boolean closed;
+
+    /**
+     * The floors of a workbook, read on demand.
+     */
+    interface FloorSource extends Closeable {
+        /**
+         * Returns the number of floors.
+         */
+        int count();
+
+        /**
+         * Reads the rooms of the given floor, from 1 to {@link #count()}.
+         *
+         * @param floor the floor number.
+         * @return the rooms of the floor.
+         * @throws IOException if the floor cannot be read.
+         */
+        List<Room> read(int floor) throws IOException;
+    }
+
+    /**
+     * Creates a directory reading its floors from the given source.
+     *
+     * @param source the floors of the workbook; closed by the directory.
+     */
+    @SuppressWarnings("unchecked")
+    LazyRoomDirectory(FloorSource source) {
+        this.source = source;
+        int floors = Math.min(source.count(), MAX_FLOOR);
+        reads = (FutureTask<List<Room>>[]) new FutureTask<?>[floors + 1];
+        loaded = new boolean[floors + 1];
+        for (int floor = 1; floor <= floors; floor++) {
+            reads[floor] = readTask(floor);
+        }
+        loaded[0] = true;
+        if (floors == 0) {
+            closeSource();
+        }
+    }
+
+    /**
+     * Starts reading the floors that have not been read yet on a daemon thread, in floor order.
+     */
+    void prefetch() {
+        Thread thread = new Thread(() -> {
+            for (int floor = 1; floor < reads.length && !closed; floor++) {
+                FutureTask<List<Room>> read;
+                synchronized (this) {
+                    read = reads[floor];
+                }
+                if (read == null) {
+                    continue;
+                }
+                read.run();
+                synchronized (this) {
+                    try {
+                        if (!closed && !loaded[floor]) {
+                            install(floor);
+                        }
+                    } catch (UncheckedIOException e) {
+                        LOGGER.info(e.getMessage());
+                    }
+                }
+            }
+        }, "floor-prefetch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the number of floors read so far.
+     */
+    synchronized int loadedFloors() {
+        return loadedCount;
+    }
+
+    /**
+     * Reads the given floor if it has not been read yet.
+     * <p>Called while holding the lock; the read itself does not need it, so a prefetch in progress cannot
+     * block it.</p>
+     */
+    private void ensureLoaded(int floor) {
+        if (!closed && floor >= 1 && floor < reads.length && !loaded[floor]) {
+            reads[floor].run();
+            install(floor);
+        }
+    }
+
+    private void ensureAllLoaded() {
+        for (int floor = 1; floor < reads.length; floor++) {
+            ensureLoaded(floor);
+        }
+    }
+
+    private void install(int floor) {
+        List<Room> rooms;
+        try {
+            rooms = reads[floor].get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            // read again on the next access
+            reads[floor] = readTask(floor);
+            throw new UncheckedIOException(e.getCause() instanceof IOException io ? io
+                    : new IOException(e.getCause()));
+        }
+        loaded[floor] = true;
+        for (Room room : rooms) {
+            super.put(room.getNumber(), room);
+        }
+        reads[floor] = null;
+        if (++loadedCount == reads.length - 1) {
+            closeSource();
+        }
+    }
+
+    private FutureTask<List<Room>> readTask(int floor) {
+        return new FutureTask<>((Callable<List<Room>>) () -> source.read(floor));
+    }
+
+    private void closeSource() {
+        try {
+            source.close();
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized Room get(int number) {
+        ensureLoaded(number / SLOTS_PER_FLOOR);
+        return super.get(number);
+    }
+
+    @Override
+    public synchronized boolean put(int number, Room room) {
+        ensureLoaded(number / SLOTS_PER_FLOOR);
+        return super.put(number, room);
+    }
+
+    @Override
+    public synchronized boolean remove(int number) {
+        ensureLoaded(number / SLOTS_PER_FLOOR);
+        return super.remove(number);
+    }
+
+    @Override
+    public synchronized boolean contains(int number) {
+        return get(number) != null;
+    }
+
+    @Override
+    public synchronized int size() {
+        ensureAllLoaded();
+        return super.size();
+    }
+
+    @Override
+    public synchronized void forEachRoom(Consumer<? super Room> action) {
+        ensureAllLoaded();
+        super.forEachRoom(action);
+    }
+
+    @Override
+    public synchronized void forEach(BiConsumer<? super Integer, ? super Room> action) {
+        ensureAllLoaded();
+        super.forEach(action);
+    }
+
+    @Override
+    public synchronized void forEachRoomOnFloor(int floor, Consumer<? super Room> action) {
+        ensureLoaded(floor);
+        super.forEachRoomOnFloor(floor, action);
+    }
+
+    @Override
+    public synchronized void forEachRoomInRange(int from, int to, Consumer<? super Room> action) {
+        int last = Math.min(to / SLOTS_PER_FLOOR, reads.length - 1);
+        for (int floor = Math.max(from / SLOTS_PER_FLOOR, 1); floor <= last; floor++) {
+            ensureLoaded(floor);
+        }
+        super.forEachRoomInRange(from, to, action);
+    }
+
+    @Override
+    public synchronized int countFreeRoomsOnFloor(int floor) {
+        ensureLoaded(floor);
+        return super.countFreeRoomsOnFloor(floor);
+    }
+
+    /**
+     * Returns an iterator over the room numbers, after reading every floor.
+     *
+     * @return a primitive iterator over the room numbers.
+     */
+    @Override
+    public synchronized PrimitiveIterator.OfInt keyIterator() {
+        ensureAllLoaded();
+        return super.keyIterator();
+    }
+
+    /**
+     * Stops the prefetch and closes the workbook; floors not read yet stay empty.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            closeSource();
+        }
+    }
+}
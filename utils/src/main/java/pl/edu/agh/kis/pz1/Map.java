@@ -1,6 +1,11 @@
 package pl.edu.agh.kis.pz1;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
 
 /**
  * An interface representing a Map collection with key-value pairs.
@@ -8,6 +13,11 @@ import java.util.List;
  * This interface defines the basic operations for a Map-like data structure,
  * including adding, removing, retrieving values by key, and checking for the existence of keys.
  * </p>
+ * <p>
+ * Entries can be visited in a single pass with {@link #forEach(BiConsumer)}, {@link #entryIterator()} or
+ * {@link #spliterator()}. The default implementations look every key up with {@link #get(Object)};
+ * implementations override them to walk their storage directly.
+ * </p>
  *
  * @param <K> the type of keys in this map.
  * @param <V> the type of values in this map.
@@ -53,4 +63,107 @@ public interface Map<K, V> {
      * @return true if the key exists in the map, false otherwise.
      */
     boolean contains(K key);
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the number of keys stored in the map.
+     */
+    default int size() {
+        return keys().size();
+    }
+
+    /**
+     * Performs the given action for every entry of the map, in the order of {@link #keys()}.
+     *
+     * @param action the action to perform for each key and its value.
+     */
+    default void forEach(BiConsumer<? super K, ? super V> action) {
+        for (K key : keys()) {
+            V value = get(key);
+            if (value != null) {
+                action.accept(key, value);
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator over the entries of the map, in the order of {@link #keys()}.
+     * <p>The iterator may return the same {@link Entry} object on every call to {@code next()}, updated to the
+     * next key and value, so an entry must not be kept after the iterator has moved on.</p>
+     *
+     * @return an iterator over the entries of the map.
+     */
+    default Iterator<Entry<K, V>> entryIterator() {
+        Iterator<K> keys = keys().iterator();
+        return new Iterator<>() {
+            private final MapEntry<K, V> entry = new MapEntry<>();
+            private K nextKey;
+            private V nextValue;
+
+            {
+                advance();
+            }
+
+            private void advance() {
+                nextKey = null;
+                nextValue = null;
+                while (keys.hasNext() && nextValue == null) {
+                    nextKey = keys.next();
+                    nextValue = get(nextKey);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nextValue != null;
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                entry.set(nextKey, nextValue);
+                advance();
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * Returns a spliterator over the entries of the map, which can be used to build parallel streams with
+     * {@code StreamSupport.stream(map.spliterator(), true)}.
+     * <p>Unlike {@link #entryIterator()}, every entry passed on by the spliterator is a separate object, so
+     * entries may be collected. The default implementation copies the entries into a list first.</p>
+     *
+     * @return a spliterator over the entries of the map.
+     */
+    default Spliterator<Entry<K, V>> spliterator() {
+        List<Entry<K, V>> entries = new ArrayList<>();
+        forEach((key, value) -> entries.add(new MapEntry<>(key, value)));
+        return entries.spliterator();
+    }
+
+    /**
+     * A key-value pair of a map.
+     *
+     * @param <K> the type of the key.
+     * @param <V> the type of the value.
+     */
+    interface Entry<K, V> {
+        /**
+         * Returns the key of the entry.
+         *
+         * @return the key.
+         */
+        K getKey();
+
+        /**
+         * Returns the value of the entry.
+         *
+         * @return the value.
+         */
+        V getValue();
+    }
 }
@@ -0,0 +1,56 @@
+package pl.edu.agh.kis.pz1;
+
+/**
+ * A simple mutable {@link Map.Entry}, used both as the entries of spliterators and as the single reused entry
+ * of entry iterators.
+ *
+ * @param <K> the type of the key.
+ * @param <V> the type of the value.
+ */
+final class MapEntry<K, V> implements Map.Entry<K, V> {
+    private K key;
+    private V value;
+
+    /**
+     * Creates an empty entry, to be filled with {@link #set(Object, Object)}.
+     */
+    MapEntry() {
+    }
+
+    /**
+     * Creates an entry with the given key and value.
+     *
+     * @param key the key.
+     * @param value the value.
+     */
+    MapEntry(K key, V value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * Replaces the key and the value of the entry.
+     *
+     * @param key the new key.
+     * @param value the new value.
+     */
+    void set(K key, V value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+        return key;
+    }
+
+    @Override
+    public V getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return key + "=" + value;
+    }
+}
@@ -0,0 +1,291 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * A thread-safe implementation of the Map interface using lock striping.
+ * <p>
+ * Keys are spread over a fixed number of stripes, each one a {@link MyHashMap} guarded by its own read-write
+ * lock. Operations on keys from different stripes never wait for each other, and readers of the same stripe
+ * share its lock, so several front-desk terminals can work on one map at the same time.
+ * </p>
+ * <p>
+ * Every single-key operation, including {@link #putIfAbsent(Object, Object)} and
+ * {@link #compute(Object, BiFunction)}, is atomic. {@link #keys()} and {@link #size()} visit the stripes one
+ * after another, so they reflect each stripe at some moment during the call rather than one snapshot of the
+ * whole map.
+ * </p>
+ *
+ * @param <K> the type of keys in this map.
+ * @param <V> the type of values in this map.
+ */
+public class MyConcurrentMap<K, V> implements Map<K, V> {
+    private static final int DEFAULT_STRIPES = 16;
+
+    private final MyHashMap<K, V>[] stripes;
+    private final ReadWriteLock[] locks;
+    private final int shift;
+
+    /**
+     * Creates an empty map with the default number of stripes.
+     */
+    public MyConcurrentMap() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates an empty map with the given number of stripes, rounded up to a power of two.
+     * <p>More stripes mean less contention between threads at the cost of a little memory.</p>
+     *
+     * @param concurrencyLevel the expected number of threads updating the map at the same time.
+     */
+    @SuppressWarnings("unchecked")
+    public MyConcurrentMap(int concurrencyLevel) {
+        int count = Integer.highestOneBit(Math.max(concurrencyLevel, 1) * 2 - 1);
+        stripes = (MyHashMap<K, V>[]) new MyHashMap<?, ?>[count];
+        locks = new ReadWriteLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new MyHashMap<>();
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        shift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    /**
+     * Adds an element to the map under the specified key.
+     * If the provided key already exists, this method will replace the existing value.
+     *
+     * @param key the key (not null).
+     * @param value the value associated with the key (not null).
+     * @return true if the element was successfully added or updated, false if the key is null.
+     */
+    @Override
+    public boolean put(K key, V value) {
+        if (key == null) {
+            return false;
+        }
+        int i = stripeOf(key);
+        locks[i].writeLock().lock();
+        try {
+            return stripes[i].put(key, value);
+        } finally {
+            locks[i].writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds an element to the map only if the key is not present yet, as one atomic operation.
+     *
+     * @param key the key (not null).
+     * @param value the value associated with the key (not null).
+     * @return the value already stored under the key, or null if the given value was added.
+     */
+    public V putIfAbsent(K key, V value) {
+        if (key == null) {
+            return null;
+        }
+        int i = stripeOf(key);
+        locks[i].writeLock().lock();
+        try {
+            V current = stripes[i].get(key);
+            if (current == null) {
+                stripes[i].put(key, value);
+            }
+            return current;
+        } finally {
+            locks[i].writeLock().unlock();
+        }
+    }
+
+    /**
+     * Computes a new value for the key from its current value, as one atomic operation.
+     * <p>The function receives null if the key is not present. If it returns null, the key is removed.
+     * No other operation on keys of the same stripe can run while the function is called, so it should be
+     * short and must not access this map.</p>
+     *
+     * @param key the key (not null).
+     * @param remapping the function computing the new value.
+     * @return the new value associated with the key, or null if there is none.
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+        if (key == null) {
+            return null;
+        }
+        int i = stripeOf(key);
+        locks[i].writeLock().lock();
+        try {
+            V value = remapping.apply(key, stripes[i].get(key));
+            if (value == null) {
+                stripes[i].remove(key);
+            } else {
+                stripes[i].put(key, value);
+            }
+            return value;
+        } finally {
+            locks[i].writeLock().unlock();
+        }
+    }
+
+    /**
+     * Computes a new value for the key only if it is present, as one atomic operation.
+     * <p>If the function returns null, the key is removed.</p>
+     *
+     * @param key the key (not null).
+     * @param remapping the function computing the new value.
+     * @return the new value associated with the key, or null if there is none.
+     */
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+        return compute(key, (k, v) -> v == null ? null : remapping.apply(k, v));
+    }
+
+    /**
+     * Removes the entry with the specified key and its associated value from the map.
+     *
+     * @param key the key to be removed.
+     * @return true if the key was successfully removed, false otherwise.
+     */
+    @Override
+    public boolean remove(K key) {
+        if (key == null) {
+            return false;
+        }
+        int i = stripeOf(key);
+        locks[i].writeLock().lock();
+        try {
+            return stripes[i].remove(key);
+        } finally {
+            locks[i].writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the entry with the specified key only if it is currently mapped to the given value.
+     *
+     * @param key the key to be removed.
+     * @param value the value expected under the key.
+     * @return true if the entry was removed, false otherwise.
+     */
+    public boolean remove(K key, V value) {
+        if (key == null) {
+            return false;
+        }
+        int i = stripeOf(key);
+        locks[i].writeLock().lock();
+        try {
+            V current = stripes[i].get(key);
+            return current != null && current.equals(value) && stripes[i].remove(key);
+        } finally {
+            locks[i].writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if the key does not exist.
+     *
+     * @param key the key (not null).
+     * @return the value associated with the key, or null if the key does not exist.
+     */
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        int i = stripeOf(key);
+        locks[i].readLock().lock();
+        try {
+            return stripes[i].get(key);
+        } finally {
+            locks[i].readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a list of all the keys in the map, stripe by stripe.
+     *
+     * @return a new List containing all the keys in the map.
+     */
+    @Override
+    public List<K> keys() {
+        List<K> result = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].readLock().lock();
+            try {
+                result.addAll(stripes[i].keys());
+            } finally {
+                locks[i].readLock().unlock();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the specified key exists in the map.
+     *
+     * @param key the key to check.
+     * @return true if the key exists in the map, false otherwise.
+     */
+    @Override
+    public boolean contains(K key) {
+        if (key == null) {
+            return false;
+        }
+        int i = stripeOf(key);
+        locks[i].readLock().lock();
+        try {
+            return stripes[i].contains(key);
+        } finally {
+            locks[i].readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the number of keys stored in the map.
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].readLock().lock();
+            try {
+                size += stripes[i].size();
+            } finally {
+                locks[i].readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Performs the given action for every entry, stripe by stripe.
+     * <p>The action runs while the stripe's read lock is held, so it must not modify this map.</p>
+     *
+     * @param action the action to perform for each key and its value.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].readLock().lock();
+            try {
+                stripes[i].forEach(action);
+            } finally {
+                locks[i].readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Chooses the stripe from the top bits of the spread hash code; {@link MyHashMap} uses the low bits
+     * inside a stripe.
+     */
+    private int stripeOf(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return shift == 32 ? 0 : h >>> shift;
+    }
+}
@@ -0,0 +1,314 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * A hash-based implementation of the Map interface using open addressing with linear probing.
+ * <p>
+ * Entries are kept in insertion order in dense arrays, while a separate probe table maps hashes to entry
+ * positions. Lookups, insertions and removals run in expected constant time, and {@link #keys()} returns
+ * keys in the same order as {@link MyMap} would. Removal uses backward-shift deletion, so the probe table
+ * never contains tombstones and probe chains stay short no matter how many rooms are checked in and out.
+ * </p>
+ *
+ * @param <K> the type of keys in this map.
+ * @param <V> the type of values in this map.
+ */
+public class MyHashMap<K, V> implements Map<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int EMPTY = -1;
+
+    /**
+     * Probe table, each slot holds an index into the entry arrays or {@code EMPTY}.
+     */
+    private int[] slots;
+    private Object[] entryKeys;
+    private Object[] entryValues;
+    private int[] entryHashes;
+    /**
+     * Number of used positions in the entry arrays, including holes left by removed entries.
+     */
+    private int entryCount;
+    private int size;
+
+    /**
+     * Creates an empty map with the default initial capacity.
+     */
+    public MyHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map able to hold the given number of entries without resizing.
+     *
+     * @param expectedSize the expected number of entries.
+     */
+    public MyHashMap(int expectedSize) {
+        int entries = Math.max(expectedSize, 2);
+        entryKeys = new Object[entries];
+        entryValues = new Object[entries];
+        entryHashes = new int[entries];
+        slots = newSlots(tableSizeFor(entries));
+    }
+
+    /**
+     * Adds an element to the map under the specified key.
+     * If the provided key already exists, this method will replace the existing value.
+     *
+     * @param key the key (not null).
+     * @param value the value associated with the key (not null).
+     * @return true if the element was successfully added or updated, false if the key is null.
+     */
+    @Override
+    public boolean put(K key, V value) {
+        if (key == null) {
+            return false;
+        }
+        int hash = hash(key);
+        int slot = findSlot(key, hash);
+        if (slots[slot] != EMPTY) {
+            entryValues[slots[slot]] = value;
+            return true;
+        }
+        if (entryCount == entryKeys.length) {
+            grow();
+            slot = findSlot(key, hash);
+        }
+        entryKeys[entryCount] = key;
+        entryValues[entryCount] = value;
+        entryHashes[entryCount] = hash;
+        slots[slot] = entryCount;
+        entryCount++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the entry with the specified key and its associated value from the map.
+     *
+     * @param key the key to be removed.
+     * @return true if the key was successfully removed, false otherwise.
+     */
+    @Override
+    public boolean remove(K key) {
+        if (key == null) {
+            return false;
+        }
+        int slot = findSlot(key, hash(key));
+        int entry = slots[slot];
+        if (entry == EMPTY) {
+            return false;
+        }
+        entryKeys[entry] = null;
+        entryValues[entry] = null;
+        size--;
+        deleteSlot(slot);
+        if (entry == entryCount - 1) {
+            entryCount--;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if the key does not exist.
+     *
+     * @param key the key (not null).
+     * @return the value associated with the key, or null if the key does not exist.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        int entry = slots[findSlot(key, hash(key))];
+        return entry == EMPTY ? null : (V) entryValues[entry];
+    }
+
+    /**
+     * Returns a list of all the keys in the map, in insertion order.
+     *
+     * @return a new List containing all the keys in the map.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<K> keys() {
+        List<K> result = new ArrayList<>(size);
+        for (int i = 0; i < entryCount; i++) {
+            if (entryKeys[i] != null) {
+                result.add((K) entryKeys[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the specified key exists in the map.
+     *
+     * @param key the key to check.
+     * @return true if the key exists in the map, false otherwise.
+     */
+    @Override
+    public boolean contains(K key) {
+        return key != null && slots[findSlot(key, hash(key))] != EMPTY;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the number of keys stored in the map.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Performs the given action for every entry, in insertion order, reading the entry arrays directly.
+     * <p>No objects are allocated while iterating.</p>
+     *
+     * @param action the action to perform for each key and its value.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < entryCount; i++) {
+            if (entryKeys[i] != null) {
+                action.accept((K) entryKeys[i], (V) entryValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator over the entries, in insertion order.
+     * <p>The iterator returns the same {@link Map.Entry} object on every call, so iterating allocates nothing
+     * per entry.</p>
+     *
+     * @return an iterator over the entries of the map.
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> entryIterator() {
+        return new Iterator<>() {
+            private final MapEntry<K, V> entry = new MapEntry<>();
+            private int next = skipHoles(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < entryCount;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Map.Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                entry.set((K) entryKeys[next], (V) entryValues[next]);
+                next = skipHoles(next + 1);
+                return entry;
+            }
+        };
+    }
+
+    private int skipHoles(int from) {
+        int i = from;
+        while (i < entryCount && entryKeys[i] == null) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Finds the slot holding the given key, or the empty slot where it would be inserted.
+     */
+    private int findSlot(Object key, int hash) {
+        int mask = slots.length - 1;
+        int i = hash & mask;
+        while (true) {
+            int entry = slots[i];
+            if (entry == EMPTY || (entryHashes[entry] == hash && key.equals(entryKeys[entry]))) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Empties the given slot and shifts back the following entries of the probe chain,
+     * so no tombstone is needed to keep later lookups correct.
+     */
+    private void deleteSlot(int hole) {
+        int mask = slots.length - 1;
+        slots[hole] = EMPTY;
+        int i = (hole + 1) & mask;
+        while (slots[i] != EMPTY) {
+            int home = entryHashes[slots[i]] & mask;
+            // the entry may move into the hole only if its home slot is not cyclically within (hole, i]
+            boolean reachable = hole <= i ? (hole < home && home <= i) : (hole < home || home <= i);
+            if (!reachable) {
+                slots[hole] = slots[i];
+                slots[i] = EMPTY;
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Makes room for a new entry: compacts holes left by removals and grows the arrays if needed.
+     */
+    private void grow() {
+        int capacity = size * 2 > entryKeys.length ? entryKeys.length * 2 : entryKeys.length;
+        Object[] newKeys = new Object[capacity];
+        Object[] newValues = new Object[capacity];
+        int[] newHashes = new int[capacity];
+        int[] newSlots = newSlots(tableSizeFor(capacity));
+        int mask = newSlots.length - 1;
+        int j = 0;
+        for (int i = 0; i < entryCount; i++) {
+            if (entryKeys[i] != null) {
+                newKeys[j] = entryKeys[i];
+                newValues[j] = entryValues[i];
+                newHashes[j] = entryHashes[i];
+                int s = newHashes[j] & mask;
+                while (newSlots[s] != EMPTY) {
+                    s = (s + 1) & mask;
+                }
+                newSlots[s] = j;
+                j++;
+            }
+        }
+        entryKeys = newKeys;
+        entryValues = newValues;
+        entryHashes = newHashes;
+        slots = newSlots;
+        entryCount = j;
+    }
+
+    /**
+     * Returns the probe table size for the given number of entries, keeping the load factor at most 1/2.
+     */
+    private static int tableSizeFor(int entries) {
+        int n = Integer.highestOneBit(entries * 2 - 1) << 1;
+        return Math.max(n, 4);
+    }
+
+    private static int[] newSlots(int length) {
+        int[] table = new int[length];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    /**
+     * Spreads the hash code so that sequential keys, such as room numbers, do not form long clusters.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
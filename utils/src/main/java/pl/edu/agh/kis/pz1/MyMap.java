@@ -1,7 +1,12 @@
 package pl.edu.agh.kis.pz1;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * A custom implementation of the Map interface using two lists: one for keys and one for values.
@@ -105,4 +110,118 @@ public class MyMap<K,V> implements Map<K,V>{
     public boolean contains(K key){
         return keys.contains(key);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the number of keys stored in the map.
+     */
+    @Override
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Performs the given action for every entry, in insertion order, walking both lists in a single pass.
+     * <p>No objects are allocated while iterating.</p>
+     *
+     * @param action the action to perform for each key and its value.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < keys.size(); i++) {
+            action.accept(keys.get(i), values.get(i));
+        }
+    }
+
+    /**
+     * Returns an iterator over the entries, in insertion order.
+     * <p>The iterator returns the same {@link Map.Entry} object on every call, so iterating allocates nothing
+     * per entry.</p>
+     *
+     * @return an iterator over the entries of the map.
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> entryIterator() {
+        return new Iterator<>() {
+            private final MapEntry<K, V> entry = new MapEntry<>();
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < keys.size();
+            }
+
+            @Override
+            public Map.Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                entry.set(keys.get(next), values.get(next));
+                next++;
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * Returns a spliterator over the entries, which splits the map by index ranges without copying it.
+     *
+     * @return a spliterator over the entries of the map.
+     */
+    @Override
+    public Spliterator<Map.Entry<K, V>> spliterator() {
+        return new EntrySpliterator(0, keys.size());
+    }
+
+    /**
+     * A spliterator over a range of list positions.
+     */
+    private final class EntrySpliterator implements Spliterator<Map.Entry<K, V>> {
+        private int origin;
+        private final int fence;
+
+        EntrySpliterator(int origin, int fence) {
+            this.origin = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<K, V>> action) {
+            if (origin >= fence) {
+                return false;
+            }
+            action.accept(new MapEntry<>(keys.get(origin), values.get(origin)));
+            origin++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Map.Entry<K, V>> action) {
+            for (; origin < fence; origin++) {
+                action.accept(new MapEntry<>(keys.get(origin), values.get(origin)));
+            }
+        }
+
+        @Override
+        public Spliterator<Map.Entry<K, V>> trySplit() {
+            int mid = (origin + fence) >>> 1;
+            if (mid <= origin) {
+                return null;
+            }
+            Spliterator<Map.Entry<K, V>> prefix = new EntrySpliterator(origin, mid);
+            origin = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) fence - origin;
+        }
+
+        @Override
+        public int characteristics() {
+            return SIZED | SUBSIZED | ORDERED | DISTINCT | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.BiConsumer;
+
+/**
+ * A sorted implementation of the Map interface based on a skip list.
+ * <p>
+ * Keys are kept in ascending natural order. Lookups, insertions and removals take expected O(log n) time,
+ * {@link #keys()} returns the keys in order, and {@link #subMap(Comparable, Comparable)} returns a view of a key
+ * range whose keys are listed in O(log n + k) time, where k is the number of keys in the range.
+ * </p>
+ *
+ * @param <K> the type of keys in this map, compared by their natural order.
+ * @param <V> the type of values in this map.
+ */
+public class MySortedMap<K extends Comparable<? super K>, V> implements Map<K, V> {
+    private static final int MAX_LEVEL = 32;
+
+    private final Node<K, V> head = new Node<>(null, null, MAX_LEVEL);
+    private final Random random = new Random();
+    private int level = 1;
+    private int size;
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        final Node<K, V>[] next;
+
+        @SuppressWarnings("unchecked")
+        Node(K key, V value, int height) {
+            this.key = key;
+            this.value = value;
+            this.next = new Node[height];
+        }
+    }
+
+    /**
+     * Adds an element to the map under the specified key.
+     * If the provided key already exists, this method will replace the existing value.
+     *
+     * @param key the key (not null).
+     * @param value the value associated with the key (not null).
+     * @return true if the element was successfully added or updated, false if the key is null.
+     */
+    @Override
+    public boolean put(K key, V value) {
+        if (key == null) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        Node<K, V>[] update = new Node[MAX_LEVEL];
+        Node<K, V> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i].key.compareTo(key) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        Node<K, V> found = x.next[0];
+        if (found != null && found.key.compareTo(key) == 0) {
+            found.value = value;
+            return true;
+        }
+        int height = randomLevel();
+        if (height > level) {
+            for (int i = level; i < height; i++) {
+                update[i] = head;
+            }
+            level = height;
+        }
+        Node<K, V> node = new Node<>(key, value, height);
+        for (int i = 0; i < height; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the entry with the specified key and its associated value from the map.
+     *
+     * @param key the key to be removed.
+     * @return true if the key was successfully removed, false otherwise.
+     */
+    @Override
+    public boolean remove(K key) {
+        if (key == null) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        Node<K, V>[] update = new Node[MAX_LEVEL];
+        Node<K, V> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i].key.compareTo(key) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        Node<K, V> found = x.next[0];
+        if (found == null || found.key.compareTo(key) != 0) {
+            return false;
+        }
+        for (int i = 0; i < found.next.length; i++) {
+            update[i].next[i] = found.next[i];
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if the key does not exist.
+     *
+     * @param key the key (not null).
+     * @return the value associated with the key, or null if the key does not exist.
+     */
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        Node<K, V> node = ceilingNode(key);
+        return node != null && node.key.compareTo(key) == 0 ? node.value : null;
+    }
+
+    /**
+     * Returns a list of all the keys in the map, in ascending order.
+     *
+     * @return a new List containing all the keys in the map.
+     */
+    @Override
+    public List<K> keys() {
+        List<K> result = new ArrayList<>(size);
+        for (Node<K, V> x = head.next[0]; x != null; x = x.next[0]) {
+            result.add(x.key);
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the specified key exists in the map.
+     *
+     * @param key the key to check.
+     * @return true if the key exists in the map, false otherwise.
+     */
+    @Override
+    public boolean contains(K key) {
+        if (key == null) {
+            return false;
+        }
+        Node<K, V> node = ceilingNode(key);
+        return node != null && node.key.compareTo(key) == 0;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the number of keys stored in the map.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Performs the given action for every entry, in ascending key order.
+     * <p>No objects are allocated while iterating.</p>
+     *
+     * @param action the action to perform for each key and its value.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (Node<K, V> x = head.next[0]; x != null; x = x.next[0]) {
+            action.accept(x.key, x.value);
+        }
+    }
+
+    /**
+     * Returns an iterator over the entries, in ascending key order.
+     * <p>The iterator returns the same {@link Map.Entry} object on every call, so iterating allocates nothing
+     * per entry.</p>
+     *
+     * @return an iterator over the entries of the map.
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> entryIterator() {
+        return new Iterator<>() {
+            private final MapEntry<K, V> entry = new MapEntry<>();
+            private Node<K, V> next = head.next[0];
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Map.Entry<K, V> next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                entry.set(next.key, next.value);
+                next = next.next[0];
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * Returns the lowest key in the map.
+     *
+     * @return the lowest key, or null if the map is empty.
+     */
+    public K firstKey() {
+        return head.next[0] == null ? null : head.next[0].key;
+    }
+
+    /**
+     * Returns the highest key in the map.
+     *
+     * @return the highest key, or null if the map is empty.
+     */
+    public K lastKey() {
+        Node<K, V> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null) {
+                x = x.next[i];
+            }
+        }
+        return x.key;
+    }
+
+    /**
+     * Returns the greatest key less than or equal to the given key.
+     *
+     * @param key the key to search for.
+     * @return the greatest key less than or equal to {@code key}, or null if there is no such key.
+     */
+    public K floorKey(K key) {
+        Node<K, V> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i].key.compareTo(key) <= 0) {
+                x = x.next[i];
+            }
+        }
+        return x.key;
+    }
+
+    /**
+     * Returns the least key greater than or equal to the given key.
+     *
+     * @param key the key to search for.
+     * @return the least key greater than or equal to {@code key}, or null if there is no such key.
+     */
+    public K ceilingKey(K key) {
+        Node<K, V> node = ceilingNode(key);
+        return node == null ? null : node.key;
+    }
+
+    /**
+     * Returns a view of the part of this map whose keys range from {@code fromKey}, inclusive,
+     * to {@code toKey}, exclusive.
+     * <p>
+     * The view is backed by this map, so changes in one are visible in the other. Putting a key outside of the
+     * range into the view is rejected.
+     * </p>
+     *
+     * @param fromKey low endpoint (inclusive) of the keys in the view.
+     * @param toKey high endpoint (exclusive) of the keys in the view.
+     * @return a view of the given key range.
+     */
+    public Map<K, V> subMap(K fromKey, K toKey) {
+        return new SubMap(fromKey, toKey);
+    }
+
+    /**
+     * Returns the first node whose key is greater than or equal to the given key.
+     */
+    private Node<K, V> ceilingNode(K key) {
+        Node<K, V> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i].key.compareTo(key) < 0) {
+                x = x.next[i];
+            }
+        }
+        return x.next[0];
+    }
+
+    private int randomLevel() {
+        int height = 1;
+        while (height < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            height++;
+        }
+        return height;
+    }
+
+    /**
+     * A view of a key range of the enclosing map.
+     */
+    private final class SubMap implements Map<K, V> {
+        private final K fromKey;
+        private final K toKey;
+
+        SubMap(K fromKey, K toKey) {
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+        }
+
+        private boolean inRange(K key) {
+            return key != null && key.compareTo(fromKey) >= 0 && key.compareTo(toKey) < 0;
+        }
+
+        @Override
+        public boolean put(K key, V value) {
+            return inRange(key) && MySortedMap.this.put(key, value);
+        }
+
+        @Override
+        public boolean remove(K key) {
+            return inRange(key) && MySortedMap.this.remove(key);
+        }
+
+        @Override
+        public V get(K key) {
+            return inRange(key) ? MySortedMap.this.get(key) : null;
+        }
+
+        @Override
+        public List<K> keys() {
+            List<K> result = new ArrayList<>();
+            for (Node<K, V> x = ceilingNode(fromKey); x != null && x.key.compareTo(toKey) < 0; x = x.next[0]) {
+                result.add(x.key);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean contains(K key) {
+            return inRange(key) && MySortedMap.this.contains(key);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            for (Node<K, V> x = ceilingNode(fromKey); x != null && x.key.compareTo(toKey) < 0; x = x.next[0]) {
+                action.accept(x.key, x.value);
+            }
+        }
+    }
+}
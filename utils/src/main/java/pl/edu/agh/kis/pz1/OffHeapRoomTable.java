@@ -0,0 +1,460 @@
+package pl.edu.agh.kis.pz1;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A table of rooms kept outside of the Java heap.
+ * <p>
+ * Every room takes one fixed-width slot of {@value #SLOT_SIZE} bytes in a direct {@link ByteBuffer}: number,
+ * price, type id, capacity, start and end date as epoch days, and the offset and guest count of its guest
+ * record. Guest records (guest data and additional information) are variable-length and live in a second
+ * direct buffer; an update appends a new record and the space of the old one is reclaimed by compaction.
+ * Room types are stored once and referred to by id.
+ * </p>
+ * <p>
+ * The table hands out {@link Room} views which read and write the slots, so the rooms can be used wherever a
+ * {@code Room} is expected, for example through {@link #rooms()} by the existing commands. A view is a
+ * {@code Room} subclass, so it still carries the (unused) fields of a room, but none of its data: hundreds of
+ * thousands of rooms hold no strings, dates or guest lists on the heap. Like a room, a view records its
+ * changed fields, and changing its number moves it to the new number in {@link #rooms()}.
+ * {@link Room#getGuests()} of a view returns a new list decoded from the record; changes to that list are not
+ * stored until it is passed to {@link Room#setGuests(List)}.
+ * </p>
+ * <p>This class is not thread-safe.</p>
+ */
+public class OffHeapRoomTable {
+    /**
+     * The size of a room slot in bytes.
+     */
+    public static final int SLOT_SIZE = 32;
+
+    private static final int NUMBER_OFFSET = 0;
+    private static final int PRICE_OFFSET = 4;
+    private static final int TYPE_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int START_DATE_OFFSET = 16;
+    private static final int END_DATE_OFFSET = 20;
+    private static final int RECORD_OFFSET = 24;
+    private static final int GUEST_COUNT_OFFSET = 28;
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int NO_RECORD = -1;
+
+    private ByteBuffer slots;
+    private ByteBuffer records;
+    private int slotCount;
+    private int recordsEnd;
+    private int liveRecordBytes;
+
+    private final List<String> types = new ArrayList<>();
+    private final MyHashMap<String, Integer> typeIds = new MyHashMap<>();
+    private final RoomDirectory rooms = new RoomDirectory();
+
+    /**
+     * Creates an empty table.
+     */
+    public OffHeapRoomTable() {
+        this(1024);
+    }
+
+    /**
+     * Creates an empty table able to hold the given number of rooms before growing.
+     *
+     * @param expectedRooms the expected number of rooms.
+     */
+    public OffHeapRoomTable(int expectedRooms) {
+        int rooms = Math.max(expectedRooms, 16);
+        slots = allocate(rooms * SLOT_SIZE);
+        records = allocate(rooms * 64);
+    }
+
+    /**
+     * Stores the data of the given room in the table, replacing the room with the same number.
+     *
+     * @param room the room to store.
+     * @return the view of the stored room.
+     */
+    public Room put(Room room) {
+        RoomView view = (RoomView) rooms.get(room.getNumber());
+        boolean added = view == null;
+        if (added) {
+            if ((slotCount + 1) * SLOT_SIZE > slots.capacity()) {
+                slots = grow(slots, slots.capacity() * 2, slotCount * SLOT_SIZE);
+            }
+            int base = slotCount * SLOT_SIZE;
+            slots.putInt(base + NUMBER_OFFSET, room.getNumber());
+            slots.putInt(base + TYPE_OFFSET, -1);
+            slots.putInt(base + START_DATE_OFFSET, NO_DATE);
+            slots.putInt(base + END_DATE_OFFSET, NO_DATE);
+            slots.putInt(base + RECORD_OFFSET, NO_RECORD);
+            slots.putInt(base + GUEST_COUNT_OFFSET, 0);
+            view = new RoomView(slotCount++);
+            rooms.put(room.getNumber(), view);
+        }
+        view.setPrice(room.getPrice());
+        view.setType(room.getType());
+        view.setCapacity(room.getCapacity());
+        view.setStartDate(room.getStartDate());
+        view.setEndDate(room.getEndDate());
+        view.setRecord(room.getGuests(), room.getAdditionalInfo());
+        if (added) {
+            // a new room starts without changes, as a constructed one does
+            view.clearChanges();
+        }
+        return view;
+    }
+
+    /**
+     * Returns the view of the room with the given number.
+     *
+     * @param number the room number.
+     * @return the room, or null if there is no such room.
+     */
+    public Room get(int number) {
+        return rooms.get(number);
+    }
+
+    /**
+     * Returns the views of all rooms, keyed by room number.
+     * <p>The returned map is the table's own index; rooms should be added with {@link #put(Room)} rather
+     * than directly to the map.</p>
+     *
+     * @return the rooms of the table.
+     */
+    public IntRoomMap rooms() {
+        return rooms;
+    }
+
+    /**
+     * Returns the number of rooms in the table.
+     *
+     * @return the number of rooms.
+     */
+    public int size() {
+        return slotCount;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory allocated by the table.
+     *
+     * @return the capacity of the slot and record buffers, in bytes.
+     */
+    public long offHeapBytes() {
+        return (long) slots.capacity() + records.capacity();
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity, int used) {
+        ByteBuffer grown = allocate(capacity);
+        ByteBuffer source = buffer.duplicate();
+        source.position(0).limit(used);
+        grown.put(source);
+        grown.clear();
+        return grown;
+    }
+
+    private int typeId(String type) {
+        if (type == null) {
+            return -1;
+        }
+        Integer id = typeIds.get(type);
+        if (id == null) {
+            id = types.size();
+            types.add(type);
+            typeIds.put(type, id);
+        }
+        return id;
+    }
+
+    /**
+     * Appends a guest record and returns its offset.
+     */
+    private int appendRecord(List<Guest> guests, String additionalInfo) {
+        int length = 4 + encodedLength(additionalInfo);
+        for (Guest guest : guests) {
+            length += 1 + encodedLength(guest.getName()) + encodedLength(guest.getEmailAddress())
+                    + encodedLength(guest.getIdNumber()) + encodedLength(guest.getPhoneNumber());
+        }
+        if (recordsEnd + length > records.capacity()) {
+            compactRecords(length);
+        }
+        int offset = recordsEnd;
+        ByteBuffer out = records.duplicate().order(ByteOrder.nativeOrder());
+        out.position(offset);
+        out.putInt(length);
+        writeString(out, additionalInfo);
+        for (Guest guest : guests) {
+            out.put((byte) (guest.isMain() ? 1 : 0));
+            writeString(out, guest.getName());
+            writeString(out, guest.getEmailAddress());
+            writeString(out, guest.getIdNumber());
+            writeString(out, guest.getPhoneNumber());
+        }
+        recordsEnd += length;
+        liveRecordBytes += length;
+        return offset;
+    }
+
+    private void releaseRecord(int offset) {
+        if (offset != NO_RECORD) {
+            liveRecordBytes -= records.getInt(offset);
+        }
+    }
+
+    /**
+     * Makes room for a record of the given length, dropping the space of replaced records and growing the
+     * buffer if the live records still do not leave enough room.
+     */
+    private void compactRecords(int needed) {
+        int capacity = records.capacity();
+        while (liveRecordBytes + needed > capacity / 2) {
+            capacity *= 2;
+        }
+        ByteBuffer compacted = allocate(capacity);
+        int end = 0;
+        for (int i = 0; i < slotCount; i++) {
+            int offset = slots.getInt(i * SLOT_SIZE + RECORD_OFFSET);
+            if (offset == NO_RECORD) {
+                continue;
+            }
+            int length = records.getInt(offset);
+            ByteBuffer source = records.duplicate();
+            source.position(offset).limit(offset + length);
+            compacted.position(end);
+            compacted.put(source);
+            slots.putInt(i * SLOT_SIZE + RECORD_OFFSET, end);
+            end += length;
+        }
+        compacted.clear();
+        records = compacted;
+        recordsEnd = end;
+        liveRecordBytes = end;
+    }
+
+    private static int encodedLength(String value) {
+        return 4 + (value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static void writeString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length);
+        out.put(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    private static LocalDate fromEpochDay(int day) {
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    /**
+     * A {@link Room} reading and writing one slot of the table; its setters record the changed fields as the
+     * setters of a room do.
+     */
+    private final class RoomView extends Room {
+        private final int base;
+
+        RoomView(int slot) {
+            this.base = slot * SLOT_SIZE;
+        }
+
+        @Override
+        public int getNumber() {
+            return slots.getInt(base + NUMBER_OFFSET);
+        }
+
+        @Override
+        public void setNumber(int number) {
+            int old = getNumber();
+            if (old == number) {
+                return;
+            }
+            slots.putInt(base + NUMBER_OFFSET, number);
+            if (rooms.get(old) == this) {
+                rooms.remove(old);
+            }
+            rooms.put(number, this);
+        }
+
+        @Override
+        public int getPrice() {
+            return slots.getInt(base + PRICE_OFFSET);
+        }
+
+        @Override
+        public void setPrice(int price) {
+            if (getPrice() != price) {
+                markChanged(PRICE);
+            }
+            slots.putInt(base + PRICE_OFFSET, price);
+        }
+
+        @Override
+        public String getType() {
+            int id = slots.getInt(base + TYPE_OFFSET);
+            return id < 0 ? null : types.get(id);
+        }
+
+        @Override
+        public void setType(String type) {
+            if (!Objects.equals(getType(), type)) {
+                markChanged(TYPE);
+            }
+            slots.putInt(base + TYPE_OFFSET, typeId(type));
+        }
+
+        @Override
+        public int getCapacity() {
+            return slots.getInt(base + CAPACITY_OFFSET);
+        }
+
+        @Override
+        public void setCapacity(int capacity) {
+            if (getCapacity() != capacity) {
+                markChanged(CAPACITY);
+            }
+            slots.putInt(base + CAPACITY_OFFSET, capacity);
+        }
+
+        @Override
+        public LocalDate getStartDate() {
+            return fromEpochDay(slots.getInt(base + START_DATE_OFFSET));
+        }
+
+        @Override
+        public void setStartDate(LocalDate startDate) {
+            if (!Objects.equals(getStartDate(), startDate)) {
+                markChanged(START_DATE);
+            }
+            slots.putInt(base + START_DATE_OFFSET, toEpochDay(startDate));
+        }
+
+        @Override
+        public LocalDate getEndDate() {
+            return fromEpochDay(slots.getInt(base + END_DATE_OFFSET));
+        }
+
+        @Override
+        public void setEndDate(LocalDate endDate) {
+            if (!Objects.equals(getEndDate(), endDate)) {
+                markChanged(END_DATE);
+            }
+            slots.putInt(base + END_DATE_OFFSET, toEpochDay(endDate));
+        }
+
+        @Override
+        public List<Guest> getGuests() {
+            List<Guest> guests = new ArrayList<>();
+            int offset = slots.getInt(base + RECORD_OFFSET);
+            if (offset == NO_RECORD) {
+                return guests;
+            }
+            ByteBuffer in = recordReader(offset);
+            readString(in);
+            for (int i = slots.getInt(base + GUEST_COUNT_OFFSET); i > 0; i--) {
+                boolean main = in.get() == 1;
+                Guest guest = new Guest(readString(in), readString(in), readString(in), readString(in));
+                guest.setMain(main);
+                guests.add(guest);
+            }
+            return guests;
+        }
+
+        @Override
+        public void setGuests(List<Guest> guests) {
+            setRecord(guests, getAdditionalInfo());
+        }
+
+        @Override
+        public String getAdditionalInfo() {
+            int offset = slots.getInt(base + RECORD_OFFSET);
+            return offset == NO_RECORD ? null : readString(recordReader(offset));
+        }
+
+        @Override
+        public void setAdditionalInfo(String additionalInfo) {
+            if (Objects.equals(getAdditionalInfo(), additionalInfo)) {
+                return;
+            }
+            markChanged(ADDITIONAL_INFO);
+            writeRecord(getGuests(), additionalInfo);
+        }
+
+        @Override
+        public void clear() {
+            if (!isFree()) {
+                markChanged(GUESTS);
+            }
+            if (getAdditionalInfo() != null) {
+                markChanged(ADDITIONAL_INFO);
+            }
+            writeRecord(null, null);
+            setStartDate(null);
+            setEndDate(null);
+        }
+
+        @Override
+        public boolean isFree() {
+            return slots.getInt(base + GUEST_COUNT_OFFSET) == 0;
+        }
+
+        /**
+         * Stores the guests and the additional information with a single record, recording the changes.
+         */
+        void setRecord(List<Guest> guests, String additionalInfo) {
+            // the list of a view is always a new one, so storing any list is a change unless both are empty
+            if (!isFree() || !guests.isEmpty()) {
+                markChanged(GUESTS);
+            }
+            if (!Objects.equals(getAdditionalInfo(), additionalInfo)) {
+                markChanged(ADDITIONAL_INFO);
+            }
+            writeRecord(guests, additionalInfo);
+        }
+
+        private void writeRecord(List<Guest> guests, String additionalInfo) {
+            releaseRecord(slots.getInt(base + RECORD_OFFSET));
+            slots.putInt(base + RECORD_OFFSET, NO_RECORD);
+            boolean empty = guests == null || guests.isEmpty();
+            if (empty && additionalInfo == null) {
+                slots.putInt(base + GUEST_COUNT_OFFSET, 0);
+                return;
+            }
+            List<Guest> stored = empty ? List.of() : guests;
+            int offset = appendRecord(stored, additionalInfo);
+            slots.putInt(base + RECORD_OFFSET, offset);
+            slots.putInt(base + GUEST_COUNT_OFFSET, stored.size());
+        }
+
+        private ByteBuffer recordReader(int offset) {
+            ByteBuffer in = records.duplicate().order(ByteOrder.nativeOrder());
+            in.position(offset + 4);
+            return in;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Parses the sheets of a rooms workbook concurrently on a {@link ForkJoinPool}.
+ * <p>
+ * Every sheet holds one floor and does not depend on the others, so the list of sheets is split in halves
+ * until a task is left with a single sheet. Each task collects the rooms of its sheets into its own list and
+ * the lists are joined in sheet order, so the consumer receives the rooms in the same order as with a
+ * sequential read, on the calling thread, after all sheets have been parsed.
+ * </p>
+ */
+final class ParallelSheetLoader {
+    private ParallelSheetLoader() {
+    }
+
+    /**
+     * Parses the given sheets with at most {@code parallelism} threads and passes the rooms to the consumer.
+     * <p>With a parallelism of 1, or a single sheet, the sheets are parsed on the calling thread and the rooms
+     * are passed to the consumer as they are read.</p>
+     *
+     * @param sheets the sheets to parse, in workbook order.
+     * @param parallelism the maximum number of threads parsing sheets.
+     * @param parser parses one sheet, passing its rooms to the given consumer; it is called concurrently for
+     *               different sheets.
+     * @param consumer the consumer receiving the rooms in the order they appear in the workbook.
+     * @param <S> the type of a sheet.
+     */
+    static <S> void load(List<S> sheets, int parallelism, BiConsumer<S, Consumer<Room>> parser,
+                         Consumer<Room> consumer) {
+        if (parallelism <= 1 || sheets.size() <= 1) {
+            for (S sheet : sheets) {
+                parser.accept(sheet, consumer);
+            }
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, sheets.size()));
+        try {
+            pool.invoke(new SheetTask<>(sheets, 0, sheets.size(), parser)).forEach(consumer);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parses the sheets in {@code [from, to)} and returns their rooms in sheet order.
+     */
+    private static final class SheetTask<S> extends RecursiveTask<List<Room>> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<S> sheets;
+        private final int from;
+        private final int to;
+        private final transient BiConsumer<S, Consumer<Room>> parser;
+
+        SheetTask(List<S> sheets, int from, int to, BiConsumer<S, Consumer<Room>> parser) {
+            this.sheets = sheets;
+            this.from = from;
+            this.to = to;
+            this.parser = parser;
+        }
+
+        @Override
+        protected List<Room> compute() {
+            if (to - from == 1) {
+                List<Room> rooms = new ArrayList<>();
+                parser.accept(sheets.get(from), rooms::add);
+                return rooms;
+            }
+            int middle = (from + to) >>> 1;
+            SheetTask<S> right = new SheetTask<>(sheets, middle, to, parser);
+            right.fork();
+            List<Room> rooms = new SheetTask<>(sheets, from, middle, parser).compute();
+            rooms.addAll(right.join());
+            return rooms;
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * A persistent implementation of the Map interface based on a hash array mapped trie.
+ * <p>
+ * Entries live in an immutable trie with up to 32 children per node, indexed by 5 bits of the key's hash at
+ * every level. An update never modifies a node; it copies the O(log32 n) nodes on the path to the changed
+ * entry and shares everything else with the previous version. Because of that {@link #snapshot()} takes O(1)
+ * time: it only remembers the current root, and later updates of this map are not visible in the snapshot.
+ * </p>
+ * <p>
+ * This lets saving, reports and exports iterate a frozen version of the rooms while commands keep changing
+ * the map. Snapshots share the stored values with the map, so values should be replaced with updated copies
+ * (for example with {@link Room#Room(Room)}) rather than modified in place.
+ * </p>
+ *
+ * @param <K> the type of keys in this map.
+ * @param <V> the type of values in this map.
+ */
+public class PersistentMap<K, V> implements Map<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Branch EMPTY = new Branch(0, new Object[0]);
+
+    private Object root;
+    private int size;
+    private final boolean frozen;
+
+    /**
+     * Creates an empty map.
+     */
+    public PersistentMap() {
+        this(EMPTY, 0, false);
+    }
+
+    private PersistentMap(Object root, int size, boolean frozen) {
+        this.root = root;
+        this.size = size;
+        this.frozen = frozen;
+    }
+
+    /**
+     * Returns a read-only view of the current contents of the map, in constant time.
+     * <p>The snapshot never changes; {@link #put(Object, Object)} and {@link #remove(Object)} on it return
+     * false.</p>
+     *
+     * @return an immutable snapshot of the map.
+     */
+    public PersistentMap<K, V> snapshot() {
+        return frozen ? this : new PersistentMap<>(root, size, true);
+    }
+
+    /**
+     * Checks if this map is a read-only snapshot.
+     *
+     * @return true if the map cannot be modified.
+     */
+    public boolean isSnapshot() {
+        return frozen;
+    }
+
+    /**
+     * Adds an element to the map under the specified key.
+     * If the provided key already exists, this method will replace the existing value.
+     *
+     * @param key the key (not null).
+     * @param value the value associated with the key (not null).
+     * @return true if the element was successfully added or updated, false if the key is null or the map is
+     *         a snapshot.
+     */
+    @Override
+    public boolean put(K key, V value) {
+        if (key == null || frozen) {
+            return false;
+        }
+        boolean[] added = new boolean[1];
+        root = put(root, 0, new Leaf(hash(key), key, value), added);
+        if (added[0]) {
+            size++;
+        }
+        return true;
+    }
+
+    /**
+     * Removes the entry with the specified key and its associated value from the map.
+     *
+     * @param key the key to be removed.
+     * @return true if the key was successfully removed, false otherwise.
+     */
+    @Override
+    public boolean remove(K key) {
+        if (key == null || frozen) {
+            return false;
+        }
+        Object newRoot = remove(root, 0, hash(key), key);
+        if (newRoot == root) {
+            return false;
+        }
+        root = newRoot == null ? EMPTY : newRoot;
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if the key does not exist.
+     *
+     * @param key the key (not null).
+     * @return the value associated with the key, or null if the key does not exist.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        Leaf leaf = find(key);
+        return leaf == null ? null : (V) leaf.value;
+    }
+
+    /**
+     * Returns a list of all the keys in the map, in hash order.
+     *
+     * @return a new List containing all the keys in the map.
+     */
+    @Override
+    public List<K> keys() {
+        List<K> result = new ArrayList<>(size);
+        forEach((key, value) -> result.add(key));
+        return result;
+    }
+
+    /**
+     * Checks if the specified key exists in the map.
+     *
+     * @param key the key to check.
+     * @return true if the key exists in the map, false otherwise.
+     */
+    @Override
+    public boolean contains(K key) {
+        return key != null && find(key) != null;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the number of keys stored in the map.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Performs the given action for every entry, in hash order.
+     *
+     * @param action the action to perform for each key and its value.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(root, action);
+    }
+
+    /**
+     * Returns an iterator over the entries, in hash order.
+     * <p>The iterator returns the same {@link Map.Entry} object on every call, so iterating allocates nothing
+     * per entry.</p>
+     *
+     * @return an iterator over the entries of the map.
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> entryIterator() {
+        return new Iterator<>() {
+            private final MapEntry<K, V> entry = new MapEntry<>();
+            // the trie is at most 7 branch levels deep, plus a collision node
+            private final Object[][] arrays = new Object[8][];
+            private final int[] positions = new int[8];
+            private int depth;
+            private Leaf next;
+
+            {
+                arrays[0] = children(root);
+                advance();
+            }
+
+            private void advance() {
+                next = null;
+                while (depth >= 0) {
+                    if (positions[depth] == arrays[depth].length) {
+                        depth--;
+                        continue;
+                    }
+                    Object child = arrays[depth][positions[depth]++];
+                    if (child instanceof Leaf) {
+                        next = (Leaf) child;
+                        return;
+                    }
+                    depth++;
+                    arrays[depth] = children(child);
+                    positions[depth] = 0;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Map.Entry<K, V> next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                entry.set((K) next.key, (V) next.value);
+                advance();
+                return entry;
+            }
+        };
+    }
+
+    private Leaf find(Object key) {
+        int hash = hash(key);
+        Object node = root;
+        int shift = 0;
+        while (true) {
+            if (node instanceof Leaf) {
+                Leaf leaf = (Leaf) node;
+                return leaf.hash == hash && leaf.key.equals(key) ? leaf : null;
+            }
+            if (node instanceof Collision) {
+                return ((Collision) node).find(hash, key);
+            }
+            Branch branch = (Branch) node;
+            int bit = bit(hash, shift);
+            if ((branch.bitmap & bit) == 0) {
+                return null;
+            }
+            node = branch.children[branch.index(bit)];
+            shift += BITS;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void forEach(Object node, BiConsumer<? super K, ? super V> action) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            action.accept((K) leaf.key, (V) leaf.value);
+            return;
+        }
+        for (Object child : children(node)) {
+            forEach(child, action);
+        }
+    }
+
+    /**
+     * Returns a copy of the node with the leaf inserted, or the node itself if nothing changed.
+     */
+    private static Object put(Object node, int shift, Leaf leaf, boolean[] added) {
+        if (node instanceof Leaf) {
+            Leaf existing = (Leaf) node;
+            if (existing.hash == leaf.hash && existing.key.equals(leaf.key)) {
+                return existing.value == leaf.value ? existing : leaf;
+            }
+            added[0] = true;
+            if (existing.hash == leaf.hash) {
+                return new Collision(leaf.hash, new Leaf[] {existing, leaf});
+            }
+            return merge(existing, existing.hash, leaf, shift);
+        }
+        if (node instanceof Collision) {
+            Collision collision = (Collision) node;
+            if (collision.hash == leaf.hash) {
+                return collision.put(leaf, added);
+            }
+            added[0] = true;
+            return merge(collision, collision.hash, leaf, shift);
+        }
+        Branch branch = (Branch) node;
+        int bit = bit(leaf.hash, shift);
+        int index = branch.index(bit);
+        if ((branch.bitmap & bit) == 0) {
+            added[0] = true;
+            return new Branch(branch.bitmap | bit, insert(branch.children, index, leaf));
+        }
+        Object child = branch.children[index];
+        Object newChild = put(child, shift + BITS, leaf, added);
+        if (newChild == child) {
+            return branch;
+        }
+        Object[] children = branch.children.clone();
+        children[index] = newChild;
+        return new Branch(branch.bitmap, children);
+    }
+
+    /**
+     * Builds the smallest subtree holding two nodes with different hashes.
+     */
+    private static Object merge(Object node, int nodeHash, Leaf leaf, int shift) {
+        int nodeBit = bit(nodeHash, shift);
+        int leafBit = bit(leaf.hash, shift);
+        if (nodeBit == leafBit) {
+            return new Branch(nodeBit, new Object[] {merge(node, nodeHash, leaf, shift + BITS)});
+        }
+        Object[] children = Integer.compareUnsigned(nodeBit, leafBit) < 0
+                ? new Object[] {node, leaf}
+                : new Object[] {leaf, node};
+        return new Branch(nodeBit | leafBit, children);
+    }
+
+    /**
+     * Returns a copy of the node without the key, the node itself if the key is not present, or null if the
+     * node becomes empty.
+     */
+    private static Object remove(Object node, int shift, int hash, Object key) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            return leaf.hash == hash && leaf.key.equals(key) ? null : leaf;
+        }
+        if (node instanceof Collision) {
+            return ((Collision) node).remove(hash, key);
+        }
+        Branch branch = (Branch) node;
+        int bit = bit(hash, shift);
+        if ((branch.bitmap & bit) == 0) {
+            return branch;
+        }
+        int index = branch.index(bit);
+        Object child = branch.children[index];
+        Object newChild = remove(child, shift + BITS, hash, key);
+        if (newChild == child) {
+            return branch;
+        }
+        if (newChild == null) {
+            if (branch.children.length == 1) {
+                return null;
+            }
+            Object[] children = delete(branch.children, index);
+            if (children.length == 1 && !(children[0] instanceof Branch) && shift > 0) {
+                return children[0];
+            }
+            return new Branch(branch.bitmap & ~bit, children);
+        }
+        if (branch.children.length == 1 && !(newChild instanceof Branch) && shift > 0) {
+            return newChild;
+        }
+        Object[] children = branch.children.clone();
+        children[index] = newChild;
+        return new Branch(branch.bitmap, children);
+    }
+
+    private static Object[] children(Object node) {
+        return node instanceof Collision ? ((Collision) node).leaves : ((Branch) node).children;
+    }
+
+    private static Object[] insert(Object[] array, int index, Object value) {
+        Object[] result = new Object[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    private static Object[] delete(Object[] array, int index) {
+        Object[] result = new Object[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * A single key-value pair.
+     */
+    private static final class Leaf {
+        final int hash;
+        final Object key;
+        final Object value;
+
+        Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * An inner node; the bitmap tells which of the 32 possible children are present, in order.
+     */
+    private static final class Branch {
+        final int bitmap;
+        final Object[] children;
+
+        Branch(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+
+    /**
+     * Leaves of different keys with the same full hash.
+     */
+    private static final class Collision {
+        final int hash;
+        final Leaf[] leaves;
+
+        Collision(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        Leaf find(int hash, Object key) {
+            if (hash != this.hash) {
+                return null;
+            }
+            for (Leaf leaf : leaves) {
+                if (leaf.key.equals(key)) {
+                    return leaf;
+                }
+            }
+            return null;
+        }
+
+        Object put(Leaf leaf, boolean[] added) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(leaf.key)) {
+                    Leaf[] copy = leaves.clone();
+                    copy[i] = leaf;
+                    return new Collision(hash, copy);
+                }
+            }
+            added[0] = true;
+            Leaf[] copy = new Leaf[leaves.length + 1];
+            System.arraycopy(leaves, 0, copy, 0, leaves.length);
+            copy[leaves.length] = leaf;
+            return new Collision(hash, copy);
+        }
+
+        Object remove(int hash, Object key) {
+            if (hash != this.hash) {
+                return this;
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(key)) {
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+                    Leaf[] copy = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, copy, 0, i);
+                    System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+                    return new Collision(hash, copy);
+                }
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package pl.edu.agh.kis.pz1;
+
+import java.time.LocalDate;
+
+/**
+ * A booking of a room by a guest for a stay: from the day of arrival, included, to the day of departure,
+ * excluded, as a guest leaves the room on the morning of the day of departure and another one may arrive on
+ * that day.
+ */
+public final class Reservation {
+    private final int roomNumber;
+    private final String guestName;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    /**
+     * Creates a reservation.
+     *
+     * @param roomNumber the number of the booked room.
+     * @param guestName the name of the main guest.
+     * @param startDate the day of arrival.
+     * @param endDate the day of departure, after the day of arrival.
+     * @throws IllegalArgumentException if the stay does not last at least one night.
+     */
+    public Reservation(int roomNumber, String guestName, LocalDate startDate, LocalDate endDate) {
+        if (!endDate.isAfter(startDate)) {
+            throw new IllegalArgumentException("the stay must last at least one night: " + startDate + " - " + endDate);
+        }
+        this.roomNumber = roomNumber;
+        this.guestName = guestName;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    /**
+     * Returns the number of the booked room.
+     */
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    /**
+     * Returns the name of the main guest.
+     */
+    public String getGuestName() {
+        return guestName;
+    }
+
+    /**
+     * Returns the day of arrival.
+     */
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Returns the day of departure.
+     */
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    int startDay() {
+        return (int) startDate.toEpochDay();
+    }
+
+    int endDay() {
+        return (int) endDate.toEpochDay();
+    }
+
+    @Override
+    public String toString() {
+        return "Pokój " + roomNumber + ": " + guestName + ", " + startDate + " - " + endDate;
+    }
+}
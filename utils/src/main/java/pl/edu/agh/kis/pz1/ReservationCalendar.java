@@ -0,0 +1,399 @@
+package pl.edu.agh.kis.pz1;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The reservations of all rooms of the hotel: the current stays and the future bookings.
+ * <p>
+ * Every room has its own calendar, an interval tree of its reservations, so checking that a new stay does
+ * not overlap another reservation of the room takes O(log n) time in the number of reservations of that room.
+ * A second tree holds the reservations of all rooms, by day of arrival, which answers the questions about a
+ * whole day of the hotel - who stays in it, who arrives and who leaves - without going through every room.
+ * </p>
+ * <p>
+ * A calendar opened on a file keeps its reservations in it, as a CSV log to which every booking and every
+ * cancellation is appended. When the calendar is opened, the log is replayed and, if it holds cancellations,
+ * rewritten with only the remaining reservations. The calendar also keeps the {@link AvailabilityIndex} of
+ * the rooms, once it has been asked for. The calendar is not thread-safe.
+ * </p>
+ */
+public class ReservationCalendar implements Closeable {
+    private static final String ADD = "add";
+    private static final String CANCEL = "cancel";
+
+    private final MyHashMap<Integer, ReservationTree> calendars = new MyHashMap<>();
+    private final ReservationTree all = new ReservationTree();
+    private AvailabilityIndex availability;
+    private CSVPrinter log;
+
+    /**
+     * Creates an empty calendar, kept only in memory.
+     */
+    public ReservationCalendar() {
+    }
+
+    /**
+     * Opens the calendar kept in the given file.
+     * <p>If the file does not exist, it is created, together with its directory, and the current stays of the
+     * given rooms are booked in it.</p>
+     *
+     * @param path the path of the file.
+     * @param rooms the rooms of the hotel, read only when the file does not exist.
+     * @return the opened calendar.
+     * @throws IOException if the file cannot be read or written.
+     */
+    public static ReservationCalendar open(Path path, IntRoomMap rooms) throws IOException {
+        ReservationCalendar calendar = new ReservationCalendar();
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        if (Files.exists(path)) {
+            if (calendar.replay(path)) {
+                calendar.compact(path);
+            }
+        } else {
+            calendar.bookStays(rooms);
+            calendar.compact(path);
+        }
+        calendar.log = new CSVPrinter(Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), CSVFormat.DEFAULT);
+        return calendar;
+    }
+
+    /**
+     * Books the stays of the occupied rooms with both dates set.
+     */
+    private void bookStays(IntRoomMap rooms) {
+        rooms.forEachRoom(room -> {
+            Reservation stay = stayOf(room);
+            if (stay != null && calendarOf(room.getNumber()).findOverlap(stay.startDay(), stay.endDay()) == null) {
+                insert(stay);
+            }
+        });
+    }
+
+    /**
+     * Returns the reservation of the current stay in the given room.
+     *
+     * @param room the room.
+     * @return the stay, or null if the room is free or its dates are not set.
+     */
+    public static Reservation stayOf(Room room) {
+        if (room.isFree() || room.getStartDate() == null || room.getEndDate() == null
+                || !room.getEndDate().isAfter(room.getStartDate())) {
+            return null;
+        }
+        return new Reservation(room.getNumber(), room.getGuests().get(0).getName(),
+                room.getStartDate(), room.getEndDate());
+    }
+
+    private boolean replay(Path path) throws IOException {
+        boolean cancelled = false;
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+             CSVParser parser = CSVFormat.DEFAULT.parse(in)) {
+            for (CSVRecord record : parser) {
+                int roomNumber = Integer.parseInt(record.get(1));
+                LocalDate startDate = LocalDate.parse(record.get(2));
+                if (CANCEL.equals(record.get(0))) {
+                    delete(roomNumber, startDate);
+                    cancelled = true;
+                } else {
+                    insert(new Reservation(roomNumber, record.get(4), startDate, LocalDate.parse(record.get(3))));
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Nieprawidłowy plik rezerwacji " + path + ": " + e.getMessage(), e);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Rewrites the file with the current reservations, replacing it atomically.
+     */
+    private void compact(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8);
+             CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT)) {
+            try {
+                all.forEach(reservation -> {
+                    try {
+                        printAdd(printer, reservation);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void printAdd(CSVPrinter printer, Reservation reservation) throws IOException {
+        printer.printRecord(ADD, reservation.getRoomNumber(), reservation.getStartDate(),
+                reservation.getEndDate(), reservation.getGuestName());
+    }
+
+    /**
+     * Books a room, unless the stay overlaps another reservation of the room.
+     * <p>A reservation of the same room arriving on the same day is always an overlap.</p>
+     *
+     * @param reservation the reservation.
+     * @return null if the room has been booked, or the reservation overlapping the stay.
+     * @throws IOException if the booking cannot be written to the file of the calendar.
+     */
+    public Reservation reserve(Reservation reservation) throws IOException {
+        Reservation conflict = calendarOf(reservation.getRoomNumber())
+                .findOverlap(reservation.startDay(), reservation.endDay());
+        if (conflict != null) {
+            return conflict;
+        }
+        if (log != null) {
+            printAdd(log, reservation);
+            log.flush();
+        }
+        insert(reservation);
+        return null;
+    }
+
+    /**
+     * Cancels the reservation of the given room arriving on the given day.
+     *
+     * @param roomNumber the room number.
+     * @param startDate the day of arrival.
+     * @return the cancelled reservation, or null if there was none.
+     * @throws IOException if the cancellation cannot be written to the file of the calendar.
+     */
+    public Reservation cancel(int roomNumber, LocalDate startDate) throws IOException {
+        ReservationTree calendar = calendars.get(roomNumber);
+        Reservation cancelled = calendar == null ? null : calendar.remove(roomNumber, (int) startDate.toEpochDay());
+        if (cancelled == null) {
+            return null;
+        }
+        if (log != null) {
+            try {
+                log.printRecord(CANCEL, roomNumber, startDate);
+                log.flush();
+            } catch (IOException e) {
+                calendar.add(cancelled);
+                throw e;
+            }
+        }
+        all.remove(roomNumber, (int) startDate.toEpochDay());
+        if (availability != null) {
+            availability.release(cancelled);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Ends the reservation of the given room arriving on the given day on another day, when its guests leave
+     * early; the nights already spent stay booked.
+     * <p>A reservation ended on its day of arrival, or before, is cancelled. A reservation ending on or before
+     * the given day is left as it is.</p>
+     *
+     * @param roomNumber the room number.
+     * @param startDate the day of arrival.
+     * @param endDate the day the guests leave.
+     * @return the reservation as it is now, or null if it was cancelled or there was none.
+     * @throws IOException if the change cannot be written to the file of the calendar.
+     */
+    public Reservation endStay(int roomNumber, LocalDate startDate, LocalDate endDate) throws IOException {
+        ReservationTree calendar = calendars.get(roomNumber);
+        Reservation stay = calendar == null ? null : calendar.findOverlap((int) startDate.toEpochDay(),
+                (int) startDate.toEpochDay() + 1);
+        if (stay == null || !stay.getStartDate().equals(startDate) || !endDate.isBefore(stay.getEndDate())) {
+            return stay;
+        }
+        cancel(roomNumber, startDate);
+        if (!endDate.isAfter(startDate)) {
+            return null;
+        }
+        Reservation shortened = new Reservation(roomNumber, stay.getGuestName(), startDate, endDate);
+        reserve(shortened);
+        return shortened;
+    }
+
+    /**
+     * Brings the calendar up to date with a room whose stay was replaced from outside the commands, for example
+     * by an import or by another program changing the rooms workbook: the reservation of the previous stay is
+     * cancelled and the current stay of the room is booked.
+     * <p>Nothing changes if the stay is the same. A current stay which is already booked is kept; a current stay
+     * overlapping another reservation of the room is not booked.</p>
+     *
+     * @param previous the previous stay in the room, as returned by {@link #stayOf(Room)}, or null.
+     * @param room the room with its current stay.
+     * @return null if the current stay is booked or the room is free, or the reservation overlapping the stay.
+     * @throws IOException if the change cannot be written to the file of the calendar.
+     */
+    public Reservation replaceStay(Reservation previous, Room room) throws IOException {
+        Reservation current = stayOf(room);
+        if (previous != null && current != null && sameStay(previous, current)) {
+            return null;
+        }
+        if (previous != null) {
+            cancel(previous.getRoomNumber(), previous.getStartDate());
+        }
+        if (current == null) {
+            return null;
+        }
+        Reservation conflict = reserve(current);
+        return conflict == null || sameStay(conflict, current) ? null : conflict;
+    }
+
+    private static boolean sameStay(Reservation first, Reservation second) {
+        return first.getRoomNumber() == second.getRoomNumber() && first.getStartDate().equals(second.getStartDate())
+                && first.getEndDate().equals(second.getEndDate()) && first.getGuestName().equals(second.getGuestName());
+    }
+
+    /**
+     * Returns the reservation of the given room occupying it on the given day.
+     *
+     * @param roomNumber the room number.
+     * @param date the day.
+     * @return the reservation, or null if the room is not booked on that day.
+     */
+    public Reservation find(int roomNumber, LocalDate date) {
+        ReservationTree calendar = calendars.get(roomNumber);
+        int day = (int) date.toEpochDay();
+        return calendar == null ? null : calendar.findOverlap(day, day + 1);
+    }
+
+    /**
+     * Returns the reservations of the given room, by day of arrival.
+     *
+     * @param roomNumber the room number.
+     * @return the reservations of the room.
+     */
+    public List<Reservation> reservationsOf(int roomNumber) {
+        List<Reservation> reservations = new ArrayList<>();
+        ReservationTree calendar = calendars.get(roomNumber);
+        if (calendar != null) {
+            calendar.forEach(reservations::add);
+        }
+        return reservations;
+    }
+
+    /**
+     * Returns the reservations of the guests staying in the hotel on the night after the given day.
+     *
+     * @param date the day.
+     * @return the reservations, by day of arrival.
+     */
+    public List<Reservation> inHouse(LocalDate date) {
+        List<Reservation> reservations = new ArrayList<>();
+        int day = (int) date.toEpochDay();
+        all.forEachOverlapping(day, day + 1, reservations::add);
+        return reservations;
+    }
+
+    /**
+     * Returns the reservations of the guests arriving on the given day.
+     *
+     * @param date the day.
+     * @return the reservations, by room number.
+     */
+    public List<Reservation> arrivals(LocalDate date) {
+        List<Reservation> reservations = new ArrayList<>();
+        int day = (int) date.toEpochDay();
+        all.forEachArriving(day, day + 1, reservations::add);
+        return reservations;
+    }
+
+    /**
+     * Returns the reservations of the guests leaving on the given day.
+     * <p>These are the reservations of the night before which do not go on after it.</p>
+     *
+     * @param date the day.
+     * @return the reservations, by day of arrival.
+     */
+    public List<Reservation> departures(LocalDate date) {
+        List<Reservation> reservations = new ArrayList<>();
+        int day = (int) date.toEpochDay();
+        all.forEachOverlapping(day - 1, day, reservation -> {
+            if (reservation.endDay() == day) {
+                reservations.add(reservation);
+            }
+        });
+        return reservations;
+    }
+
+    /**
+     * Returns the index of the rooms free in a range of days, built from the given rooms and the reservations the
+     * first time, and then kept up to date with the reservations.
+     *
+     * @param rooms the rooms of the hotel.
+     * @return the index.
+     */
+    public AvailabilityIndex availability(IntRoomMap rooms) {
+        if (availability == null) {
+            AvailabilityIndex index = new AvailabilityIndex(rooms);
+            all.forEach(index::occupy);
+            availability = index;
+        }
+        return availability;
+    }
+
+    /**
+     * Returns the number of reservations.
+     */
+    public int size() {
+        return all.size();
+    }
+
+    /**
+     * Closes the file of the calendar.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    private ReservationTree calendarOf(int roomNumber) {
+        ReservationTree calendar = calendars.get(roomNumber);
+        if (calendar == null) {
+            calendar = new ReservationTree();
+            calendars.put(roomNumber, calendar);
+        }
+        return calendar;
+    }
+
+    private void insert(Reservation reservation) {
+        calendarOf(reservation.getRoomNumber()).add(reservation);
+        all.add(reservation);
+        if (availability != null) {
+            availability.occupy(reservation);
+        }
+    }
+
+    private void delete(int roomNumber, LocalDate startDate) {
+        ReservationTree calendar = calendars.get(roomNumber);
+        if (calendar != null) {
+            calendar.remove(roomNumber, (int) startDate.toEpochDay());
+        }
+        Reservation removed = all.remove(roomNumber, (int) startDate.toEpochDay());
+        if (removed != null && availability != null) {
+            availability.release(removed);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * An interval tree of reservations: a treap ordered by the day of arrival and the room number, in which every
+ * node also holds the latest day of departure of its subtree.
+ * <p>
+ * The random priorities keep the tree balanced in expectation, whatever the order of insertion, so adding and
+ * removing a reservation and finding one that overlaps a stay take O(log n) expected time. Listing the
+ * reservations overlapping a stay, or arriving on a day, takes O(log n + k) time for k reservations found, as
+ * subtrees whose latest departure is before the stay, or whose arrivals are all after it, are skipped.
+ * </p>
+ * <p>
+ * Days are counted as epoch days; a reservation occupies the days from its arrival, included, to its
+ * departure, excluded. The tree is not thread-safe.
+ * </p>
+ */
+final class ReservationTree {
+    private final Random random = new Random();
+    private Node root;
+    private int size;
+
+    private static final class Node {
+        final Reservation reservation;
+        final int start;
+        final int end;
+        final int priority;
+        int maxEnd;
+        Node left;
+        Node right;
+
+        Node(Reservation reservation, int priority) {
+            this.reservation = reservation;
+            this.start = reservation.startDay();
+            this.end = reservation.endDay();
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd > maxEnd) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > maxEnd) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+
+    /**
+     * Adds a reservation; a reservation of the same room arriving on the same day is replaced.
+     *
+     * @param reservation the reservation.
+     */
+    void add(Reservation reservation) {
+        root = insert(root, new Node(reservation, random.nextInt()));
+    }
+
+    /**
+     * Removes the reservation of the given room arriving on the given day.
+     *
+     * @param roomNumber the room number.
+     * @param startDay the day of arrival.
+     * @return the removed reservation, or null if there was none.
+     */
+    Reservation remove(int roomNumber, int startDay) {
+        Reservation[] removed = new Reservation[1];
+        root = delete(root, startDay, roomNumber, removed);
+        if (removed[0] != null) {
+            size--;
+        }
+        return removed[0];
+    }
+
+    /**
+     * Returns the number of reservations.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns a reservation occupying one of the days from {@code from}, included, to {@code to}, excluded.
+     *
+     * @param from the first day.
+     * @param to the day after the last day.
+     * @return an overlapping reservation, or null if there is none.
+     */
+    Reservation findOverlap(int from, int to) {
+        Node node = root;
+        while (node != null) {
+            if (node.start < to && node.end > from) {
+                return node.reservation;
+            }
+            if (node.left != null && node.left.maxEnd > from) {
+                // if the left subtree holds no overlap, neither does the right one: its arrivals are later than
+                // those of the left subtree, and one of these is after the stay
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Passes the reservations occupying one of the days from {@code from}, included, to {@code to}, excluded,
+     * to the action, by day of arrival.
+     *
+     * @param from the first day.
+     * @param to the day after the last day.
+     * @param action the action receiving the reservations.
+     */
+    void forEachOverlapping(int from, int to, Consumer<Reservation> action) {
+        forEachOverlapping(root, from, to, action);
+    }
+
+    private static void forEachOverlapping(Node node, int from, int to, Consumer<Reservation> action) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        forEachOverlapping(node.left, from, to, action);
+        if (node.start >= to) {
+            return;
+        }
+        if (node.end > from) {
+            action.accept(node.reservation);
+        }
+        forEachOverlapping(node.right, from, to, action);
+    }
+
+    /**
+     * Passes the reservations arriving from day {@code from}, included, to day {@code to}, excluded, to the
+     * action, by day of arrival.
+     *
+     * @param from the first day.
+     * @param to the day after the last day.
+     * @param action the action receiving the reservations.
+     */
+    void forEachArriving(int from, int to, Consumer<Reservation> action) {
+        forEachArriving(root, from, to, action);
+    }
+
+    private static void forEachArriving(Node node, int from, int to, Consumer<Reservation> action) {
+        if (node == null) {
+            return;
+        }
+        if (node.start >= from) {
+            forEachArriving(node.left, from, to, action);
+        }
+        if (node.start >= from && node.start < to) {
+            action.accept(node.reservation);
+        }
+        if (node.start < to) {
+            forEachArriving(node.right, from, to, action);
+        }
+    }
+
+    /**
+     * Passes all reservations to the action, by day of arrival.
+     *
+     * @param action the action receiving the reservations.
+     */
+    void forEach(Consumer<Reservation> action) {
+        forEach(root, action);
+    }
+
+    private static void forEach(Node node, Consumer<Reservation> action) {
+        if (node != null) {
+            forEach(node.left, action);
+            action.accept(node.reservation);
+            forEach(node.right, action);
+        }
+    }
+
+    private static int compare(int start, int roomNumber, Node node) {
+        int order = Integer.compare(start, node.start);
+        return order != 0 ? order : Integer.compare(roomNumber, node.reservation.getRoomNumber());
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            size++;
+            return added;
+        }
+        int order = compare(added.start, added.reservation.getRoomNumber(), node);
+        if (order == 0) {
+            added.left = node.left;
+            added.right = node.right;
+            added.update();
+            return added;
+        }
+        if (order < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, int start, int roomNumber, Reservation[] removed) {
+        if (node == null) {
+            return null;
+        }
+        int order = compare(start, roomNumber, node);
+        if (order < 0) {
+            node.left = delete(node.left, start, roomNumber, removed);
+        } else if (order > 0) {
+            node.right = delete(node.right, start, roomNumber, removed);
+        } else {
+            removed[0] = node.reservation;
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Joins two treaps, all keys of the first one being smaller than those of the second one.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+}
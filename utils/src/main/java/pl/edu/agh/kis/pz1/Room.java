@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import static java.lang.Math.max;
 
@@ -12,8 +13,48 @@ import static java.lang.Math.max;
  * Represents a hotel room with various attributes such as room number, price, type, capacity, etc.
  * It also allows for managing guest reservations and calculating the room price for the stay based on the
  * number of days.
+ * <p>
+ * A room records which of its fields were changed through its setters since the changes were last
+ * {@linkplain #clearChanges() cleared}, as a bit set of {@link #PRICE}, {@link #TYPE}, {@link #CAPACITY},
+ * {@link #GUESTS}, {@link #START_DATE}, {@link #END_DATE} and {@link #ADDITIONAL_INFO}, so a store can write
+ * only these fields. Setting a field to the value it already holds is not a change, and changing one of the
+ * guests of the room is a change of {@link #GUESTS}.
+ * </p>
  */
 public class Room {
+    /**
+     * The bit of {@link #getChanges()} set when the price changes.
+     */
+    public static final int PRICE = 1;
+    /**
+     * The bit of {@link #getChanges()} set when the type changes.
+     */
+    public static final int TYPE = 1 << 1;
+    /**
+     * The bit of {@link #getChanges()} set when the capacity changes.
+     */
+    public static final int CAPACITY = 1 << 2;
+    /**
+     * The bit of {@link #getChanges()} set when the guests change.
+     */
+    public static final int GUESTS = 1 << 3;
+    /**
+     * The bit of {@link #getChanges()} set when the start date of the stay changes.
+     */
+    public static final int START_DATE = 1 << 4;
+    /**
+     * The bit of {@link #getChanges()} set when the end date of the stay changes.
+     */
+    public static final int END_DATE = 1 << 5;
+    /**
+     * The bit of {@link #getChanges()} set when the additional information changes.
+     */
+    public static final int ADDITIONAL_INFO = 1 << 6;
+    /**
+     * All bits of {@link #getChanges()}, for a room whose every field has to be stored.
+     */
+    public static final int ALL_FIELDS = (1 << 7) - 1;
+
     private int number;
     private int price;
     private String type;
@@ -22,6 +63,7 @@ public class Room {
     private LocalDate startDate;
     private LocalDate endDate;
     private String additionalInfo;
+    private int changes;
 
     /**
      * Constructs a new Room object with the specified attributes.
@@ -39,6 +81,31 @@ public class Room {
         this.guests = new ArrayList<>();
     }
 
+    /**
+     * Constructs a room without any data, for subclasses which keep the room data elsewhere and override
+     * the accessors.
+     */
+    protected Room() {
+    }
+
+    /**
+     * Constructs a copy of the given room, with its own guest list.
+     * <p>Updating the copy does not affect the original, which lets a changed room replace the old one in a
+     * {@link PersistentMap} without changing the snapshots that still refer to the old one.</p>
+     *
+     * @param other the room to copy
+     */
+    public Room(Room other) {
+        this.number = other.getNumber();
+        this.price = other.getPrice();
+        this.type = other.getType();
+        this.capacity = other.getCapacity();
+        this.guests = new ArrayList<>(other.getGuests());
+        this.startDate = other.getStartDate();
+        this.endDate = other.getEndDate();
+        this.additionalInfo = other.getAdditionalInfo();
+    }
+
     /**
      * Getter for room number
      * @return number
@@ -68,6 +135,9 @@ public class Room {
      * @param price integer
      */
     public void setPrice(int price) {
+        if (this.price != price) {
+            markChanged(PRICE);
+        }
         this.price = price;
     }
 
@@ -84,6 +154,9 @@ public class Room {
      * @param type String
      */
     public void setType(String type) {
+        if (!Objects.equals(this.type, type)) {
+            markChanged(TYPE);
+        }
         this.type = type;
     }
 
@@ -100,6 +173,9 @@ public class Room {
      * @param capacity integer
      */
     public void setCapacity(int capacity) {
+        if (this.capacity != capacity) {
+            markChanged(CAPACITY);
+        }
         this.capacity = capacity;
     }
 
@@ -112,10 +188,16 @@ public class Room {
     }
 
     /**
-     * Setter for guests list
+     * Setter for guests list; changes of the given guests are then changes of this room
      * @param guests List of guests
      */
     public void setGuests(List<Guest> guests) {
+        if (this.guests != guests) {
+            markChanged(GUESTS);
+        }
+        for (Guest guest : guests) {
+            guest.setRoom(this);
+        }
         this.guests = guests;
     }
 
@@ -132,6 +214,9 @@ public class Room {
      * @param startDate LocalDate
      */
     public void setStartDate(LocalDate startDate) {
+        if (!Objects.equals(this.startDate, startDate)) {
+            markChanged(START_DATE);
+        }
         this.startDate = startDate;
     }
 
@@ -148,6 +233,9 @@ public class Room {
      * @param endDate LocalDate
      */
     public void setEndDate(LocalDate endDate) {
+        if (!Objects.equals(this.endDate, endDate)) {
+            markChanged(END_DATE);
+        }
         this.endDate = endDate;
     }
 
@@ -164,6 +252,9 @@ public class Room {
      * @param additionalInfo String
      */
     public void setAdditionalInfo(String additionalInfo) {
+        if (!Objects.equals(this.additionalInfo, additionalInfo)) {
+            markChanged(ADDITIONAL_INFO);
+        }
         this.additionalInfo = additionalInfo;
     }
 
@@ -172,10 +263,49 @@ public class Room {
      * This can be used to reset the room after a guest checks out.
      */
     public void clear(){
+        if (!guests.isEmpty()) {
+            markChanged(GUESTS);
+        }
         guests.clear();
-        startDate = null;
-        endDate = null;
-        additionalInfo = null;
+        setStartDate(null);
+        setEndDate(null);
+        setAdditionalInfo(null);
+    }
+
+    /**
+     * Returns the fields changed since the changes were last cleared.
+     *
+     * @return a bit set of {@link #PRICE}, {@link #TYPE}, {@link #CAPACITY}, {@link #GUESTS},
+     *         {@link #START_DATE}, {@link #END_DATE} and {@link #ADDITIONAL_INFO}; 0 if nothing changed
+     */
+    public int getChanges() {
+        return changes;
+    }
+
+    /**
+     * Checks whether a field changed since the changes were last cleared.
+     *
+     * @return true if at least one field changed
+     */
+    public boolean isChanged() {
+        return changes != 0;
+    }
+
+    /**
+     * Records that the given fields changed; subclasses which keep the room data elsewhere call it from their
+     * setters.
+     *
+     * @param fields the bits of the changed fields
+     */
+    protected void markChanged(int fields) {
+        changes |= fields;
+    }
+
+    /**
+     * Forgets the changes, once they are stored.
+     */
+    public void clearChanges() {
+        changes = 0;
     }
 
     /**
@@ -196,8 +326,8 @@ public class Room {
      */
     public long calculatePrice(){
         LocalDate today = LocalDate.now();
-        System.out.println(startDate.toString() + " -- " + today);
-        return max(price, ChronoUnit.DAYS.between(startDate, today) * price);
+        System.out.println(getStartDate().toString() + " -- " + today);
+        return max(getPrice(), ChronoUnit.DAYS.between(getStartDate(), today) * getPrice());
     }
 
     /**
@@ -207,7 +337,8 @@ public class Room {
      */
     @Override
     public String toString() {
-        return "Pokój nr " + number + ", cena: " + price + ", typ:" + type + ", " + capacity + "-osobowy";
+        return "Pokój nr " + getNumber() + ", cena: " + getPrice() + ", typ:" + getType() + ", " + getCapacity()
+                + "-osobowy";
     }
 }
 
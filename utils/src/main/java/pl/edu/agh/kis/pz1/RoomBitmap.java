@@ -0,0 +1,528 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed set of room slots, in the manner of a Roaring bitmap.
+ * <p>
+ * The slots are split into chunks of 65536 by their upper 16 bits. Every chunk holding a slot has a container
+ * of the lower 16 bits: a sorted array of two bytes per slot, or a bitmap of one bit per slot up to the highest
+ * one, whichever is smaller; an array holds at most {@value #ARRAY_LIMIT} slots. A container thus never takes
+ * more than 8 kB, a chunk with a few occupied rooms takes two bytes for each, and a chunk with most of its rooms
+ * occupied takes one bit for each room.
+ * </p>
+ * <p>
+ * The AND, OR and AND NOT of two sets, and the number of slots of their AND, work container by container,
+ * merging arrays, probing the bitmap with the slots of an array or combining the words of two bitmaps. The set is
+ * not thread-safe.
+ * </p>
+ */
+final class RoomBitmap {
+    static final int ARRAY_LIMIT = 4096;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    /**
+     * The lower 16 bits of the slots of one chunk: {@code array} holds {@code cardinality} slots in order, unless
+     * {@code words} is set. The words of a bitmap end with the last word holding a slot, so a chunk of a few
+     * thousand rooms does not take the 8 kB of a whole chunk.
+     */
+    private static final class Container {
+        char[] array;
+        long[] words;
+        int cardinality;
+
+        static Container ofArray(char[] array, int cardinality) {
+            Container container = new Container();
+            container.array = array;
+            container.cardinality = cardinality;
+            return container;
+        }
+
+        static Container ofWords(long[] words, int cardinality) {
+            Container container = new Container();
+            container.words = words;
+            container.cardinality = cardinality;
+            return container;
+        }
+
+        /**
+         * Returns whether an array is smaller than a bitmap of the given number of words for the given number of
+         * slots.
+         */
+        static boolean arrayFits(int cardinality, int wordCount) {
+            return cardinality <= ARRAY_LIMIT && cardinality <= 4 * wordCount;
+        }
+
+        /**
+         * Returns the smaller container holding the slots of the given words.
+         */
+        static Container fromWords(long[] words, int cardinality) {
+            int length = words.length;
+            while (length > 0 && words[length - 1] == 0) {
+                length--;
+            }
+            if (!arrayFits(cardinality, length)) {
+                return ofWords(length == words.length ? words : Arrays.copyOf(words, length), cardinality);
+            }
+            char[] array = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    array[n++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return ofArray(array, cardinality);
+        }
+
+        static int cardinality(long[] words) {
+            int n = 0;
+            for (long word : words) {
+                n += Long.bitCount(word);
+            }
+            return n;
+        }
+
+        /**
+         * Returns the number of words needed to hold the slots.
+         */
+        int wordCount() {
+            if (words != null) {
+                return words.length;
+            }
+            return cardinality == 0 ? 0 : (array[cardinality - 1] >>> 6) + 1;
+        }
+
+        long[] toWords(int length) {
+            if (words != null) {
+                return Arrays.copyOf(words, length);
+            }
+            long[] bits = new long[length];
+            for (int i = 0; i < cardinality && (array[i] >>> 6) < length; i++) {
+                bits[array[i] >>> 6] |= 1L << array[i];
+            }
+            return bits;
+        }
+
+        boolean contains(char low) {
+            if (words != null) {
+                return (low >>> 6) < words.length && (words[low >>> 6] & (1L << low)) != 0;
+            }
+            return Arrays.binarySearch(array, 0, cardinality, low) >= 0;
+        }
+
+        /**
+         * Adds a slot, returning the container holding it, which is a bitmap once it is smaller than the array.
+         */
+        Container add(char low) {
+            if (words != null) {
+                if ((low >>> 6) >= words.length) {
+                    words = Arrays.copyOf(words, (low >>> 6) + 1);
+                }
+                long bit = 1L << low;
+                if ((words[low >>> 6] & bit) == 0) {
+                    words[low >>> 6] |= bit;
+                    cardinality++;
+                }
+                return this;
+            }
+            int index = Arrays.binarySearch(array, 0, cardinality, low);
+            if (index >= 0) {
+                return this;
+            }
+            if (!arrayFits(cardinality + 1, Math.max(wordCount(), (low >>> 6) + 1))) {
+                long[] bits = toWords(Math.max(wordCount(), (low >>> 6) + 1));
+                bits[low >>> 6] |= 1L << low;
+                return ofWords(bits, cardinality + 1);
+            }
+            index = -index - 1;
+            if (cardinality == array.length) {
+                array = Arrays.copyOf(array, Math.min(Math.max(4, cardinality * 2), ARRAY_LIMIT));
+            }
+            System.arraycopy(array, index, array, index + 1, cardinality - index);
+            array[index] = low;
+            cardinality++;
+            return this;
+        }
+
+        /**
+         * Removes a slot, returning the container holding the rest, which is an array once it is much smaller
+         * than the bitmap.
+         */
+        Container remove(char low) {
+            if (words != null) {
+                long bit = 1L << low;
+                if (contains(low)) {
+                    words[low >>> 6] &= ~bit;
+                    cardinality--;
+                    // half of the size of the bitmap, so that a slot added and removed again does not convert it
+                    if (cardinality <= ARRAY_LIMIT / 2 && cardinality <= 2 * words.length) {
+                        return fromWords(words, cardinality);
+                    }
+                }
+                return this;
+            }
+            int index = Arrays.binarySearch(array, 0, cardinality, low);
+            if (index >= 0) {
+                System.arraycopy(array, index + 1, array, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        Container and(Container other) {
+            if (words == null && other.words == null) {
+                char[] result = new char[Math.min(cardinality, other.cardinality)];
+                int n = 0;
+                for (int i = 0, j = 0; i < cardinality && j < other.cardinality; ) {
+                    if (array[i] < other.array[j]) {
+                        i++;
+                    } else if (array[i] > other.array[j]) {
+                        j++;
+                    } else {
+                        result[n++] = array[i];
+                        i++;
+                        j++;
+                    }
+                }
+                return ofArray(result, n);
+            }
+            if (words == null || other.words == null) {
+                Container sparse = words == null ? this : other;
+                Container dense = words == null ? other : this;
+                char[] result = new char[sparse.cardinality];
+                int n = 0;
+                for (int i = 0; i < sparse.cardinality; i++) {
+                    if (dense.contains(sparse.array[i])) {
+                        result[n++] = sparse.array[i];
+                    }
+                }
+                return ofArray(result, n);
+            }
+            long[] bits = new long[Math.min(words.length, other.words.length)];
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = words[i] & other.words[i];
+            }
+            return fromWords(bits, cardinality(bits));
+        }
+
+        int andCardinality(Container other) {
+            if (words != null && other.words != null) {
+                int n = 0;
+                for (int i = 0, length = Math.min(words.length, other.words.length); i < length; i++) {
+                    n += Long.bitCount(words[i] & other.words[i]);
+                }
+                return n;
+            }
+            if (words == null && other.words == null) {
+                int n = 0;
+                for (int i = 0, j = 0; i < cardinality && j < other.cardinality; ) {
+                    if (array[i] < other.array[j]) {
+                        i++;
+                    } else if (array[i] > other.array[j]) {
+                        j++;
+                    } else {
+                        n++;
+                        i++;
+                        j++;
+                    }
+                }
+                return n;
+            }
+            Container sparse = words == null ? this : other;
+            Container dense = words == null ? other : this;
+            int n = 0;
+            for (int i = 0; i < sparse.cardinality; i++) {
+                if (dense.contains(sparse.array[i])) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        Container or(Container other) {
+            int length = Math.max(wordCount(), other.wordCount());
+            if (words == null && other.words == null && arrayFits(cardinality + other.cardinality, length)) {
+                char[] result = new char[cardinality + other.cardinality];
+                int n = 0;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < other.cardinality) {
+                    if (array[i] < other.array[j]) {
+                        result[n++] = array[i++];
+                    } else if (array[i] > other.array[j]) {
+                        result[n++] = other.array[j++];
+                    } else {
+                        result[n++] = array[i++];
+                        j++;
+                    }
+                }
+                while (i < cardinality) {
+                    result[n++] = array[i++];
+                }
+                while (j < other.cardinality) {
+                    result[n++] = other.array[j++];
+                }
+                return ofArray(result, n);
+            }
+            long[] bits = toWords(length);
+            if (other.words != null) {
+                for (int i = 0; i < other.words.length; i++) {
+                    bits[i] |= other.words[i];
+                }
+            } else {
+                for (int i = 0; i < other.cardinality; i++) {
+                    bits[other.array[i] >>> 6] |= 1L << other.array[i];
+                }
+            }
+            return fromWords(bits, cardinality(bits));
+        }
+
+        Container andNot(Container other) {
+            if (words == null) {
+                char[] result = new char[cardinality];
+                int n = 0;
+                for (int i = 0; i < cardinality; i++) {
+                    if (!other.contains(array[i])) {
+                        result[n++] = array[i];
+                    }
+                }
+                return ofArray(result, n);
+            }
+            long[] bits = words.clone();
+            if (other.words != null) {
+                for (int i = 0, length = Math.min(bits.length, other.words.length); i < length; i++) {
+                    bits[i] &= ~other.words[i];
+                }
+            } else {
+                for (int i = 0; i < other.cardinality && (other.array[i] >>> 6) < bits.length; i++) {
+                    bits[other.array[i] >>> 6] &= ~(1L << other.array[i]);
+                }
+            }
+            return fromWords(bits, cardinality(bits));
+        }
+
+        Container copy() {
+            return words != null ? ofWords(words.clone(), cardinality)
+                    : ofArray(Arrays.copyOf(array, cardinality), cardinality);
+        }
+
+        void forEach(int high, IntConsumer action) {
+            if (words == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    action.accept(high | array[i]);
+                }
+                return;
+            }
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept(high | (i * 64 + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        long sizeInBytes() {
+            return words != null ? 8L * words.length : 2L * array.length;
+        }
+    }
+
+    /**
+     * Adds a slot.
+     *
+     * @param slot a non-negative slot.
+     */
+    void add(int slot) {
+        char high = (char) (slot >>> 16);
+        int index = indexOf(high);
+        if (index < 0) {
+            index = -index - 1;
+            insert(index, high, Container.ofArray(new char[4], 0));
+        }
+        containers[index] = containers[index].add((char) slot);
+    }
+
+    /**
+     * Removes a slot.
+     *
+     * @param slot a non-negative slot.
+     */
+    void remove(int slot) {
+        int index = indexOf((char) (slot >>> 16));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove((char) slot);
+        if (container.cardinality == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            containers[--size] = null;
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    /**
+     * Returns whether the set holds the slot.
+     *
+     * @param slot a non-negative slot.
+     * @return true if the slot is in the set.
+     */
+    boolean contains(int slot) {
+        int index = indexOf((char) (slot >>> 16));
+        return index >= 0 && containers[index].contains((char) slot);
+    }
+
+    /**
+     * Returns the number of slots.
+     */
+    int cardinality() {
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            n += containers[i].cardinality;
+        }
+        return n;
+    }
+
+    /**
+     * Returns whether the set is empty.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the slots held by both sets.
+     *
+     * @param other the other set.
+     * @return a new set.
+     */
+    RoomBitmap and(RoomBitmap other) {
+        RoomBitmap result = new RoomBitmap();
+        for (int i = 0, j = 0; i < size && j < other.size; ) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.append(keys[i], containers[i++].and(other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of slots held by both sets, without building their AND.
+     *
+     * @param other the other set.
+     * @return the number of common slots.
+     */
+    int andCardinality(RoomBitmap other) {
+        int n = 0;
+        for (int i = 0, j = 0; i < size && j < other.size; ) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                n += containers[i++].andCardinality(other.containers[j++]);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns the slots held by any of the sets.
+     *
+     * @param other the other set.
+     * @return a new set.
+     */
+    RoomBitmap or(RoomBitmap other) {
+        RoomBitmap result = new RoomBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i++].copy());
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j++].copy());
+            } else {
+                result.append(keys[i], containers[i++].or(other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the slots of this set which the other set does not hold.
+     *
+     * @param other the other set.
+     * @return a new set.
+     */
+    RoomBitmap andNot(RoomBitmap other) {
+        RoomBitmap result = new RoomBitmap();
+        for (int i = 0, j = 0; i < size; ) {
+            if (j == other.size || keys[i] < other.keys[j]) {
+                result.append(keys[i], containers[i++].copy());
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.append(keys[i], containers[i++].andNot(other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Passes the slots to the action, in ascending order.
+     *
+     * @param action the action receiving the slots.
+     */
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Returns an estimate of the memory taken by the containers.
+     */
+    long sizeInBytes() {
+        long bytes = 2L * keys.length + 8L * containers.length;
+        for (int i = 0; i < size; i++) {
+            bytes += 16 + containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private int indexOf(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    /**
+     * Adds a container after the last one, unless it is empty.
+     */
+    private void append(char high, Container container) {
+        if (container.cardinality > 0) {
+            insert(size, high, container);
+        }
+    }
+
+    private void insert(int index, char high, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = high;
+        containers[index] = container;
+        size++;
+    }
+}
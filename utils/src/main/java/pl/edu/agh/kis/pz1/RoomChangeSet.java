@@ -0,0 +1,182 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The rooms of an {@link IntRoomMap} changed since they were last saved, each with the fields that changed.
+ * <p>
+ * The commands {@linkplain #add(Room) add} every room they change, after changing it; the set takes over the
+ * changed fields from the room itself, see {@link Room#getChanges()}, and clears them on the room, so the
+ * fields of a room in the set are given by {@link #fieldsOf(int)}. The set only holds the changed rooms, so
+ * its size and content are known without visiting the other rooms of the hotel.
+ * </p>
+ * <p>
+ * A repository saving the changes on the thread changing the rooms {@linkplain #drain() drains} the set
+ * first, which returns a copy of the changed rooms with their fields and forgets the changes, and
+ * {@linkplain #restore(RoomChangeSet) restores} them if they cannot be written, so a change made while the
+ * others are written is kept for the next save. A thread saving in the background never reads the rooms:
+ * it takes a {@linkplain #mark() mark} when it takes its own copy of the rooms and, once that copy is
+ * written, {@linkplain #saved(long) forgets} the changes recorded up to the mark. The methods are
+ * synchronized and only {@link #add(Room)}, {@link #added(Room)}, {@link #drain()} and
+ * {@link #restore(RoomChangeSet)} touch the rooms.
+ * </p>
+ */
+public final class RoomChangeSet {
+    private final IntRoomMap owner;
+    private RoomDirectory rooms = new RoomDirectory();
+    private MyHashMap<Integer, Change> changes = new MyHashMap<>();
+    private long sequence;
+
+    /**
+     * The changed fields of a room and the time they were last recorded.
+     */
+    private static final class Change {
+        int fields;
+        long sequence;
+    }
+
+    /**
+     * Creates an empty set of changes of the rooms of the given map.
+     *
+     * @param owner the rooms, or null for a drained set.
+     */
+    RoomChangeSet(IntRoomMap owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Records the changes of a room and clears them on the room; a room without changes is not recorded.
+     *
+     * @param room the changed room.
+     */
+    public synchronized void add(Room room) {
+        if (room.isChanged()) {
+            record(room, room.getChanges());
+            room.clearChanges();
+        }
+    }
+
+    /**
+     * Records a room new to the map, all of whose fields have to be saved.
+     *
+     * @param room the added room.
+     */
+    public synchronized void added(Room room) {
+        record(room, Room.ALL_FIELDS);
+        room.clearChanges();
+    }
+
+    private void record(Room room, int fields) {
+        rooms.put(room.getNumber(), room);
+        Change change = changes.get(room.getNumber());
+        if (change == null) {
+            change = new Change();
+            changes.put(room.getNumber(), change);
+        }
+        change.fields |= fields;
+        change.sequence = ++sequence;
+    }
+
+    /**
+     * Returns the number of changed rooms.
+     */
+    public synchronized int size() {
+        return rooms.size();
+    }
+
+    /**
+     * Returns whether no room changed.
+     */
+    public synchronized boolean isEmpty() {
+        return rooms.size() == 0;
+    }
+
+    /**
+     * Returns the changed fields recorded for the room with the given number.
+     *
+     * @param number the room number.
+     * @return a bit set of the fields, as returned by {@link Room#getChanges()}; 0 if the room is not in the set
+     */
+    public synchronized int fieldsOf(int number) {
+        Change change = changes.get(number);
+        return change == null ? 0 : change.fields;
+    }
+
+    /**
+     * Passes the changed rooms to the action, by room number.
+     *
+     * @param action the action receiving each changed room; its changed fields are given by
+     *               {@link #fieldsOf(int)}, and for a drained set also by {@link Room#getChanges()}.
+     */
+    public synchronized void forEachRoom(Consumer<? super Room> action) {
+        rooms.forEachRoom(action);
+    }
+
+    /**
+     * Takes the changes out of the set: returns copies of the changed rooms, keeping their changed fields.
+     * <p>The rooms are copied, so this method is called by the thread changing them.</p>
+     *
+     * @return the changes, to be written by a repository.
+     */
+    public synchronized RoomChangeSet drain() {
+        RoomChangeSet drained = new RoomChangeSet(null);
+        rooms.forEachRoom(room -> {
+            int fields = fieldsOf(room.getNumber());
+            Room copy = new Room(room);
+            copy.markChanged(fields);
+            drained.record(copy, fields);
+        });
+        rooms = new RoomDirectory();
+        changes = new MyHashMap<>();
+        return drained;
+    }
+
+    /**
+     * Puts back the changes taken by {@link #drain()} which could not be written, keeping the changes made in
+     * the meantime.
+     *
+     * @param drained the changes returned by {@link #drain()}.
+     */
+    public synchronized void restore(RoomChangeSet drained) {
+        if (owner == null) {
+            return;
+        }
+        drained.forEachRoom(copy -> {
+            Room room = owner.get(copy.getNumber());
+            if (room != null) {
+                record(room, copy.getChanges());
+            }
+        });
+    }
+
+    /**
+     * Marks the changes recorded so far, before a copy of the rooms holding them is taken.
+     *
+     * @return the mark to pass to {@link #saved(long)}.
+     */
+    public synchronized long mark() {
+        return sequence;
+    }
+
+    /**
+     * Forgets the changes recorded up to the given mark, once a copy of the rooms taken after the mark has been
+     * saved; rooms changed again since the mark stay in the set. The rooms are not read, so this method may be
+     * called by any thread.
+     *
+     * @param mark the mark returned by {@link #mark()}.
+     */
+    public synchronized void saved(long mark) {
+        List<Integer> numbers = new ArrayList<>();
+        changes.forEach((number, change) -> {
+            if (change.sequence <= mark) {
+                numbers.add(number);
+            }
+        });
+        for (int number : numbers) {
+            rooms.remove(number);
+            changes.remove(number);
+        }
+    }
+}
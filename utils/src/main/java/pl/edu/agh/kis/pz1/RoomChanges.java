@@ -0,0 +1,165 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The rooms that differ between two versions of the rooms workbook: the rooms that were added or changed,
+ * with their new content, and the rooms that were removed.
+ * <p>
+ * Rooms are compared by content: number, price, type, capacity, guests, dates of stay and additional
+ * information. Rooms that are equal in both versions are not part of the changes, so applying the changes
+ * touches only the rooms that really differ. The {@linkplain Room#getChanges() changes} of a changed room are
+ * the fields that differ from the older version, or all fields for a room new to the file.
+ * </p>
+ */
+final class RoomChanges {
+    private final IntRoomMap changed = new IntRoomMap();
+    private final IntRoomMap removed = new IntRoomMap();
+
+    /**
+     * Computes the changes turning one version of the rooms into another.
+     *
+     * @param before the rooms of the older version.
+     * @param after the rooms of the newer version.
+     * @return the rooms added, changed or removed by the newer version.
+     */
+    static RoomChanges between(IntRoomMap before, IntRoomMap after) {
+        RoomChanges changes = new RoomChanges();
+        after.forEachRoom(room -> {
+            Room old = before.get(room.getNumber());
+            if (!same(old, room)) {
+                room.clearChanges();
+                room.markChanged(old == null ? Room.ALL_FIELDS : differences(old, room));
+                changes.changed.put(room.getNumber(), room);
+            }
+        });
+        before.forEachRoom(room -> {
+            if (!after.contains(room.getNumber())) {
+                changes.removed.put(room.getNumber(), room);
+            }
+        });
+        return changes;
+    }
+
+    /**
+     * Adds the changes made after these ones; a room changed by both keeps its later state and the fields
+     * changed by either.
+     *
+     * @param later the later changes.
+     */
+    void add(RoomChanges later) {
+        later.changed.forEachRoom(room -> {
+            Room earlier = changed.get(room.getNumber());
+            if (earlier != null) {
+                room.markChanged(earlier.getChanges());
+            }
+            changed.put(room.getNumber(), room);
+            removed.remove(room.getNumber());
+        });
+        later.removed.forEachRoom(room -> {
+            changed.remove(room.getNumber());
+            removed.put(room.getNumber(), room);
+        });
+    }
+
+    /**
+     * Returns the rooms added or changed, with their new content.
+     */
+    IntRoomMap changed() {
+        return changed;
+    }
+
+    /**
+     * Returns the rooms removed, with their last content.
+     */
+    IntRoomMap removed() {
+        return removed;
+    }
+
+    /**
+     * Returns the number of rooms added, changed or removed.
+     */
+    int size() {
+        return changed.size() + removed.size();
+    }
+
+    /**
+     * Returns whether no room differs.
+     */
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Checks whether two rooms have the same content.
+     *
+     * @param a a room, or null.
+     * @param b a room, or null.
+     * @return true if both are null or both hold the same data.
+     */
+    static boolean same(Room a, Room b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getNumber() == b.getNumber()
+                && a.getPrice() == b.getPrice()
+                && a.getCapacity() == b.getCapacity()
+                && Objects.equals(a.getType(), b.getType())
+                && Objects.equals(a.getStartDate(), b.getStartDate())
+                && Objects.equals(a.getEndDate(), b.getEndDate())
+                && Objects.equals(a.getAdditionalInfo(), b.getAdditionalInfo())
+                && sameGuests(a.getGuests(), b.getGuests());
+    }
+
+    /**
+     * Returns the fields in which two versions of a room differ.
+     *
+     * @param a a room.
+     * @param b the same room in another version.
+     * @return a bit set of the fields, as returned by {@link Room#getChanges()}.
+     */
+    static int differences(Room a, Room b) {
+        int fields = 0;
+        if (a.getPrice() != b.getPrice()) {
+            fields |= Room.PRICE;
+        }
+        if (!Objects.equals(a.getType(), b.getType())) {
+            fields |= Room.TYPE;
+        }
+        if (a.getCapacity() != b.getCapacity()) {
+            fields |= Room.CAPACITY;
+        }
+        if (!sameGuests(a.getGuests(), b.getGuests())) {
+            fields |= Room.GUESTS;
+        }
+        if (!Objects.equals(a.getStartDate(), b.getStartDate())) {
+            fields |= Room.START_DATE;
+        }
+        if (!Objects.equals(a.getEndDate(), b.getEndDate())) {
+            fields |= Room.END_DATE;
+        }
+        if (!Objects.equals(a.getAdditionalInfo(), b.getAdditionalInfo())) {
+            fields |= Room.ADDITIONAL_INFO;
+        }
+        return fields;
+    }
+
+    private static boolean sameGuests(List<Guest> a, List<Guest> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            Guest x = a.get(i);
+            Guest y = b.get(i);
+            if (x.isMain() != y.isMain()
+                    || !Objects.equals(x.getName(), y.getName())
+                    || !Objects.equals(x.getEmailAddress(), y.getEmailAddress())
+                    || !Objects.equals(x.getIdNumber(), y.getIdNumber())
+                    || !Objects.equals(x.getPhoneNumber(), y.getPhoneNumber())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
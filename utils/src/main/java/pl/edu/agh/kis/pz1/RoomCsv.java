@@ -0,0 +1,213 @@
+package pl.edu.agh.kis.pz1;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Exports rooms to and imports rooms from CSV files, record by record, with Apache Commons CSV.
+ * <p>
+ * Every room is one record holding the whole state of the room: number, price, type, capacity, dates of stay
+ * in ISO format, additional information, the data of the main guest and the names of the other guests
+ * separated by {@value #GUEST_SEPARATOR}. The first record is a header with the column names, which the import
+ * uses to find the columns, so their order does not matter.
+ * </p>
+ * <p>
+ * Neither direction builds the file in memory: export prints each room as it is visited and import passes
+ * each room to a consumer as soon as its record is parsed, so files with hundreds of thousands of rooms are
+ * exchanged in constant memory, unlike through a workbook.
+ * </p>
+ */
+public final class RoomCsv {
+    /**
+     * The separator of the names of the other guests.
+     */
+    public static final String GUEST_SEPARATOR = ";";
+
+    private static final String NUMBER = "number";
+    private static final String PRICE = "price";
+    private static final String TYPE = "type";
+    private static final String CAPACITY = "capacity";
+    private static final String START_DATE = "start_date";
+    private static final String END_DATE = "end_date";
+    private static final String ADDITIONAL_INFO = "additional_info";
+    private static final String MAIN_GUEST_NAME = "main_guest_name";
+    private static final String MAIN_GUEST_EMAIL = "main_guest_email";
+    private static final String MAIN_GUEST_ID = "main_guest_id";
+    private static final String MAIN_GUEST_PHONE = "main_guest_phone";
+    private static final String OTHER_GUESTS = "other_guests";
+
+    private static final String[] HEADER = {
+        NUMBER, PRICE, TYPE, CAPACITY, START_DATE, END_DATE, ADDITIONAL_INFO,
+        MAIN_GUEST_NAME, MAIN_GUEST_EMAIL, MAIN_GUEST_ID, MAIN_GUEST_PHONE, OTHER_GUESTS
+    };
+
+    private RoomCsv() {
+    }
+
+    /**
+     * Exports all rooms to the given file, replacing it.
+     *
+     * @param rooms the rooms to export.
+     * @param csvFilePath the path of the CSV file.
+     * @return the number of exported rooms.
+     * @throws IOException if the file cannot be written.
+     */
+    public static int export(IntRoomMap rooms, String csvFilePath) throws IOException {
+        try (Writer out = Files.newBufferedWriter(Paths.get(csvFilePath), StandardCharsets.UTF_8)) {
+            return export(rooms, out);
+        }
+    }
+
+    /**
+     * Exports all rooms to the given writer, in the order of their numbers.
+     *
+     * @param rooms the rooms to export.
+     * @param out the writer receiving the CSV records; it is flushed but not closed.
+     * @return the number of exported rooms.
+     * @throws IOException if the records cannot be written.
+     */
+    public static int export(IntRoomMap rooms, Writer out) throws IOException {
+        CSVPrinter printer = new CSVPrinter(out instanceof BufferedWriter ? out : new BufferedWriter(out),
+                CSVFormat.DEFAULT.builder().setHeader(HEADER).build());
+        int[] count = new int[1];
+        try {
+            rooms.forEachRoom(room -> {
+                try {
+                    printer.printRecord(values(room));
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        printer.flush();
+        return count[0];
+    }
+
+    /**
+     * Imports the rooms stored in the given file.
+     *
+     * @param csvFilePath the path of the CSV file.
+     * @param consumer the consumer receiving the rooms in the order of the records.
+     * @return the number of imported rooms.
+     * @throws IOException if the file cannot be read or a record is invalid.
+     */
+    public static int importRooms(String csvFilePath, Consumer<Room> consumer) throws IOException {
+        try (Reader in = Files.newBufferedReader(Paths.get(csvFilePath), StandardCharsets.UTF_8)) {
+            return importRooms(in, consumer);
+        }
+    }
+
+    /**
+     * Imports the rooms read from the given reader.
+     * <p>The records are parsed one at a time; a record is turned into a room and passed on before the next
+     * one is read.</p>
+     *
+     * @param in the reader of the CSV records, starting with the header.
+     * @param consumer the consumer receiving the rooms in the order of the records.
+     * @return the number of imported rooms.
+     * @throws IOException if the records cannot be read or a record is invalid; the rooms of the records before
+     *                     the invalid one have already been passed on.
+     */
+    public static int importRooms(Reader in, Consumer<Room> consumer) throws IOException {
+        CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build();
+        int count = 0;
+        try (CSVParser parser = format.parse(in instanceof BufferedReader ? in : new BufferedReader(in))) {
+            for (CSVRecord csvRecord : parser) {
+                try {
+                    consumer.accept(toRoom(csvRecord));
+                } catch (IllegalArgumentException | IllegalStateException | DateTimeParseException e) {
+                    throw new IOException("Invalid record " + csvRecord.getRecordNumber() + ": " + e.getMessage(), e);
+                }
+                count++;
+            }
+        } catch (IllegalStateException e) {
+            // the parser reports read errors and malformed records while iterating
+            throw new IOException(e.getMessage(), e);
+        }
+        return count;
+    }
+
+    private static List<Object> values(Room room) {
+        Guest main = null;
+        List<String> others = new ArrayList<>();
+        for (Guest guest : room.getGuests()) {
+            if (guest.isMain() && main == null) {
+                main = guest;
+            } else {
+                others.add(guest.getName());
+            }
+        }
+        List<Object> values = new ArrayList<>(HEADER.length);
+        values.add(room.getNumber());
+        values.add(room.getPrice());
+        values.add(room.getType());
+        values.add(room.getCapacity());
+        values.add(room.getStartDate());
+        values.add(room.getEndDate());
+        values.add(room.getAdditionalInfo());
+        values.add(main == null ? null : main.getName());
+        values.add(main == null ? null : main.getEmailAddress());
+        values.add(main == null ? null : main.getIdNumber());
+        values.add(main == null ? null : main.getPhoneNumber());
+        values.add(others.isEmpty() ? null : String.join(GUEST_SEPARATOR, others));
+        return values;
+    }
+
+    private static Room toRoom(CSVRecord csvRecord) {
+        Room room = new Room(Integer.parseInt(csvRecord.get(NUMBER).trim()),
+                Integer.parseInt(csvRecord.get(PRICE).trim()),
+                csvRecord.get(TYPE),
+                Integer.parseInt(csvRecord.get(CAPACITY).trim()));
+        room.setStartDate(date(csvRecord.get(START_DATE)));
+        room.setEndDate(date(csvRecord.get(END_DATE)));
+        room.setAdditionalInfo(text(csvRecord.get(ADDITIONAL_INFO)));
+
+        List<Guest> guests = new ArrayList<>();
+        String mainName = text(csvRecord.get(MAIN_GUEST_NAME));
+        if (mainName != null) {
+            Guest main = new Guest(mainName, text(csvRecord.get(MAIN_GUEST_EMAIL)),
+                    text(csvRecord.get(MAIN_GUEST_ID)), text(csvRecord.get(MAIN_GUEST_PHONE)));
+            main.setMain(true);
+            guests.add(main);
+        }
+        String others = text(csvRecord.get(OTHER_GUESTS));
+        if (others != null) {
+            for (String name : others.split(GUEST_SEPARATOR)) {
+                guests.add(new Guest(name.trim()));
+            }
+        }
+        if (!guests.isEmpty()) {
+            room.setGuests(guests);
+        }
+        return room;
+    }
+
+    private static String text(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static LocalDate date(String value) {
+        String text = text(value);
+        return text == null ? null : LocalDate.parse(text.trim());
+    }
+}
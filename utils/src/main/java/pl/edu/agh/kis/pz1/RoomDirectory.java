@@ -0,0 +1,330 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A room map that exploits the hotel's room numbering scheme, where room number = floor * 100 + slot.
+ * <p>
+ * Rooms that fit the scheme are stored in a two-level array indexed by {@code [floor][slot]}, so a lookup is
+ * two array reads without hashing or probing, and all rooms of a floor sit next to each other in memory.
+ * Room numbers that do not fit the scheme (below 100 or on floors above {@link #MAX_FLOOR}) fall back to the
+ * hash table inherited from {@link IntRoomMap}.
+ * </p>
+ * <p>
+ * Rooms are iterated floor by floor in ascending room number order, followed by the rooms from the fallback
+ * table in insertion order.
+ * </p>
+ */
+public class RoomDirectory extends IntRoomMap {
+    /**
+     * The highest floor stored in the dense array; rooms on higher floors go to the fallback table.
+     */
+    public static final int MAX_FLOOR = 999;
+    /**
+     * The number of slots on a floor.
+     */
+    public static final int SLOTS_PER_FLOOR = 100;
+
+    private Room[][] floors = new Room[0][];
+    private int denseSize;
+
+    /**
+     * Creates a directory of the rooms of the given map, to iterate them in room number order.
+     * <p>The rooms themselves are not copied.</p>
+     *
+     * @param rooms the rooms, keyed by their numbers.
+     * @return a new directory holding the same rooms.
+     */
+    public static RoomDirectory of(PersistentMap<Integer, Room> rooms) {
+        RoomDirectory directory = new RoomDirectory();
+        rooms.forEach(directory::put);
+        return directory;
+    }
+
+    /**
+     * Returns the room with the given number, or null if there is no such room.
+     *
+     * @param number the room number.
+     * @return the room with the given number, or null if it does not exist.
+     */
+    @Override
+    public Room get(int number) {
+        if (!fitsScheme(number)) {
+            return super.get(number);
+        }
+        int floor = number / SLOTS_PER_FLOOR;
+        if (floor >= floors.length || floors[floor] == null) {
+            return null;
+        }
+        return floors[floor][number % SLOTS_PER_FLOOR];
+    }
+
+    /**
+     * Adds a room under the given number, replacing the room previously stored under it.
+     *
+     * @param number the room number.
+     * @param room the room (not null).
+     * @return true if the room was added or replaced, false if the room is null.
+     */
+    @Override
+    public boolean put(int number, Room room) {
+        if (!fitsScheme(number)) {
+            return super.put(number, room);
+        }
+        if (room == null) {
+            return false;
+        }
+        Room[] slots = floorSlots(number / SLOTS_PER_FLOOR);
+        int slot = number % SLOTS_PER_FLOOR;
+        if (slots[slot] == null) {
+            denseSize++;
+        }
+        slots[slot] = room;
+        return true;
+    }
+
+    /**
+     * Removes the room with the given number.
+     *
+     * @param number the room number.
+     * @return true if the room was removed, false if it did not exist.
+     */
+    @Override
+    public boolean remove(int number) {
+        if (!fitsScheme(number)) {
+            return super.remove(number);
+        }
+        int floor = number / SLOTS_PER_FLOOR;
+        int slot = number % SLOTS_PER_FLOOR;
+        if (floor >= floors.length || floors[floor] == null || floors[floor][slot] == null) {
+            return false;
+        }
+        floors[floor][slot] = null;
+        denseSize--;
+        return true;
+    }
+
+    /**
+     * Checks if a room with the given number exists.
+     *
+     * @param number the room number.
+     * @return true if the room exists, false otherwise.
+     */
+    @Override
+    public boolean contains(int number) {
+        return get(number) != null;
+    }
+
+    /**
+     * Returns the number of rooms, including the ones in the fallback table.
+     *
+     * @return the number of rooms.
+     */
+    @Override
+    public int size() {
+        return denseSize + super.size();
+    }
+
+    /**
+     * Performs the given action for every room, floor by floor, followed by rooms from the fallback table.
+     *
+     * @param action the action to perform for each room.
+     */
+    @Override
+    public void forEachRoom(Consumer<? super Room> action) {
+        for (int floor = 1; floor < floors.length; floor++) {
+            forEachDenseRoom(floor, action);
+        }
+        super.forEachRoom(action);
+    }
+
+    /**
+     * Performs the given action for every room number and room, floor by floor, followed by rooms from the
+     * fallback table.
+     *
+     * @param action the action to perform for each room number and room.
+     */
+    @Override
+    public void forEach(BiConsumer<? super Integer, ? super Room> action) {
+        for (int floor = 1; floor < floors.length; floor++) {
+            Room[] slots = floors[floor];
+            if (slots == null) {
+                continue;
+            }
+            for (int slot = 0; slot < SLOTS_PER_FLOOR; slot++) {
+                if (slots[slot] != null) {
+                    action.accept(floor * SLOTS_PER_FLOOR + slot, slots[slot]);
+                }
+            }
+        }
+        super.forEach(action);
+    }
+
+    /**
+     * Performs the given action for every room on the given floor, reading only that floor's slots.
+     *
+     * @param floor the floor number.
+     * @param action the action to perform for each room.
+     */
+    @Override
+    public void forEachRoomOnFloor(int floor, Consumer<? super Room> action) {
+        if (floor < 1 || floor > MAX_FLOOR) {
+            super.forEachRoomOnFloor(floor, action);
+            return;
+        }
+        forEachDenseRoom(floor, action);
+    }
+
+    /**
+     * Performs the given action for every room whose number lies between {@code from} and {@code to}, both
+     * inclusive, in ascending room number order.
+     * <p>Only the slots of the floors covered by the range are read, so the cost depends on the size of the
+     * range rather than on the size of the hotel.</p>
+     *
+     * @param from the lowest room number (inclusive).
+     * @param to the highest room number (inclusive).
+     * @param action the action to perform for each room.
+     */
+    @Override
+    public void forEachRoomInRange(int from, int to, Consumer<? super Room> action) {
+        int lowest = SLOTS_PER_FLOOR;
+        int highest = MAX_FLOOR * SLOTS_PER_FLOOR + SLOTS_PER_FLOOR - 1;
+        if (from < lowest) {
+            super.forEachRoomInRange(from, Math.min(to, lowest - 1), action);
+        }
+        int lo = Math.max(from, lowest);
+        int hi = Math.min(to, highest);
+        if (lo <= hi) {
+            int firstFloor = lo / SLOTS_PER_FLOOR;
+            int lastFloor = Math.min(hi / SLOTS_PER_FLOOR, floors.length - 1);
+            for (int floor = firstFloor; floor <= lastFloor; floor++) {
+                Room[] slots = floors[floor];
+                if (slots == null) {
+                    continue;
+                }
+                int first = floor == firstFloor ? lo % SLOTS_PER_FLOOR : 0;
+                int last = floor == hi / SLOTS_PER_FLOOR ? hi % SLOTS_PER_FLOOR : SLOTS_PER_FLOOR - 1;
+                for (int slot = first; slot <= last; slot++) {
+                    if (slots[slot] != null) {
+                        action.accept(slots[slot]);
+                    }
+                }
+            }
+        }
+        if (to > highest) {
+            super.forEachRoomInRange(Math.max(from, highest + 1), to, action);
+        }
+    }
+
+    /**
+     * Counts the free rooms on the given floor, reading only that floor's slots.
+     *
+     * @param floor the floor number.
+     * @return the number of rooms on the floor without guests.
+     */
+    @Override
+    public int countFreeRoomsOnFloor(int floor) {
+        if (floor < 1 || floor > MAX_FLOOR) {
+            return super.countFreeRoomsOnFloor(floor);
+        }
+        if (floor >= floors.length || floors[floor] == null) {
+            return 0;
+        }
+        int free = 0;
+        for (Room room : floors[floor]) {
+            if (room != null && room.isFree()) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Returns an iterator over the room numbers in the same order as {@link #forEachRoom(Consumer)}.
+     *
+     * @return a primitive iterator over the room numbers.
+     */
+    @Override
+    public PrimitiveIterator.OfInt keyIterator() {
+        PrimitiveIterator.OfInt fallback = super.keyIterator();
+        return new PrimitiveIterator.OfInt() {
+            private int floor = 1;
+            private int slot = -1;
+
+            {
+                advance();
+            }
+
+            private void advance() {
+                slot++;
+                while (floor < floors.length) {
+                    Room[] slots = floors[floor];
+                    if (slots != null) {
+                        while (slot < SLOTS_PER_FLOOR) {
+                            if (slots[slot] != null) {
+                                return;
+                            }
+                            slot++;
+                        }
+                    }
+                    floor++;
+                    slot = 0;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return floor < floors.length || fallback.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                if (floor < floors.length) {
+                    int number = floor * SLOTS_PER_FLOOR + slot;
+                    advance();
+                    return number;
+                }
+                if (!fallback.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return fallback.nextInt();
+            }
+        };
+    }
+
+    private void forEachDenseRoom(int floor, Consumer<? super Room> action) {
+        if (floor >= floors.length || floors[floor] == null) {
+            return;
+        }
+        for (Room room : floors[floor]) {
+            if (room != null) {
+                action.accept(room);
+            }
+        }
+    }
+
+    /**
+     * Returns the slot array of the given floor, allocating it and growing the floor table if needed.
+     */
+    private Room[] floorSlots(int floor) {
+        if (floor >= floors.length) {
+            Room[][] grown = new Room[Math.min(Math.max(floor + 1, floors.length * 2), MAX_FLOOR + 1)][];
+            System.arraycopy(floors, 0, grown, 0, floors.length);
+            floors = grown;
+        }
+        if (floors[floor] == null) {
+            floors[floor] = new Room[SLOTS_PER_FLOOR];
+        }
+        return floors[floor];
+    }
+
+    /**
+     * Checks if the room number can be stored in the dense array.
+     */
+    private static boolean fitsScheme(int number) {
+        return number >= SLOTS_PER_FLOOR && number / SLOTS_PER_FLOOR <= MAX_FLOOR;
+    }
+}
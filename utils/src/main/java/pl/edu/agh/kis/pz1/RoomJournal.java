@@ -0,0 +1,386 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of check-ins and check-outs, kept next to the rooms workbook.
+ * <p>
+ * Every change of a room is appended as one record and forced to disk before the logging method returns,
+ * so a change survives a crash without rewriting the workbook. On start-up the journal is replayed on top
+ * of the rooms read from the workbook; once the rooms have been saved to the workbook, {@link #reset()}
+ * empties it.
+ * </p>
+ * <p>
+ * Appends use group commit: the thread that finds no write in progress becomes the leader, writes every
+ * record appended so far and forces them with a single {@code fsync}, while the threads appending in the
+ * meantime wait for that write instead of forcing the file themselves.
+ * </p>
+ * <p>
+ * A record is stored as its length, its CRC-32 and the record itself. A record torn by a crash fails the
+ * check and is cut off, together with everything after it, when the journal is replayed.
+ * </p>
+ * <p>
+ * When a group cannot be written, the file is truncated back to where the group started, so the records
+ * reported as failed are not replayed later. If even that fails, the journal refuses all further appends
+ * until it is {@linkplain #reset() emptied}.
+ * </p>
+ */
+public class RoomJournal implements Closeable {
+    private static final byte CHECKIN = 1;
+    private static final byte CHECKOUT = 2;
+    private static final int HEADER_SIZE = 8;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final FileChannel channel;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appended;
+    private long durable;
+    private long failedUpTo;
+    private IOException failure;
+    private IOException broken;
+    private boolean flushing;
+    private long syncs;
+
+    private RoomJournal(FileChannel channel) throws IOException {
+        this.channel = channel;
+        channel.position(channel.size());
+    }
+
+    /**
+     * Opens the journal at the given path, creating an empty one if the file does not exist.
+     *
+     * @param path the path of the journal file.
+     * @return the opened journal.
+     * @throws IOException if the file cannot be opened.
+     */
+    public static RoomJournal open(Path path) throws IOException {
+        return new RoomJournal(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Records that the given room has been checked in: its guests, dates of stay and additional information.
+     *
+     * @param room the room after the check-in.
+     * @throws IOException if the record cannot be written.
+     */
+    public void logCheckin(Room room) throws IOException {
+        append(checkinRecord(room));
+    }
+
+    /**
+     * Records that the room with the given number has been checked out.
+     *
+     * @param roomNumber the number of the room.
+     * @throws IOException if the record cannot be written.
+     */
+    public void logCheckout(int roomNumber) throws IOException {
+        append(checkoutRecord(roomNumber));
+    }
+
+    /**
+     * Records the changes of several rooms at once: a check-in for every occupied room and a check-out for
+     * every free one, in the given order.
+     * <p>All records are forced to disk together, with a single {@code fsync}.</p>
+     *
+     * @param rooms the rooms after the changes.
+     * @throws IOException if the records cannot be written.
+     */
+    public void logChanges(List<Room> rooms) throws IOException {
+        byte[][] records = new byte[rooms.size()][];
+        for (int i = 0; i < records.length; i++) {
+            Room room = rooms.get(i);
+            records[i] = room.isFree() ? checkoutRecord(room.getNumber()) : checkinRecord(room);
+        }
+        append(records);
+    }
+
+    private static byte[] checkinRecord(Room room) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(CHECKIN);
+        out.writeInt(room.getNumber());
+        out.writeLong(room.getStartDate() == null ? NO_DATE : room.getStartDate().toEpochDay());
+        out.writeLong(room.getEndDate() == null ? NO_DATE : room.getEndDate().toEpochDay());
+        writeString(out, room.getAdditionalInfo());
+        List<Guest> guests = room.getGuests();
+        out.writeInt(guests.size());
+        for (Guest guest : guests) {
+            out.writeBoolean(guest.isMain());
+            writeString(out, guest.getName());
+            writeString(out, guest.getEmailAddress());
+            writeString(out, guest.getIdNumber());
+            writeString(out, guest.getPhoneNumber());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] checkoutRecord(int roomNumber) {
+        ByteBuffer record = ByteBuffer.allocate(5);
+        record.put(CHECKOUT).putInt(roomNumber);
+        return record.array();
+    }
+
+    /**
+     * Applies every record of the journal, in order, to the given rooms.
+     * <p>Records of rooms missing from the map are skipped. A torn or corrupted record and all records after
+     * it are removed from the file. The rooms changed by the records are added to the
+     * {@linkplain IntRoomMap#changes() changes} of the map, as the workbook does not hold them yet.</p>
+     *
+     * @param rooms the rooms read from the workbook.
+     * @return the number of records applied.
+     * @throws IOException if the journal cannot be read.
+     */
+    public int replay(IntRoomMap rooms) throws IOException {
+        lock.lock();
+        try {
+            channel.position(0);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            long valid = 0;
+            int applied = 0;
+            long size = channel.size();
+            byte[] record;
+            while ((record = readRecord(in, size - valid)) != null) {
+                if (apply(record, rooms)) {
+                    applied++;
+                }
+                valid += HEADER_SIZE + record.length;
+            }
+            if (valid < channel.size()) {
+                channel.truncate(valid);
+                channel.force(false);
+            }
+            channel.position(valid);
+            return applied;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Empties the journal, after all its changes have been saved to the workbook.
+     *
+     * @throws IOException if the file cannot be truncated.
+     */
+    public void reset() throws IOException {
+        lock.lock();
+        try {
+            // let the records being appended reach the file first, they are truncated with the rest
+            while (flushing || pending.size() > 0) {
+                flushed.awaitUninterruptibly();
+            }
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(false);
+            broken = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether the journal holds changes which have not been saved to the workbook.
+     *
+     * @return true if the journal is not empty.
+     * @throws IOException if the size of the file cannot be read.
+     */
+    public boolean hasChanges() throws IOException {
+        lock.lock();
+        try {
+            return pending.size() > 0 || channel.size() > 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of times the journal has been forced to disk, which is lower than the number of
+     * records when appends were grouped.
+     *
+     * @return the number of {@code fsync} calls.
+     */
+    public long syncCount() {
+        lock.lock();
+        try {
+            return syncs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the journal file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends records and returns once they are on disk, writing them together with the records of other
+     * threads when possible.
+     */
+    private void append(byte[]... records) throws IOException {
+        CRC32 crc = new CRC32();
+        lock.lock();
+        try {
+            if (broken != null) {
+                throw new IOException("journal is unusable after a failed write", broken);
+            }
+            DataOutputStream out = new DataOutputStream(pending);
+            for (byte[] record : records) {
+                crc.reset();
+                crc.update(record);
+                out.writeInt(record.length);
+                out.writeInt((int) crc.getValue());
+                out.write(record);
+            }
+            appended += records.length;
+            long sequence = appended;
+            while (durable < sequence) {
+                if (sequence <= failedUpTo) {
+                    throw new IOException("journal write failed", failure);
+                }
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                } else {
+                    flush();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes and forces all pending records as the leader of a group; the lock is released while writing so
+     * that other threads can queue their records for the next group. A group which fails is cut off again.
+     */
+    private void flush() throws IOException {
+        long start = channel.position();
+        ByteBuffer batch = ByteBuffer.wrap(pending.toByteArray());
+        long last = appended;
+        pending.reset();
+        flushing = true;
+        lock.unlock();
+        IOException error = null;
+        try {
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+            try {
+                channel.truncate(start);
+                channel.position(start);
+            } catch (IOException truncateError) {
+                error.addSuppressed(truncateError);
+                broken = error;
+            }
+        } finally {
+            lock.lock();
+            flushing = false;
+        }
+        if (error != null) {
+            failure = error;
+            failedUpTo = last;
+        } else {
+            durable = last;
+            syncs++;
+        }
+        flushed.signalAll();
+    }
+
+    /**
+     * Reads the next record, or returns null at the end of the journal or at a torn or corrupted record;
+     * a length beyond the given number of bytes left in the file is corrupted, so it is never allocated.
+     */
+    private static byte[] readRecord(DataInputStream in, long remaining) throws IOException {
+        try {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length <= 0 || length > remaining - HEADER_SIZE) {
+                return null;
+            }
+            byte[] record = new byte[length];
+            in.readFully(record);
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            return (int) crc.getValue() == checksum ? record : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static boolean apply(byte[] record, IntRoomMap rooms) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        byte type = in.readByte();
+        Room room = rooms.get(in.readInt());
+        if (room == null) {
+            return false;
+        }
+        if (type == CHECKOUT) {
+            room.clear();
+            rooms.changes().add(room);
+            return true;
+        }
+        room.setStartDate(readDate(in));
+        room.setEndDate(readDate(in));
+        room.setAdditionalInfo(readString(in));
+        List<Guest> guests = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            boolean main = in.readBoolean();
+            Guest guest = new Guest(readString(in), readString(in), readString(in), readString(in));
+            guest.setMain(main);
+            guests.add(guest);
+        }
+        room.setGuests(guests);
+        rooms.changes().add(room);
+        return true;
+    }
+
+    private static LocalDate readDate(DataInputStream in) throws IOException {
+        long day = in.readLong();
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
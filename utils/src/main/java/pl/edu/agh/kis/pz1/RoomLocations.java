@@ -0,0 +1,165 @@
+package pl.edu.agh.kis.pz1;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.Arrays;
+
+/**
+ * An index of the positions of the rooms in the workbook: for every room number, the sheet and the row
+ * holding the room.
+ * <p>
+ * The index is built from the rows themselves, the way {@link ExcelHandler} reads them: the first row of every
+ * sheet is a header and every following row whose first cell holds a number describes the room with that
+ * number. The position of a room therefore does not depend on its number, so sheets may have gaps, extra
+ * rows, rooms in any order and any number of rooms.
+ * </p>
+ * <p>
+ * Positions are kept in a linear probing table of primitive ints, like {@link IntRoomMap}, so a lookup takes
+ * constant time and does not box the room number.
+ * </p>
+ */
+final class RoomLocations {
+    /**
+     * The position returned for a room that is not in the index.
+     */
+    static final long MISSING = -1;
+
+    private int[] numbers;
+    private long[] positions;
+    private int size;
+
+    /**
+     * Creates an empty index.
+     */
+    RoomLocations() {
+        numbers = new int[16];
+        positions = new long[16];
+        Arrays.fill(positions, MISSING);
+    }
+
+    /**
+     * Builds the index of all rooms of the given workbook.
+     * <p>If a room number appears in more than one row, the last one is indexed, as the last one read wins
+     * when the rooms are read.</p>
+     *
+     * @param workbook the workbook.
+     * @return the index.
+     */
+    static RoomLocations index(Workbook workbook) {
+        RoomLocations locations = new RoomLocations();
+        for (int k = 0; k < workbook.getNumberOfSheets(); k++) {
+            boolean header = true;
+            for (Row row : workbook.getSheetAt(k)) {
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                Cell cell = row.getCell(0);
+                if (cell != null && cell.getCellType() == CellType.NUMERIC) {
+                    locations.put((int) cell.getNumericCellValue(), k, row.getRowNum());
+                }
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * Records the position of a room, replacing the previous one.
+     *
+     * @param number the room number.
+     * @param sheet the index of the sheet.
+     * @param row the index of the row in the sheet.
+     */
+    void put(int number, int sheet, int row) {
+        if (2 * (size + 1) > numbers.length) {
+            grow();
+        }
+        int i = find(number);
+        if (positions[i] == MISSING) {
+            numbers[i] = number;
+            size++;
+        }
+        positions[i] = (long) sheet << 32 | row;
+    }
+
+    /**
+     * Returns the position of the room with the given number.
+     *
+     * @param number the room number.
+     * @return the position, to be decoded with {@link #sheet(long)} and {@link #row(long)}, or {@link #MISSING}.
+     */
+    long get(int number) {
+        return positions[find(number)];
+    }
+
+    /**
+     * Returns the number of indexed rooms.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the sheet of a position returned by {@link #get(int)}.
+     */
+    static int sheet(long position) {
+        return (int) (position >>> 32);
+    }
+
+    /**
+     * Returns the index of the row of a position returned by {@link #get(int)}.
+     */
+    static int row(long position) {
+        return (int) position;
+    }
+
+    /**
+     * Returns the row of the given workbook holding the room with the given number, after checking that its
+     * first cell still holds that number.
+     *
+     * @param workbook the workbook the index was built from.
+     * @param number the room number.
+     * @return the row, or null if the room is not indexed or its row no longer holds it.
+     */
+    Row find(Workbook workbook, int number) {
+        long position = get(number);
+        if (position == MISSING || sheet(position) >= workbook.getNumberOfSheets()) {
+            return null;
+        }
+        Sheet sheet = workbook.getSheetAt(sheet(position));
+        Row row = sheet.getRow(row(position));
+        Cell cell = row == null ? null : row.getCell(0);
+        if (cell == null || cell.getCellType() != CellType.NUMERIC || (int) cell.getNumericCellValue() != number) {
+            return null;
+        }
+        return row;
+    }
+
+    private int find(int number) {
+        int mask = numbers.length - 1;
+        int i = (number * 0x9E3779B9 >>> 16) & mask;
+        while (positions[i] != MISSING && numbers[i] != number) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void grow() {
+        int[] oldNumbers = numbers;
+        long[] oldPositions = positions;
+        numbers = new int[oldNumbers.length * 2];
+        positions = new long[oldNumbers.length * 2];
+        Arrays.fill(positions, MISSING);
+        for (int i = 0; i < oldNumbers.length; i++) {
+            if (oldPositions[i] != MISSING) {
+                int j = find(oldNumbers[i]);
+                numbers[j] = oldNumbers[i];
+                positions[j] = oldPositions[i];
+            }
+        }
+    }
+}
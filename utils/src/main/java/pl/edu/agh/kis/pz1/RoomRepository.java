@@ -0,0 +1,100 @@
+package pl.edu.agh.kis.pz1;
+
+import java.util.List;
+
+/**
+ * A store of the rooms of the hotel and their guests.
+ * <p>
+ * The commands change the rooms held in memory and then report each change to the repository, which keeps
+ * the store up to date. {@link ExcelHandler} keeps the rooms in a workbook, {@link SqlRoomRepository} in an
+ * embedded SQL database.
+ * </p>
+ */
+public interface RoomRepository extends AutoCloseable {
+
+    /**
+     * Reads all rooms from the store.
+     *
+     * @return an {@link IntRoomMap} containing room data, where keys are room numbers, and values are {@link Room} objects.
+     */
+    IntRoomMap getRoomsData();
+
+    /**
+     * Stores the guests, dates of stay and additional information of a room after a check-in.
+     *
+     * @param room the {@link Room} object containing the updated information.
+     */
+    void updateRoomInfo(Room room);
+
+    /**
+     * Removes the guests, dates of stay and additional information of a room after a check-out.
+     *
+     * @param room the {@link Room} object whose information needs to be cleared.
+     */
+    void clearRoomInfo(Room room);
+
+    /**
+     * Stores the changes of several rooms at once, for group check-ins and bulk check-outs: every occupied
+     * room is stored as by {@link #updateRoomInfo(Room)}, every free room as by {@link #clearRoomInfo(Room)}.
+     * <p>This implementation stores the rooms one by one; repositories override it to store them together.</p>
+     *
+     * @param rooms the rooms after the changes, stored in the given order.
+     */
+    default void updateRooms(List<Room> rooms) {
+        for (Room room : rooms) {
+            if (room.isFree()) {
+                clearRoomInfo(room);
+            } else {
+                updateRoomInfo(room);
+            }
+        }
+    }
+
+    /**
+     * Stores all given rooms, adding the ones that are not in the store yet, and reports the result to the user.
+     *
+     * @param rooms the rooms to save.
+     */
+    void save(IntRoomMap rooms);
+
+    /**
+     * Stores the rooms changed since they were last saved, as recorded in {@link IntRoomMap#changes()}, and
+     * reports the result to the user.
+     * <p>This implementation forgets the changes and saves all rooms with {@link #save(IntRoomMap)};
+     * repositories override it to write only the changed fields of the changed rooms.</p>
+     *
+     * @param rooms the rooms held in memory.
+     */
+    default void saveChanges(IntRoomMap rooms) {
+        rooms.changes().drain();
+        save(rooms);
+    }
+
+    /**
+     * Returns a frozen version of the given rooms, for reports and exports which must not see the rooms
+     * changing while they run.
+     * <p>This implementation copies every room into a new {@link PersistentMap}; repositories which already
+     * keep such a map return its {@linkplain PersistentMap#snapshot() snapshot} instead.</p>
+     *
+     * @param rooms the rooms held in memory.
+     * @return a read-only map from room numbers to copies of the rooms.
+     */
+    default PersistentMap<Integer, Room> snapshot(IntRoomMap rooms) {
+        PersistentMap<Integer, Room> copy = new PersistentMap<>();
+        rooms.forEachRoom(room -> copy.put(room.getNumber(), new Room(room)));
+        return copy.snapshot();
+    }
+
+    /**
+     * Writes any changes the repository still keeps aside, so the store holds the given rooms.
+     *
+     * @param rooms the rooms held in memory.
+     */
+    void flush(IntRoomMap rooms);
+
+    /**
+     * Closes the store and releases any resources.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,159 @@
+package pl.edu.agh.kis.pz1;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * A SAX handler turning the XML of one rooms sheet into {@link Room} objects, row by row.
+ * <p>
+ * Only the values of the current row are kept, so memory use does not depend on the size of the sheet.
+ * The rows are interpreted exactly like {@link ExcelHandler} interprets them in DOM mode: the first row is
+ * a header, and every following row whose first cell holds a number describes one room.
+ * </p>
+ */
+final class RoomSheetHandler extends DefaultHandler {
+    private static final int COLUMNS = 11;
+
+    private final IntFunction<String> sharedStrings;
+    private final Consumer<Room> consumer;
+
+    private final String[] values = new String[COLUMNS];
+    private final String[] types = new String[COLUMNS];
+    private final boolean[] present = new boolean[COLUMNS];
+    private final StringBuilder text = new StringBuilder();
+
+    private boolean headerRow = true;
+    private int column;
+    private int nextColumn;
+    private boolean inText;
+
+    /**
+     * Creates a handler for one sheet.
+     *
+     * @param sharedStrings returns the shared string with the given index.
+     * @param consumer the consumer receiving the rooms in the order they appear in the sheet.
+     */
+    RoomSheetHandler(IntFunction<String> sharedStrings, Consumer<Room> consumer) {
+        this.sharedStrings = sharedStrings;
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        switch (localName) {
+            case "row" -> {
+                for (int i = 0; i < COLUMNS; i++) {
+                    values[i] = null;
+                    types[i] = null;
+                    present[i] = false;
+                }
+                nextColumn = 0;
+            }
+            case "c" -> {
+                String reference = attributes.getValue("r");
+                column = reference == null ? nextColumn : columnIndex(reference);
+                nextColumn = column + 1;
+                if (column < COLUMNS) {
+                    present[column] = true;
+                    types[column] = attributes.getValue("t");
+                }
+            }
+            case "v", "t" -> {
+                inText = true;
+                text.setLength(0);
+            }
+            default -> {
+                // other elements carry nothing the rooms need
+            }
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (inText) {
+            text.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        switch (localName) {
+            case "v", "t" -> {
+                inText = false;
+                if (column < COLUMNS) {
+                    storeValue();
+                }
+            }
+            case "row" -> {
+                if (!headerRow && isNumber(0)) {
+                    consumer.accept(buildRoom());
+                }
+                headerRow = false;
+            }
+            default -> {
+                // nothing to do
+            }
+        }
+    }
+
+    private void storeValue() {
+        String value = text.toString();
+        if ("s".equals(types[column])) {
+            value = sharedStrings.apply(Integer.parseInt(value.trim()));
+        }
+        // an inline string may consist of several runs
+        values[column] = values[column] == null || !"inlineStr".equals(types[column])
+                ? value
+                : values[column] + value;
+    }
+
+    private Room buildRoom() {
+        Room room = new Room((int) number(0), (int) number(1), values[2], (int) number(3));
+
+        List<Guest> guestList = new ArrayList<>();
+        for (int j = 4; j < 8; ++j) {
+            if (present[j]) {
+                guestList.add(ExcelHandler.parseGuest(values[j] == null ? "" : values[j]));
+            }
+        }
+        if (!guestList.isEmpty()) {
+            room.setGuests(guestList);
+        }
+
+        room.setStartDate(isNumber(8) ? ExcelHandler.excelDate(number(8)) : null);
+        room.setEndDate(isNumber(9) ? ExcelHandler.excelDate(number(9)) : null);
+        if (values[10] != null && !isNumber(10)) {
+            room.setAdditionalInfo(values[10]);
+        }
+        room.clearChanges();
+        return room;
+    }
+
+    private boolean isNumber(int i) {
+        return values[i] != null && (types[i] == null || "n".equals(types[i]));
+    }
+
+    private double number(int i) {
+        return values[i] == null ? 0 : Double.parseDouble(values[i]);
+    }
+
+    /**
+     * Returns the zero-based column index of a cell reference such as {@code "K12"}.
+     */
+    static int columnIndex(String reference) {
+        int index = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            index = index * 26 + (c - 'A' + 1);
+        }
+        return index - 1;
+    }
+}
@@ -0,0 +1,184 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * A compact binary copy of the rooms read from the rooms workbook, used to start without parsing the workbook.
+ * <p>
+ * The snapshot starts with a header describing the workbook it was made from: its size, its modification
+ * time and a CRC-32C of its content. {@link #read(Path, Path)} maps the snapshot into memory and decodes the
+ * rooms only if all three still match the workbook; otherwise the snapshot is stale and the workbook has to
+ * be read again. No POI class is needed to read or write a snapshot.
+ * </p>
+ * <p>
+ * After the header come the number of rooms and the rooms, each as number, price, type, capacity, dates of
+ * stay as epoch days, additional information and guests. Strings are stored as their UTF-8 length and bytes,
+ * with a length of -1 for null.
+ * </p>
+ */
+final class RoomSnapshot {
+    private static final int MAGIC = 0x524d534e; // "RMSN"
+    private static final int VERSION = 1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private RoomSnapshot() {
+    }
+
+    /**
+     * Reads the rooms stored in the snapshot, if it was made from the current content of the workbook.
+     *
+     * @param snapshot the path of the snapshot.
+     * @param workbook the path of the workbook the snapshot was made from.
+     * @return the rooms, or null if there is no snapshot or it is stale or damaged.
+     * @throws IOException if the snapshot or the workbook cannot be read.
+     */
+    static RoomDirectory read(Path snapshot, Path workbook) throws IOException {
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC || in.getInt() != VERSION
+                    || in.getLong() != Files.size(workbook)
+                    || in.getLong() != Files.getLastModifiedTime(workbook).toMillis()
+                    || in.getLong() != checksum(workbook)) {
+                return null;
+            }
+            RoomDirectory rooms = new RoomDirectory();
+            for (int i = in.getInt(); i > 0; i--) {
+                Room room = readRoom(in);
+                rooms.put(room.getNumber(), room);
+            }
+            return rooms;
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given rooms, made from the current content of the workbook.
+     * <p>The snapshot is written to a temporary file first, so a crash leaves either the old or the new one.</p>
+     *
+     * @param snapshot the path of the snapshot.
+     * @param workbook the path of the workbook holding the same rooms.
+     * @param rooms the rooms.
+     * @throws IOException if the snapshot cannot be written or the workbook cannot be read.
+     */
+    static void write(Path snapshot, Path workbook, IntRoomMap rooms) throws IOException {
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(Files.size(workbook));
+            out.writeLong(Files.getLastModifiedTime(workbook).toMillis());
+            out.writeLong(checksum(workbook));
+            out.writeInt(rooms.size());
+            IOException[] error = new IOException[1];
+            rooms.forEachRoom(room -> {
+                if (error[0] == null) {
+                    try {
+                        writeRoom(out, room);
+                    } catch (IOException e) {
+                        error[0] = e;
+                    }
+                }
+            });
+            if (error[0] != null) {
+                throw error[0];
+            }
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Returns the CRC-32C of the content of the given file.
+     */
+    static long checksum(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > 0) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static void writeRoom(DataOutputStream out, Room room) throws IOException {
+        out.writeInt(room.getNumber());
+        out.writeInt(room.getPrice());
+        writeString(out, room.getType());
+        out.writeInt(room.getCapacity());
+        out.writeLong(room.getStartDate() == null ? NO_DATE : room.getStartDate().toEpochDay());
+        out.writeLong(room.getEndDate() == null ? NO_DATE : room.getEndDate().toEpochDay());
+        writeString(out, room.getAdditionalInfo());
+        List<Guest> guests = room.getGuests();
+        out.writeInt(guests.size());
+        for (Guest guest : guests) {
+            out.writeBoolean(guest.isMain());
+            writeString(out, guest.getName());
+            writeString(out, guest.getEmailAddress());
+            writeString(out, guest.getIdNumber());
+            writeString(out, guest.getPhoneNumber());
+        }
+    }
+
+    private static Room readRoom(ByteBuffer in) {
+        Room room = new Room(in.getInt(), in.getInt(), readString(in), in.getInt());
+        room.setStartDate(readDate(in));
+        room.setEndDate(readDate(in));
+        room.setAdditionalInfo(readString(in));
+        int count = in.getInt();
+        if (count > 0) {
+            List<Guest> guests = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                boolean main = in.get() != 0;
+                Guest guest = new Guest(readString(in), readString(in), readString(in), readString(in));
+                guest.setMain(main);
+                guests.add(guest);
+            }
+            room.setGuests(guests);
+        }
+        room.clearChanges();
+        return room;
+    }
+
+    private static LocalDate readDate(ByteBuffer in) {
+        long day = in.getLong();
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,155 @@
+package pl.edu.agh.kis.pz1;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Writes the rooms workbook from a room map with POI's streaming {@link SXSSFWorkbook}.
+ * <p>
+ * Only a bounded window of rows is kept in memory; older rows are flushed to a temporary file, so the memory
+ * needed to save does not grow with the number of rooms. The layout is the one {@link ExcelHandler} reads:
+ * one sheet per floor named {@code Level<floor>}, a header in the first row, and the rooms of the floor in
+ * the following rows, in order of their numbers. Rooms are found by the number in their first cell, not by
+ * their row, so the layout puts no limit on the number of rooms on a floor.
+ * </p>
+ */
+final class RoomWorkbookWriter {
+    /**
+     * The number of rows kept in memory while writing.
+     */
+    static final int ROW_WINDOW = 100;
+
+    private static final String[] HEADER = {
+        "Room number", "Price", "Type", "Capacity", "Main guest", "guest2", "guest3", "guest4",
+        "Checkin date", "Checkout date", "Additional Info"
+    };
+
+    private RoomWorkbookWriter() {
+    }
+
+    /**
+     * Writes all rooms to the given file, replacing it once the new workbook is complete.
+     * <p>Rooms whose numbers do not fit the floor layout (below 100) are skipped.</p>
+     *
+     * @param rooms the rooms to write.
+     * @param excelFilePath the path of the file to write.
+     * @param rowWindow the number of rows kept in memory.
+     * @throws IOException if the file cannot be written.
+     */
+    static void write(IntRoomMap rooms, String excelFilePath, int rowWindow) throws IOException {
+        write(rooms, excelFilePath, rowWindow, 1, lastFloor(rooms));
+    }
+
+    /**
+     * Writes the rooms of the given floors to the given file, one sheet per floor, replacing the file once the
+     * new workbook is complete.
+     *
+     * @param rooms the rooms to write; rooms of other floors are skipped.
+     * @param excelFilePath the path of the file to write.
+     * @param rowWindow the number of rows kept in memory.
+     * @param fromFloor the first floor to write.
+     * @param toFloor the last floor to write.
+     * @throws IOException if the file cannot be written.
+     */
+    static void write(IntRoomMap rooms, String excelFilePath, int rowWindow, int fromFloor, int toFloor)
+            throws IOException {
+        Path target = Paths.get(excelFilePath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            write(rooms, workbook, fromFloor, toFloor);
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Fills the given, empty workbook with the rooms.
+     *
+     * @param rooms the rooms to write.
+     * @param workbook the workbook to fill.
+     */
+    static void write(IntRoomMap rooms, Workbook workbook) {
+        write(rooms, workbook, 1, lastFloor(rooms));
+    }
+
+    /**
+     * Fills the given, empty workbook with the rooms of the given floors.
+     *
+     * @param rooms the rooms to write.
+     * @param workbook the workbook to fill.
+     * @param fromFloor the first floor to write.
+     * @param toFloor the last floor to write.
+     */
+    static void write(IntRoomMap rooms, Workbook workbook, int fromFloor, int toFloor) {
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+
+        for (int floor = fromFloor; floor <= toFloor; floor++) {
+            Sheet sheet = workbook.createSheet("Level" + floor);
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < HEADER.length; i++) {
+                header.createCell(i).setCellValue(HEADER[i]);
+            }
+            int[] next = {1};
+            rooms.forEachRoomOnFloor(floor, room -> writeRoom(sheet.createRow(next[0]++), room, dateStyle));
+        }
+    }
+
+    /**
+     * Returns the highest floor holding one of the rooms, or 0 if there are none.
+     *
+     * @param rooms the rooms.
+     * @return the highest floor.
+     */
+    static int lastFloor(IntRoomMap rooms) {
+        int[] lastFloor = new int[1];
+        rooms.forEachRoom(room -> lastFloor[0] = Math.max(lastFloor[0], room.getNumber() / 100));
+        return lastFloor[0];
+    }
+
+    private static void writeRoom(Row row, Room room, CellStyle dateStyle) {
+        row.createCell(0).setCellValue(room.getNumber());
+        row.createCell(1).setCellValue(room.getPrice());
+        row.createCell(2).setCellValue(room.getType());
+        row.createCell(3).setCellValue(room.getCapacity());
+
+        List<Guest> guests = room.getGuests();
+        int i = 5;
+        for (Guest g : guests) {
+            if (g.isMain()) {
+                row.createCell(4).setCellValue(ExcelHandler.formatMainGuest(g));
+            } else if (i < 8) {
+                row.createCell(i++).setCellValue(g.getName());
+            }
+        }
+        if (room.getStartDate() != null) {
+            Cell cell = row.createCell(8);
+            cell.setCellValue(room.getStartDate());
+            cell.setCellStyle(dateStyle);
+        }
+        if (room.getEndDate() != null) {
+            Cell cell = row.createCell(9);
+            cell.setCellValue(room.getEndDate());
+            cell.setCellStyle(dateStyle);
+        }
+        if (room.getAdditionalInfo() != null) {
+            row.createCell(10).setCellValue(room.getAdditionalInfo());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The list of workbooks holding the rooms of a hotel split into shards, each shard holding a range of floors.
+ * <p>
+ * The manifest is a text file with one shard per line, {@code <file> <first floor>-<last floor>}, the file
+ * being relative to the directory of the manifest; empty lines and lines starting with {@code #} are
+ * skipped. The ranges of the shards may not overlap. A room belongs to the shard holding its floor; rooms of
+ * floors below the first shard belong to the first shard and rooms of floors above the last one to the last
+ * shard, so every room has a shard.
+ * </p>
+ */
+final class ShardManifest {
+    private final List<Shard> shards;
+    private final int[] shardOfFloor;
+
+    /**
+     * One workbook of the hotel and the floors it holds.
+     */
+    static final class Shard {
+        private final Path file;
+        private final int fromFloor;
+        private final int toFloor;
+
+        Shard(Path file, int fromFloor, int toFloor) {
+            this.file = file;
+            this.fromFloor = fromFloor;
+            this.toFloor = toFloor;
+        }
+
+        /**
+         * Returns the path of the workbook.
+         */
+        Path getFile() {
+            return file;
+        }
+
+        /**
+         * Returns the first floor held by the workbook.
+         */
+        int getFromFloor() {
+            return fromFloor;
+        }
+
+        /**
+         * Returns the last floor held by the workbook.
+         */
+        int getToFloor() {
+            return toFloor;
+        }
+    }
+
+    /**
+     * Creates a manifest of the given shards.
+     *
+     * @param shards the shards, at least one.
+     * @throws IllegalArgumentException if there are no shards, a range is empty or two ranges overlap.
+     */
+    ShardManifest(List<Shard> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("no shards");
+        }
+        List<Shard> sorted = new ArrayList<>(shards);
+        sorted.sort((a, b) -> Integer.compare(a.fromFloor, b.fromFloor));
+        for (int i = 0; i < sorted.size(); i++) {
+            Shard shard = sorted.get(i);
+            if (shard.fromFloor < 0 || shard.fromFloor > shard.toFloor) {
+                throw new IllegalArgumentException("invalid floors of " + shard.file);
+            }
+            if (i > 0 && sorted.get(i - 1).toFloor >= shard.fromFloor) {
+                throw new IllegalArgumentException("floors of " + shard.file + " overlap");
+            }
+        }
+        this.shards = Collections.unmodifiableList(sorted);
+        this.shardOfFloor = new int[sorted.get(sorted.size() - 1).toFloor + 1];
+        int shard = 0;
+        for (int floor = 0; floor < shardOfFloor.length; floor++) {
+            if (floor > sorted.get(shard).toFloor) {
+                shard++;
+            }
+            shardOfFloor[floor] = shard;
+        }
+    }
+
+    /**
+     * Reads a manifest file.
+     *
+     * @param manifest the path of the manifest.
+     * @return the manifest.
+     * @throws IOException if the file cannot be read or is not a valid manifest.
+     */
+    static ShardManifest read(Path manifest) throws IOException {
+        Path directory = directory(manifest);
+        List<Shard> shards = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                shards.add(parse(directory, line, manifest, lineNumber));
+            }
+        }
+        try {
+            return new ShardManifest(shards);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(manifest + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Shard parse(Path directory, String line, Path manifest, int lineNumber) throws IOException {
+        int space = line.lastIndexOf(' ');
+        int dash = line.indexOf('-', space + 1);
+        try {
+            if (space < 0 || dash < 0) {
+                throw new NumberFormatException(line);
+            }
+            return new Shard(directory.resolve(line.substring(0, space).trim()),
+                    Integer.parseInt(line.substring(space + 1, dash)),
+                    Integer.parseInt(line.substring(dash + 1)));
+        } catch (NumberFormatException e) {
+            throw new IOException(manifest + ":" + lineNumber + ": expected '<file> <from>-<to>'", e);
+        }
+    }
+
+    /**
+     * Writes the manifest to a file, with the paths of the shards relative to the directory of the file.
+     *
+     * @param manifest the path of the manifest.
+     * @throws IOException if the file cannot be written.
+     */
+    void write(Path manifest) throws IOException {
+        Path directory = directory(manifest);
+        try (BufferedWriter writer = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8)) {
+            writer.write("# <file> <first floor>-<last floor>");
+            writer.newLine();
+            for (Shard shard : shards) {
+                writer.write(directory.relativize(shard.file) + " " + shard.fromFloor + "-" + shard.toFloor);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Creates a manifest splitting the given floors into shards of {@code floorsPerShard} floors, with the
+     * workbooks named {@code <prefix>-<first floor>.xlsx}, or {@code <prefix>-<first>-<last>.xlsx} when a
+     * shard holds more than one floor.
+     *
+     * @param directory the directory of the workbooks.
+     * @param prefix the start of the names of the workbooks.
+     * @param lastFloor the highest floor of the hotel.
+     * @param floorsPerShard the number of floors of each shard.
+     * @return the manifest.
+     */
+    static ShardManifest split(Path directory, String prefix, int lastFloor, int floorsPerShard) {
+        int size = Math.max(1, floorsPerShard);
+        List<Shard> shards = new ArrayList<>();
+        for (int from = 1; from <= Math.max(1, lastFloor); from += size) {
+            int to = from + size - 1;
+            String name = size == 1 ? prefix + "-" + from + ".xlsx" : prefix + "-" + from + "-" + to + ".xlsx";
+            shards.add(new Shard(directory.resolve(name), from, to));
+        }
+        return new ShardManifest(shards);
+    }
+
+    /**
+     * Returns the shards, ordered by floor.
+     */
+    List<Shard> shards() {
+        return shards;
+    }
+
+    /**
+     * Returns the index of the shard holding the room with the given number.
+     *
+     * @param roomNumber the room number.
+     * @return the index in {@link #shards()}.
+     */
+    int shardOf(int roomNumber) {
+        int floor = roomNumber / 100;
+        if (floor < 0) {
+            return 0;
+        }
+        return floor < shardOfFloor.length ? shardOfFloor[floor] : shards.size() - 1;
+    }
+
+    private static Path directory(Path manifest) {
+        Path directory = manifest.toAbsolutePath().getParent();
+        return directory == null ? manifest.toAbsolutePath() : directory;
+    }
+}
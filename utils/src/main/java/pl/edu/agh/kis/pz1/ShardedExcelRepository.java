@@ -0,0 +1,401 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * A {@link RoomRepository} keeping the rooms in several workbooks, each holding a range of floors, listed in
+ * a {@link ShardManifest}.
+ * <p>
+ * The workbooks have the layout of the single rooms workbook and are read with the streaming reader, the
+ * workbooks concurrently on a {@link ForkJoinPool}. Check-ins and check-outs are appended to one journal, as
+ * with {@link ExcelHandler}, and the workbooks are only written when the rooms are saved or flushed.
+ * </p>
+ * <p>
+ * Saving writes only the workbooks whose rooms changed, concurrently: a fingerprint of the rooms of every
+ * workbook is kept from the time it was last read or written and a workbook is written again only if the
+ * fingerprint of its rooms in memory differs. A stay added and removed again therefore writes nothing, and
+ * rooms changed without the repository being told, e.g. by an import, are written too.
+ * </p>
+ */
+public class ShardedExcelRepository implements RoomRepository {
+    private static final Logger LOGGER = Logger.getLogger(ShardedExcelRepository.class.getName());
+
+    private final ShardManifest manifest;
+    private final long[] fingerprints;
+    private final RoomJournal journal;
+    private int parallelism = Integer.getInteger(ExcelHandler.PARALLELISM_PROPERTY,
+            Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Opens the workbooks listed in the given manifest and the journal of changes made since they were saved.
+     * <p>Workbooks that do not exist yet are treated as empty and created when the rooms are saved.</p>
+     *
+     * @param manifestPath the path of the manifest.
+     * @param journalPath the path of the journal, created if it does not exist.
+     * @throws IOException if the manifest or the journal cannot be read.
+     */
+    public ShardedExcelRepository(String manifestPath, String journalPath) throws IOException {
+        this.manifest = ShardManifest.read(Paths.get(manifestPath));
+        this.fingerprints = new long[manifest.shards().size()];
+        this.journal = RoomJournal.open(Paths.get(journalPath));
+    }
+
+    /**
+     * Splits a rooms workbook into workbooks of {@code floorsPerShard} floors each, named after it and stored
+     * next to it, and writes the manifest listing them.
+     * <p>The workbook itself is left unchanged.</p>
+     *
+     * @param excelFilePath the path of the workbook to split.
+     * @param manifestPath the path of the manifest to write.
+     * @param floorsPerShard the number of floors of each new workbook.
+     * @return the number of workbooks written.
+     * @throws IOException if the workbook cannot be read or the new files cannot be written.
+     */
+    public static int split(String excelFilePath, String manifestPath, int floorsPerShard) throws IOException {
+        IntRoomMap rooms;
+        try (ExcelHandler source = new ExcelHandler(excelFilePath, ExcelHandler.LoadMode.STREAMING)) {
+            rooms = source.getRoomsData();
+        }
+        Path excelFile = Paths.get(excelFilePath).toAbsolutePath();
+        String name = excelFile.getFileName().toString();
+        String prefix = name.endsWith(".xlsx") ? name.substring(0, name.length() - 5) : name;
+        ShardManifest manifest = ShardManifest.split(excelFile.getParent(), prefix,
+                RoomWorkbookWriter.lastFloor(rooms), floorsPerShard);
+        IntRoomMap[] parts = split(manifest, rooms);
+        for (int i = 0; i < parts.length; i++) {
+            write(manifest.shards().get(i), parts[i]);
+        }
+        manifest.write(Paths.get(manifestPath));
+        return parts.length;
+    }
+
+    /**
+     * Returns the maximum number of workbooks read or written at the same time.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of workbooks read or written at the same time; 1 handles them one by one.
+     *
+     * @param parallelism the number of threads, at least 1.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Reads the rooms of all workbooks, concurrently, and replays the journal on top of them.
+     *
+     * @return the rooms of all workbooks, with the changes kept in the journal.
+     */
+    @Override
+    public synchronized IntRoomMap getRoomsData() {
+        List<Integer> shards = new ArrayList<>();
+        for (int i = 0; i < fingerprints.length; i++) {
+            shards.add(i);
+        }
+        IntRoomMap rooms = new RoomDirectory();
+        ParallelSheetLoader.load(shards, parallelism,
+                (shard, consumer) -> fingerprints[shard] = read(manifest.shards().get(shard), consumer),
+                room -> rooms.put(room.getNumber(), room));
+        try {
+            journal.replay(rooms);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rooms;
+    }
+
+    /**
+     * Reads the rooms of one workbook and returns their fingerprint.
+     */
+    private static long read(ShardManifest.Shard shard, Consumer<Room> consumer) {
+        if (!Files.exists(shard.getFile())) {
+            return 0;
+        }
+        long[] fingerprint = new long[1];
+        try (ExcelHandler handler = new ExcelHandler(shard.getFile().toString(), ExcelHandler.LoadMode.STREAMING)) {
+            handler.setParallelism(1);
+            handler.readRooms(room -> {
+                fingerprint[0] += fingerprint(room);
+                consumer.accept(room);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return fingerprint[0];
+    }
+
+    /**
+     * Appends the check-in to the journal.
+     *
+     * @param room the {@link Room} object containing the updated information.
+     */
+    @Override
+    public synchronized void updateRoomInfo(Room room) {
+        try {
+            journal.logCheckin(room);
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Appends the check-out to the journal.
+     *
+     * @param room the {@link Room} object whose information needs to be cleared.
+     */
+    @Override
+    public synchronized void clearRoomInfo(Room room) {
+        try {
+            journal.logCheckout(room.getNumber());
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Appends the changes of all rooms to the journal, forcing it to disk once.
+     *
+     * @param rooms the rooms after the changes.
+     */
+    @Override
+    public synchronized void updateRooms(List<Room> rooms) {
+        try {
+            journal.logChanges(rooms);
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the workbooks whose rooms changed and reports the result to the user.
+     *
+     * @param rooms the rooms to save.
+     */
+    @Override
+    public synchronized void save(IntRoomMap rooms) {
+        try {
+            writeChanged(rooms);
+            System.out.println("Pomyślnie zapisano zmiany");
+            System.out.print("Wprowadź komendę: ");
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the workbooks holding the rooms changed since they were last saved, as recorded in
+     * {@link IntRoomMap#changes()}, and reports the result to the user; the other workbooks are not even
+     * compared. Changes that cannot be written are kept for the next save.
+     *
+     * @param rooms the rooms held in memory.
+     */
+    @Override
+    public synchronized void saveChanges(IntRoomMap rooms) {
+        RoomChangeSet changes = rooms.changes().drain();
+        boolean[] candidates = new boolean[fingerprints.length];
+        changes.forEachRoom(room -> candidates[manifest.shardOf(room.getNumber())] = true);
+        try {
+            // changes logged without being added to the set are found by comparing all workbooks
+            writeChanged(rooms, changes.isEmpty() && journal.hasChanges() ? null : candidates);
+            System.out.println("Pomyślnie zapisano zmiany");
+            System.out.print("Wprowadź komendę: ");
+        } catch (IOException e) {
+            rooms.changes().restore(changes);
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the workbooks whose rooms changed, if the journal holds changes.
+     *
+     * @param rooms the rooms held in memory.
+     */
+    @Override
+    public synchronized void flush(IntRoomMap rooms) {
+        try {
+            if (journal.hasChanges()) {
+                writeChanged(rooms);
+            }
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes, concurrently, the workbooks whose rooms differ from their files and empties the journal once all
+     * of them are written.
+     *
+     * @param rooms the rooms held in memory.
+     * @return the number of workbooks written.
+     * @throws IOException if a workbook cannot be written; the others are written nevertheless.
+     */
+    synchronized int writeChanged(IntRoomMap rooms) throws IOException {
+        return writeChanged(rooms, null);
+    }
+
+    /**
+     * Writes, concurrently, those of the given workbooks whose rooms differ from their files.
+     *
+     * @param rooms the rooms held in memory.
+     * @param candidates the workbooks to compare, by index in the manifest, or null for all of them.
+     * @return the number of workbooks written.
+     * @throws IOException if a workbook cannot be written; the others are written nevertheless.
+     */
+    private int writeChanged(IntRoomMap rooms, boolean[] candidates) throws IOException {
+        IntRoomMap[] parts = split(manifest, rooms);
+        List<Callable<Void>> writes = new ArrayList<>();
+        for (int i = 0; i < parts.length; i++) {
+            if (candidates != null && !candidates[i]) {
+                continue;
+            }
+            long fingerprint = fingerprint(parts[i]);
+            if (fingerprint == fingerprints[i]) {
+                continue;
+            }
+            int shard = i;
+            writes.add(() -> {
+                write(manifest.shards().get(shard), parts[shard]);
+                fingerprints[shard] = fingerprint;
+                return null;
+            });
+        }
+        runAll(writes);
+        if (candidates == null) {
+            rooms.changes().drain();
+        }
+        journal.reset();
+        return writes.size();
+    }
+
+    private void runAll(List<Callable<Void>> writes) throws IOException {
+        if (writes.isEmpty()) {
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, writes.size()));
+        try {
+            IOException failure = null;
+            for (Future<Void> write : pool.invokeAll(writes)) {
+                try {
+                    write.get();
+                } catch (ExecutionException e) {
+                    IOException cause = e.getCause() instanceof IOException
+                            ? (IOException) e.getCause() : new IOException(e.getCause());
+                    if (failure == null) {
+                        failure = cause;
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while saving", e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Writes the given rooms to the workbook of a shard, one sheet for every floor of the shard.
+     */
+    private static void write(ShardManifest.Shard shard, IntRoomMap rooms) throws IOException {
+        int toFloor = Math.max(shard.getToFloor(), RoomWorkbookWriter.lastFloor(rooms));
+        RoomWorkbookWriter.write(rooms, shard.getFile().toString(), RoomWorkbookWriter.ROW_WINDOW,
+                Math.max(1, shard.getFromFloor()), toFloor);
+    }
+
+    /**
+     * Splits the rooms by the shard holding them.
+     */
+    private static IntRoomMap[] split(ShardManifest manifest, IntRoomMap rooms) {
+        IntRoomMap[] parts = new IntRoomMap[manifest.shards().size()];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = new RoomDirectory();
+        }
+        rooms.forEachRoom(room -> parts[manifest.shardOf(room.getNumber())].put(room.getNumber(), room));
+        return parts;
+    }
+
+    /**
+     * Returns the fingerprint of a set of rooms: the sum of the fingerprints of the rooms, so it does not
+     * depend on their order.
+     */
+    private static long fingerprint(IntRoomMap rooms) {
+        long[] sum = new long[1];
+        rooms.forEachRoom(room -> sum[0] += fingerprint(room));
+        return sum[0];
+    }
+
+    /**
+     * Returns a 64-bit hash of the content of a room, compared as by {@link RoomChanges#same(Room, Room)};
+     * a missing text and an empty one hash the same, as they are written the same way.
+     */
+    static long fingerprint(Room room) {
+        long hash = mix(0, room.getNumber());
+        hash = mix(hash, room.getPrice());
+        hash = mix(hash, room.getCapacity());
+        hash = mix(hash, room.getType());
+        hash = mix(hash, room.getStartDate());
+        hash = mix(hash, room.getEndDate());
+        hash = mix(hash, room.getAdditionalInfo());
+        for (Guest guest : room.getGuests()) {
+            hash = mix(hash, guest.isMain() ? 1 : 0);
+            hash = mix(hash, guest.getName());
+            hash = mix(hash, guest.getEmailAddress());
+            hash = mix(hash, guest.getIdNumber());
+            hash = mix(hash, guest.getPhoneNumber());
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        return hash ^ hash >>> 33;
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * 0x100000001B3L + 0x9E3779B97F4A7C15L;
+    }
+
+    private static long mix(long hash, LocalDate date) {
+        return mix(hash, date == null ? Long.MIN_VALUE : date.toEpochDay());
+    }
+
+    private static long mix(long hash, String text) {
+        String value = text == null ? "" : text;
+        hash = mix(hash, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            hash = mix(hash, value.charAt(i));
+        }
+        return hash;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * A {@link RoomRepository} keeping the rooms in an embedded, file-based H2 database.
+ * <p>
+ * The rooms are stored in the table {@code rooms}, keyed by the room number, and their guests in the table
+ * {@code guests}, keyed by the room number and the position of the guest in the room. A check-in or
+ * check-out updates the row of one room and replaces its guests in a single transaction, through the
+ * primary key indexes, instead of rewriting the whole store as the workbook does.
+ * </p>
+ * <p>
+ * Saving or migrating many rooms sends the rows in batches of {@value #BATCH_SIZE}, committed together;
+ * the changes of a group check-in or bulk check-out are sent as batches in one transaction.
+ * The repository holds one connection and its methods are synchronized.
+ * </p>
+ */
+public class SqlRoomRepository implements RoomRepository {
+    private static final Logger LOGGER = Logger.getLogger(SqlRoomRepository.class.getName());
+
+    /**
+     * The number of rows sent to the database at once when many rooms are written.
+     */
+    public static final int BATCH_SIZE = 500;
+
+    private static final String CREATE_ROOMS = "CREATE TABLE IF NOT EXISTS rooms ("
+            + "room_number INT PRIMARY KEY, "
+            + "price INT NOT NULL, "
+            + "room_type VARCHAR(255), "
+            + "capacity INT NOT NULL, "
+            + "start_date DATE, "
+            + "end_date DATE, "
+            + "additional_info VARCHAR(4000))";
+    private static final String CREATE_GUESTS = "CREATE TABLE IF NOT EXISTS guests ("
+            + "room_number INT NOT NULL REFERENCES rooms(room_number) ON DELETE CASCADE, "
+            + "guest_index INT NOT NULL, "
+            + "is_main BOOLEAN NOT NULL, "
+            + "name VARCHAR(255), "
+            + "email VARCHAR(255), "
+            + "id_number VARCHAR(255), "
+            + "phone VARCHAR(255), "
+            + "PRIMARY KEY (room_number, guest_index))";
+    private static final String MERGE_ROOM = "MERGE INTO rooms (room_number, price, room_type, capacity, "
+            + "start_date, end_date, additional_info) KEY (room_number) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_STAY = "UPDATE rooms SET start_date = ?, end_date = ?, additional_info = ? "
+            + "WHERE room_number = ?";
+    private static final String DELETE_GUESTS = "DELETE FROM guests WHERE room_number = ?";
+    private static final String INSERT_GUEST = "INSERT INTO guests (room_number, guest_index, is_main, name, email, "
+            + "id_number, phone) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_ROOMS = "SELECT room_number, price, room_type, capacity, start_date, "
+            + "end_date, additional_info FROM rooms ORDER BY room_number";
+    private static final String SELECT_GUESTS = "SELECT room_number, is_main, name, email, id_number, phone "
+            + "FROM guests ORDER BY room_number, guest_index";
+
+    private final Connection connection;
+
+    /**
+     * Connects to the database with the given JDBC URL and creates the tables if they do not exist.
+     *
+     * @param url the JDBC URL of the database, e.g. {@code jdbc:h2:mem:rooms}.
+     * @throws IOException if the database cannot be opened.
+     */
+    public SqlRoomRepository(String url) throws IOException {
+        try {
+            connection = DriverManager.getConnection(url);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_ROOMS);
+                statement.execute(CREATE_GUESTS);
+            }
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new IOException("Cannot open the database " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Opens the H2 database stored in the given file, creating it if it does not exist.
+     *
+     * @param databasePath the path of the database, without the {@code .mv.db} extension added by H2.
+     * @return the repository.
+     * @throws IOException if the database cannot be opened.
+     */
+    public static SqlRoomRepository open(String databasePath) throws IOException {
+        return new SqlRoomRepository("jdbc:h2:file:" + databasePath);
+    }
+
+    @Override
+    public synchronized IntRoomMap getRoomsData() {
+        IntRoomMap rooms = new RoomDirectory();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(SELECT_ROOMS)) {
+                while (rs.next()) {
+                    Room room = new Room(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getInt(4));
+                    room.setStartDate(rs.getObject(5, LocalDate.class));
+                    room.setEndDate(rs.getObject(6, LocalDate.class));
+                    room.setAdditionalInfo(rs.getString(7));
+                    room.clearChanges();
+                    rooms.put(room.getNumber(), room);
+                }
+            }
+            try (ResultSet rs = statement.executeQuery(SELECT_GUESTS)) {
+                Room room = null;
+                List<Guest> guests = null;
+                while (rs.next()) {
+                    int number = rs.getInt(1);
+                    if (room == null || room.getNumber() != number) {
+                        setGuests(room, guests);
+                        room = rooms.get(number);
+                        guests = new ArrayList<>();
+                    }
+                    Guest guest = new Guest(rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6));
+                    guest.setMain(rs.getBoolean(2));
+                    guests.add(guest);
+                }
+                setGuests(room, guests);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw failure(e);
+        }
+        return rooms;
+    }
+
+    private static void setGuests(Room room, List<Guest> guests) {
+        if (room != null && !guests.isEmpty()) {
+            room.setGuests(guests);
+            room.clearChanges();
+        }
+    }
+
+    /**
+     * Updates the dates of stay and additional information of the room and replaces its guests, in one
+     * transaction. A room that is not stored yet is added.
+     *
+     * @param room the {@link Room} object containing the updated information.
+     */
+    @Override
+    public synchronized void updateRoomInfo(Room room) {
+        try (PreparedStatement update = connection.prepareStatement(UPDATE_STAY)) {
+            setStay(update, 1, room);
+            update.setInt(4, room.getNumber());
+            if (update.executeUpdate() == 0) {
+                try (PreparedStatement merge = connection.prepareStatement(MERGE_ROOM)) {
+                    addRoom(merge, room);
+                    merge.executeBatch();
+                }
+            }
+            try (PreparedStatement delete = connection.prepareStatement(DELETE_GUESTS);
+                 PreparedStatement insert = connection.prepareStatement(INSERT_GUEST)) {
+                delete.setInt(1, room.getNumber());
+                delete.executeUpdate();
+                addGuests(insert, room);
+                insert.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw rollback(e);
+        }
+    }
+
+    /**
+     * Clears the dates of stay and additional information of the room and removes its guests, in one transaction.
+     *
+     * @param room the {@link Room} object whose information needs to be cleared.
+     */
+    @Override
+    public synchronized void clearRoomInfo(Room room) {
+        try (PreparedStatement update = connection.prepareStatement(UPDATE_STAY);
+             PreparedStatement delete = connection.prepareStatement(DELETE_GUESTS)) {
+            update.setNull(1, Types.DATE);
+            update.setNull(2, Types.DATE);
+            update.setNull(3, Types.VARCHAR);
+            update.setInt(4, room.getNumber());
+            update.executeUpdate();
+            delete.setInt(1, room.getNumber());
+            delete.executeUpdate();
+            connection.commit();
+        } catch (SQLException e) {
+            throw rollback(e);
+        }
+    }
+
+    /**
+     * Stores the changes of several rooms in one transaction, sending the updates of the rooms, the removal
+     * of their guests and the new guests as three batches. Occupied rooms that are not stored yet are added.
+     *
+     * @param rooms the rooms after the changes; if a room appears more than once, its last change wins.
+     */
+    @Override
+    public synchronized void updateRooms(List<Room> rooms) {
+        List<Room> changes = lastChanges(rooms);
+        try (PreparedStatement update = connection.prepareStatement(UPDATE_STAY);
+             PreparedStatement merge = connection.prepareStatement(MERGE_ROOM);
+             PreparedStatement delete = connection.prepareStatement(DELETE_GUESTS);
+             PreparedStatement insert = connection.prepareStatement(INSERT_GUEST)) {
+            for (Room room : changes) {
+                setStay(update, 1, room);
+                update.setInt(4, room.getNumber());
+                update.addBatch();
+                delete.setInt(1, room.getNumber());
+                delete.addBatch();
+                addGuests(insert, room);
+            }
+            int[] updated = update.executeBatch();
+            boolean missing = false;
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0 && !changes.get(i).isFree()) {
+                    addRoom(merge, changes.get(i));
+                    missing = true;
+                }
+            }
+            if (missing) {
+                merge.executeBatch();
+            }
+            delete.executeBatch();
+            insert.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            throw rollback(e);
+        }
+    }
+
+    /**
+     * Returns the last change of every room, in the order of the changes.
+     */
+    private static List<Room> lastChanges(List<Room> rooms) {
+        Set<Integer> seen = new HashSet<>();
+        List<Room> changes = new ArrayList<>(rooms.size());
+        for (int i = rooms.size() - 1; i >= 0; i--) {
+            if (seen.add(rooms.get(i).getNumber())) {
+                changes.add(rooms.get(i));
+            }
+        }
+        Collections.reverse(changes);
+        return changes;
+    }
+
+    /**
+     * Stores all given rooms and their guests in one transaction, sending the rows in batches.
+     *
+     * @param rooms the rooms to save.
+     */
+    @Override
+    public synchronized void save(IntRoomMap rooms) {
+        try {
+            BatchWriter writer = new BatchWriter();
+            try {
+                rooms.forEachRoom(writer);
+                writer.finish();
+            } finally {
+                writer.close();
+            }
+            connection.commit();
+            rooms.changes().drain();
+            System.out.println("Pomyślnie zapisano zmiany");
+            System.out.print("Wprowadź komendę: ");
+        } catch (SQLException e) {
+            LOGGER.info(rollback(e).getMessage());
+        }
+    }
+
+    /**
+     * Stores the rooms changed since they were last saved in one transaction, replacing the guests only of
+     * the rooms whose guests changed, and reports the result to the user.
+     * <p>Changes that cannot be stored are kept for the next save.</p>
+     *
+     * @param rooms the rooms held in memory.
+     */
+    @Override
+    public synchronized void saveChanges(IntRoomMap rooms) {
+        RoomChangeSet changes = rooms.changes().drain();
+        try {
+            BatchWriter writer = new BatchWriter(true);
+            try {
+                changes.forEachRoom(writer);
+                writer.finish();
+            } finally {
+                writer.close();
+            }
+            connection.commit();
+            System.out.println("Pomyślnie zapisano zmiany");
+            System.out.print("Wprowadź komendę: ");
+        } catch (SQLException e) {
+            rooms.changes().restore(changes);
+            LOGGER.info(rollback(e).getMessage());
+        } catch (UncheckedIOException e) {
+            rollbackQuietly();
+            rooms.changes().restore(changes);
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Does nothing, as every change is committed as soon as it is reported.
+     *
+     * @param rooms the rooms held in memory.
+     */
+    @Override
+    public void flush(IntRoomMap rooms) {
+        // every change is already committed
+    }
+
+    /**
+     * Replaces the content of the database with the rooms read from the given Excel file.
+     * <p>
+     * The rooms are read one at a time, with the streaming reader when the handler uses it, and inserted in
+     * batches of {@value #BATCH_SIZE}; everything is committed at the end, so a failed migration leaves the
+     * database unchanged.
+     * </p>
+     *
+     * @param source the handler of the Excel file.
+     * @return the number of migrated rooms.
+     * @throws IOException if the Excel file cannot be read or the rooms cannot be stored.
+     */
+    public synchronized int migrateFrom(ExcelHandler source) throws IOException {
+        try {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("DELETE FROM guests");
+                statement.executeUpdate("DELETE FROM rooms");
+            }
+            BatchWriter writer = new BatchWriter();
+            try {
+                source.readRooms(writer);
+                writer.finish();
+            } finally {
+                writer.close();
+            }
+            connection.commit();
+            return writer.count;
+        } catch (SQLException e) {
+            rollbackQuietly();
+            throw new IOException(e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            rollbackQuietly();
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes rooms with their guests, replacing the stored ones, in batches of {@value #BATCH_SIZE} rows.
+     */
+    private final class BatchWriter implements Consumer<Room> {
+        private final boolean changedGuestsOnly;
+        private final PreparedStatement mergeRoom;
+        private final PreparedStatement deleteGuests;
+        private final PreparedStatement insertGuest;
+        private int batched;
+        private int count;
+
+        BatchWriter() throws SQLException {
+            this(false);
+        }
+
+        /**
+         * @param changedGuestsOnly whether to replace the guests only of rooms whose guests changed.
+         */
+        BatchWriter(boolean changedGuestsOnly) throws SQLException {
+            this.changedGuestsOnly = changedGuestsOnly;
+            mergeRoom = connection.prepareStatement(MERGE_ROOM);
+            deleteGuests = connection.prepareStatement(DELETE_GUESTS);
+            insertGuest = connection.prepareStatement(INSERT_GUEST);
+        }
+
+        @Override
+        public void accept(Room room) {
+            try {
+                addRoom(mergeRoom, room);
+                if (!changedGuestsOnly || (room.getChanges() & Room.GUESTS) != 0) {
+                    deleteGuests.setInt(1, room.getNumber());
+                    deleteGuests.addBatch();
+                    addGuests(insertGuest, room);
+                }
+                count++;
+                if (++batched == BATCH_SIZE) {
+                    finish();
+                }
+            } catch (SQLException e) {
+                throw new UncheckedIOException(new IOException(e.getMessage(), e));
+            }
+        }
+
+        /**
+         * Sends the rows batched so far; the rooms go first, as the guests refer to them.
+         */
+        void finish() throws SQLException {
+            mergeRoom.executeBatch();
+            deleteGuests.executeBatch();
+            insertGuest.executeBatch();
+            batched = 0;
+        }
+
+        void close() throws SQLException {
+            mergeRoom.close();
+            deleteGuests.close();
+            insertGuest.close();
+        }
+    }
+
+    private static void addRoom(PreparedStatement merge, Room room) throws SQLException {
+        merge.setInt(1, room.getNumber());
+        merge.setInt(2, room.getPrice());
+        merge.setString(3, room.getType());
+        merge.setInt(4, room.getCapacity());
+        setStay(merge, 5, room);
+        merge.addBatch();
+    }
+
+    private static void setStay(PreparedStatement statement, int index, Room room) throws SQLException {
+        statement.setObject(index, room.getStartDate(), Types.DATE);
+        statement.setObject(index + 1, room.getEndDate(), Types.DATE);
+        statement.setString(index + 2, room.getAdditionalInfo());
+    }
+
+    private static void addGuests(PreparedStatement insert, Room room) throws SQLException {
+        List<Guest> guests = room.getGuests();
+        for (int i = 0; i < guests.size(); i++) {
+            Guest guest = guests.get(i);
+            insert.setInt(1, room.getNumber());
+            insert.setInt(2, i);
+            insert.setBoolean(3, guest.isMain());
+            insert.setString(4, guest.getName());
+            insert.setString(5, guest.getEmailAddress());
+            insert.setString(6, guest.getIdNumber());
+            insert.setString(7, guest.getPhoneNumber());
+            insert.addBatch();
+        }
+    }
+
+    private UncheckedIOException rollback(SQLException e) {
+        rollbackQuietly();
+        return failure(e);
+    }
+
+    private void rollbackQuietly() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            LOGGER.info(e.getMessage());
+        }
+    }
+
+    private static UncheckedIOException failure(SQLException e) {
+        return new UncheckedIOException(new IOException(e.getMessage(), e));
+    }
+}
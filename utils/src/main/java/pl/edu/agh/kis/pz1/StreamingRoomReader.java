@@ -0,0 +1,180 @@
+package pl.edu.agh.kis.pz1;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Reads rooms from an .xlsx file with POI's event model, without building the workbook in memory.
+ * <p>
+ * The sheets are streamed one after another through {@link XSSFReader} and parsed with SAX by
+ * {@link RoomSheetHandler}; only the shared strings table is kept in memory while reading.
+ * </p>
+ */
+final class StreamingRoomReader {
+    private StreamingRoomReader() {
+    }
+
+    /**
+     * Reads every room stored in the file and passes it to the given consumer, parsing up to
+     * {@code parallelism} sheets at the same time.
+     * <p>
+     * The streams of all sheets are opened first and parsed by {@link ParallelSheetLoader}; the shared strings
+     * table is only read once it has been loaded, so the parsers can share it.
+     * </p>
+     *
+     * @param excelFilePath the path to the Excel file.
+     * @param parallelism the maximum number of sheets parsed at the same time.
+     * @param consumer the consumer receiving the rooms in the order they appear in the workbook.
+     * @throws IOException if the file cannot be read or is not a valid workbook.
+     */
+    static void readRooms(String excelFilePath, int parallelism, Consumer<Room> consumer) throws IOException {
+        List<InputStream> sheets = new ArrayList<>();
+        try (OPCPackage pkg = OPCPackage.open(excelFilePath, PackageAccess.READ)) {
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader reader = new XSSFReader(pkg);
+            Iterator<InputStream> sheetsData = reader.getSheetsData();
+            while (sheetsData.hasNext()) {
+                sheets.add(sheetsData.next());
+            }
+            IntFunction<String> sharedStrings = index -> strings.getItemAt(index).getString();
+            ParallelSheetLoader.load(sheets, parallelism,
+                    (sheet, rooms) -> parseSheet(sheet, sharedStrings, rooms), consumer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException(e);
+        } finally {
+            for (InputStream sheet : sheets) {
+                sheet.close();
+            }
+        }
+    }
+
+    /**
+     * Opens the file for reading its sheets one at a time, in any order.
+     * <p>
+     * Only the list of sheets is read here; a sheet is parsed when {@link Floors#read(int)} is called, and the
+     * shared strings table is loaded before the first sheet is parsed.
+     * </p>
+     *
+     * @param excelFilePath the path to the Excel file.
+     * @return the sheets of the file, which have to be closed.
+     * @throws IOException if the file cannot be read or is not a valid workbook.
+     */
+    static Floors openFloors(String excelFilePath) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(excelFilePath, PackageAccess.READ);
+        } catch (OpenXML4JException e) {
+            throw new IOException(e);
+        }
+        boolean opened = false;
+        try {
+            XSSFReader.SheetIterator sheetsData = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+            List<PackagePart> parts = new ArrayList<>();
+            while (sheetsData.hasNext()) {
+                sheetsData.next().close();
+                parts.add(sheetsData.getSheetPart());
+            }
+            Floors floors = new Floors(pkg, parts);
+            opened = true;
+            return floors;
+        } catch (OpenXML4JException e) {
+            throw new IOException(e);
+        } finally {
+            if (!opened) {
+                pkg.close();
+            }
+        }
+    }
+
+    /**
+     * The sheets of an open file, read on demand; the sheet at index {@code floor - 1} holds the given floor.
+     * <p>Sheets are read one at a time; a thread reading a sheet waits for the one reading another.</p>
+     */
+    static final class Floors implements LazyRoomDirectory.FloorSource {
+        private final OPCPackage pkg;
+        private final List<PackagePart> parts;
+        private ReadOnlySharedStringsTable strings;
+        private boolean closed;
+
+        private Floors(OPCPackage pkg, List<PackagePart> parts) {
+            this.pkg = pkg;
+            this.parts = parts;
+        }
+
+        /**
+         * Returns the number of floors, that is the number of sheets.
+         */
+        @Override
+        public int count() {
+            return parts.size();
+        }
+
+        /**
+         * Reads the rooms of the given floor.
+         *
+         * @param floor the floor number, from 1 to {@link #count()}.
+         * @return the rooms in the order they appear in the sheet.
+         * @throws IOException if the sheet cannot be read or the file has been closed.
+         */
+        @Override
+        public synchronized List<Room> read(int floor) throws IOException {
+            if (closed) {
+                throw new IOException("The workbook has been closed");
+            }
+            try {
+                if (strings == null) {
+                    strings = new ReadOnlySharedStringsTable(pkg);
+                }
+                List<Room> rooms = new ArrayList<>();
+                try (InputStream sheet = parts.get(floor - 1).getInputStream()) {
+                    parseSheet(sheet, index -> strings.getItemAt(index).getString(), rooms::add);
+                }
+                return rooms;
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } catch (SAXException e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                pkg.close();
+            }
+        }
+    }
+
+    private static void parseSheet(InputStream sheet, IntFunction<String> sharedStrings, Consumer<Room> rooms) {
+        try {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new RoomSheetHandler(sharedStrings, rooms));
+            parser.parse(new InputSource(sheet));
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new UncheckedIOException(new IOException(e));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Watches the rooms workbook for changes made by other programs, e.g. a spreadsheet application, and picks
+ * them up without a restart.
+ * <p>
+ * A daemon thread waits on a {@link WatchService} for events of the directory holding the file. Once the file
+ * has been quiet for {@value #QUIET_MILLIS} ms, it is parsed again with the streaming reader and compared,
+ * room by room, with the version read before; only the rooms added, changed or removed in the file make up
+ * the {@link RoomChanges}. Writes of the {@link ExcelHandler} itself are recognized by the size and
+ * modification time of the file and only replace the version read before.
+ * </p>
+ * <p>
+ * The rooms held in memory are not thread-safe, so the watching thread does not apply the changes: they are
+ * collected until the console thread calls {@link #applyPendingChanges()} between two commands, which applies
+ * all of them at once. Only the fields changed in the file are copied into the rooms held in memory, which
+ * stay the same objects. A field with a change not saved yet, for example a check-in, keeps its unsaved value
+ * and the room is reported by {@link #conflicts()}; the stay (guests, dates and additional information) is
+ * treated as one field, so a stay is never mixed from both versions.
+ * </p>
+ * <p>
+ * The {@link ReservationCalendar} follows the stays changed in the file: the reservation of the previous stay
+ * of a room is cancelled and the new stay is booked, unless it overlaps another reservation, which is then
+ * reported by {@link #overlaps()}.
+ * </p>
+ */
+public class WorkbookWatcher implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(WorkbookWatcher.class.getName());
+
+    /**
+     * The system property turning off the watching of the rooms workbook.
+     */
+    public static final String WATCH_PROPERTY = "hotel.watchWorkbook";
+
+    /**
+     * The time the file has to stay unchanged before it is read, so a file still being written is not read.
+     */
+    static final long QUIET_MILLIS = 500;
+
+    private static final int STAY = Room.GUESTS | Room.START_DATE | Room.END_DATE | Room.ADDITIONAL_INFO;
+
+    private final ExcelHandler excelHandler;
+    private final Path file;
+    private final IntRoomMap rooms;
+    private final ReservationCalendar reservations;
+    // the version of the file read last; only used by the watching thread once it is started
+    private IntRoomMap fileRooms;
+    // guarded by this
+    private RoomChanges pending;
+    // only used by the console thread
+    private final List<Integer> conflicts = new ArrayList<>();
+    private final List<Reservation> overlaps = new ArrayList<>();
+    private IOException reservationFailure;
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * Creates a watcher of the given Excel file; call {@link #start()} to start watching.
+     *
+     * @param excelHandler the handler of the Excel file, told about the rooms changed in it.
+     * @param excelFilePath the path of the Excel file.
+     * @param rooms the rooms held in memory, into which the changed rooms are swapped.
+     */
+    public WorkbookWatcher(ExcelHandler excelHandler, String excelFilePath, IntRoomMap rooms) {
+        this(excelHandler, excelFilePath, rooms, new ReservationCalendar());
+    }
+
+    /**
+     * Creates a watcher of the given Excel file keeping the given calendar up to date with the stays changed in
+     * the file; call {@link #start()} to start watching.
+     *
+     * @param excelHandler the handler of the Excel file, told about the rooms changed in it.
+     * @param excelFilePath the path of the Excel file.
+     * @param rooms the rooms held in memory, into which the changed rooms are swapped.
+     * @param reservations the reservations of the rooms, only used by the console thread.
+     */
+    public WorkbookWatcher(ExcelHandler excelHandler, String excelFilePath, IntRoomMap rooms,
+                           ReservationCalendar reservations) {
+        this.excelHandler = excelHandler;
+        this.file = Paths.get(excelFilePath).toAbsolutePath();
+        this.rooms = rooms;
+        this.reservations = reservations;
+    }
+
+    /**
+     * Starts watching the file on a daemon thread, which first reads the current version of the file.
+     *
+     * @throws IOException if the directory of the file cannot be watched.
+     */
+    public void start() throws IOException {
+        watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watch, "workbook-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch() {
+        fileChanged();
+        try {
+            boolean touched = false;
+            while (true) {
+                WatchKey key = touched ? watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS) : watchService.take();
+                if (key == null) {
+                    touched = false;
+                    fileChanged();
+                    continue;
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || file.getFileName().equals(event.context())) {
+                        touched = true;
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Reads the file again and records the rooms that differ from the version read before, unless the
+     * handler wrote the file itself. The first call only reads the file.
+     * <p>A file that cannot be read, e.g. because it is still being written, is skipped until it changes
+     * again.</p>
+     */
+    void fileChanged() {
+        IntRoomMap current;
+        try {
+            current = read();
+        } catch (IOException e) {
+            LOGGER.info(e.getMessage());
+            return;
+        }
+        if (fileRooms != null && !excelHandler.isOwnWrite()) {
+            RoomChanges changes = RoomChanges.between(fileRooms, current);
+            if (!changes.isEmpty()) {
+                synchronized (this) {
+                    if (pending == null) {
+                        pending = changes;
+                    } else {
+                        pending.add(changes);
+                    }
+                }
+            }
+        }
+        fileRooms = current;
+    }
+
+    /**
+     * Returns the number of rooms added, changed or removed in the file and not applied yet.
+     */
+    public synchronized int pendingChanges() {
+        return pending == null ? 0 : pending.size();
+    }
+
+    /**
+     * Applies the rooms changed in the file since the last call to the rooms held in memory, and tells the
+     * handler about them: the changed fields are copied into the rooms, new rooms are added and rooms removed
+     * from the file are removed. Other rooms are not touched.
+     * <p>Unsaved changes are kept: a changed field which also has an unsaved change keeps its value, and a
+     * removed room with unsaved changes is kept; these rooms are listed by {@link #conflicts()}, and the
+     * handler is given their merged state, so the next save writes it back to the file.</p>
+     * <p>The stays of the changed rooms are booked in the calendar in place of their previous stays, and the
+     * stays of the removed rooms are cancelled; the stays overlapping other reservations are listed by
+     * {@link #overlaps()}.</p>
+     * <p>Must be called by the thread using the rooms, e.g. the console thread between two commands.</p>
+     *
+     * @return the number of rooms added, changed or removed.
+     * @throws UncheckedIOException if the handler cannot record the changes in its journal, or the calendar
+     *         cannot record the stays; the rooms held in memory are already updated.
+     */
+    public int applyPendingChanges() {
+        RoomChanges changes;
+        synchronized (this) {
+            changes = pending;
+            pending = null;
+        }
+        conflicts.clear();
+        overlaps.clear();
+        reservationFailure = null;
+        if (changes == null) {
+            return 0;
+        }
+        RoomChanges applied = new RoomChanges();
+        changes.changed().forEachRoom(room -> {
+            Room current = rooms.get(room.getNumber());
+            Reservation previous = null;
+            if (current == null) {
+                current = new Room(room);
+                rooms.put(current.getNumber(), current);
+            } else {
+                previous = ReservationCalendar.stayOf(current);
+                if (!merge(room, current, rooms.changes().fieldsOf(current.getNumber()))) {
+                    conflicts.add(current.getNumber());
+                }
+            }
+            replaceStay(previous, current);
+            applied.changed().put(current.getNumber(), current);
+        });
+        changes.removed().forEachRoom(room -> {
+            Room current = rooms.get(room.getNumber());
+            if (current != null && (current.isChanged() || rooms.changes().fieldsOf(current.getNumber()) != 0)) {
+                conflicts.add(current.getNumber());
+                applied.changed().put(current.getNumber(), current);
+            } else {
+                if (current != null) {
+                    rooms.remove(room.getNumber());
+                    replaceStay(ReservationCalendar.stayOf(current), null);
+                }
+                applied.removed().put(room.getNumber(), room);
+            }
+        });
+        excelHandler.fileReloaded(applied);
+        if (reservationFailure != null) {
+            throw new UncheckedIOException(reservationFailure);
+        }
+        return changes.size();
+    }
+
+    /**
+     * Books the current stay of a room in place of its previous stay, or only cancels the previous stay of a
+     * removed room; the first failure is kept to be thrown once all the changes are applied.
+     */
+    private void replaceStay(Reservation previous, Room room) {
+        try {
+            if (room == null) {
+                if (previous != null) {
+                    reservations.cancel(previous.getRoomNumber(), previous.getStartDate());
+                }
+                return;
+            }
+            Reservation overlap = reservations.replaceStay(previous, room);
+            if (overlap != null) {
+                overlaps.add(overlap);
+            }
+        } catch (IOException e) {
+            if (reservationFailure == null) {
+                reservationFailure = e;
+            }
+        }
+    }
+
+    /**
+     * Returns the rooms whose changes in the file were not fully applied by the last call of
+     * {@link #applyPendingChanges()}, because they have unsaved changes of the same fields.
+     *
+     * @return the numbers of the rooms, in the order they were applied.
+     */
+    public List<Integer> conflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    /**
+     * Returns the reservations which kept the stays changed in the file by the last call of
+     * {@link #applyPendingChanges()} out of the calendar, because the stays overlap them.
+     *
+     * @return the overlapping reservations, in the order the rooms were applied.
+     */
+    public List<Reservation> overlaps() {
+        return Collections.unmodifiableList(overlaps);
+    }
+
+    /**
+     * Copies the fields changed in the file into the room held in memory, except the fields with unsaved
+     * changes, either on the room or in the change set; the room keeps only the changes it had.
+     *
+     * @return false if a changed field was skipped.
+     */
+    private static boolean merge(Room file, Room room, int recorded) {
+        int fields = file.getChanges();
+        int own = room.getChanges();
+        int unsaved = own | recorded;
+        int skipped = fields & unsaved;
+        if ((unsaved & STAY) != 0) {
+            skipped |= fields & STAY;
+        }
+        int copied = fields & ~skipped;
+        if ((copied & Room.PRICE) != 0) {
+            room.setPrice(file.getPrice());
+        }
+        if ((copied & Room.TYPE) != 0) {
+            room.setType(file.getType());
+        }
+        if ((copied & Room.CAPACITY) != 0) {
+            room.setCapacity(file.getCapacity());
+        }
+        if ((copied & STAY) != 0) {
+            List<Guest> guests = new ArrayList<>();
+            for (Guest guest : file.getGuests()) {
+                Guest copy = new Guest(guest.getName(), guest.getEmailAddress(), guest.getIdNumber(),
+                        guest.getPhoneNumber());
+                copy.setMain(guest.isMain());
+                guests.add(copy);
+            }
+            room.setGuests(guests);
+            room.setStartDate(file.getStartDate());
+            room.setEndDate(file.getEndDate());
+            room.setAdditionalInfo(file.getAdditionalInfo());
+        }
+        // the file already holds the copied fields
+        room.clearChanges();
+        room.markChanged(own);
+        return skipped == 0;
+    }
+
+    private IntRoomMap read() throws IOException {
+        IntRoomMap read = new RoomDirectory();
+        StreamingRoomReader.readRooms(file.toString(), excelHandler.getParallelism(),
+                room -> read.put(room.getNumber(), room));
+        return read;
+    }
+
+    /**
+     * Stops watching the file; changes not applied yet are dropped.
+     */
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link AutosaveService}, started through {@link ExcelHandler#startAutosave}.
+ */
+class AutosaveServiceTest {
+    private Path file;
+    private ExcelHandler excelHandler;
+    private IntRoomMap rooms;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("rooms", ".xlsx");
+        excelHandler = new ExcelHandler(file.toString(), ExcelHandler.LoadMode.STREAMING);
+        rooms = new RoomDirectory();
+        for (int number = 101; number <= 105; number++) {
+            rooms.put(number, new Room(number, 200, "Standard", 2));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        excelHandler.close();
+        Files.deleteIfExists(file);
+    }
+
+    private void checkin(int number) {
+        Room room = rooms.get(number);
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"));
+        room.setGuests(guests);
+        excelHandler.updateRoomInfo(room);
+    }
+
+    @Test
+    void testChangesAreCoalescedIntoOneWrite() throws IOException {
+        AutosaveService autosave = excelHandler.startAutosave(rooms, 1, TimeUnit.HOURS);
+        checkin(101);
+        checkin(102);
+        Room room = rooms.get(101);
+        room.clear();
+        excelHandler.clearRoomInfo(room);
+        assertEquals(0, autosave.saveCount());
+
+        autosave.flush();
+        assertEquals(1, autosave.saveCount());
+    }
+
+    @Test
+    void testNothingIsWrittenWithoutChanges() throws IOException {
+        AutosaveService autosave = excelHandler.startAutosave(rooms, 1, TimeUnit.HOURS);
+        autosave.flush();
+        assertEquals(0, autosave.saveCount());
+
+        checkin(103);
+        autosave.flush();
+        autosave.flush();
+        assertEquals(1, autosave.saveCount());
+    }
+
+    @Test
+    void testWriteHappensAfterInterval() throws Exception {
+        AutosaveService autosave = excelHandler.startAutosave(rooms, 50, TimeUnit.MILLISECONDS);
+        checkin(104);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (autosave.saveCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, autosave.saveCount());
+    }
+
+    @Test
+    void testSaveDoesNotWaitAndCloseFlushes() throws IOException {
+        AutosaveService autosave = excelHandler.startAutosave(rooms, 1, TimeUnit.HOURS);
+        assertSame(autosave, excelHandler.startAutosave(rooms, 1, TimeUnit.HOURS));
+        checkin(105);
+
+        excelHandler.compactJournal(rooms);
+        assertEquals(1, autosave.saveCount());
+
+        checkin(101);
+        excelHandler.close();
+        assertEquals(2, autosave.saveCount());
+    }
+
+    @Test
+    void testWriteForgetsSavedChangesOnly() throws IOException {
+        AutosaveService autosave = excelHandler.startAutosave(rooms, 1, TimeUnit.HOURS);
+        checkin(101);
+        rooms.changes().add(rooms.get(101));
+
+        autosave.flush();
+        assertTrue(rooms.changes().isEmpty());
+
+        checkin(102);
+        rooms.changes().add(rooms.get(102));
+        assertEquals(1, rooms.changes().size());
+    }
+
+    @Test
+    void testSnapshotIsNotChangedByLaterCheckins() throws IOException {
+        excelHandler.startAutosave(rooms, 1, TimeUnit.HOURS);
+        checkin(101);
+        PersistentMap<Integer, Room> snapshot = excelHandler.snapshot(rooms);
+        checkin(102);
+
+        assertTrue(snapshot.isSnapshot());
+        assertFalse(snapshot.get(101).isFree());
+        assertTrue(snapshot.get(102).isFree());
+        assertFalse(excelHandler.snapshot(rooms).get(102).isFree());
+    }
+}
@@ -0,0 +1,178 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link AvailabilityIndex}, kept by a {@link ReservationCalendar}.
+ */
+class AvailabilityIndexTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 11, 1);
+
+    private IntRoomMap rooms;
+    private ReservationCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        rooms = new IntRoomMap();
+        rooms.put(101, new Room(101, 300, "Standard", 2));
+        rooms.put(102, new Room(102, 200, "Standard", 2));
+        rooms.put(103, new Room(103, 250, "Standard", 3));
+        rooms.put(201, new Room(201, 500, "Apartament", 4));
+        calendar = new ReservationCalendar();
+    }
+
+    private static List<Integer> numbers(List<Room> found) {
+        List<Integer> numbers = new ArrayList<>();
+        found.forEach(room -> numbers.add(room.getNumber()));
+        return numbers;
+    }
+
+    @Test
+    void testFiltersByTypeAndCapacityByPrice() {
+        AvailabilityIndex index = calendar.availability(rooms);
+        assertEquals(List.of(102, 103, 101, 201), numbers(index.available(DAY, DAY.plusDays(1), null, 0)));
+        assertEquals(List.of(102, 103, 101), numbers(index.available(DAY, DAY.plusDays(1), "standard", 0)));
+        assertEquals(List.of(103, 201), numbers(index.available(DAY, DAY.plusDays(1), null, 3)));
+        assertEquals(List.of(), numbers(index.available(DAY, DAY.plusDays(1), "Deluxe", 0)));
+    }
+
+    @Test
+    void testRoomsOccupiedNowAreNotFreeTonight() {
+        LocalDate today = LocalDate.now();
+        Room occupied = rooms.get(102);
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"));
+        occupied.setGuests(guests);
+        occupied.setStartDate(today.minusDays(1));
+        AvailabilityIndex index = calendar.availability(rooms);
+
+        assertEquals(List.of(103, 101), numbers(index.available(today, today.plusDays(2), "Standard", 0)));
+        assertEquals(List.of(103, 101), numbers(index.available(today.minusDays(2), today.plusDays(1), "Standard", 0)));
+        assertEquals(List.of(102, 103, 101), numbers(index.available(today.plusDays(1), today.plusDays(3), "Standard", 0)));
+    }
+
+        @Test
+    void testReservationsMadeBeforeAndAfterTheIndexAreOccupied() throws IOException {
+        calendar.reserve(new Reservation(102, "Jan Kowalski", DAY, DAY.plusDays(3)));
+        AvailabilityIndex index = calendar.availability(rooms);
+        calendar.reserve(new Reservation(103, "Anna Nowak", DAY.plusDays(5), DAY.plusDays(7)));
+
+        assertEquals(List.of(103, 101), numbers(index.available(DAY.plusDays(2), DAY.plusDays(4), "Standard", 0)));
+        assertEquals(List.of(102, 101), numbers(index.available(DAY.plusDays(3), DAY.plusDays(6), "Standard", 0)));
+        // the guests leaving on the morning of the day of arrival, or arriving on the day of departure, do not
+        // occupy the room
+        assertEquals(List.of(102, 103, 101), numbers(index.available(DAY.plusDays(3), DAY.plusDays(5), "Standard", 2)));
+
+        calendar.cancel(102, DAY);
+        assertEquals(List.of(102, 103, 101), numbers(index.available(DAY, DAY.plusDays(3), "Standard", 0)));
+    }
+
+    @Test
+    void testChangedRoomsAreReindexed() {
+        AvailabilityIndex index = calendar.availability(rooms);
+        rooms.get(101).setType("Apartament");
+        assertEquals(List.of(102, 103), numbers(index.available(DAY, DAY.plusDays(1), "Standard", 0)));
+        // the search above has found the room no longer matching and indexed its new type
+        assertEquals(List.of(101, 201), numbers(index.available(DAY, DAY.plusDays(1), "Apartament", 0)));
+
+        rooms.remove(103);
+        rooms.put(104, new Room(104, 100, "Standard", 2));
+        rooms.put(105, new Room(105, 150, "Standard", 2));
+        assertEquals(List.of(104, 105, 102), numbers(index.available(DAY, DAY.plusDays(1), "Standard", 0)));
+    }
+
+    @Test
+    void testOccupancyByFloorAndType() throws IOException {
+        calendar.reserve(new Reservation(102, "Jan Kowalski", DAY, DAY.plusDays(2)));
+        calendar.reserve(new Reservation(201, "Anna Nowak", DAY.plusDays(1), DAY.plusDays(3)));
+        AvailabilityIndex index = calendar.availability(rooms);
+        calendar.reserve(new Reservation(103, "Piotr Zieliński", DAY.plusDays(1), DAY.plusDays(2)));
+
+        assertArrayEquals(new int[] {1, 3, 1, 0}, index.occupied(DAY, DAY.plusDays(4), null, null));
+        assertArrayEquals(new int[] {1, 2, 0, 0}, index.occupied(DAY, DAY.plusDays(4), 1, null));
+        assertArrayEquals(new int[] {0, 1, 1, 0}, index.occupied(DAY, DAY.plusDays(4), null, "apartament"));
+        assertArrayEquals(new int[] {0, 0}, index.occupied(DAY, DAY.plusDays(2), 2, "Standard"));
+        assertEquals(4, index.count(null, null));
+        assertEquals(3, index.count(1, "Standard"));
+        assertEquals(0, index.count(5, null));
+    }
+
+    /**
+     * Books a 10000-room hotel three quarters full every night for five years and checks that the nights take a
+     * few megabytes.
+     */
+    @Test
+    void testFiveYearsOfNightsTakeFewMegabytes() throws IOException {
+        IntRoomMap hotel = new IntRoomMap();
+        for (int floor = 1; floor <= 100; floor++) {
+            for (int number = floor * 100; number < floor * 100 + 100; number++) {
+                hotel.put(number, new Room(number, 200, "Standard", 2));
+            }
+        }
+        ReservationCalendar reservations = new ReservationCalendar();
+        AvailabilityIndex index = reservations.availability(hotel);
+        int days = 5 * 365;
+        for (int floor = 1; floor <= 75; floor++) {
+            for (int number = floor * 100; number < floor * 100 + 100; number++) {
+                reservations.reserve(new Reservation(number, "Gość", DAY, DAY.plusDays(days)));
+            }
+        }
+        assertEquals(7500, index.occupied(DAY.plusDays(days - 1), DAY.plusDays(days), null, null)[0]);
+        assertTrue(index.nightsSizeInBytes() < 4L * 1024 * 1024, index.nightsSizeInBytes() + " bytes");
+    }
+
+    /**
+     * Compares the index with a check of every room against every reservation, for random bookings.
+     */
+    @Test
+    void testIndexAgreesWithScan() throws IOException {
+        Random random = new Random(11);
+        IntRoomMap hotel = new IntRoomMap();
+        String[] types = {"Standard", "Apartament", "Studio"};
+        for (int floor = 1; floor <= 10; floor++) {
+            for (int number = floor * 100; number < floor * 100 + 30; number++) {
+                hotel.put(number, new Room(number, 100 + random.nextInt(400), types[random.nextInt(3)],
+                        1 + random.nextInt(4)));
+            }
+        }
+        ReservationCalendar reservations = new ReservationCalendar();
+        AvailabilityIndex index = reservations.availability(hotel);
+        List<Reservation> booked = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            int number = (1 + random.nextInt(10)) * 100 + random.nextInt(30);
+            int from = random.nextInt(120);
+            Reservation reservation = new Reservation(number, "Gość " + i, DAY.plusDays(from),
+                    DAY.plusDays(from + 1 + random.nextInt(7)));
+            if (reservations.reserve(reservation) == null) {
+                booked.add(reservation);
+            }
+        }
+
+        for (int i = 0; i < 100; i++) {
+            LocalDate from = DAY.plusDays(random.nextInt(120));
+            LocalDate to = from.plusDays(1 + random.nextInt(30));
+            String type = random.nextBoolean() ? null : types[random.nextInt(3)];
+            int minCapacity = random.nextInt(4);
+            List<Room> expected = new ArrayList<>();
+            hotel.forEachRoom(room -> {
+                boolean free = booked.stream().noneMatch(r -> r.getRoomNumber() == room.getNumber()
+                        && r.getStartDate().isBefore(to) && r.getEndDate().isAfter(from));
+                if (free && (type == null || type.equals(room.getType())) && room.getCapacity() >= minCapacity) {
+                    expected.add(room);
+                }
+            });
+            expected.sort((a, b) -> a.getPrice() != b.getPrice() ? Integer.compare(a.getPrice(), b.getPrice())
+                    : Integer.compare(a.getNumber(), b.getNumber()));
+            assertEquals(numbers(expected), numbers(index.available(from, to, type, minCapacity)));
+        }
+    }
+}
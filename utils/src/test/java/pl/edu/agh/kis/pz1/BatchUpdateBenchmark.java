@@ -0,0 +1,164 @@
+package pl.edu.agh.kis.pz1;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A simple benchmark comparing group check-ins and bulk check-outs stored room by room, with
+ * {@link RoomRepository#updateRoomInfo(Room)} and {@link RoomRepository#clearRoomInfo(Room)}, against the
+ * same changes stored with one {@link RoomRepository#updateRooms(List)} call.
+ * <p>Each round checks a group in to a batch of rooms spread over all floors and checks it out again, on:</p>
+ * <ul>
+ *     <li>an {@link ExcelHandler} holding the workbook in memory, followed by one save of the file,</li>
+ *     <li>an {@link ExcelHandler} with a journal, where each change is forced to disk,</li>
+ *     <li>a {@link SqlRoomRepository}, where each change is a transaction.</li>
+ * </ul>
+ * <p>This is not a unit test; run its {@code main} method from the IDE or with
+ * {@code java -cp <test classes>:<classes>:<dependencies> pl.edu.agh.kis.pz1.BatchUpdateBenchmark [batch] [rounds]}.</p>
+ */
+public class BatchUpdateBenchmark {
+    private static final int FLOORS = 10;
+    private static final int ROOMS_PER_FLOOR = 50;
+
+    private BatchUpdateBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optionally, the number of rooms in a batch (default 100) and the number of rounds (default 20).
+     * @throws IOException if a file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int batch = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Path directory = Files.createTempDirectory("rooms");
+        try {
+            String workbook = directory.resolve("rooms.xlsx").toString();
+            IntRoomMap rooms = createRooms();
+            RoomWorkbookWriter.write(rooms, workbook, RoomWorkbookWriter.ROW_WINDOW);
+            List<Room> checkins = checkins(rooms, batch);
+            List<Room> checkouts = checkouts(checkins);
+
+            try (ExcelHandler handler = new ExcelHandler(workbook)) {
+                handler.getRoomsData();
+                run("workbook in memory", batch, rounds, checkins, checkouts, handler, () -> write(handler, workbook));
+            }
+
+            try (ExcelHandler handler = new ExcelHandler(workbook, ExcelHandler.LoadMode.STREAMING)) {
+                handler.openJournal(directory.resolve("rooms.journal").toString(), handler.getRoomsData());
+                run("journal", batch, rounds, checkins, checkouts, handler, () -> { });
+            }
+
+            try (SqlRoomRepository repository = SqlRoomRepository.open(directory.resolve("rooms").toString())) {
+                repository.save(rooms);
+                run("SQL database", batch, rounds, checkins, checkouts, repository, () -> { });
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Times both paths, after one round of each to warm up, and prints the average time of a round.
+     */
+    private static void run(String name, int batch, int rounds, List<Room> checkins, List<Room> checkouts,
+                            RoomRepository repository, Runnable persist) {
+        roundOneByOne(repository, checkins, checkouts);
+        roundBatched(repository, checkins, checkouts);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            roundOneByOne(repository, checkins, checkouts);
+            persist.run();
+        }
+        long oneByOne = (System.nanoTime() - start) / rounds;
+
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            roundBatched(repository, checkins, checkouts);
+            persist.run();
+        }
+        long batched = (System.nanoTime() - start) / rounds;
+
+        System.out.println(name + ": batches of " + batch + " rooms, " + rounds + " rounds");
+        System.out.println("  one by one: " + oneByOne / 1_000 + " us per check-in and check-out of the batch");
+        System.out.println("  batched:    " + batched / 1_000 + " us per check-in and check-out of the batch");
+    }
+
+    /**
+     * Writes the workbook held in memory by the handler to its file, as {@link ExcelHandler#save()} does.
+     */
+    private static void write(ExcelHandler handler, String workbook) {
+        try (OutputStream out = Files.newOutputStream(Paths.get(workbook))) {
+            handler.getWorkbook().write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void roundOneByOne(RoomRepository repository, List<Room> checkins, List<Room> checkouts) {
+        checkins.forEach(repository::updateRoomInfo);
+        checkouts.forEach(repository::clearRoomInfo);
+    }
+
+    private static void roundBatched(RoomRepository repository, List<Room> checkins, List<Room> checkouts) {
+        repository.updateRooms(checkins);
+        repository.updateRooms(checkouts);
+    }
+
+    private static IntRoomMap createRooms() {
+        IntRoomMap rooms = new RoomDirectory();
+        for (int floor = 1; floor <= FLOORS; floor++) {
+            for (int slot = 1; slot <= ROOMS_PER_FLOOR; slot++) {
+                int number = floor * 100 + slot;
+                rooms.put(number, new Room(number, 200 + slot, slot % 3 == 0 ? "Deluxe" : "Standard", 2));
+            }
+        }
+        return rooms;
+    }
+
+    /**
+     * Returns the given number of rooms, spread evenly over all floors, checked in by one group.
+     */
+    private static List<Room> checkins(IntRoomMap rooms, int batch) {
+        List<Room> checkins = new ArrayList<>();
+        int count = Math.min(batch, FLOORS * ROOMS_PER_FLOOR);
+        for (int i = 0; i < count; i++) {
+            int number = (i % FLOORS + 1) * 100 + i / FLOORS + 1;
+            Room room = new Room(rooms.get(number));
+            List<Guest> guests = new ArrayList<>();
+            guests.add(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"));
+            room.setGuests(guests);
+            room.setStartDate(LocalDate.of(2024, 11, 1));
+            room.setEndDate(LocalDate.of(2024, 11, 4));
+            room.setAdditionalInfo("Wycieczka");
+            checkins.add(room);
+        }
+        return checkins;
+    }
+
+    private static List<Room> checkouts(List<Room> checkins) {
+        List<Room> checkouts = new ArrayList<>();
+        for (Room room : checkins) {
+            Room free = new Room(room);
+            free.clear();
+            checkouts.add(free);
+        }
+        return checkouts;
+    }
+}
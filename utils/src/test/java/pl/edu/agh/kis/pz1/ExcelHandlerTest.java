@@ -11,7 +11,11 @@ import org.junit.jupiter.api.Test;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,7 +62,7 @@ class ExcelHandlerTest {
 
     @Test
     void testGetRoomsData() {
-        MyMap<Integer, Room> rooms = excelHandler.getRoomsData();
+        IntRoomMap rooms = excelHandler.getRoomsData();
         Room room = rooms.get(101);
         assertNotNull(rooms);
         assertEquals(101, room.getNumber());
@@ -67,6 +71,56 @@ class ExcelHandlerTest {
         assertEquals("Standard", room.getType());
     }
 
+    @Test
+    void testGetRoomsDataIntoGivenMap() {
+        MyMap<Integer, Room> rooms = excelHandler.getRoomsData(new MyMap<>());
+        assertEquals(1, rooms.keys().size());
+        assertEquals("Standard", rooms.get(101).getType());
+    }
+
+    @Test
+    void testStreamingGetRoomsData() throws IOException {
+        ExcelHandler streamingHandler = new ExcelHandler(TEST_FILE_PATH, ExcelHandler.LoadMode.STREAMING);
+        IntRoomMap rooms = streamingHandler.getRoomsData();
+        Room room = rooms.get(101);
+        assertEquals(1, rooms.size());
+        assertEquals(250, room.getPrice());
+        assertEquals(2, room.getCapacity());
+        assertEquals("Standard", room.getType());
+        assertEquals("Widok na morze", room.getGuests().get(0).getName());
+
+        // the workbook is opened only when it is needed
+        assertNotNull(streamingHandler.getWorkbook().getSheetAt(0).getRow(1));
+        streamingHandler.close();
+    }
+
+    @Test
+    void testParallelGetRoomsData() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> excelHandler.setParallelism(0));
+
+        for (ExcelHandler.LoadMode mode : ExcelHandler.LoadMode.values()) {
+            ExcelHandler handler = new ExcelHandler(TEST_FILE_PATH, mode);
+            handler.setParallelism(4);
+            assertEquals(4, handler.getParallelism());
+            Room room = handler.getRoomsData().get(101);
+            assertEquals(250, room.getPrice());
+            handler.close();
+        }
+    }
+
+    @Test
+    void testLazyGetRoomsData() throws IOException {
+        ExcelHandler handler = new ExcelHandler(TEST_FILE_PATH, ExcelHandler.LoadMode.LAZY);
+        handler.setPrefetch(false);
+        LazyRoomDirectory rooms = (LazyRoomDirectory) handler.getRoomsData();
+        assertEquals(0, rooms.loadedFloors());
+
+        assertEquals("Widok na morze", rooms.get(101).getGuests().get(0).getName());
+        assertEquals(1, rooms.loadedFloors());
+        assertEquals(1, rooms.size());
+        handler.close();
+    }
+
     @Test
     void testGetExcelDate() {
         Sheet sheet = workbook.getSheetAt(0);
@@ -100,4 +154,175 @@ class ExcelHandlerTest {
         Cell additionalInfoAfterClearing = excelHandler.getWorkbook().getSheetAt(0).getRow(1).getCell(4);
         assertNull(additionalInfoAfterClearing);
     }
+
+    @Test
+    void testUpdateRoomInfoFindsRoomsOutsideTheirNumberedRow() throws IOException {
+        // a floor of 150 rooms in reverse order, below an extra row and a gap
+        try (Workbook layout = new XSSFWorkbook()) {
+            Sheet sheet = layout.createSheet("Level1");
+            sheet.createRow(0).createCell(0).setCellValue("Room number");
+            sheet.createRow(1).createCell(0).setCellValue("Notatki");
+            for (int i = 0; i < 150; i++) {
+                Row row = sheet.createRow(i + 5);
+                row.createCell(0).setCellValue(250 - i);
+                row.createCell(1).setCellValue(100);
+                row.createCell(2).setCellValue("Standard");
+                row.createCell(3).setCellValue(2);
+            }
+            try (FileOutputStream fos = new FileOutputStream(TEST_FILE_PATH)) {
+                layout.write(fos);
+            }
+        }
+        excelHandler = new ExcelHandler(TEST_FILE_PATH);
+        assertEquals(150, excelHandler.getRoomsData().size());
+
+        Room room = new Room(200, 100, "Standard", 2);
+        room.setGuests(new ArrayList<>(List.of(new Guest("Jan Kowalski", "jan@example.com", "980987", "123"))));
+        room.setEndDate(LocalDate.of(2024, 11, 5));
+        excelHandler.updateRoomInfo(room);
+
+        Sheet sheet = excelHandler.getWorkbook().getSheetAt(0);
+        assertEquals(200, (int) sheet.getRow(55).getCell(0).getNumericCellValue());
+        assertNotNull(sheet.getRow(55).getCell(9));
+        assertNull(sheet.getRow(54).getCell(9));
+        assertEquals(LocalDate.of(2024, 11, 5), excelHandler.getRoomsData().get(200).getEndDate());
+
+        excelHandler.clearRoomInfo(room);
+        assertNull(sheet.getRow(55).getCell(9));
+    }
+
+    @Test
+    void testUpdateRoomInfoAddsMissingRoom() {
+        Room room = new Room(105, 400, "Apartament", 4);
+        room.setStartDate(LocalDate.of(2024, 11, 1));
+        excelHandler.updateRoomInfo(room);
+        excelHandler.clearRoomInfo(new Room(399, 100, "Standard", 1));
+
+        IntRoomMap rooms = excelHandler.getRoomsData();
+        assertEquals(2, rooms.size());
+        assertEquals("Apartament", rooms.get(105).getType());
+        assertEquals(LocalDate.of(2024, 11, 1), rooms.get(105).getStartDate());
+        assertEquals(2, excelHandler.getWorkbook().getSheetAt(0).getLastRowNum());
+    }
+
+    @Test
+    void testUpdateRoomsWritesEveryRoom() throws IOException {
+        RoomDirectory rooms = new RoomDirectory();
+        for (int floor = 1; floor <= 3; floor++) {
+            for (int slot = 1; slot <= 20; slot++) {
+                int number = floor * 100 + slot;
+                rooms.put(number, new Room(number, 100, "Standard", 2));
+            }
+        }
+        RoomWorkbookWriter.write(rooms, TEST_FILE_PATH, RoomWorkbookWriter.ROW_WINDOW);
+        excelHandler = new ExcelHandler(TEST_FILE_PATH);
+        excelHandler.getRoomsData();
+
+        // checked in in reverse order, across all floors, and one room checked out again
+        List<Room> changes = new ArrayList<>();
+        for (int floor = 3; floor >= 1; floor--) {
+            for (int slot = 20; slot >= 1; slot -= 3) {
+                int number = floor * 100 + slot;
+                Room room = new Room(rooms.get(number));
+                room.setGuests(new ArrayList<>(List.of(new Guest("Grupa " + number, "grupa@example.com", "1", "2"))));
+                room.setEndDate(LocalDate.of(2024, 11, 5));
+                changes.add(room);
+            }
+        }
+        changes.add(new Room(rooms.get(311)));
+        excelHandler.updateRooms(changes);
+
+        IntRoomMap read = excelHandler.getRoomsData();
+        assertEquals(60, read.size());
+        assertEquals("Grupa 320", read.get(320).getGuests().get(0).getName());
+        assertEquals("Grupa 102", read.get(102).getGuests().get(0).getName());
+        assertEquals(LocalDate.of(2024, 11, 5), read.get(205).getEndDate());
+        assertTrue(read.get(311).isFree());
+        assertTrue(read.get(101).isFree());
+    }
+
+    @Test
+    void testSaveChangesWritesOnlyChangedCells() throws IOException {
+        IntRoomMap rooms = excelHandler.getRoomsData();
+        Room room = rooms.get(101);
+        room.setPrice(320);
+        room.setGuests(new ArrayList<>(List.of(new Guest("Jan Kowalski", "jan@example.com", "980987", "1"))));
+        room.setEndDate(LocalDate.of(2024, 11, 5));
+        rooms.changes().add(room);
+        Room added = new Room(102, 180, "Standard", 1);
+        rooms.put(102, added);
+        rooms.changes().added(added);
+        // a cell the room does not know about stays as it is, as the type of the room did not change
+        Cell type = excelHandler.getWorkbook().getSheetAt(0).getRow(1).getCell(2);
+        type.setCellValue("Standard plus");
+
+        excelHandler.saveChanges(rooms);
+
+        assertTrue(rooms.changes().isEmpty());
+        assertFalse(room.isChanged());
+        IntRoomMap saved = new ExcelHandler(TEST_FILE_PATH, ExcelHandler.LoadMode.STREAMING).getRoomsData();
+        assertEquals(2, saved.size());
+        assertEquals(320, saved.get(101).getPrice());
+        assertEquals("Standard plus", saved.get(101).getType());
+        assertEquals("Jan Kowalski", saved.get(101).getGuests().get(0).getName());
+        assertEquals(LocalDate.of(2024, 11, 5), saved.get(101).getEndDate());
+        assertEquals(180, saved.get(102).getPrice());
+    }
+
+    @Test
+    void testSaveRegeneratesWorkbookFromRooms() throws IOException {
+        Room room = new Room(101, 300, "Deluxe", 3);
+        Guest mainGuest = new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789");
+        room.setGuests(new ArrayList<>(List.of(mainGuest, new Guest("Anna Kowalska"))));
+        room.setStartDate(LocalDate.of(2024, 11, 1));
+        room.setEndDate(LocalDate.of(2024, 11, 5));
+        room.setAdditionalInfo("Łóżeczko dla dziecka");
+        RoomDirectory rooms = new RoomDirectory();
+        rooms.put(101, room);
+        rooms.put(203, new Room(203, 150, "Standard", 1));
+
+        excelHandler.save(rooms);
+
+        IntRoomMap saved = new ExcelHandler(TEST_FILE_PATH, ExcelHandler.LoadMode.STREAMING).getRoomsData();
+        assertEquals(2, saved.size());
+        Room savedRoom = saved.get(101);
+        assertEquals(300, savedRoom.getPrice());
+        assertEquals("Deluxe", savedRoom.getType());
+        assertEquals("980987", savedRoom.getGuests().get(0).getIdNumber());
+        assertEquals("123456789", savedRoom.getGuests().get(0).getPhoneNumber());
+        assertEquals("Anna Kowalska", savedRoom.getGuests().get(1).getName());
+        assertEquals(LocalDate.of(2024, 11, 5), savedRoom.getEndDate());
+        assertEquals("Łóżeczko dla dziecka", savedRoom.getAdditionalInfo());
+        assertTrue(saved.get(203).isFree());
+    }
+
+    @Test
+    void testJournalSurvivesRestartAndIsCompacted() throws IOException {
+        String journalPath = TEST_FILE_PATH + ".journal";
+        Files.deleteIfExists(Paths.get(journalPath));
+
+        ExcelHandler handler = new ExcelHandler(TEST_FILE_PATH, ExcelHandler.LoadMode.STREAMING);
+        IntRoomMap rooms = handler.getRoomsData();
+        assertEquals(0, handler.openJournal(journalPath, rooms));
+        Room room = rooms.get(101);
+        room.setGuests(new ArrayList<>(List.of(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"))));
+        room.setStartDate(LocalDate.of(2024, 11, 1));
+        room.setEndDate(LocalDate.of(2024, 11, 3));
+        handler.updateRoomInfo(room);
+        handler.close();
+
+        // the change is not in the workbook yet, it is replayed from the journal
+        ExcelHandler restarted = new ExcelHandler(TEST_FILE_PATH, ExcelHandler.LoadMode.STREAMING);
+        IntRoomMap replayedRooms = restarted.getRoomsData();
+        assertFalse(replayedRooms.get(101).getGuests().get(0).isMain());
+        assertEquals(1, restarted.openJournal(journalPath, replayedRooms));
+        assertEquals("980987", replayedRooms.get(101).getGuests().get(0).getIdNumber());
+
+        restarted.compactJournal(replayedRooms);
+        restarted.close();
+        assertEquals(0, Files.size(Paths.get(journalPath)));
+        assertEquals(LocalDate.of(2024, 11, 3),
+                new ExcelHandler(TEST_FILE_PATH, ExcelHandler.LoadMode.STREAMING).getRoomsData().get(101).getEndDate());
+        Files.delete(Paths.get(journalPath));
+    }
 }
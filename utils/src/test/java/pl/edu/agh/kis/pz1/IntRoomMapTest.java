@@ -0,0 +1,124 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test class for {@link IntRoomMap} class
+ * <p>This class provides test cases to the primitive and the {@link Map} operations of the room map.</p>
+ */
+class IntRoomMapTest {
+    private IntRoomMap rooms;
+
+    /**
+     * Sets up a map with three rooms before every test.
+     */
+    @BeforeEach
+    void setUp() {
+        rooms = new IntRoomMap();
+        rooms.put(101, new Room(101, 250, "Standard", 2));
+        rooms.put(102, new Room(102, 400, "Deluxe", 2));
+        rooms.put(201, new Room(201, 800, "Apartment", 4));
+    }
+
+    /**
+     * Tests if rooms are returned by their number and replaced when put again.
+     */
+    @Test
+    void putAndGet() {
+        assertEquals(400, rooms.get(102).getPrice());
+        assertNull(rooms.get(999));
+        assertTrue(rooms.put(102, new Room(102, 450, "Deluxe", 2)));
+        assertEquals(450, rooms.get(102).getPrice());
+        assertEquals(3, rooms.size());
+        assertFalse(rooms.put(103, null));
+    }
+
+    /**
+     * Tests if removed rooms disappear and the remaining ones are still found.
+     */
+    @Test
+    void remove() {
+        assertTrue(rooms.remove(101));
+        assertFalse(rooms.remove(101));
+        assertFalse(rooms.contains(101));
+        assertTrue(rooms.contains(102));
+        assertEquals(2, rooms.size());
+    }
+
+    /**
+     * Tests if the boxed Map methods behave the same as the primitive ones.
+     */
+    @Test
+    void boxedMapMethods() {
+        Map<Integer, Room> map = rooms;
+        assertEquals(800, map.get(Integer.valueOf(201)).getPrice());
+        assertTrue(map.contains(Integer.valueOf(101)));
+        assertFalse(map.contains(null));
+        assertNull(map.get(null));
+        assertTrue(map.remove(Integer.valueOf(201)));
+        assertEquals(List.of(101, 102), map.keys());
+    }
+
+    /**
+     * Tests if rooms and room numbers are iterated in insertion order, skipping removed rooms.
+     */
+    @Test
+    void iterationOrder() {
+        rooms.remove(102);
+        rooms.put(301, new Room(301, 300, "Standard", 3));
+
+        List<Integer> visited = new ArrayList<>();
+        rooms.forEachRoom(room -> visited.add(room.getNumber()));
+        assertEquals(List.of(101, 201, 301), visited);
+
+        PrimitiveIterator.OfInt it = rooms.keyIterator();
+        assertEquals(101, it.nextInt());
+        assertEquals(201, it.nextInt());
+        assertEquals(301, it.nextInt());
+        assertFalse(it.hasNext());
+    }
+
+    /**
+     * Tests if the map keeps all rooms when it grows and after many removals.
+     */
+    @Test
+    void growAndCompact() {
+        IntRoomMap map = new IntRoomMap();
+        for (int i = 0; i < 3000; i++) {
+            map.put(i, new Room(i, 100, "Standard", 2));
+        }
+        for (int i = 0; i < 3000; i += 2) {
+            assertTrue(map.remove(i));
+        }
+        for (int i = 3000; i < 4000; i++) {
+            map.put(i, new Room(i, 100, "Standard", 2));
+        }
+        assertEquals(2500, map.size());
+        for (int i = 0; i < 4000; i++) {
+            assertEquals(i % 2 == 1 || i >= 3000, map.contains(i));
+        }
+        assertEquals(2500, map.keys().size());
+    }
+
+    /**
+     * Tests if a range of room numbers is visited in ascending order.
+     */
+    @Test
+    void rangeIteration() {
+        rooms.put(150, new Room(150, 300, "Standard", 2));
+        List<Integer> visited = new ArrayList<>();
+        rooms.forEachRoomInRange(102, 201, room -> visited.add(room.getNumber()));
+        assertEquals(List.of(102, 150, 201), visited);
+
+        List<Integer> floor1 = new ArrayList<>();
+        rooms.forEachRoomOnFloor(1, room -> floor1.add(room.getNumber()));
+        assertEquals(List.of(101, 102, 150), floor1);
+    }
+}
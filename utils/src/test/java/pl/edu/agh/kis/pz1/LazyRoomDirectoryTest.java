@@ -0,0 +1,157 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link LazyRoomDirectory}, reading floors from an in-memory source.
+ */
+class LazyRoomDirectoryTest {
+
+    /**
+     * A source of {@code floors} floors with ten rooms each, recording which floors are read.
+     */
+    private static class CountingSource implements LazyRoomDirectory.FloorSource {
+        private final int floors;
+        private final List<Integer> reads = Collections.synchronizedList(new ArrayList<>());
+        private final Set<Integer> failing = new HashSet<>();
+        private volatile boolean closed;
+
+        CountingSource(int floors) {
+            this.floors = floors;
+        }
+
+        @Override
+        public int count() {
+            return floors;
+        }
+
+        @Override
+        public List<Room> read(int floor) throws IOException {
+            reads.add(floor);
+            if (failing.remove(floor)) {
+                throw new IOException("floor " + floor + " is damaged");
+            }
+            List<Room> rooms = new ArrayList<>();
+            for (int slot = 1; slot <= 10; slot++) {
+                rooms.add(new Room(floor * 100 + slot, 100 * floor, "Standard", 2));
+            }
+            return rooms;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    void testLookupReadsOnlyItsFloor() {
+        CountingSource source = new CountingSource(5);
+        LazyRoomDirectory rooms = new LazyRoomDirectory(source);
+        assertTrue(source.reads.isEmpty());
+
+        assertEquals(300, rooms.get(305).getPrice());
+        assertTrue(rooms.contains(310));
+        assertNull(rooms.get(311));
+        assertEquals(List.of(3), source.reads);
+
+        rooms.get(101);
+        assertEquals(List.of(3, 1), source.reads);
+        assertEquals(2, rooms.loadedFloors());
+        assertFalse(source.closed);
+    }
+
+    @Test
+    void testRangeReadsOnlyCoveredFloors() {
+        CountingSource source = new CountingSource(5);
+        LazyRoomDirectory rooms = new LazyRoomDirectory(source);
+
+        List<Integer> numbers = new ArrayList<>();
+        rooms.forEachRoomInRange(205, 302, room -> numbers.add(room.getNumber()));
+        assertEquals(List.of(205, 206, 207, 208, 209, 210, 301, 302), numbers);
+        assertEquals(List.of(2, 3), source.reads);
+        assertEquals(10, rooms.countFreeRoomsOnFloor(4));
+        assertEquals(List.of(2, 3, 4), source.reads);
+    }
+
+    @Test
+    void testVisitingAllRoomsReadsEveryFloorOnceAndClosesSource() {
+        CountingSource source = new CountingSource(4);
+        LazyRoomDirectory rooms = new LazyRoomDirectory(source);
+        rooms.get(201);
+
+        int[] count = new int[1];
+        rooms.forEachRoom(room -> count[0]++);
+        assertEquals(40, count[0]);
+        assertEquals(40, rooms.size());
+        assertEquals(List.of(2, 1, 3, 4), source.reads);
+        assertTrue(source.closed);
+    }
+
+    @Test
+    void testPutKeepsRoomsOfTheFloor() {
+        CountingSource source = new CountingSource(2);
+        LazyRoomDirectory rooms = new LazyRoomDirectory(source);
+
+        rooms.put(150, new Room(150, 500, "Apartament", 4));
+        assertEquals(11, countFloor(rooms, 1));
+        assertTrue(rooms.remove(101));
+        assertEquals(10, countFloor(rooms, 1));
+    }
+
+    @Test
+    void testPrefetchReadsRemainingFloors() throws InterruptedException {
+        CountingSource source = new CountingSource(20);
+        LazyRoomDirectory rooms = new LazyRoomDirectory(source);
+        rooms.prefetch();
+        assertEquals(1000, rooms.get(1001).getPrice());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (rooms.loadedFloors() < 20 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(20, rooms.loadedFloors());
+        assertEquals(20, source.reads.size());
+        assertTrue(source.closed);
+    }
+
+    @Test
+    void testFailedReadIsRetried() {
+        CountingSource source = new CountingSource(3);
+        source.failing.add(2);
+        LazyRoomDirectory rooms = new LazyRoomDirectory(source);
+
+        assertThrows(UncheckedIOException.class, () -> rooms.get(201));
+        assertEquals(200, rooms.get(201).getPrice());
+        assertEquals(List.of(2, 2), source.reads);
+    }
+
+    @Test
+    void testClosedDirectoryReadsNothing() {
+        CountingSource source = new CountingSource(3);
+        LazyRoomDirectory rooms = new LazyRoomDirectory(source);
+        rooms.get(101);
+        rooms.close();
+
+        assertTrue(source.closed);
+        assertNull(rooms.get(201));
+        assertEquals(10, rooms.size());
+        assertEquals(List.of(1), source.reads);
+    }
+
+    private static int countFloor(IntRoomMap rooms, int floor) {
+        int[] count = new int[1];
+        rooms.forEachRoomOnFloor(floor, room -> count[0]++);
+        return count[0];
+    }
+}
@@ -0,0 +1,138 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test class for {@link MyConcurrentMap} class
+ * <p>Besides the basic map operations, this class runs stress tests where many threads check guests in and
+ * out of the same rooms at once and checks that no update is lost and no room is given out twice.</p>
+ */
+class MyConcurrentMapTest {
+    private static final int THREADS = 8;
+    private static final int ROOMS = 200;
+
+    /**
+     * Tests basic operations on a single thread.
+     */
+    @Test
+    void basicOperations() {
+        MyConcurrentMap<Integer, String> map = new MyConcurrentMap<>(4);
+        assertTrue(map.put(101, "Jan"));
+        assertNull(map.putIfAbsent(102, "Anna"));
+        assertEquals("Anna", map.putIfAbsent(102, "Piotr"));
+        assertEquals("Jan Kowalski", map.compute(101, (k, v) -> v + " Kowalski"));
+        assertNull(map.computeIfPresent(103, (k, v) -> "x"));
+        assertFalse(map.contains(103));
+        assertFalse(map.remove(102, "Piotr"));
+        assertTrue(map.remove(102, "Anna"));
+        assertNull(map.compute(101, (k, v) -> null));
+        assertEquals(0, map.size());
+        assertFalse(map.put(null, "x"));
+    }
+
+    /**
+     * Tests if every room is checked in exactly once when all threads race for all rooms.
+     */
+    @Test
+    void concurrentCheckinGivesEachRoomToOneGuest() throws Exception {
+        MyConcurrentMap<Integer, Integer> occupancy = new MyConcurrentMap<>();
+        AtomicInteger successfulCheckins = new AtomicInteger();
+        runConcurrently(thread -> {
+            for (int room = 0; room < ROOMS; room++) {
+                if (occupancy.putIfAbsent(room, thread) == null) {
+                    successfulCheckins.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(ROOMS, successfulCheckins.get());
+        assertEquals(ROOMS, occupancy.size());
+        assertEquals(ROOMS, occupancy.keys().size());
+    }
+
+    /**
+     * Tests if concurrent read-modify-write updates made with compute are never lost.
+     */
+    @Test
+    void concurrentComputeLosesNoUpdates() throws Exception {
+        MyConcurrentMap<Integer, Integer> guestCounts = new MyConcurrentMap<>();
+        int rounds = 2000;
+        runConcurrently(thread -> {
+            for (int i = 0; i < rounds; i++) {
+                guestCounts.compute(i % ROOMS, (room, count) -> count == null ? 1 : count + 1);
+            }
+        });
+        int total = 0;
+        for (int room = 0; room < ROOMS; room++) {
+            total += guestCounts.get(room);
+        }
+        assertEquals(THREADS * rounds, total);
+    }
+
+    /**
+     * Tests repeated check-ins and check-outs of shared rooms.
+     * <p>A guest may check out only the room they hold, so every successful check-in must be matched by exactly
+     * one successful check-out and the map must be empty at the end.</p>
+     */
+    @Test
+    void concurrentCheckinAndCheckout() throws Exception {
+        MyConcurrentMap<Integer, Integer> occupancy = new MyConcurrentMap<>();
+        AtomicInteger checkins = new AtomicInteger();
+        AtomicInteger checkouts = new AtomicInteger();
+        runConcurrently(thread -> {
+            for (int i = 0; i < 20000; i++) {
+                int room = (i * 31 + thread) % 50;
+                if (occupancy.putIfAbsent(room, thread) == null) {
+                    checkins.incrementAndGet();
+                    Integer holder = occupancy.get(room);
+                    assertEquals(Integer.valueOf(thread), holder);
+                    assertTrue(occupancy.remove(room, thread));
+                    checkouts.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(checkins.get(), checkouts.get());
+        assertEquals(0, occupancy.size());
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Starts the worker on all threads at the same moment and rethrows the first failure.
+     */
+    private static void runConcurrently(Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                Callable<Void> task = () -> {
+                    start.await();
+                    worker.run(thread);
+                    return null;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
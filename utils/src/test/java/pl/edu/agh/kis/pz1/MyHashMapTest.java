@@ -0,0 +1,148 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test class for {@link MyHashMap} class
+ * <p>This class checks that the hash-based map behaves exactly like {@link MyMap}.</p>
+ */
+class MyHashMapTest {
+    private MyHashMap<String, Integer> m;
+
+    /**
+     * Sets up a new MyHashMap before every test.
+     */
+    @BeforeEach
+    public void setUp() {m = new MyHashMap<>();}
+
+    /**
+     * Tests if put function add a key with proper value and replaces the value of an existing key.
+     */
+    @Test
+    void put(){
+        m.put("Czekolada", 13);
+        m.put("pasta", 10);
+        assertEquals(13, (int) m.get("Czekolada"));
+        assertEquals(10, (int) m.get("pasta"));
+        assertTrue(m.put("Czekolada", 20));
+        assertTrue(m.put("polska", 21));
+        assertEquals(20, (int) m.get("Czekolada"));
+        assertEquals(3, m.size());
+        assertFalse(m.put(null, 1));
+    }
+
+    /**
+     * Tests if the remove function removes correct element and it actually disappears.
+     */
+    @Test
+    void remove(){
+        m.put("Czekolada", 13);
+        m.put("pasta", 10);
+        m.put("makaron", 21);
+        m.remove("Czekolada");
+        assertEquals(10, (int) m.get("pasta"));
+        assertTrue(m.remove("makaron"));
+        assertFalse(m.remove("Polska"));
+        assertNull(m.get("Czekolada"));
+        assertEquals(1, m.size());
+    }
+
+    /**
+     * Tests if function contains returns correct value depend on whether a key is in a map or not.
+     */
+    @Test
+    void contains(){
+        m.put("Czekolada", 13);
+        m.put("pasta", 10);
+        m.put("ser", 11);
+        assertTrue(m.contains("Czekolada"));
+        assertTrue(m.contains("ser"));
+        assertFalse(m.contains("past"));
+        assertFalse(m.contains(null));
+    }
+
+    /**
+     * Tests if keys are returned in insertion order, also after removing and re-adding entries.
+     */
+    @Test
+    void keys() {
+        m.put("Czekolada", 13);
+        m.put("pasta", 10);
+        m.put("ser", 11);
+        m.remove("pasta");
+        m.put("pasta", 12);
+        assertEquals(List.of("Czekolada", "ser", "pasta"), m.keys());
+    }
+
+    /**
+     * Tests if the map keeps all entries when it has to grow many times.
+     */
+    @Test
+    void resize() {
+        MyHashMap<Integer, Room> rooms = new MyHashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            rooms.put(i, new Room(i, 100, "Standard", 2));
+        }
+        assertEquals(5000, rooms.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i, rooms.get(i).getNumber());
+        }
+        assertEquals(5000, rooms.keys().size());
+        assertEquals(4999, (int) rooms.keys().get(4999));
+    }
+
+    /**
+     * Runs the same random sequence of operations on MyHashMap and MyMap and compares the results,
+     * which exercises backward-shift deletion inside long probe chains.
+     */
+    @Test
+    void sameSemanticsAsMyMap() {
+        MyHashMap<Integer, Integer> hashMap = new MyHashMap<>();
+        MyMap<Integer, Integer> listMap = new MyMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(300);
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(listMap.put(key, i), hashMap.put(key, i));
+                case 1 -> assertEquals(listMap.remove(key), hashMap.remove(key));
+                default -> assertEquals(listMap.get(key), hashMap.get(key));
+            }
+        }
+        assertEquals(listMap.keys(), hashMap.keys());
+    }
+
+    /**
+     * Tests entry iteration after removals, and the default spliterator of the Map interface.
+     */
+    @Test
+    void entryIteration() {
+        MyHashMap<Integer, String> map = new MyHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put(i, "v" + i);
+        }
+        map.remove(0);
+        map.remove(5);
+        List<Integer> visited = new ArrayList<>();
+        map.forEach((key, value) -> visited.add(key));
+        assertEquals(map.keys(), visited);
+
+        visited.clear();
+        Iterator<Map.Entry<Integer, String>> it = map.entryIterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, String> entry = it.next();
+            assertEquals("v" + entry.getKey(), entry.getValue());
+            visited.add(entry.getKey());
+        }
+        assertEquals(map.keys(), visited);
+        assertEquals(8, StreamSupport.stream(map.spliterator(), true).count());
+    }
+}
@@ -3,6 +3,12 @@ package pl.edu.agh.kis.pz1;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -82,4 +88,43 @@ class MyMapTest {
         assertTrue(m.keys().contains("ser"));
         assertFalse(m.keys().contains("past"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests if forEach and the entry iterator visit all entries in insertion order.
+     */
+    @Test
+    void entryIteration() {
+        m.put("Czekolada", 13);
+        m.put("pasta", 10);
+        m.put("polska", 21);
+
+        List<String> visited = new ArrayList<>();
+        m.forEach((key, value) -> visited.add(key + "=" + value));
+        assertEquals(List.of("Czekolada=13", "pasta=10", "polska=21"), visited);
+
+        visited.clear();
+        Iterator<Map.Entry<String, Integer>> it = m.entryIterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Integer> entry = it.next();
+            visited.add(entry.getKey() + "=" + entry.getValue());
+        }
+        assertEquals(List.of("Czekolada=13", "pasta=10", "polska=21"), visited);
+        assertEquals(3, m.size());
+    }
+
+    /**
+     * Tests if a parallel stream built on the spliterator sees every entry exactly once.
+     */
+    @Test
+    void parallelStream() {
+        for (int i = 0; i < 1000; i++) {
+            m.put("k" + i, i);
+        }
+        int sum = StreamSupport.stream(m.spliterator(), true).mapToInt(Map.Entry::getValue).sum();
+        assertEquals(999 * 1000 / 2, sum);
+        List<String> keys = StreamSupport.stream(m.spliterator(), true)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        assertEquals(m.keys(), keys);
+    }
+}
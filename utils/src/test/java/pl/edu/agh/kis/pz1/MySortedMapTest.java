@@ -0,0 +1,111 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test class for {@link MySortedMap} class
+ * <p>This class checks basic map operations, key ordering, navigation methods and range views.</p>
+ */
+class MySortedMapTest {
+    private MySortedMap<Integer, String> map;
+
+    /**
+     * Sets up a map with a few keys inserted out of order.
+     */
+    @BeforeEach
+    void setUp() {
+        map = new MySortedMap<>();
+        map.put(302, "c");
+        map.put(101, "a");
+        map.put(205, "b");
+        map.put(410, "d");
+    }
+
+    /**
+     * Tests putting, replacing, getting and removing values.
+     */
+    @Test
+    void basicOperations() {
+        assertEquals("b", map.get(205));
+        assertTrue(map.put(205, "bb"));
+        assertEquals("bb", map.get(205));
+        assertEquals(4, map.size());
+        assertFalse(map.put(null, "x"));
+        assertTrue(map.remove(205));
+        assertFalse(map.remove(205));
+        assertFalse(map.contains(205));
+        assertNull(map.get(205));
+        assertEquals(3, map.size());
+    }
+
+    /**
+     * Tests if keys are returned in ascending order.
+     */
+    @Test
+    void keysAreSorted() {
+        assertEquals(List.of(101, 205, 302, 410), map.keys());
+        assertEquals(Integer.valueOf(101), map.firstKey());
+        assertEquals(Integer.valueOf(410), map.lastKey());
+        assertNull(new MySortedMap<Integer, String>().firstKey());
+        assertNull(new MySortedMap<Integer, String>().lastKey());
+    }
+
+    /**
+     * Tests floor and ceiling lookups.
+     */
+    @Test
+    void floorAndCeiling() {
+        assertEquals(Integer.valueOf(205), map.floorKey(299));
+        assertEquals(Integer.valueOf(302), map.floorKey(302));
+        assertNull(map.floorKey(100));
+        assertEquals(Integer.valueOf(302), map.ceilingKey(206));
+        assertEquals(Integer.valueOf(101), map.ceilingKey(0));
+        assertNull(map.ceilingKey(411));
+    }
+
+    /**
+     * Tests if a range view lists only its keys and rejects keys outside of the range.
+     */
+    @Test
+    void subMap() {
+        Map<Integer, String> floor2and3 = map.subMap(200, 400);
+        assertEquals(List.of(205, 302), floor2and3.keys());
+        assertNull(floor2and3.get(101));
+        assertFalse(floor2and3.put(450, "e"));
+        assertTrue(floor2and3.put(399, "e"));
+        assertEquals("e", map.get(399));
+        assertTrue(floor2and3.remove(205));
+        assertEquals(List.of(101, 302, 399, 410), map.keys());
+    }
+
+    /**
+     * Compares the map with {@link MyMap} under a random sequence of operations.
+     */
+    @Test
+    void randomOperations() {
+        MySortedMap<Integer, Integer> sorted = new MySortedMap<>();
+        MyMap<Integer, Integer> reference = new MyMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(key), sorted.remove(key));
+            } else {
+                assertEquals(reference.put(key, i), sorted.put(key, i));
+            }
+        }
+        List<Integer> expected = new ArrayList<>(reference.keys());
+        expected.sort(null);
+        assertEquals(expected, sorted.keys());
+        for (int key : expected) {
+            assertEquals(reference.get(key), sorted.get(key));
+        }
+    }
+}
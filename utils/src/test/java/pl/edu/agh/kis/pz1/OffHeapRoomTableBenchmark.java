@@ -0,0 +1,91 @@
+package pl.edu.agh.kis.pz1;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A simple benchmark comparing heap usage and garbage collection of rooms kept as {@link Room} objects in a
+ * {@link RoomDirectory} against the same rooms kept in an {@link OffHeapRoomTable}.
+ * <p>This is not a unit test; run its {@code main} method from the IDE or with
+ * {@code java -cp <test classes>:<classes> pl.edu.agh.kis.pz1.OffHeapRoomTableBenchmark [rooms]}.</p>
+ */
+public class OffHeapRoomTableBenchmark {
+    private static final int FULL_GCS = 5;
+
+    private OffHeapRoomTableBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optionally, the number of rooms (default 300000).
+     */
+    public static void main(String[] args) {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 300_000;
+
+        long baseline = usedHeap();
+        RoomDirectory onHeap = new RoomDirectory();
+        for (int i = 0; i < roomCount; i++) {
+            Room room = createRoom(i);
+            onHeap.put(room.getNumber(), room);
+        }
+        report("Room objects", roomCount, usedHeap() - baseline, 0);
+        onHeap = null;
+
+        baseline = usedHeap();
+        OffHeapRoomTable table = new OffHeapRoomTable(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            table.put(createRoom(i));
+        }
+        report("Off-heap table", table.size(), usedHeap() - baseline, table.offHeapBytes());
+    }
+
+    private static Room createRoom(int i) {
+        int number = (i / 100 + 1) * 100 + i % 100;
+        Room room = new Room(number, 200 + i % 300, i % 3 == 0 ? "Deluxe" : "Standard", 2);
+        if (i % 2 == 0) {
+            List<Guest> guests = new ArrayList<>();
+            guests.add(new Guest("Jan Kowalski " + i, "jan" + i + "@example.com", "980987" + i, "123456789"));
+            guests.add(new Guest("Anna Kowalska " + i));
+            room.setGuests(guests);
+            room.setStartDate(LocalDate.of(2024, 11, 1).plusDays(i % 30));
+            room.setEndDate(LocalDate.of(2024, 12, 1).plusDays(i % 30));
+        }
+        return room;
+    }
+
+    /**
+     * Prints the retained heap and the time of a few full collections with the rooms alive, which is the
+     * cost the collector pays for tracing them.
+     */
+    private static void report(String name, int rooms, long heapBytes, long offHeapBytes) {
+        long gcMillis = gcMillis();
+        for (int i = 0; i < FULL_GCS; i++) {
+            System.gc();
+        }
+        long pause = (gcMillis() - gcMillis) / FULL_GCS;
+        System.out.println(name + ": " + rooms + " rooms");
+        System.out.println("  retained heap: " + heapBytes / 1024 / 1024 + " MB");
+        System.out.println("  off-heap:      " + offHeapBytes / 1024 / 1024 + " MB");
+        System.out.println("  full GC pause: " + pause + " ms");
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(gc.getCollectionTime(), 0);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,149 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test class for {@link OffHeapRoomTable} class
+ * <p>This class checks that room views read back exactly what was stored and behave like regular rooms.</p>
+ */
+class OffHeapRoomTableTest {
+    private OffHeapRoomTable table;
+
+    /**
+     * Sets up a small table with one occupied room.
+     */
+    @BeforeEach
+    void setUp() {
+        table = new OffHeapRoomTable(4);
+        Room room = new Room(101, 250, "Standard", 2);
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski", "jan@example.com", "98098781987", "123456789"));
+        guests.add(new Guest("Anna Kowalska"));
+        room.setGuests(guests);
+        room.setStartDate(LocalDate.of(2024, 11, 17));
+        room.setEndDate(LocalDate.of(2024, 11, 20));
+        room.setAdditionalInfo("Późne zameldowanie");
+        table.put(room);
+        table.put(new Room(102, 400, "Deluxe", 3));
+    }
+
+    /**
+     * Tests if all fields of a room are stored and read back.
+     */
+    @Test
+    void storesAllFields() {
+        Room room = table.get(101);
+        assertEquals(101, room.getNumber());
+        assertEquals(250, room.getPrice());
+        assertEquals("Standard", room.getType());
+        assertEquals(2, room.getCapacity());
+        assertEquals(LocalDate.of(2024, 11, 17), room.getStartDate());
+        assertEquals(LocalDate.of(2024, 11, 20), room.getEndDate());
+        assertEquals("Późne zameldowanie", room.getAdditionalInfo());
+        assertFalse(room.isFree());
+
+        List<Guest> guests = room.getGuests();
+        assertEquals(2, guests.size());
+        assertTrue(guests.get(0).isMain());
+        assertEquals("jan@example.com", guests.get(0).getEmailAddress());
+        assertEquals("98098781987", guests.get(0).getIdNumber());
+        assertEquals("123456789", guests.get(0).getPhoneNumber());
+        assertFalse(guests.get(1).isMain());
+        assertEquals("Anna Kowalska", guests.get(1).getName());
+
+        Room free = table.get(102);
+        assertTrue(free.isFree());
+        assertNull(free.getStartDate());
+        assertNull(free.getAdditionalInfo());
+        assertEquals("Pokój nr 102, cena: 400, typ:Deluxe, 3-osobowy", free.toString());
+    }
+
+    /**
+     * Tests check-in and check-out style updates through the view.
+     */
+    @Test
+    void updatesThroughView() {
+        Room room = table.rooms().get(102);
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Kacper Nowak", "nowak@example.com", "98098789176", "098765432"));
+        room.setGuests(guests);
+        room.setStartDate(LocalDate.of(2024, 11, 1));
+        assertFalse(room.isFree());
+        assertEquals("Kacper Nowak", table.get(102).getGuests().get(0).getName());
+
+        table.get(101).clear();
+        assertTrue(table.get(101).isFree());
+        assertNull(table.get(101).getEndDate());
+        assertNull(table.get(101).getAdditionalInfo());
+    }
+
+    /**
+     * Tests if the table keeps all rooms while slots grow and guest records are rewritten many times.
+     */
+    @Test
+    void growAndCompact() {
+        for (int i = 0; i < 2000; i++) {
+            Room room = new Room(1000 + i, 100 + i, i % 2 == 0 ? "Standard" : "Deluxe", 2);
+            List<Guest> guests = new ArrayList<>();
+            guests.add(new Guest("Gość " + i));
+            room.setGuests(guests);
+            table.put(room);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 2000; i += 3) {
+                table.get(1000 + i).setAdditionalInfo("runda " + round);
+            }
+        }
+        assertEquals(2002, table.size());
+        assertEquals(2002, table.rooms().size());
+        for (int i = 0; i < 2000; i++) {
+            Room room = table.get(1000 + i);
+            assertEquals(100 + i, room.getPrice());
+            assertEquals("Gość " + i, room.getGuests().get(0).getName());
+            assertEquals(i % 3 == 0 ? "runda 4" : null, room.getAdditionalInfo());
+        }
+        assertEquals("Późne zameldowanie", table.get(101).getAdditionalInfo());
+    }
+
+    /**
+     * Tests if a view records its changed fields like a regular room.
+     */
+    @Test
+    void viewRecordsChanges() {
+        Room room = table.get(102);
+        assertFalse(room.isChanged());
+
+        room.setPrice(400);
+        room.setAdditionalInfo(null);
+        assertFalse(room.isChanged());
+
+        room.setPrice(450);
+        room.setStartDate(LocalDate.of(2024, 12, 1));
+        assertEquals(Room.PRICE | Room.START_DATE, room.getChanges());
+
+        Room occupied = table.get(101);
+        occupied.clear();
+        assertEquals(Room.GUESTS | Room.START_DATE | Room.END_DATE | Room.ADDITIONAL_INFO,
+                occupied.getChanges());
+    }
+
+    /**
+     * Tests if changing the number of a view moves it to the new number.
+     */
+    @Test
+    void setNumberMovesView() {
+        Room room = table.get(102);
+        room.setNumber(205);
+
+        assertNull(table.get(102));
+        assertSame(room, table.get(205));
+        assertEquals(2, table.rooms().size());
+    }
+}
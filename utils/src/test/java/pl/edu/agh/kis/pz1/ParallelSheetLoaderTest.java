@@ -0,0 +1,87 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ParallelSheetLoader}, using floor numbers in place of sheets.
+ */
+class ParallelSheetLoaderTest {
+    private static final int FLOORS = 20;
+
+    private static List<Integer> floors() {
+        List<Integer> floors = new ArrayList<>();
+        for (int floor = 1; floor <= FLOORS; floor++) {
+            floors.add(floor);
+        }
+        return floors;
+    }
+
+    private static void parseFloor(int floor, Consumer<Room> rooms) {
+        for (int slot = 1; slot <= 10; slot++) {
+            rooms.accept(new Room(floor * 100 + slot, 200, "Standard", 2));
+        }
+    }
+
+    @Test
+    void testRoomsKeepWorkbookOrder() {
+        List<Integer> numbers = new ArrayList<>();
+        ParallelSheetLoader.load(floors(), 4, ParallelSheetLoaderTest::parseFloor,
+                room -> numbers.add(room.getNumber()));
+
+        assertEquals(FLOORS * 10, numbers.size());
+        for (int i = 1; i < numbers.size(); i++) {
+            assertTrue(numbers.get(i - 1) < numbers.get(i));
+        }
+    }
+
+    @Test
+    void testConsumerIsCalledOnCallingThread() {
+        Thread caller = Thread.currentThread();
+        Set<Thread> parsers = ConcurrentHashMap.newKeySet();
+        List<Thread> consumers = new ArrayList<>();
+
+        ParallelSheetLoader.load(floors(), 4, (floor, rooms) -> {
+            parsers.add(Thread.currentThread());
+            parseFloor(floor, rooms);
+        }, room -> consumers.add(Thread.currentThread()));
+
+        assertFalse(parsers.contains(caller));
+        assertTrue(parsers.size() <= 4);
+        for (Thread consumer : consumers) {
+            assertSame(caller, consumer);
+        }
+    }
+
+    @Test
+    void testSequentialWithParallelismOne() {
+        Thread caller = Thread.currentThread();
+        List<Integer> numbers = new ArrayList<>();
+
+        ParallelSheetLoader.load(floors(), 1, (floor, rooms) -> {
+            assertSame(caller, Thread.currentThread());
+            parseFloor(floor, rooms);
+        }, room -> numbers.add(room.getNumber()));
+
+        assertEquals(FLOORS * 10, numbers.size());
+        assertEquals(Integer.valueOf(101), numbers.get(0));
+    }
+
+    @Test
+    void testParserFailureIsRethrown() {
+        List<Integer> floors = floors();
+        assertThrows(IllegalStateException.class, () -> ParallelSheetLoader.load(floors, 4, (floor, rooms) -> {
+            if (floor == 7) {
+                throw new IllegalStateException("broken sheet");
+            }
+            parseFloor(floor, rooms);
+        }, room -> { }));
+    }
+}
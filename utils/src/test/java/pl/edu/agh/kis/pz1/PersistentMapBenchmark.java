@@ -0,0 +1,72 @@
+package pl.edu.agh.kis.pz1;
+
+/**
+ * A simple benchmark comparing the cost of a consistent copy of the rooms: an O(1) {@link PersistentMap}
+ * snapshot against a deep copy of a {@link MyMap} with copies of every {@link Room}.
+ * <p>This is not a unit test; run its {@code main} method from the IDE or with
+ * {@code java -cp <test classes>:<classes> pl.edu.agh.kis.pz1.PersistentMapBenchmark [rooms]}.</p>
+ */
+public class PersistentMapBenchmark {
+    private static final int ROUNDS = 50;
+
+    private PersistentMapBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optionally, the number of rooms (default 5000).
+     */
+    public static void main(String[] args) {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        MyMap<Integer, Room> myMap = new MyMap<>();
+        PersistentMap<Integer, Room> persistent = new PersistentMap<>();
+        for (int i = 0; i < roomCount; i++) {
+            int number = (i / 100 + 1) * 100 + i % 100;
+            Room room = new Room(number, 200, "Standard", 2);
+            myMap.put(number, room);
+            persistent.put(number, room);
+        }
+
+        long checksum = 0;
+        // warm-up
+        for (int i = 0; i < ROUNDS; i++) {
+            checksum += deepCopy(myMap).keys().size();
+            checksum += persistent.snapshot().size();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            checksum += deepCopy(myMap).keys().size();
+        }
+        long deepCopyNanos = (System.nanoTime() - start) / ROUNDS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            checksum += persistent.snapshot().size();
+        }
+        long snapshotNanos = (System.nanoTime() - start) / ROUNDS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            int number = (i % (roomCount / 100 + 1) + 1) * 100;
+            Room room = persistent.get(number);
+            if (room != null) {
+                persistent.put(number, new Room(room));
+            }
+        }
+        long updateNanos = (System.nanoTime() - start) / ROUNDS;
+
+        System.out.println("Rooms: " + roomCount);
+        System.out.println("MyMap deep copy:           " + deepCopyNanos / 1000 + " us");
+        System.out.println("PersistentMap snapshot:    " + snapshotNanos + " ns");
+        System.out.println("PersistentMap copy update: " + updateNanos + " ns");
+        System.out.println("(checksum " + checksum + ")");
+    }
+
+    private static MyMap<Integer, Room> deepCopy(MyMap<Integer, Room> rooms) {
+        MyMap<Integer, Room> copy = new MyMap<>();
+        rooms.forEach((number, room) -> copy.put(number, new Room(room)));
+        return copy;
+    }
+}
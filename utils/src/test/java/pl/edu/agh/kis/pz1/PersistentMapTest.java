@@ -0,0 +1,126 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test class for {@link PersistentMap} class
+ * <p>This class checks the map operations against {@link MyHashMap} and that snapshots stay unchanged while
+ * the map is modified.</p>
+ */
+class PersistentMapTest {
+
+    /**
+     * Tests basic operations of the map.
+     */
+    @Test
+    void basicOperations() {
+        PersistentMap<Integer, String> map = new PersistentMap<>();
+        assertTrue(map.put(101, "a"));
+        assertTrue(map.put(102, "b"));
+        assertTrue(map.put(101, "c"));
+        assertEquals("c", map.get(101));
+        assertEquals(2, map.size());
+        assertTrue(map.remove(101));
+        assertFalse(map.remove(101));
+        assertFalse(map.contains(101));
+        assertFalse(map.put(null, "x"));
+        assertEquals(List.of(102), map.keys());
+    }
+
+    /**
+     * Tests if a snapshot keeps the contents from the moment it was taken and cannot be modified.
+     */
+    @Test
+    void snapshotIsFrozen() {
+        PersistentMap<Integer, Room> rooms = new PersistentMap<>();
+        for (int i = 101; i <= 120; i++) {
+            rooms.put(i, new Room(i, 200, "Standard", 2));
+        }
+        PersistentMap<Integer, Room> snapshot = rooms.snapshot();
+
+        Room updated = new Room(rooms.get(105));
+        updated.setPrice(999);
+        rooms.put(105, updated);
+        rooms.remove(110);
+        rooms.put(121, new Room(121, 300, "Deluxe", 2));
+
+        assertTrue(snapshot.isSnapshot());
+        assertEquals(20, snapshot.size());
+        assertEquals(200, snapshot.get(105).getPrice());
+        assertTrue(snapshot.contains(110));
+        assertFalse(snapshot.contains(121));
+        assertFalse(snapshot.put(122, updated));
+        assertFalse(snapshot.remove(101));
+        assertEquals(999, rooms.get(105).getPrice());
+        assertEquals(20, rooms.size());
+    }
+
+    /**
+     * Tests keys whose hash codes are equal, which end up in a collision node.
+     */
+    @Test
+    void hashCollisions() {
+        PersistentMap<String, Integer> map = new PersistentMap<>();
+        // "Aa" and "BB" have the same hash code
+        map.put("Aa", 1);
+        map.put("BB", 2);
+        map.put("AaAa", 3);
+        map.put("BBBB", 4);
+        assertEquals(Integer.valueOf(1), map.get("Aa"));
+        assertEquals(Integer.valueOf(2), map.get("BB"));
+        PersistentMap<String, Integer> snapshot = map.snapshot();
+        assertTrue(map.remove("Aa"));
+        assertNull(map.get("Aa"));
+        assertEquals(Integer.valueOf(2), map.get("BB"));
+        assertEquals(Integer.valueOf(1), snapshot.get("Aa"));
+        assertEquals(3, map.size());
+    }
+
+    /**
+     * Compares the map with {@link MyHashMap} under a random sequence of operations and snapshots.
+     */
+    @Test
+    void randomOperations() {
+        PersistentMap<Integer, Integer> map = new PersistentMap<>();
+        MyHashMap<Integer, Integer> reference = new MyHashMap<>();
+        Random random = new Random(7);
+        PersistentMap<Integer, Integer> snapshot = map.snapshot();
+        List<Integer> snapshotKeys = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(key), map.remove(key));
+            } else {
+                map.put(key, i);
+                reference.put(key, i);
+            }
+            if (i == 10000) {
+                snapshot = map.snapshot();
+                snapshotKeys = reference.keys();
+            }
+        }
+        assertEquals(reference.size(), map.size());
+        for (int key = 0; key < 3000; key++) {
+            assertEquals(reference.get(key), map.get(key));
+        }
+        int count = 0;
+        Iterator<Map.Entry<Integer, Integer>> it = map.entryIterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Integer> entry = it.next();
+            assertEquals(reference.get(entry.getKey()), entry.getValue());
+            count++;
+        }
+        assertEquals(reference.size(), count);
+        assertEquals(snapshotKeys.size(), snapshot.size());
+        for (int key : snapshotKeys) {
+            assertTrue(snapshot.contains(key));
+        }
+    }
+}
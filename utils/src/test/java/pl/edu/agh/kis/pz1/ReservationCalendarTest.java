@@ -0,0 +1,206 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ReservationCalendar} and its {@link ReservationTree}.
+ */
+class ReservationCalendarTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 11, 1);
+
+    private static Reservation reservation(int room, String guest, int fromDay, int toDay) {
+        return new Reservation(room, guest, DAY.plusDays(fromDay), DAY.plusDays(toDay));
+    }
+
+    @Test
+    void testOverlappingStaysOfTheSameRoomAreRejected() throws IOException {
+        ReservationCalendar calendar = new ReservationCalendar();
+        Reservation first = reservation(101, "Jan Kowalski", 0, 3);
+        assertNull(calendar.reserve(first));
+        assertSame(first, calendar.reserve(reservation(101, "Anna Nowak", 2, 5)));
+        assertSame(first, calendar.reserve(reservation(101, "Anna Nowak", -1, 1)));
+        // the guest leaving on the morning of the day of arrival is not an overlap
+        assertNull(calendar.reserve(reservation(101, "Anna Nowak", 3, 5)));
+        assertNull(calendar.reserve(reservation(102, "Anna Nowak", 1, 2)));
+        assertEquals(3, calendar.size());
+        assertEquals(List.of(first, calendar.find(101, DAY.plusDays(4))), calendar.reservationsOf(101));
+    }
+
+    @Test
+    void testDayOfTheHotel() throws IOException {
+        ReservationCalendar calendar = new ReservationCalendar();
+        Reservation leaving = reservation(101, "Jan Kowalski", 0, 3);
+        Reservation arriving = reservation(101, "Anna Nowak", 3, 5);
+        Reservation staying = reservation(102, "Piotr Zieliński", 1, 6);
+        Reservation later = reservation(103, "Ewa Wiśniewska", 4, 6);
+        for (Reservation reservation : List.of(later, staying, arriving, leaving)) {
+            assertNull(calendar.reserve(reservation));
+        }
+
+        LocalDate date = DAY.plusDays(3);
+        assertEquals(List.of(staying, arriving), calendar.inHouse(date));
+        assertEquals(List.of(arriving), calendar.arrivals(date));
+        assertEquals(List.of(leaving), calendar.departures(date));
+        assertEquals(List.of(), calendar.arrivals(DAY.plusDays(2)));
+    }
+
+    @Test
+    void testCancelledReservationFreesTheRoom() throws IOException {
+        ReservationCalendar calendar = new ReservationCalendar();
+        calendar.reserve(reservation(101, "Jan Kowalski", 0, 3));
+        assertNull(calendar.cancel(101, DAY.plusDays(1)));
+        assertNotNull(calendar.cancel(101, DAY));
+        assertEquals(0, calendar.size());
+        assertNull(calendar.find(101, DAY));
+        assertNull(calendar.reserve(reservation(101, "Anna Nowak", 1, 2)));
+    }
+
+    @Test
+    void testEndedStayKeepsTheNightsSpent() throws IOException {
+        ReservationCalendar calendar = new ReservationCalendar();
+        calendar.reserve(reservation(101, "Jan Kowalski", 0, 5));
+        calendar.reserve(reservation(102, "Anna Nowak", 0, 5));
+
+        Reservation ended = calendar.endStay(101, DAY, DAY.plusDays(2));
+        assertEquals(DAY.plusDays(2), ended.getEndDate());
+        assertEquals(List.of(ended), calendar.reservationsOf(101));
+        assertSame(ended, calendar.find(101, DAY.plusDays(1)));
+        assertNull(calendar.find(101, DAY.plusDays(2)));
+        assertNull(calendar.reserve(reservation(101, "Piotr Zieliński", 2, 4)));
+        // leaving on the day of arrival cancels the stay
+        assertNull(calendar.endStay(102, DAY, DAY));
+        assertEquals(List.of(), calendar.reservationsOf(102));
+    }
+
+    @Test
+    void testReplacedStayIsBookedInPlaceOfThePreviousOne() throws IOException {
+        ReservationCalendar calendar = new ReservationCalendar();
+        Room room = new Room(101, 200, "Standard", 2);
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"));
+        room.setGuests(guests);
+        room.setStartDate(DAY);
+        room.setEndDate(DAY.plusDays(3));
+        Reservation previous = ReservationCalendar.stayOf(room);
+        calendar.reserve(previous);
+        Reservation later = reservation(101, "Anna Nowak", 5, 7);
+        calendar.reserve(later);
+
+        assertNull(calendar.replaceStay(previous, room));
+        assertEquals(List.of(previous, later), calendar.reservationsOf(101));
+
+        room.setEndDate(DAY.plusDays(4));
+        assertNull(calendar.replaceStay(previous, room));
+        assertEquals(DAY.plusDays(4), calendar.find(101, DAY).getEndDate());
+
+        Reservation extended = calendar.find(101, DAY);
+        room.setEndDate(DAY.plusDays(6));
+        assertSame(later, calendar.replaceStay(extended, room));
+        assertEquals(List.of(later), calendar.reservationsOf(101));
+
+        room.clear();
+        assertNull(calendar.replaceStay(null, room));
+        assertEquals(1, calendar.size());
+    }
+
+    @Test
+    void testCalendarIsKeptInItsFile() throws IOException {
+        Path file = Files.createTempFile("reservations", ".csv");
+        Files.delete(file);
+        IntRoomMap rooms = new IntRoomMap();
+        Room occupied = new Room(101, 200, "Standard", 2);
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"));
+        occupied.setGuests(guests);
+        occupied.setStartDate(DAY);
+        occupied.setEndDate(DAY.plusDays(2));
+        rooms.put(101, occupied);
+        rooms.put(102, new Room(102, 200, "Standard", 2));
+        try {
+            try (ReservationCalendar calendar = ReservationCalendar.open(file, rooms)) {
+                assertEquals(1, calendar.size());
+                calendar.reserve(reservation(102, "Nowak, Anna", 5, 7));
+                calendar.reserve(reservation(102, "Piotr Zieliński", 8, 9));
+                calendar.cancel(102, DAY.plusDays(8));
+            }
+            assertEquals(4, Files.readAllLines(file).size());
+
+            try (ReservationCalendar calendar = ReservationCalendar.open(file, new IntRoomMap())) {
+                assertEquals(2, calendar.size());
+                assertEquals("Jan Kowalski", calendar.find(101, DAY.plusDays(1)).getGuestName());
+                assertEquals("Nowak, Anna", calendar.find(102, DAY.plusDays(6)).getGuestName());
+                assertNull(calendar.find(102, DAY.plusDays(8)));
+            }
+            assertEquals(2, Files.readAllLines(file).size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testCalendarCreatesItsDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("hotel");
+        Path file = directory.resolve("data").resolve("reservations.csv");
+        try {
+            try (ReservationCalendar calendar = ReservationCalendar.open(file, new IntRoomMap())) {
+                assertNull(calendar.reserve(reservation(101, "Jan Kowalski", 0, 3)));
+            }
+            assertEquals(1, Files.readAllLines(file).size());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.getParent());
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Compares the tree with a scan of all reservations, for random bookings and cancellations.
+     */
+    @Test
+    void testTreeAgreesWithScan() {
+        Random random = new Random(7);
+        ReservationTree tree = new ReservationTree();
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int room = 100 + random.nextInt(20);
+            int from = random.nextInt(365);
+            Reservation reservation = reservation(room, "Gość " + i, from, from + 1 + random.nextInt(14));
+            reservations.removeIf(r -> r.getRoomNumber() == room && r.startDay() == reservation.startDay());
+            reservations.add(reservation);
+            tree.add(reservation);
+            if (random.nextInt(4) == 0) {
+                Reservation removed = reservations.remove(random.nextInt(reservations.size()));
+                assertSame(removed, tree.remove(removed.getRoomNumber(), removed.startDay()));
+            }
+        }
+        assertEquals(reservations.size(), tree.size());
+
+        for (int i = 0; i < 200; i++) {
+            int from = (int) DAY.toEpochDay() + random.nextInt(380);
+            int to = from + 1 + random.nextInt(10);
+            List<Reservation> expected = new ArrayList<>();
+            for (Reservation r : reservations) {
+                if (r.startDay() < to && r.endDay() > from) {
+                    expected.add(r);
+                }
+            }
+            List<Reservation> found = new ArrayList<>();
+            tree.forEachOverlapping(from, to, found::add);
+            assertEquals(expected.size(), found.size());
+            assertTrue(found.containsAll(expected));
+            Reservation overlap = tree.findOverlap(from, to);
+            assertEquals(expected.isEmpty(), overlap == null);
+            assertTrue(overlap == null || expected.contains(overlap));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RoomBitmap}, compared with {@link BitSet}.
+ */
+class RoomBitmapTest {
+
+    private static RoomBitmap bitmap(BitSet bits) {
+        RoomBitmap bitmap = new RoomBitmap();
+        bits.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static BitSet bits(RoomBitmap bitmap) {
+        BitSet bits = new BitSet();
+        bitmap.forEach(bits::set);
+        return bits;
+    }
+
+    private static BitSet random(Random random, int range, int count) {
+        BitSet bits = new BitSet();
+        for (int i = 0; i < count; i++) {
+            bits.set(random.nextInt(range));
+        }
+        return bits;
+    }
+
+    @Test
+    void testAddRemoveAcrossContainerKinds() {
+        RoomBitmap bitmap = new RoomBitmap();
+        for (int slot = 0; slot < 3 * RoomBitmap.ARRAY_LIMIT; slot += 2) {
+            bitmap.add(slot);
+        }
+        bitmap.add(70000);
+        assertEquals(3 * RoomBitmap.ARRAY_LIMIT / 2 + 1, bitmap.cardinality());
+        assertTrue(bitmap.contains(4096));
+        assertFalse(bitmap.contains(4097));
+        assertTrue(bitmap.contains(70000));
+
+        for (int slot = 0; slot < 3 * RoomBitmap.ARRAY_LIMIT; slot += 2) {
+            bitmap.remove(slot);
+        }
+        assertEquals(1, bitmap.cardinality());
+        bitmap.remove(70000);
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    void testSparseSetIsSmallerThanBitmap() {
+        RoomBitmap bitmap = new RoomBitmap();
+        for (int slot = 0; slot < 10000; slot += 100) {
+            bitmap.add(slot);
+        }
+        assertTrue(bitmap.sizeInBytes() < 10000 / 8);
+    }
+
+    /**
+     * Compares the operations with the same operations of {@link BitSet}, for sparse and dense sets spanning
+     * several containers.
+     */
+    @Test
+    void testOperationsAgreeWithBitSet() {
+        Random random = new Random(5);
+        int[] counts = {10, 3000, 5000, 60000};
+        for (int a : counts) {
+            for (int b : counts) {
+                BitSet first = random(random, 140000, a);
+                BitSet second = random(random, 140000, b);
+                RoomBitmap x = bitmap(first);
+                RoomBitmap y = bitmap(second);
+
+                BitSet and = (BitSet) first.clone();
+                and.and(second);
+                BitSet or = (BitSet) first.clone();
+                or.or(second);
+                BitSet andNot = (BitSet) first.clone();
+                andNot.andNot(second);
+
+                assertEquals(first.cardinality(), x.cardinality());
+                assertEquals(and, bits(x.and(y)));
+                assertEquals(and.cardinality(), x.andCardinality(y));
+                assertEquals(or, bits(x.or(y)));
+                assertEquals(or.cardinality(), x.or(y).cardinality());
+                assertEquals(andNot, bits(x.andNot(y)));
+                assertEquals(andNot.cardinality(), x.andNot(y).cardinality());
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RoomChangeSet} and the changes recorded by {@link Room} and {@link Guest}.
+ */
+class RoomChangeSetTest {
+    private IntRoomMap rooms;
+
+    @BeforeEach
+    void setUp() {
+        rooms = new RoomDirectory();
+        for (int number = 101; number <= 105; number++) {
+            Room room = new Room(number, 200, "Standard", 2);
+            room.clearChanges();
+            rooms.put(number, room);
+        }
+    }
+
+    private static List<Guest> guests(String name) {
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest(name, "jan@example.com", "980987", "123456789"));
+        return guests;
+    }
+
+    @Test
+    void testSettersRecordOnlyRealChanges() {
+        Room room = rooms.get(101);
+        room.setPrice(200);
+        room.setType("Standard");
+        room.setEndDate(null);
+        assertFalse(room.isChanged());
+
+        room.setPrice(250);
+        room.setStartDate(LocalDate.of(2024, 11, 1));
+        assertEquals(Room.PRICE | Room.START_DATE, room.getChanges());
+
+        room.clearChanges();
+        room.clear();
+        assertEquals(Room.START_DATE, room.getChanges());
+    }
+
+    @Test
+    void testGuestChangesAreChangesOfTheirRoom() {
+        Room room = rooms.get(102);
+        room.setGuests(guests("Jan Kowalski"));
+        room.clearChanges();
+
+        room.getGuests().get(0).setPhoneNumber("987654321");
+        assertEquals(Room.GUESTS, room.getChanges());
+
+        room.clearChanges();
+        room.clear();
+        assertEquals(Room.GUESTS, room.getChanges());
+    }
+
+    @Test
+    void testSetHoldsOnlyAddedChangedRooms() {
+        Room changed = rooms.get(104);
+        changed.setGuests(guests("Jan Kowalski"));
+        rooms.changes().add(changed);
+        rooms.changes().add(rooms.get(103));
+        Room added = new Room(150, 500, "Apartament", 4);
+        rooms.put(150, added);
+        rooms.changes().added(added);
+
+        assertEquals(2, rooms.changes().size());
+        List<Integer> numbers = new ArrayList<>();
+        rooms.changes().forEachRoom(room -> numbers.add(room.getNumber()));
+        assertEquals(List.of(104, 150), numbers);
+        assertEquals(Room.ALL_FIELDS, rooms.changes().fieldsOf(150));
+        assertEquals(Room.GUESTS, rooms.changes().fieldsOf(104));
+        assertFalse(changed.isChanged());
+    }
+
+    @Test
+    void testDrainTakesCopiesAndRestoreKeepsNewChanges() {
+        Room room = rooms.get(105);
+        room.setPrice(300);
+        rooms.changes().add(room);
+
+        RoomChangeSet drained = rooms.changes().drain();
+        assertTrue(rooms.changes().isEmpty());
+        assertFalse(room.isChanged());
+        Room[] copy = new Room[1];
+        drained.forEachRoom(r -> copy[0] = r);
+        assertNotSame(room, copy[0]);
+        assertEquals(Room.PRICE, copy[0].getChanges());
+        assertEquals(300, copy[0].getPrice());
+
+        room.setCapacity(3);
+        rooms.changes().add(room);
+        rooms.changes().restore(drained);
+        assertEquals(1, rooms.changes().size());
+        assertEquals(Room.PRICE | Room.CAPACITY, rooms.changes().fieldsOf(105));
+    }
+
+    @Test
+    void testSavedForgetsOnlyChangesUpToTheMark() {
+        Room first = rooms.get(101);
+        first.setPrice(250);
+        rooms.changes().add(first);
+        Room second = rooms.get(102);
+        second.setPrice(260);
+        rooms.changes().add(second);
+
+        long mark = rooms.changes().mark();
+        second.setCapacity(3);
+        rooms.changes().add(second);
+        rooms.changes().saved(mark);
+
+        assertEquals(1, rooms.changes().size());
+        assertEquals(0, rooms.changes().fieldsOf(101));
+        assertEquals(Room.PRICE | Room.CAPACITY, rooms.changes().fieldsOf(102));
+    }
+
+    @Test
+    void testReplayedJournalChangesArePending() throws IOException {
+        Path file = Files.createTempFile("rooms", ".journal");
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            Room room = new Room(rooms.get(101));
+            room.setGuests(guests("Jan Kowalski"));
+            journal.logCheckin(room);
+            journal.replay(rooms);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertEquals(1, rooms.changes().size());
+        assertTrue((rooms.changes().fieldsOf(101) & Room.GUESTS) != 0);
+    }
+}
@@ -0,0 +1,108 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RoomChanges}.
+ */
+class RoomChangesTest {
+
+    private static IntRoomMap rooms() {
+        IntRoomMap rooms = new RoomDirectory();
+        for (int number = 101; number <= 105; number++) {
+            rooms.put(number, new Room(number, 200, "Standard", 2));
+        }
+        return rooms;
+    }
+
+    private static Room checkedIn(Room room, String name) {
+        Room copy = new Room(room);
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest(name, "jan@example.com", "980987", "123456789"));
+        copy.setGuests(guests);
+        copy.setStartDate(LocalDate.of(2024, 11, 1));
+        copy.setEndDate(LocalDate.of(2024, 11, 4));
+        return copy;
+    }
+
+    @Test
+    void testBetweenFindsOnlyDifferentRooms() {
+        IntRoomMap before = rooms();
+        IntRoomMap after = new RoomDirectory();
+        before.forEachRoom(room -> after.put(room.getNumber(), new Room(room)));
+        after.put(102, checkedIn(before.get(102), "Jan Kowalski"));
+        after.put(103, new Room(103, 350, "Standard", 2));
+        after.remove(104);
+        after.put(201, new Room(201, 400, "Apartament", 4));
+
+        RoomChanges changes = RoomChanges.between(before, after);
+
+        assertEquals(4, changes.size());
+        assertEquals(3, changes.changed().size());
+        assertEquals("Jan Kowalski", changes.changed().get(102).getGuests().get(0).getName());
+        assertEquals(350, changes.changed().get(103).getPrice());
+        assertTrue(changes.changed().contains(201));
+        assertTrue(changes.removed().contains(104));
+        assertFalse(changes.changed().contains(101));
+        assertEquals(Room.GUESTS | Room.START_DATE | Room.END_DATE, changes.changed().get(102).getChanges());
+        assertEquals(Room.PRICE, changes.changed().get(103).getChanges());
+        assertEquals(Room.ALL_FIELDS, changes.changed().get(201).getChanges());
+    }
+
+    @Test
+    void testEqualVersionsHaveNoChanges() {
+        IntRoomMap before = rooms();
+        before.put(102, checkedIn(before.get(102), "Jan Kowalski"));
+        IntRoomMap after = new RoomDirectory();
+        before.forEachRoom(room -> after.put(room.getNumber(), checkedInCopy(room)));
+
+        assertTrue(RoomChanges.between(before, after).isEmpty());
+    }
+
+    @Test
+    void testSameComparesGuests() {
+        Room room = new Room(101, 200, "Standard", 2);
+        assertTrue(RoomChanges.same(checkedIn(room, "Jan Kowalski"), checkedIn(room, "Jan Kowalski")));
+        assertFalse(RoomChanges.same(checkedIn(room, "Jan Kowalski"), checkedIn(room, "Jan Nowak")));
+        assertFalse(RoomChanges.same(room, checkedIn(room, "Jan Kowalski")));
+        assertFalse(RoomChanges.same(room, null));
+        assertTrue(RoomChanges.same(null, null));
+    }
+
+    @Test
+    void testAddKeepsLaterState() {
+        IntRoomMap first = rooms();
+        IntRoomMap second = rooms();
+        second.remove(101);
+        second.put(102, checkedIn(first.get(102), "Jan Kowalski"));
+        IntRoomMap third = rooms();
+        third.remove(102);
+        third.put(103, checkedIn(first.get(103), "Anna Nowak"));
+
+        RoomChanges changes = RoomChanges.between(first, second);
+        changes.add(RoomChanges.between(second, third));
+
+        assertTrue(changes.changed().contains(101));
+        assertFalse(changes.removed().contains(101));
+        assertTrue(changes.removed().contains(102));
+        assertFalse(changes.changed().contains(102));
+        assertEquals("Anna Nowak", changes.changed().get(103).getGuests().get(0).getName());
+    }
+
+    private static Room checkedInCopy(Room room) {
+        Room copy = new Room(room);
+        List<Guest> guests = new ArrayList<>();
+        for (Guest guest : room.getGuests()) {
+            guests.add(new Guest(guest.getName(), guest.getEmailAddress(), guest.getIdNumber(),
+                    guest.getPhoneNumber()));
+        }
+        copy.setGuests(guests);
+        return copy;
+    }
+}
@@ -0,0 +1,101 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RoomCsv}.
+ */
+class RoomCsvTest {
+
+    private static IntRoomMap rooms() {
+        IntRoomMap rooms = new RoomDirectory();
+        rooms.put(101, new Room(101, 250, "Standard", 2));
+        Room room = new Room(102, 300, "Deluxe", 3);
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"));
+        guests.add(new Guest("Anna Kowalska"));
+        guests.add(new Guest("Łucja Kowalska"));
+        room.setGuests(guests);
+        room.setStartDate(LocalDate.of(2024, 11, 1));
+        room.setEndDate(LocalDate.of(2024, 11, 5));
+        room.setAdditionalInfo("Łóżeczko, \"duże\"\nprzy oknie");
+        rooms.put(102, room);
+        return rooms;
+    }
+
+    @Test
+    void testExportAndImportKeepTheWholeState() throws IOException {
+        StringWriter out = new StringWriter();
+        assertEquals(2, RoomCsv.export(rooms(), out));
+
+        List<Room> imported = new ArrayList<>();
+        assertEquals(2, RoomCsv.importRooms(new StringReader(out.toString()), imported::add));
+
+        Room free = imported.get(0);
+        assertEquals(101, free.getNumber());
+        assertTrue(free.isFree());
+        assertNull(free.getStartDate());
+        assertNull(free.getAdditionalInfo());
+
+        Room room = imported.get(1);
+        assertEquals(300, room.getPrice());
+        assertEquals("Deluxe", room.getType());
+        assertEquals(3, room.getCapacity());
+        assertEquals(LocalDate.of(2024, 11, 1), room.getStartDate());
+        assertEquals(LocalDate.of(2024, 11, 5), room.getEndDate());
+        assertEquals("Łóżeczko, \"duże\"\nprzy oknie", room.getAdditionalInfo());
+        assertEquals(3, room.getGuests().size());
+        Guest main = room.getGuests().get(0);
+        assertTrue(main.isMain());
+        assertEquals("jan@example.com", main.getEmailAddress());
+        assertEquals("980987", main.getIdNumber());
+        assertEquals("123456789", main.getPhoneNumber());
+        assertEquals("Łucja Kowalska", room.getGuests().get(2).getName());
+        assertFalse(room.getGuests().get(2).isMain());
+    }
+
+    @Test
+    void testColumnsAreFoundByName() throws IOException {
+        String csv = "other_guests,number,capacity,type,price,start_date,end_date,additional_info,"
+                + "main_guest_name,main_guest_email,main_guest_id,main_guest_phone\n"
+                + "Anna;Piotr,305,3,Standard,180,,,,,,,\n";
+
+        List<Room> imported = new ArrayList<>();
+        RoomCsv.importRooms(new StringReader(csv), imported::add);
+
+        Room room = imported.get(0);
+        assertEquals(305, room.getNumber());
+        assertEquals(180, room.getPrice());
+        assertEquals(2, room.getGuests().size());
+        assertEquals("Piotr", room.getGuests().get(1).getName());
+    }
+
+    @Test
+    void testInvalidRecordIsReported() {
+        String csv = "number,price,type,capacity,start_date,end_date,additional_info,"
+                + "main_guest_name,main_guest_email,main_guest_id,main_guest_phone,other_guests\n"
+                + "101,250,Standard,2,,,,,,,,\n"
+                + "102,250,Standard,2,2024-13-01,,,,,,,\n";
+
+        List<Room> imported = new ArrayList<>();
+        IOException e = assertThrows(IOException.class,
+                () -> RoomCsv.importRooms(new StringReader(csv), imported::add));
+        assertTrue(e.getMessage().contains("2"));
+        assertEquals(1, imported.size());
+    }
+
+    @Test
+    void testMissingColumnIsReported() {
+        String csv = "number,price\n101,250\n";
+        assertThrows(IOException.class, () -> RoomCsv.importRooms(new StringReader(csv), room -> { }));
+    }
+}
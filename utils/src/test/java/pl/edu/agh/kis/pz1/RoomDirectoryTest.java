@@ -0,0 +1,123 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test class for {@link RoomDirectory} class
+ * <p>This class checks lookups in the floor/slot array, the fallback for irregular numbers and per-floor operations.</p>
+ */
+class RoomDirectoryTest {
+    private RoomDirectory rooms;
+
+    /**
+     * Sets up a directory with rooms on two floors and one room outside of the numbering scheme.
+     */
+    @BeforeEach
+    void setUp() {
+        rooms = new RoomDirectory();
+        rooms.put(302, new Room(302, 300, "Deluxe", 2));
+        rooms.put(101, new Room(101, 250, "Standard", 2));
+        rooms.put(102, new Room(102, 400, "Deluxe", 2));
+        rooms.put(301, new Room(301, 500, "Apartment", 4));
+        rooms.put(7, new Room(7, 150, "Standard", 1));
+    }
+
+    /**
+     * Tests lookups of rooms stored in the array and in the fallback table.
+     */
+    @Test
+    void get() {
+        assertEquals(400, rooms.get(102).getPrice());
+        assertEquals(150, rooms.get(7).getPrice());
+        assertNull(rooms.get(103));
+        assertNull(rooms.get(901));
+        assertNull(rooms.get(-5));
+        assertEquals(5, rooms.size());
+    }
+
+    /**
+     * Tests if removing works for both storage areas and keeps the size correct.
+     */
+    @Test
+    void remove() {
+        assertTrue(rooms.remove(101));
+        assertTrue(rooms.remove(7));
+        assertFalse(rooms.remove(101));
+        assertFalse(rooms.contains(101));
+        assertFalse(rooms.contains(7));
+        assertEquals(3, rooms.size());
+    }
+
+    /**
+     * Tests if rooms are visited in room number order, followed by the fallback rooms.
+     */
+    @Test
+    void iterationOrder() {
+        List<Integer> visited = new ArrayList<>();
+        rooms.forEachRoom(room -> visited.add(room.getNumber()));
+        assertEquals(List.of(101, 102, 301, 302, 7), visited);
+        assertEquals(List.of(101, 102, 301, 302, 7), rooms.keys());
+
+        List<Integer> numbers = new ArrayList<>();
+        rooms.forEach((number, room) -> {
+            assertEquals(number.intValue(), room.getNumber());
+            numbers.add(number);
+        });
+        assertEquals(List.of(101, 102, 301, 302, 7), numbers);
+    }
+
+    /**
+     * Tests per-floor listing and counting of free rooms.
+     */
+    @Test
+    void floorOperations() {
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski"));
+        rooms.get(301).setGuests(guests);
+
+        List<Integer> floor3 = new ArrayList<>();
+        rooms.forEachRoomOnFloor(3, room -> floor3.add(room.getNumber()));
+        assertEquals(List.of(301, 302), floor3);
+        assertEquals(1, rooms.countFreeRoomsOnFloor(3));
+        assertEquals(2, rooms.countFreeRoomsOnFloor(1));
+        assertEquals(0, rooms.countFreeRoomsOnFloor(2));
+        assertEquals(1, rooms.countFreeRoomsOnFloor(0));
+    }
+
+    /**
+     * Tests that high floors and rooms above the array limit are both stored correctly.
+     */
+    @Test
+    void highFloors() {
+        rooms.put(99901, new Room(99901, 100, "Standard", 2));
+        rooms.put(100001, new Room(100001, 100, "Standard", 2));
+        assertTrue(rooms.contains(99901));
+        assertTrue(rooms.contains(100001));
+        assertEquals(7, rooms.size());
+    }
+
+    /**
+     * Tests range iteration across floors, partial floors and the fallback table.
+     */
+    @Test
+    void rangeIteration() {
+        rooms.put(100001, new Room(100001, 100, "Standard", 2));
+        List<Integer> visited = new ArrayList<>();
+        rooms.forEachRoomInRange(102, 301, room -> visited.add(room.getNumber()));
+        assertEquals(List.of(102, 301), visited);
+
+        visited.clear();
+        rooms.forEachRoomInRange(0, Integer.MAX_VALUE, room -> visited.add(room.getNumber()));
+        assertEquals(List.of(7, 101, 102, 301, 302, 100001), visited);
+
+        visited.clear();
+        rooms.forEachRoomInRange(303, 99999, room -> visited.add(room.getNumber()));
+        assertTrue(visited.isEmpty());
+    }
+}
@@ -0,0 +1,229 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RoomJournal}.
+ */
+class RoomJournalTest {
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("rooms", ".journal");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static IntRoomMap freeRooms() {
+        IntRoomMap rooms = new RoomDirectory();
+        for (int number = 101; number <= 110; number++) {
+            rooms.put(number, new Room(number, 200, "Standard", 2));
+        }
+        return rooms;
+    }
+
+    private static Room checkedIn(int number) {
+        Room room = new Room(number, 200, "Standard", 2);
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"));
+        guests.add(new Guest("Anna Kowalska"));
+        room.setGuests(guests);
+        room.setStartDate(LocalDate.of(2024, 11, 1));
+        room.setEndDate(LocalDate.of(2024, 11, 4));
+        room.setAdditionalInfo("Późny przyjazd");
+        return room;
+    }
+
+    @Test
+    void testReplayAppliesCheckinsAndCheckouts() throws IOException {
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            journal.logCheckin(checkedIn(101));
+            journal.logCheckin(checkedIn(102));
+            journal.logCheckout(102);
+        }
+
+        IntRoomMap rooms = freeRooms();
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            assertEquals(3, journal.replay(rooms));
+        }
+
+        Room room = rooms.get(101);
+        assertEquals(2, room.getGuests().size());
+        assertTrue(room.getGuests().get(0).isMain());
+        assertEquals("980987", room.getGuests().get(0).getIdNumber());
+        assertEquals("Anna Kowalska", room.getGuests().get(1).getName());
+        assertEquals(LocalDate.of(2024, 11, 4), room.getEndDate());
+        assertEquals("Późny przyjazd", room.getAdditionalInfo());
+        assertTrue(rooms.get(102).isFree());
+    }
+
+    @Test
+    void testAppendsAfterReopening() throws IOException {
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            journal.logCheckin(checkedIn(101));
+        }
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            journal.logCheckin(checkedIn(103));
+        }
+
+        IntRoomMap rooms = freeRooms();
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            assertEquals(2, journal.replay(rooms));
+        }
+        assertFalse(rooms.get(101).isFree());
+        assertFalse(rooms.get(103).isFree());
+    }
+
+    @Test
+    void testTornRecordIsCutOff() throws IOException {
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            journal.logCheckin(checkedIn(101));
+            journal.logCheckin(checkedIn(102));
+        }
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        IntRoomMap rooms = freeRooms();
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            assertEquals(1, journal.replay(rooms));
+            journal.logCheckin(checkedIn(104));
+        }
+        assertTrue(rooms.get(102).isFree());
+
+        rooms = freeRooms();
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            assertEquals(2, journal.replay(rooms));
+        }
+        assertFalse(rooms.get(101).isFree());
+        assertFalse(rooms.get(104).isFree());
+    }
+
+    @Test
+    void testCorruptLengthIsCutOff() throws IOException {
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            journal.logCheckin(checkedIn(101));
+        }
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // a header claiming a record of 2 GB, far beyond the end of the file
+            channel.write(ByteBuffer.allocate(8).putInt(Integer.MAX_VALUE).putInt(0).flip(), size);
+        }
+
+        IntRoomMap rooms = freeRooms();
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            assertEquals(1, journal.replay(rooms));
+        }
+        assertEquals(size, Files.size(file));
+    }
+
+    @Test
+    void testFailedWriteIsReported() throws IOException {
+        RoomJournal journal = RoomJournal.open(file);
+        journal.logCheckin(checkedIn(101));
+        journal.close();
+
+        assertThrows(IOException.class, () -> journal.logCheckin(checkedIn(102)));
+        assertThrows(IOException.class, () -> journal.logCheckout(101));
+    }
+
+    @Test
+    void testLogChangesWritesAllRecordsWithOneSync() throws IOException {
+        Room checkedOut = new Room(102, 200, "Standard", 2);
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            journal.logCheckin(checkedIn(102));
+            long syncs = journal.syncCount();
+            journal.logChanges(List.of(checkedIn(101), checkedOut, checkedIn(103), checkedIn(104)));
+            assertEquals(syncs + 1, journal.syncCount());
+        }
+
+        IntRoomMap rooms = freeRooms();
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            assertEquals(5, journal.replay(rooms));
+        }
+        assertEquals("Późny przyjazd", rooms.get(101).getAdditionalInfo());
+        assertTrue(rooms.get(102).isFree());
+        assertFalse(rooms.get(103).isFree());
+        assertFalse(rooms.get(104).isFree());
+    }
+
+    @Test
+    void testResetEmptiesJournal() throws IOException {
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            assertFalse(journal.hasChanges());
+            journal.logCheckin(checkedIn(101));
+            assertTrue(journal.hasChanges());
+
+            journal.reset();
+            assertFalse(journal.hasChanges());
+            journal.logCheckout(105);
+        }
+
+        IntRoomMap rooms = freeRooms();
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            assertEquals(1, journal.replay(rooms));
+        }
+        assertTrue(rooms.get(101).isFree());
+    }
+
+    @Test
+    void testConcurrentAppendsAreAllDurable() throws Exception {
+        int threads = 8;
+        int perThread = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long syncs;
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int number = 101 + t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        journal.logCheckin(checkedIn(number));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            syncs = journal.syncCount();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(syncs <= threads * perThread);
+
+        IntRoomMap rooms = freeRooms();
+        try (RoomJournal journal = RoomJournal.open(file)) {
+            assertEquals(threads * perThread, journal.replay(rooms));
+        }
+        for (int number = 101; number < 101 + threads; number++) {
+            assertFalse(rooms.get(number).isFree());
+        }
+    }
+}
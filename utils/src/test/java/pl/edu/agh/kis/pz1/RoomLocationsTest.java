@@ -0,0 +1,52 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RoomLocations}.
+ */
+class RoomLocationsTest {
+
+    @Test
+    void testPutAndGet() {
+        RoomLocations locations = new RoomLocations();
+        locations.put(101, 0, 7);
+        locations.put(1250, 11, 150);
+
+        long position = locations.get(1250);
+        assertEquals(11, RoomLocations.sheet(position));
+        assertEquals(150, RoomLocations.row(position));
+        assertEquals(7, RoomLocations.row(locations.get(101)));
+        assertEquals(RoomLocations.MISSING, locations.get(102));
+        assertEquals(2, locations.size());
+    }
+
+    @Test
+    void testPutReplacesPosition() {
+        RoomLocations locations = new RoomLocations();
+        locations.put(101, 0, 1);
+        locations.put(101, 2, 40);
+
+        assertEquals(1, locations.size());
+        assertEquals(2, RoomLocations.sheet(locations.get(101)));
+        assertEquals(40, RoomLocations.row(locations.get(101)));
+    }
+
+    @Test
+    void testGrowsBeyondInitialCapacity() {
+        RoomLocations locations = new RoomLocations();
+        for (int number = 1; number <= 5000; number++) {
+            locations.put(number, number / 100, number % 100 + 1);
+        }
+
+        assertEquals(5000, locations.size());
+        for (int number = 1; number <= 5000; number++) {
+            long position = locations.get(number);
+            assertEquals(number / 100, RoomLocations.sheet(position));
+            assertEquals(number % 100 + 1, RoomLocations.row(position));
+        }
+        assertEquals(RoomLocations.MISSING, locations.get(0));
+    }
+}
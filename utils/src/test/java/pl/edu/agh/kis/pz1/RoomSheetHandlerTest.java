@@ -0,0 +1,95 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.Test;
+
+import javax.xml.parsers.SAXParserFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test class for {@link RoomSheetHandler} class
+ * <p>This class feeds the handler with sheet XML in the format written by Excel and checks the rooms it
+ * produces.</p>
+ */
+class RoomSheetHandlerTest {
+    private static final List<String> SHARED_STRINGS = List.of(
+            "Room number", "Standard", "Deluxe", "jan kowalski,jkowalski@gmail.com,09876789654,675373271",
+            "marcin nowak");
+
+    private List<Room> parse(String sheetData) throws Exception {
+        String xml = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                + "<sheetData>" + sheetData + "</sheetData></worksheet>";
+        List<Room> rooms = new ArrayList<>();
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.newSAXParser().parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+                new RoomSheetHandler(SHARED_STRINGS::get, rooms::add));
+        return rooms;
+    }
+
+    /**
+     * Tests a sheet with a header, a free room and an occupied room.
+     */
+    @Test
+    void parsesRooms() throws Exception {
+        List<Room> rooms = parse(
+                "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c></row>"
+                + "<row r=\"2\"><c r=\"A2\"><v>101</v></c><c r=\"B2\"><v>250</v></c>"
+                + "<c r=\"C2\" t=\"s\"><v>1</v></c><c r=\"D2\"><v>2</v></c></row>"
+                + "<row r=\"3\"><c r=\"A3\"><v>102</v></c><c r=\"B3\"><v>400</v></c>"
+                + "<c r=\"C3\" t=\"s\"><v>2</v></c><c r=\"D3\"><v>3</v></c>"
+                + "<c r=\"E3\" t=\"s\"><v>3</v></c><c r=\"F3\" t=\"s\"><v>4</v></c>"
+                + "<c r=\"I3\" s=\"1\"><v>45613</v></c><c r=\"J3\" s=\"1\"><v>45616</v></c></row>");
+
+        assertEquals(2, rooms.size());
+        Room free = rooms.get(0);
+        assertEquals(101, free.getNumber());
+        assertEquals(250, free.getPrice());
+        assertEquals("Standard", free.getType());
+        assertEquals(2, free.getCapacity());
+        assertTrue(free.isFree());
+        assertNull(free.getStartDate());
+
+        Room occupied = rooms.get(1);
+        assertEquals("Deluxe", occupied.getType());
+        assertEquals(2, occupied.getGuests().size());
+        assertTrue(occupied.getGuests().get(0).isMain());
+        assertEquals("jkowalski@gmail.com", occupied.getGuests().get(0).getEmailAddress());
+        assertEquals("marcin nowak", occupied.getGuests().get(1).getName());
+        assertEquals(LocalDate.of(2024, 11, 17), occupied.getStartDate());
+        assertEquals(LocalDate.of(2024, 11, 20), occupied.getEndDate());
+    }
+
+    /**
+     * Tests inline strings, cells without references and rows without a room number.
+     */
+    @Test
+    void handlesInlineStringsAndEmptyRows() throws Exception {
+        List<Room> rooms = parse(
+                "<row><c t=\"inlineStr\"><is><t>Header</t></is></c></row>"
+                + "<row><c t=\"inlineStr\"><is><t>Notatki</t></is></c></row>"
+                + "<row><c><v>201</v></c><c><v>300</v></c><c t=\"inlineStr\"><is><r><t>Apart</t></r>"
+                + "<r><t>ment</t></r></is></c><c><v>4</v></c></row>"
+                + "<row><c r=\"B4\"><v>100</v></c></row>");
+
+        assertEquals(1, rooms.size());
+        assertEquals(201, rooms.get(0).getNumber());
+        assertEquals("Apartment", rooms.get(0).getType());
+        assertEquals(4, rooms.get(0).getCapacity());
+    }
+
+    /**
+     * Tests conversion of cell references to column indexes.
+     */
+    @Test
+    void columnIndex() {
+        assertEquals(0, RoomSheetHandler.columnIndex("A1"));
+        assertEquals(10, RoomSheetHandler.columnIndex("K12"));
+        assertEquals(27, RoomSheetHandler.columnIndex("AB3"));
+    }
+}
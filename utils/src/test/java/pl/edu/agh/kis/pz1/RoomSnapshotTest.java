@@ -0,0 +1,104 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RoomSnapshot}, using a plain file in place of the workbook.
+ */
+class RoomSnapshotTest {
+    private Path workbook;
+    private Path snapshot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        workbook = Files.createTempFile("rooms", ".xlsx");
+        Files.write(workbook, "workbook content".getBytes(StandardCharsets.UTF_8));
+        snapshot = workbook.resolveSibling(workbook.getFileName() + ".snapshot");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(workbook);
+        Files.deleteIfExists(snapshot);
+    }
+
+    private static IntRoomMap rooms() {
+        IntRoomMap rooms = new RoomDirectory();
+        rooms.put(101, new Room(101, 250, "Standard", 2));
+        Room room = new Room(205, 400, "Apartament", 4);
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"));
+        guests.add(new Guest("Zofia Wójcik"));
+        room.setGuests(guests);
+        room.setStartDate(LocalDate.of(2024, 11, 1));
+        room.setEndDate(LocalDate.of(2024, 11, 8));
+        room.setAdditionalInfo("Śniadanie do pokoju");
+        rooms.put(205, room);
+        return rooms;
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        RoomSnapshot.write(snapshot, workbook, rooms());
+
+        IntRoomMap read = RoomSnapshot.read(snapshot, workbook);
+        assertNotNull(read);
+        assertEquals(2, read.size());
+        assertEquals("Standard", read.get(101).getType());
+        assertTrue(read.get(101).isFree());
+        assertNull(read.get(101).getStartDate());
+
+        Room room = read.get(205);
+        assertEquals(400, room.getPrice());
+        assertEquals(4, room.getCapacity());
+        assertEquals("980987", room.getGuests().get(0).getIdNumber());
+        assertTrue(room.getGuests().get(0).isMain());
+        assertEquals("Zofia Wójcik", room.getGuests().get(1).getName());
+        assertFalse(room.getGuests().get(1).isMain());
+        assertEquals(LocalDate.of(2024, 11, 8), room.getEndDate());
+        assertEquals("Śniadanie do pokoju", room.getAdditionalInfo());
+    }
+
+    @Test
+    void testMissingSnapshot() throws IOException {
+        assertNull(RoomSnapshot.read(snapshot, workbook));
+    }
+
+    @Test
+    void testChangedWorkbookMakesSnapshotStale() throws IOException {
+        RoomSnapshot.write(snapshot, workbook, rooms());
+        FileTime modified = Files.getLastModifiedTime(workbook);
+
+        // same size and modification time, different content
+        Files.write(workbook, "workbook CONTENT".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(workbook, modified);
+        assertNull(RoomSnapshot.read(snapshot, workbook));
+
+        RoomSnapshot.write(snapshot, workbook, rooms());
+        Files.write(workbook, "a longer workbook content".getBytes(StandardCharsets.UTF_8));
+        assertNull(RoomSnapshot.read(snapshot, workbook));
+    }
+
+    @Test
+    void testTruncatedSnapshotIsIgnored() throws IOException {
+        RoomSnapshot.write(snapshot, workbook, rooms());
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 10));
+
+        assertNull(RoomSnapshot.read(snapshot, workbook));
+    }
+}
@@ -0,0 +1,121 @@
+package pl.edu.agh.kis.pz1;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A simple benchmark comparing the time and peak heap of saving the rooms workbook the old way, by writing a
+ * whole {@link XSSFWorkbook} held in memory, against {@link RoomWorkbookWriter}, which streams the rows with
+ * a bounded window.
+ * <p>This is not a unit test; run its {@code main} method from the IDE or with
+ * {@code java -cp <test classes>:<classes>:<dependencies> pl.edu.agh.kis.pz1.SaveBenchmark [rooms...]}.
+ * Run it with a fixed heap (for example {@code -Xmx2g}) so the peaks of both paths are comparable.</p>
+ */
+public class SaveBenchmark {
+    private SaveBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optionally, the numbers of rooms to save (default 1000, 10000 and 100000).
+     * @throws IOException if a workbook cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int[] sizes = {1_000, 10_000, 100_000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        Path file = Files.createTempFile("rooms", ".xlsx");
+        try {
+            for (int size : sizes) {
+                RoomDirectory rooms = createRooms(size);
+                // warm up both paths once so the first measurement does not include class loading
+                saveWithWorkbook(rooms, file);
+                RoomWorkbookWriter.write(rooms, file.toString(), RoomWorkbookWriter.ROW_WINDOW);
+
+                resetPeaks();
+                long start = System.nanoTime();
+                saveWithWorkbook(rooms, file);
+                report("XSSFWorkbook", size, System.nanoTime() - start, peakHeap(), Files.size(file));
+
+                resetPeaks();
+                start = System.nanoTime();
+                RoomWorkbookWriter.write(rooms, file.toString(), RoomWorkbookWriter.ROW_WINDOW);
+                report("SXSSF writer", size, System.nanoTime() - start, peakHeap(), Files.size(file));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * The old save path: the whole workbook is built in memory, as {@link ExcelHandler} holds it, and written.
+     */
+    private static void saveWithWorkbook(IntRoomMap rooms, Path file) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            RoomWorkbookWriter.write(rooms, workbook);
+            workbook.write(out);
+        }
+    }
+
+    private static RoomDirectory createRooms(int count) {
+        RoomDirectory rooms = new RoomDirectory();
+        for (int i = 0; i < count; i++) {
+            // 99 rooms per floor, numbered 1..99 on each floor
+            int number = (i / 99 + 1) * 100 + i % 99 + 1;
+            Room room = new Room(number, 200 + i % 300, i % 3 == 0 ? "Deluxe" : "Standard", 2);
+            if (i % 2 == 0) {
+                List<Guest> guests = new ArrayList<>();
+                guests.add(new Guest("Jan Kowalski " + i, "jan" + i + "@example.com", "980987" + i, "123456789"));
+                guests.add(new Guest("Anna Kowalska " + i));
+                room.setGuests(guests);
+                room.setStartDate(LocalDate.of(2024, 11, 1).plusDays(i % 30));
+                room.setEndDate(LocalDate.of(2024, 12, 1).plusDays(i % 30));
+            }
+            rooms.put(number, room);
+        }
+        return rooms;
+    }
+
+    private static void report(String name, int rooms, long nanos, long peakBytes, long fileBytes) {
+        System.out.println(name + ": " + rooms + " rooms");
+        System.out.println("  save time: " + nanos / 1_000_000 + " ms");
+        System.out.println("  peak heap: " + peakBytes / 1024 / 1024 + " MB");
+        System.out.println("  file size: " + fileBytes / 1024 + " KB");
+    }
+
+    private static void resetPeaks() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,77 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ShardManifest}.
+ */
+class ShardManifestTest {
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("rooms", ".manifest");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testReadResolvesFilesAndSkipsComments() throws IOException {
+        Files.write(file, List.of("# shards", "", "wing-b.xlsx 3-5", "wing-a.xlsx 1-2"), StandardCharsets.UTF_8);
+        ShardManifest manifest = ShardManifest.read(file);
+
+        assertEquals(2, manifest.shards().size());
+        ShardManifest.Shard first = manifest.shards().get(0);
+        assertEquals(file.toAbsolutePath().getParent().resolve("wing-a.xlsx"), first.getFile());
+        assertEquals(1, first.getFromFloor());
+        assertEquals(2, first.getToFloor());
+        assertEquals(3, manifest.shards().get(1).getFromFloor());
+    }
+
+    @Test
+    void testShardOfClampsFloorsOutsideTheRanges() {
+        ShardManifest manifest = ShardManifest.split(file.getParent(), "rooms", 5, 2);
+        assertEquals(3, manifest.shards().size());
+        assertEquals(0, manifest.shardOf(50));
+        assertEquals(0, manifest.shardOf(210));
+        assertEquals(1, manifest.shardOf(301));
+        assertEquals(2, manifest.shardOf(505));
+        assertEquals(2, manifest.shardOf(1207));
+        assertEquals(file.getParent().resolve("rooms-5-6.xlsx"), manifest.shards().get(2).getFile());
+    }
+
+    @Test
+    void testWriteAndReadKeepTheShards() throws IOException {
+        ShardManifest written = ShardManifest.split(file.toAbsolutePath().getParent(), "rooms", 3, 1);
+        written.write(file);
+        ShardManifest read = ShardManifest.read(file);
+
+        assertEquals(3, read.shards().size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(written.shards().get(i).getFile(), read.shards().get(i).getFile());
+            assertEquals(i + 1, read.shards().get(i).getFromFloor());
+            assertEquals(i + 1, read.shards().get(i).getToFloor());
+        }
+    }
+
+    @Test
+    void testInvalidManifestIsRejected() throws IOException {
+        Files.write(file, List.of("a.xlsx 1-3", "b.xlsx 3-4"), StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> ShardManifest.read(file));
+        Files.write(file, List.of("a.xlsx first-floor"), StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> ShardManifest.read(file));
+    }
+}
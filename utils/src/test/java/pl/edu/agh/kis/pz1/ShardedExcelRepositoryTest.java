@@ -0,0 +1,148 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ShardedExcelRepository}, on a workbook split into one workbook per floor in a temporary
+ * directory.
+ */
+class ShardedExcelRepositoryTest {
+    private Path directory;
+    private String manifest;
+    private String journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("rooms");
+        String workbook = directory.resolve("rooms.xlsx").toString();
+        RoomWorkbookWriter.write(fileRooms(), workbook, RoomWorkbookWriter.ROW_WINDOW);
+        manifest = directory.resolve("rooms.manifest").toString();
+        journal = directory.resolve("rooms.shards.journal").toString();
+        assertEquals(3, ShardedExcelRepository.split(workbook, manifest, 1));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static IntRoomMap fileRooms() {
+        IntRoomMap rooms = new RoomDirectory();
+        for (int floor = 1; floor <= 3; floor++) {
+            for (int slot = 1; slot <= 5; slot++) {
+                int number = floor * 100 + slot;
+                rooms.put(number, new Room(number, 100 * floor, "Standard", 2));
+            }
+        }
+        return rooms;
+    }
+
+    private static void checkin(Room room) {
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"));
+        room.setGuests(guests);
+        room.setStartDate(LocalDate.of(2024, 11, 1));
+        room.setEndDate(LocalDate.of(2024, 11, 4));
+    }
+
+    /**
+     * Marks the workbook of a floor as old, so a later write shows in its modification time.
+     */
+    private FileTime age(int floor) throws IOException {
+        Path shard = directory.resolve("rooms-" + floor + ".xlsx");
+        FileTime old = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(shard, old);
+        return old;
+    }
+
+    private FileTime modified(int floor) throws IOException {
+        return Files.getLastModifiedTime(directory.resolve("rooms-" + floor + ".xlsx"));
+    }
+
+    @Test
+    void testSplitWorkbookReadsAllRooms() throws IOException {
+        try (ShardedExcelRepository repository = new ShardedExcelRepository(manifest, journal)) {
+            repository.setParallelism(3);
+            IntRoomMap rooms = repository.getRoomsData();
+            assertEquals(15, rooms.size());
+            assertEquals(300, rooms.get(305).getPrice());
+        }
+    }
+
+    @Test
+    void testSaveWritesOnlyChangedShards() throws IOException {
+        try (ShardedExcelRepository repository = new ShardedExcelRepository(manifest, journal)) {
+            IntRoomMap rooms = repository.getRoomsData();
+            FileTime first = age(1);
+            FileTime second = age(2);
+            FileTime third = age(3);
+
+            checkin(rooms.get(203));
+            repository.updateRoomInfo(rooms.get(203));
+            assertEquals(1, repository.writeChanged(rooms));
+
+            assertEquals(first, modified(1));
+            assertNotEquals(second, modified(2));
+            assertEquals(third, modified(3));
+            assertEquals(0, repository.writeChanged(rooms));
+        }
+        try (ShardedExcelRepository repository = new ShardedExcelRepository(manifest, journal)) {
+            assertEquals("Jan Kowalski", repository.getRoomsData().get(203).getGuests().get(0).getName());
+        }
+    }
+
+    @Test
+    void testJournalIsReplayedAndFlushed() throws IOException {
+        try (ShardedExcelRepository repository = new ShardedExcelRepository(manifest, journal)) {
+            IntRoomMap rooms = repository.getRoomsData();
+            checkin(rooms.get(304));
+            repository.updateRooms(List.of(rooms.get(304)));
+        }
+        try (ShardedExcelRepository repository = new ShardedExcelRepository(manifest, journal)) {
+            IntRoomMap rooms = repository.getRoomsData();
+            assertFalse(rooms.get(304).isFree());
+            FileTime first = age(1);
+            repository.flush(rooms);
+            assertEquals(first, modified(1));
+        }
+        try (ShardedExcelRepository repository = new ShardedExcelRepository(manifest, journal)) {
+            IntRoomMap rooms = repository.getRoomsData();
+            assertFalse(rooms.get(304).isFree());
+            assertEquals(0, repository.writeChanged(rooms));
+        }
+    }
+
+    @Test
+    void testRoomsChangedWithoutReportAreSaved() throws IOException {
+        try (ShardedExcelRepository repository = new ShardedExcelRepository(manifest, journal)) {
+            IntRoomMap rooms = repository.getRoomsData();
+            rooms.put(106, new Room(106, 500, "Apartament", 4));
+            rooms.get(102).setPrice(150);
+            assertEquals(1, repository.writeChanged(rooms));
+        }
+        try (ShardedExcelRepository repository = new ShardedExcelRepository(manifest, journal)) {
+            IntRoomMap rooms = repository.getRoomsData();
+            assertEquals(16, rooms.size());
+            assertEquals(500, rooms.get(106).getPrice());
+            assertEquals(150, rooms.get(102).getPrice());
+        }
+    }
+}
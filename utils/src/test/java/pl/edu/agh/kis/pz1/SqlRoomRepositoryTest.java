@@ -0,0 +1,193 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link SqlRoomRepository}, on an H2 database in a temporary directory.
+ */
+class SqlRoomRepositoryTest {
+    private Path directory;
+    private String databasePath;
+    private SqlRoomRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("rooms");
+        databasePath = directory.resolve("rooms").toString();
+        repository = SqlRoomRepository.open(databasePath);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        repository.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static IntRoomMap rooms() {
+        IntRoomMap rooms = new RoomDirectory();
+        rooms.put(101, new Room(101, 250, "Standard", 2));
+        rooms.put(102, new Room(102, 300, "Deluxe", 3));
+        return rooms;
+    }
+
+    private static void checkin(Room room) {
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest("Jan Kowalski", "jan@example.com", "980987", "123456789"));
+        guests.add(new Guest("Anna Kowalska"));
+        room.setGuests(guests);
+        room.setStartDate(LocalDate.of(2024, 11, 1));
+        room.setEndDate(LocalDate.of(2024, 11, 5));
+        room.setAdditionalInfo("Łóżeczko dla dziecka");
+    }
+
+    @Test
+    void testSaveAndRead() {
+        IntRoomMap rooms = rooms();
+        checkin(rooms.get(102));
+        repository.save(rooms);
+
+        IntRoomMap read = repository.getRoomsData();
+        assertEquals(2, read.size());
+        assertTrue(read.get(101).isFree());
+        Room room = read.get(102);
+        assertEquals(300, room.getPrice());
+        assertEquals("Deluxe", room.getType());
+        assertEquals(LocalDate.of(2024, 11, 5), room.getEndDate());
+        assertEquals("Łóżeczko dla dziecka", room.getAdditionalInfo());
+        assertEquals(2, room.getGuests().size());
+        assertTrue(room.getGuests().get(0).isMain());
+        assertEquals("980987", room.getGuests().get(0).getIdNumber());
+        assertEquals("Anna Kowalska", room.getGuests().get(1).getName());
+    }
+
+    @Test
+    void testCheckinAndCheckoutAreStored() throws IOException {
+        IntRoomMap rooms = rooms();
+        repository.save(rooms);
+        Room room = rooms.get(101);
+        checkin(room);
+        repository.updateRoomInfo(room);
+        repository.close();
+
+        repository = SqlRoomRepository.open(databasePath);
+        Room read = repository.getRoomsData().get(101);
+        assertEquals(2, read.getGuests().size());
+        assertEquals(LocalDate.of(2024, 11, 1), read.getStartDate());
+
+        room.clear();
+        repository.clearRoomInfo(room);
+        read = repository.getRoomsData().get(101);
+        assertTrue(read.isFree());
+        assertNull(read.getStartDate());
+        assertNull(read.getAdditionalInfo());
+        assertEquals(250, read.getPrice());
+    }
+
+    @Test
+    void testUpdateAddsMissingRoom() {
+        Room room = new Room(205, 400, "Apartament", 4);
+        checkin(room);
+        repository.updateRoomInfo(room);
+
+        Room read = repository.getRoomsData().get(205);
+        assertEquals("Apartament", read.getType());
+        assertEquals(2, read.getGuests().size());
+    }
+
+    @Test
+    void testUpdateRoomsStoresAllChanges() {
+        IntRoomMap rooms = rooms();
+        checkin(rooms.get(102));
+        repository.save(rooms);
+
+        Room first = rooms.get(101);
+        checkin(first);
+        Room second = rooms.get(102);
+        second.clear();
+        Room added = new Room(205, 400, "Apartament", 4);
+        checkin(added);
+        Room again = new Room(101, 250, "Standard", 2);
+        checkin(again);
+        again.setAdditionalInfo("Zmiana");
+        repository.updateRooms(List.of(first, second, added, again));
+
+        IntRoomMap read = repository.getRoomsData();
+        assertEquals(3, read.size());
+        assertEquals("Zmiana", read.get(101).getAdditionalInfo());
+        assertEquals(2, read.get(101).getGuests().size());
+        assertTrue(read.get(102).isFree());
+        assertNull(read.get(102).getEndDate());
+        assertEquals("Apartament", read.get(205).getType());
+        assertEquals(2, read.get(205).getGuests().size());
+    }
+
+    @Test
+    void testMigrateFromExcelFile() throws IOException {
+        IntRoomMap rooms = new RoomDirectory();
+        for (int floor = 1; floor <= 6; floor++) {
+            for (int slot = 1; slot < 100; slot++) {
+                int number = floor * 100 + slot;
+                rooms.put(number, new Room(number, 100 + slot, "Standard", 2));
+            }
+        }
+        checkin(rooms.get(603));
+        Path workbook = directory.resolve("rooms.xlsx");
+        RoomWorkbookWriter.write(rooms, workbook.toString(), RoomWorkbookWriter.ROW_WINDOW);
+        repository.save(rooms());
+
+        int count;
+        try (ExcelHandler source = new ExcelHandler(workbook.toString(), ExcelHandler.LoadMode.STREAMING)) {
+            count = repository.migrateFrom(source);
+        }
+
+        assertEquals(rooms.size(), count);
+        IntRoomMap read = repository.getRoomsData();
+        assertEquals(rooms.size(), read.size());
+        assertEquals(101, read.get(101).getPrice());
+        assertEquals("Jan Kowalski", read.get(603).getGuests().get(0).getName());
+        assertEquals(LocalDate.of(2024, 11, 5), read.get(603).getEndDate());
+    }
+
+    @Test
+    void testFailedMigrationKeepsDatabase() throws IOException {
+        repository.save(rooms());
+        Path workbook = directory.resolve("rooms.xlsx");
+        RoomWorkbookWriter.write(rooms(), workbook.toString(), RoomWorkbookWriter.ROW_WINDOW);
+
+        // a reader failing after more rooms than fit in one batch
+        try (ExcelHandler source = new ExcelHandler(workbook.toString(), ExcelHandler.LoadMode.STREAMING) {
+            @Override
+            void readRooms(Consumer<Room> consumer) {
+                for (int number = 1; number <= SqlRoomRepository.BATCH_SIZE + 1; number++) {
+                    consumer.accept(new Room(number, 100, "Standard", 2));
+                }
+                throw new UncheckedIOException(new IOException("broken file"));
+            }
+        }) {
+            IOException e = assertThrows(IOException.class, () -> repository.migrateFrom(source));
+            assertEquals("broken file", e.getMessage());
+        }
+        IntRoomMap read = repository.getRoomsData();
+        assertEquals(2, read.size());
+        assertEquals("Deluxe", read.get(102).getType());
+    }
+}
@@ -0,0 +1,207 @@
+package pl.edu.agh.kis.pz1;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link WorkbookWatcher}, on a workbook in a temporary directory changed by "another program".
+ */
+class WorkbookWatcherTest {
+    private Path directory;
+    private String workbook;
+    private ExcelHandler excelHandler;
+    private IntRoomMap rooms;
+    private WorkbookWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("rooms");
+        workbook = directory.resolve("rooms.xlsx").toString();
+        RoomWorkbookWriter.write(fileRooms(), workbook, RoomWorkbookWriter.ROW_WINDOW);
+        excelHandler = new ExcelHandler(workbook, ExcelHandler.LoadMode.STREAMING);
+        rooms = excelHandler.getRoomsData();
+        watcher = new WorkbookWatcher(excelHandler, workbook, rooms);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        watcher.close();
+        excelHandler.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static IntRoomMap fileRooms() {
+        IntRoomMap rooms = new RoomDirectory();
+        for (int floor = 1; floor <= 2; floor++) {
+            for (int slot = 1; slot <= 5; slot++) {
+                int number = floor * 100 + slot;
+                rooms.put(number, new Room(number, 200, "Standard", 2));
+            }
+        }
+        return rooms;
+    }
+
+    private static void checkin(Room room, String name) {
+        List<Guest> guests = new ArrayList<>();
+        guests.add(new Guest(name, "jan@example.com", "980987", "123456789"));
+        room.setGuests(guests);
+        room.setStartDate(LocalDate.of(2024, 11, 1));
+        room.setEndDate(LocalDate.of(2024, 11, 4));
+    }
+
+    /**
+     * Writes the file as another program would, without the handler knowing.
+     */
+    private void editFile(IntRoomMap edited) throws IOException {
+        RoomWorkbookWriter.write(edited, workbook, RoomWorkbookWriter.ROW_WINDOW);
+    }
+
+    @Test
+    void testOnlyChangedRoomsAreSwappedIn() throws IOException {
+        watcher.fileChanged();
+        Room untouched = rooms.get(101);
+        IntRoomMap edited = fileRooms();
+        edited.put(103, new Room(103, 450, "Deluxe", 3));
+        checkin(edited.get(204), "Anna Nowak");
+        edited.remove(205);
+        edited.put(301, new Room(301, 600, "Apartament", 4));
+        editFile(edited);
+
+        watcher.fileChanged();
+        assertEquals(4, watcher.pendingChanges());
+        assertEquals(200, rooms.get(103).getPrice());
+
+        assertEquals(4, watcher.applyPendingChanges());
+        assertSame(untouched, rooms.get(101));
+        assertEquals(450, rooms.get(103).getPrice());
+        assertEquals("Deluxe", rooms.get(103).getType());
+        assertEquals("Anna Nowak", rooms.get(204).getGuests().get(0).getName());
+        assertFalse(rooms.contains(205));
+        assertEquals(600, rooms.get(301).getPrice());
+        assertEquals(0, watcher.applyPendingChanges());
+    }
+
+    @Test
+    void testUnsavedCheckinIsNotUndone() throws IOException {
+        watcher.fileChanged();
+        checkin(rooms.get(102), "Jan Kowalski");
+        IntRoomMap edited = fileRooms();
+        edited.put(105, new Room(105, 300, "Standard", 2));
+        editFile(edited);
+
+        watcher.fileChanged();
+        assertEquals(1, watcher.applyPendingChanges());
+        assertEquals("Jan Kowalski", rooms.get(102).getGuests().get(0).getName());
+        assertEquals(300, rooms.get(105).getPrice());
+    }
+
+    @Test
+    void testChangedFieldsAreMergedIntoUnsavedRoom() throws IOException {
+        watcher.fileChanged();
+        Room room = rooms.get(102);
+        checkin(room, "Jan Kowalski");
+        rooms.changes().add(room);
+        IntRoomMap edited = fileRooms();
+        edited.get(102).setPrice(350);
+        checkin(edited.get(102), "Anna Nowak");
+        checkin(edited.get(103), "Anna Nowak");
+        editFile(edited);
+
+        watcher.fileChanged();
+        assertEquals(2, watcher.applyPendingChanges());
+        assertSame(room, rooms.get(102));
+        assertEquals(350, room.getPrice());
+        assertEquals("Jan Kowalski", room.getGuests().get(0).getName());
+        assertEquals(Room.GUESTS | Room.START_DATE | Room.END_DATE, rooms.changes().fieldsOf(102));
+        assertFalse(room.isChanged());
+        assertEquals(List.of(102), watcher.conflicts());
+        assertEquals("Anna Nowak", rooms.get(103).getGuests().get(0).getName());
+        assertFalse(rooms.get(103).isChanged());
+    }
+
+    @Test
+    void testRemovedRoomWithUnsavedChangesIsKept() throws IOException {
+        watcher.fileChanged();
+        checkin(rooms.get(105), "Jan Kowalski");
+        IntRoomMap edited = fileRooms();
+        edited.remove(105);
+        editFile(edited);
+
+        watcher.fileChanged();
+        assertEquals(1, watcher.applyPendingChanges());
+        assertTrue(rooms.contains(105));
+        assertEquals(List.of(105), watcher.conflicts());
+    }
+
+    @Test
+    void testStaysChangedInTheFileAreBooked() throws IOException {
+        ReservationCalendar calendar = new ReservationCalendar();
+        Reservation booked = new Reservation(104, "Ewa Wiśniewska", LocalDate.of(2024, 11, 2),
+                LocalDate.of(2024, 11, 5));
+        calendar.reserve(booked);
+        watcher = new WorkbookWatcher(excelHandler, workbook, rooms, calendar);
+        watcher.fileChanged();
+        IntRoomMap edited = fileRooms();
+        checkin(edited.get(102), "Anna Nowak");
+        checkin(edited.get(104), "Anna Nowak");
+        editFile(edited);
+
+        watcher.fileChanged();
+        assertEquals(2, watcher.applyPendingChanges());
+        assertEquals("Anna Nowak", calendar.find(102, LocalDate.of(2024, 11, 1)).getGuestName());
+        assertEquals(List.of(booked), calendar.reservationsOf(104));
+        assertEquals(List.of(booked), watcher.overlaps());
+
+        edited.remove(102);
+        editFile(edited);
+        watcher.fileChanged();
+        assertEquals(1, watcher.applyPendingChanges());
+        assertEquals(List.of(), calendar.reservationsOf(102));
+        assertEquals(List.of(), watcher.overlaps());
+    }
+
+    @Test
+    void testOwnWriteIsNotReloaded() throws IOException {
+        watcher.fileChanged();
+        checkin(rooms.get(102), "Jan Kowalski");
+        excelHandler.save(rooms);
+        checkin(rooms.get(102), "Jan Nowak");
+
+        watcher.fileChanged();
+        assertEquals(0, watcher.pendingChanges());
+        assertEquals("Jan Nowak", rooms.get(102).getGuests().get(0).getName());
+    }
+
+    @Test
+    void testChangesAreReadInTheBackground() throws IOException, InterruptedException {
+        watcher.start();
+        // give the watching thread time to read the first version
+        Thread.sleep(WorkbookWatcher.QUIET_MILLIS);
+        IntRoomMap edited = fileRooms();
+        edited.put(101, new Room(101, 999, "Standard", 2));
+        editFile(edited);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (watcher.pendingChanges() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, watcher.applyPendingChanges());
+        assertEquals(999, rooms.get(101).getPrice());
+    }
+}